@@ -1,10 +1,6 @@
 package simulator.viser;
 
-import java.util.ArrayList;
-import java.util.Deque;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
 
 import simulator.viser.Processor.ExecutionPhase;
 
@@ -21,6 +17,17 @@ class AIMResponse<Line extends ViserLine> {
 // This class just simulates an AIM cache structure, without actually storing the values. It would
 // require 132 bytes to actually store all the metadata for 8 cores + 4 bytes version. Instead we
 // just want to model the hit/miss ratio, so we store tags.
+//
+// The tags are kept in primitive arrays, one slot per line, with the slots of each set ordered from
+// MRU to LRU and the empty slots at the LRU end. With --clear-aim-region-boundaries, a region
+// boundary only bumps a clear counter. Each set is stamped with the counter value at which it was
+// last cleared, and a set with an older stamp drops its lines that have no metadata of a current
+// region, judged by the per-core epochs of the LLC lines, the next time it is looked up. So the
+// stale lines are reclaimed on demand instead of by walking the whole AIM at every region end. A
+// line only gains metadata when a core updates its LLC line, or enters or leaves the LLC, and the
+// LLC applies the pending clear to the line's set before either. It only loses metadata when a
+// core's epoch moves on, which bumps the counter again. So the lines dropped are exactly those
+// that had no metadata at the clear.
 public final class AIMCache<Line extends ViserLine> {
 	private final int assoc = 4; // XXX: Might need to change this for JUnit test cases
 	// this corresponds to the data line size, and not the actual capacity that
@@ -34,8 +41,21 @@ public final class AIMCache<Line extends ViserLine> {
 	/** mask used to clear out the tag bits */
 	private long indexMask;
 
-	List<Deque<Line>> sets;
+	/** Tag of an empty slot */
+	private static final long EMPTY = -1L;
+
+	/** Line address of each slot, at [set * assoc + position], position 0 being the MRU one */
+	private final long[] tags;
+	/** AIM metadata bit of each slot */
+	private final boolean[] aimMD;
+	/** Value of clears when each set was last cleared of stale lines */
+	private final int[] clearedAt;
+	/** Number of region boundaries at which the AIM was cleared */
+	private int clears = 0;
+
 	private LineFactory<Line> lineFactory;
+	/** Returned by getLineFromLLCOrMemoryAIM(), valid until its next call */
+	private final MemoryResponse<Line> lookupResponse = new MemoryResponse<Line>();
 
 	private CacheLevel levelInHierarchy = CacheLevel.L3;
 
@@ -51,30 +71,24 @@ public final class AIMCache<Line extends ViserLine> {
 			Processor<Line> processor) {
 		assert BitTwiddle.isPowerOf2(assoc);
 		assert BitTwiddle.isPowerOf2(lineSize);
+		// the processor is always P0.
+		assert processor.id.get() == 0;
 
 		this.l3cache = llc;
 		this.lineFactory = factory;
 		this.processor = processor;
 
-		this.numLines = ViserSim.Options.valueOf(Knobs.NumAIMLines);
+		this.numLines = processor.ctx.options.valueOf(Knobs.NumAIMLines);
 		this.numSets = numLines / assoc;
 		assert BitTwiddle.isPowerOf2(numSets);
 
 		indexMask = numSets - 1;
 		lineOffsetBits = (short) BitTwiddle.floorLog2(lineSize);
 
-		sets = new ArrayList<Deque<Line>>(numSets);
-
-		for (int i = 0; i < numSets; i++) {
-			Deque<Line> set = new LinkedList<Line>();
-			for (int j = 0; j < assoc; j++) {
-				// the processor is always P0.
-				assert this.processor.id.get() == 0;
-				Line line = lineFactory.create(this.processor, this.levelInHierarchy);
-				set.add(line);
-			}
-			sets.add(set);
-		}
+		tags = new long[numSets * assoc];
+		Arrays.fill(tags, EMPTY);
+		aimMD = new boolean[numSets * assoc];
+		clearedAt = new int[numSets];
 	}
 
 	private int getAIMLineSize(Processor<Line> proc) {
@@ -111,37 +125,94 @@ public final class AIMCache<Line extends ViserLine> {
 		return lineSize;
 	}
 
+	/** Position of the line in the set, or -1 */
+	private int find(int set, long lineAddr) {
+		int base = set * assoc;
+		for (int pos = 0; pos < assoc; pos++) {
+			if (tags[base + pos] == lineAddr) {
+				return pos;
+			}
+		}
+		return -1;
+	}
+
+	/** Drop the line at the given position, leaving an empty slot at the LRU end */
+	private void removeAt(int set, int pos) {
+		int base = set * assoc;
+		System.arraycopy(tags, base + pos + 1, tags, base + pos, assoc - pos - 1);
+		System.arraycopy(aimMD, base + pos + 1, aimMD, base + pos, assoc - pos - 1);
+		tags[base + assoc - 1] = EMPTY;
+		aimMD[base + assoc - 1] = false;
+	}
+
+	/** Replace the line at the victim position with the given one, at the MRU position */
+	private void addFirst(int set, int victim, long lineAddr, boolean hasMD) {
+		int base = set * assoc;
+		System.arraycopy(tags, base, tags, base + 1, victim);
+		System.arraycopy(aimMD, base, aimMD, base + 1, victim);
+		tags[base] = lineAddr;
+		aimMD[base] = hasMD;
+	}
+
+	/** Whether some core accessed the LLC line in its current region */
+	private boolean hasCurrentMetadata(Processor<Line> proc, Line llcLine) {
+		for (int i = 0; i < proc.params.numProcessors(); i++) {
+			CpuId cpuId = proc.allProcessors[i].id;
+			assert llcLine.getEpoch(cpuId) <= proc.machine.getEpoch(cpuId);
+			if (llcLine.hasReadOffsets(cpuId) || llcLine.hasWrittenOffsets(cpuId)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
-	 * Just get the corresponding line. The check for presence of metadata is already performed in
-	 * the caller.
+	 * Drop the lines of the set that have no current metadata, if the AIM was cleared since the
+	 * set was last looked up. The other lines keep their relative order.
 	 */
-	// This method should not be there. It should be replaced by request().
-	// SB: I think this is overaccounting. The method should actually be replaced by request()
-	public Line getLine(Processor<Line> proc, Line line, boolean read) {
-		Deque<Line> set = sets.get(index(line.lineAddress().get()));
-		// search this cache
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line l = it.next();
-			if (l.lineAddress() != null) {
-				if (l.lineAddress().equals(line.lineAddress())) {
-					assert l.id().equals(processor.id);
-					assert !l.isPrivateCacheLine();
-					// if (read) {
-					// proc.stats.pc_aim.pc_ReadHits.incr();
-					// } else {
-					// proc.stats.pc_aim.pc_WriteHits.incr();
-					// }
-					return l;
-				}
+	private void clearStaleLines(Processor<Line> proc, int set) {
+		if (clearedAt[set] == clears) {
+			return;
+		}
+		clearedAt[set] = clears;
+		int base = set * assoc;
+		int pos = 0;
+		while (pos < assoc && tags[base + pos] != EMPTY) {
+			// An AIM line has to be present in the LLC.
+			Line llcLine = proc.L3cache.getLine(tags[base + pos]);
+			assert llcLine != null;
+			if (llcLine != null && hasCurrentMetadata(proc, llcLine)) {
+				pos++;
+			} else {
+				removeAt(set, pos);
 			}
 		}
+	}
+
+	/**
+	 * Apply any pending clear to the set of the given LLC line. Called before some core's metadata
+	 * in the line is updated, so that the lines of the set are judged as of the clear.
+	 */
+	void applyPendingClear(Processor<Line> proc, Line llcLine) {
+		clearStaleLines(proc, index(llcLine.lineAddress().get()));
+	}
 
+	/**
+	 * Check for the corresponding line. The check for presence of metadata is already performed in
+	 * the caller.
+	 */
+	// This method should not be there. It should be replaced by request().
+	// SB: I think this is overaccounting. The method should actually be replaced by request()
+	public boolean containsLine(Processor<Line> proc, Line line, boolean read) {
+		long lineAddr = line.lineAddress().get();
+		int set = index(lineAddr);
+		clearStaleLines(proc, set);
 		// if (read) {
-		// proc.stats.pc_aim.pc_ReadMisses.incr();
+		// proc.stats.pc_aim.pc_ReadHits.incr();
 		// } else {
-		// proc.stats.pc_aim.pc_WriteMisses.incr();
+		// proc.stats.pc_aim.pc_WriteHits.incr();
 		// }
-		return null;
+		return find(set, lineAddr) >= 0;
 	}
 
 	/**
@@ -151,7 +222,7 @@ public final class AIMCache<Line extends ViserLine> {
 	private MemoryResponse<Line> getLineFromLLCOrMemoryAIM(Processor<Line> proc, Line l,
 			boolean read) {
 		assert l.valid();
-		MemoryResponse<Line> resp = new MemoryResponse<Line>();
+		MemoryResponse<Line> resp = lookupResponse.reset();
 
 		// Get the corresponding line from memory or LLC
 		Line llcLine = proc.L3cache.getLine(l);
@@ -172,21 +243,17 @@ public final class AIMCache<Line extends ViserLine> {
 		return resp;
 	}
 
-	/** Just get the corresponding line */
+	/** Just get a copy of the corresponding line */
 	Line junitGetLine(Processor<Line> proc, LineAddress addr) {
-		Deque<Line> set = sets.get(index(addr.get()));
-		// search this cache
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
-			if (line.lineAddress() != null) {
-				if (line.lineAddress().equals(addr)) {
-					assert line.id().equals(processor.id);
-					assert !line.isPrivateCacheLine();
-					return line;
-				}
-			}
+		int set = index(addr.get());
+		clearStaleLines(proc, set);
+		int pos = find(set, addr.get());
+		if (pos < 0) {
+			return null;
 		}
-		return null;
+		Line line = lineFactory.create(processor, levelInHierarchy, addr);
+		line.setAIMMD(aimMD[set * assoc + pos]);
+		return line;
 	}
 
 	/** The check for presence of metadata has already been performed in the caller. */
@@ -194,31 +261,26 @@ public final class AIMCache<Line extends ViserLine> {
 			ExecutionPhase phase) {
 		assert proc.params.useAIMCache();
 
-		Deque<Line> set = sets.get(index(incomingLine.lineAddress().get()));
-		assert set.size() == assoc;
+		long lineAddr = incomingLine.lineAddress().get();
+		int set = index(lineAddr);
+		clearStaleLines(proc, set);
 		incomingLine.changeStateTo(ViserState.VISER_VALID);
 		AIMResponse<Line> ret = new AIMResponse<Line>();
 
 		proc.updateAIMEnergy(read);
 
 		// search this cache
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
+		int pos = find(set, lineAddr);
+		if (pos >= 0) {
+			ret.whereHit = this.levelInHierarchy;
+			aimMD[set * assoc + pos] = incomingLine.hasAIMMD();
 
-			if (line.lineAddress() != null
-					&& line.lineAddress().equals(incomingLine.lineAddress())) {
-				ret.whereHit = this.levelInHierarchy;
-				assert line.id().equals(processor.id);
-				assert !line.isPrivateCacheLine();
-				line.setAIMMD(incomingLine.hasAIMMD());
-
-				if (read) {
-					proc.stats.pc_aim.pc_ReadHits.incr();
-				} else {
-					proc.stats.pc_aim.pc_WriteHits.incr();
-				}
-				return ret;
+			if (read) {
+				proc.stats.incr(Stat.pc_AIMCacheReadHits);
+			} else {
+				proc.stats.incr(Stat.pc_AIMCacheWriteHits);
 			}
+			return ret;
 		}
 
 		// Check if the line has non-zero metadata for at least one core. It is an AIM miss only if
@@ -230,38 +292,34 @@ public final class AIMCache<Line extends ViserLine> {
 		assert sharedResp.lineHit != null;
 		boolean miss = sharedResp.lineHit
 				.hasAIMMD() /* proc.needToCheckAIMCache(sharedResp.lineHit) */;
-		Line aimLine = lineFactory.create(this.processor, this.levelInHierarchy,
-				incomingLine.lineAddress());
-		aimLine.setAIMMD(incomingLine.hasAIMMD());
 
 		if (miss) {
 			// if we made it here, we missed in the AIM
 			ret.whereHit = CacheLevel.MEMORY;
 			if (read) {
-				proc.stats.pc_aim.pc_ReadMisses.incr();
+				proc.stats.incr(Stat.pc_AIMCacheReadMisses);
 			} else {
-				proc.stats.pc_aim.pc_WriteMisses.incr();
+				proc.stats.incr(Stat.pc_AIMCacheWriteMisses);
 			}
 
 			// Choose a line for eviction, ideally prefer lines that have no metadata set
-			Line toEvict = getVictimLineNoRegionBoundaryClearance(proc, incomingLine);
-			assert toEvict.id() == proc.id;
-			if (toEvict.valid() /* && proc.needToCheckAIMCache(toEvict) */) {
-				Line llcLine = proc.L3cache.getLine(toEvict);
+			int victim = getVictimLineNoRegionBoundaryClearance(proc, set);
+			long victimAddr = tags[set * assoc + victim];
+			if (victimAddr != EMPTY /* && proc.needToCheckAIMCache(toEvict) */) {
+				Line llcLine = proc.L3cache.getLine(victimAddr);
 				assert llcLine != null; // FIXME: When can this assertion fail?
 				if (llcLine != null && llcLine.hasAIMMD()) {
-					proc.stats.pc_aim.pc_LineEvictions.incr();
-					proc.stats.pc_aim.pc_DirtyLineEvictions.incr();
+					proc.stats.incr(Stat.pc_AIMCacheLineEvictions);
+					proc.stats.incr(Stat.pc_AIMCacheDirtyLineEvictions);
 					updateOnChipNetworkMessageAIM(proc, phase);
 				}
 			}
-			set.remove(toEvict);
-			set.addFirst(aimLine);
+			addFirst(set, victim, lineAddr, incomingLine.hasAIMMD());
 		} else { // Otherwise it is a LLC hit, and we do not need to access metadata lines
 			if (read) {
-				proc.stats.pc_aim.pc_ReadHits.incr();
+				proc.stats.incr(Stat.pc_AIMCacheReadHits);
 			} else {
-				proc.stats.pc_aim.pc_WriteHits.incr();
+				proc.stats.incr(Stat.pc_AIMCacheWriteHits);
 			}
 			ret.whereHit = CacheLevel.L3;
 		}
@@ -274,29 +332,51 @@ public final class AIMCache<Line extends ViserLine> {
 		proc.updateTrafficForOneNetworkMessage(1, lineSize, phase);
 	}
 
-	public interface LineVisitor<Line> {
-		public void visit(Line l);
+	public interface TagVisitor {
+		public void visit(long lineAddr);
 	}
 
 	/**
-	 * Calls the given visitor function once on each line in this cache. Lines are traversed in no
-	 * particular order.
+	 * Calls the given visitor function once on the line address of each line in this cache. Lines
+	 * are traversed in no particular order.
 	 */
-	public void visitAllLines(LineVisitor<Line> lv) {
-		for (Deque<Line> set : sets) {
-			for (Line l : set) {
-				lv.visit(l);
+	public void visitAllTags(TagVisitor tv) {
+		for (int set = 0; set < numSets; set++) {
+			for (int pos = 0; pos < assoc; pos++) {
+				long lineAddr = tags[set * assoc + pos];
+				if (lineAddr != EMPTY) {
+					tv.visit(lineAddr);
+				}
 			}
 		}
 	}
 
-	/** Verify that each line is indexed into the proper set. */
+	/**
+	 * Verify that each line is indexed into the proper set, and that the empty slots of each set
+	 * are at its LRU end.
+	 */
 	public void verifyIndices() {
-		for (int i = 0; i < sets.size(); i++) {
-			Deque<Line> set = sets.get(i);
-			for (Line l : set) {
-				if (l.lineAddress() != null) {
-					assert index(l.lineAddress().get()) == i;
+		for (int set = 0; set < numSets; set++) {
+			boolean empty = false;
+			for (int pos = 0; pos < assoc; pos++) {
+				long lineAddr = tags[set * assoc + pos];
+				if (lineAddr == EMPTY) {
+					empty = true;
+				} else {
+					assert !empty : "Empty AIM slot before a line";
+					assert index(lineAddr) == set;
+				}
+			}
+		}
+	}
+
+	/** Verify that no set holds a line twice. */
+	public void verifyNoDuplicates() {
+		for (int set = 0; set < numSets; set++) {
+			int base = set * assoc;
+			for (int i = 0; i < assoc; i++) {
+				for (int j = i + 1; j < assoc; j++) {
+					assert tags[base + i] == EMPTY || tags[base + i] != tags[base + j];
 				}
 			}
 		}
@@ -309,9 +389,14 @@ public final class AIMCache<Line extends ViserLine> {
 			s.append(this.processor + "\n");
 		}
 		s.append("aimcache=" + this.levelInHierarchy + System.getProperty("line.separator"));
-		for (Deque<Line> set : sets) {
-			for (Line l : set) {
-				s.append(l.toString() + "\n");
+		for (int set = 0; set < numSets; set++) {
+			for (int pos = 0; pos < assoc; pos++) {
+				int slot = set * assoc + pos;
+				if (tags[slot] == EMPTY) {
+					s.append("[empty]\n");
+				} else {
+					s.append("[addr=" + tags[slot] + " AIM MD:" + aimMD[slot] + "]\n");
+				}
 			}
 			s.append(System.getProperty("line.separator"));
 		}
@@ -321,40 +406,27 @@ public final class AIMCache<Line extends ViserLine> {
 
 	/**
 	 * Intelligently select a victim line for eviction, based on metadata staleness. Otherwise, just
-	 * fallback to LRU.
+	 * fallback to LRU. Returns the position of the victim in the set.
 	 */
-	private Line getVictimLineNoRegionBoundaryClearance(Processor<Line> proc, Line incoming) {
+	private int getVictimLineNoRegionBoundaryClearance(Processor<Line> proc, int set) {
 		assert !proc.params.clearAIMCacheAtRegionBoundaries();
-		Deque<Line> set = sets.get(index(incoming.lineAddress().get()));
-		Line remove = set.getLast(); // LRU
-		if (remove.lineAddress() == null) {
-			return remove;
+		int base = set * assoc;
+		if (tags[base + assoc - 1] == EMPTY) { // LRU
+			return assoc - 1;
 		}
 
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line l = it.next();
-			if (l.lineAddress() != null) {
-				assert l.id().equals(processor.id);
-				assert !l.isPrivateCacheLine();
-
-				Line llcLine = proc.L3cache.getLine(l);
-				// We may not evict AIM lines when evicting LLC lines that have no valid metadata.
-				if (llcLine != null) {
-					if (!llcLine.hasAIMMD()) {
-						remove = l;
-						break;
-					}
-				} else {
-					remove = l;
-					break;
-				}
-
-			} else {
-				remove = l;
-				break;
+		for (int pos = 0; pos < assoc; pos++) {
+			long lineAddr = tags[base + pos];
+			if (lineAddr == EMPTY) {
+				return pos;
+			}
+			Line llcLine = proc.L3cache.getLine(lineAddr);
+			// We may not evict AIM lines when evicting LLC lines that have no valid metadata.
+			if (llcLine == null || !llcLine.hasAIMMD()) {
+				return pos;
 			}
 		}
-		return remove;
+		return assoc - 1;
 	}
 
 	/**
@@ -362,62 +434,54 @@ public final class AIMCache<Line extends ViserLine> {
 	 * is present.
 	 */
 	public void evictLine(Processor<Line> proc, Line toEvict, ExecutionPhase phase) {
-		Deque<Line> set = sets.get(index(toEvict.lineAddress().get()));
-		boolean removed = false;
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line l = it.next();
-			if (l.lineAddress() != null && l.lineAddress().equals(toEvict.lineAddress())) {
-				assert l.id().equals(processor.id);
-				assert !l.isPrivateCacheLine();
-
-				it.remove();
-				if (l.valid() && /* proc.needToCheckAIMCache(toEvict) */
-						toEvict.hasAIMMD()) {
-					proc.stats.pc_aim.pc_LineEvictions.incr();
-					proc.stats.pc_aim.pc_DirtyLineEvictions.incr();
-					updateOnChipNetworkMessageAIM(proc, phase);
-				}
-				removed = true;
-			}
+		long lineAddr = toEvict.lineAddress().get();
+		int set = index(lineAddr);
+		int pos = find(set, lineAddr);
+		if (pos < 0) {
+			return;
 		}
-		if (removed) {
-			set.addLast(lineFactory.create(processor, levelInHierarchy));
+		// A line that a pending clear would drop is already gone. The other lines of the set are
+		// left for the next lookup, since toEvict has already left the LLC.
+		boolean stale = clearedAt[set] != clears && !hasCurrentMetadata(proc, toEvict);
+		while (pos >= 0) {
+			removeAt(set, pos);
+			if (!stale && /* proc.needToCheckAIMCache(toEvict) */ toEvict.hasAIMMD()) {
+				proc.stats.incr(Stat.pc_AIMCacheLineEvictions);
+				proc.stats.incr(Stat.pc_AIMCacheDirtyLineEvictions);
+				updateOnChipNetworkMessageAIM(proc, phase);
+			}
+			pos = find(set, lineAddr);
 		}
-		assert set.size() == assoc;
 	}
 
 	// This method is called from a LLC miss. If there is a LLC miss, then we do not consider that
 	// to be an AIM miss if the llc line does not have metadata.
 	public void addLineFromLLCMiss(Processor<Line> proc, Line memLine, boolean read,
 			ExecutionPhase phase) {
-		LineAddress la = memLine.lineAddress();
-		Deque<Line> set = sets.get(index(la.get()));
-		Line toEvict = null;
+		long lineAddr = memLine.lineAddress().get();
+		int set = index(lineAddr);
+		clearStaleLines(proc, set);
+		int victim;
 		if (!proc.params.clearAIMCacheAtRegionBoundaries()) {
-			toEvict = getVictimLineNoRegionBoundaryClearance(proc, memLine);
+			victim = getVictimLineNoRegionBoundaryClearance(proc, set);
 		} else {
-			toEvict = set.getLast(); // LRU
+			victim = assoc - 1; // LRU
 		}
-		boolean found = set.remove(toEvict);
-		assert found;
-		if (toEvict.lineAddress() != null && /* proc.needToCheckAIMCache(toEvict) */
+		if (tags[set * assoc + victim] != EMPTY && /* proc.needToCheckAIMCache(toEvict) */
 				memLine.hasAIMMD()) {
-			proc.stats.pc_aim.pc_LineEvictions.incr();
-			proc.stats.pc_aim.pc_DirtyLineEvictions.incr();
+			proc.stats.incr(Stat.pc_AIMCacheLineEvictions);
+			proc.stats.incr(Stat.pc_AIMCacheDirtyLineEvictions);
 			updateOnChipNetworkMessageAIM(proc, phase);
 		}
 
 		// NB: add the incoming line *after* the eviction handler runs
-		Line copy = lineFactory.create(processor, levelInHierarchy, memLine.lineAddress());
-		copy.changeStateTo(ViserState.VISER_VALID);
-		copy.setAIMMD(memLine.hasAIMMD());
-		set.addFirst(copy);
+		addFirst(set, victim, lineAddr, memLine.hasAIMMD());
 
 		if (memLine.hasAIMMD()) {
 			if (read) {
-				proc.stats.pc_aim.pc_ReadMisses.incr();
+				proc.stats.incr(Stat.pc_AIMCacheReadMisses);
 			} else {
-				proc.stats.pc_aim.pc_WriteMisses.incr();
+				proc.stats.incr(Stat.pc_AIMCacheWriteMisses);
 			}
 		}
 	}
@@ -425,37 +489,34 @@ public final class AIMCache<Line extends ViserLine> {
 	// Add blindly without checking for duplicates. This must be because of an AIM miss.
 	public void addLineWithoutCheckingForDuplicates(Processor<Line> proc, Line line, boolean read,
 			boolean hasMD, ExecutionPhase phase) {
-		LineAddress la = line.lineAddress();
-		Deque<Line> set = sets.get(index(la.get()));
-		Line toEvict = null;
+		long lineAddr = line.lineAddress().get();
+		int set = index(lineAddr);
+		clearStaleLines(proc, set);
+		int victim;
 		if (!proc.params.clearAIMCacheAtRegionBoundaries()) {
-			toEvict = getVictimLineNoRegionBoundaryClearance(proc, line);
+			victim = getVictimLineNoRegionBoundaryClearance(proc, set);
 		} else {
-			toEvict = set.getLast(); // LRU
+			victim = assoc - 1; // LRU
 		}
-		boolean found = set.remove(toEvict);
-		assert found;
-		if (toEvict.lineAddress() != null /* && proc.needToCheckAIMCache(toEvict) */ ) {
-			Line llcLine = proc.L3cache.getLine(toEvict);
+		long victimAddr = tags[set * assoc + victim];
+		if (victimAddr != EMPTY /* && proc.needToCheckAIMCache(toEvict) */ ) {
+			Line llcLine = proc.L3cache.getLine(victimAddr);
 			assert llcLine != null; // FIXME: When can this assertion fail?
 			if (llcLine != null && llcLine.hasAIMMD()) {
-				proc.stats.pc_aim.pc_LineEvictions.incr();
-				proc.stats.pc_aim.pc_DirtyLineEvictions.incr();
+				proc.stats.incr(Stat.pc_AIMCacheLineEvictions);
+				proc.stats.incr(Stat.pc_AIMCacheDirtyLineEvictions);
 				updateOnChipNetworkMessageAIM(proc, phase);
 			}
 		}
 
 		// NB: add the incoming line *after* the eviction handler runs
-		Line copy = lineFactory.create(processor, levelInHierarchy, line.lineAddress());
-		copy.changeStateTo(ViserState.VISER_VALID);
-		copy.setAIMMD(hasMD);
-		set.addFirst(copy);
+		addFirst(set, victim, lineAddr, hasMD);
 
 		if (hasMD) {
 			if (read) {
-				proc.stats.pc_aim.pc_ReadMisses.incr();
+				proc.stats.incr(Stat.pc_AIMCacheReadMisses);
 			} else {
-				proc.stats.pc_aim.pc_WriteMisses.incr();
+				proc.stats.incr(Stat.pc_AIMCacheWriteMisses);
 			}
 		}
 	}
@@ -463,117 +524,31 @@ public final class AIMCache<Line extends ViserLine> {
 	// Add only after checking for duplicates
 	public void addLineIfNotPresent(Processor<Line> proc, Line privLine, boolean read,
 			boolean hasMD, ExecutionPhase phase) {
-		LineAddress la = privLine.lineAddress();
-		Deque<Line> set = sets.get(index(la.get()));
-		for (Line l : set) {
-			if (l.lineAddress() != null && l.lineAddress().equals(la)) {
-				// Line is already present, so need not add
-				if (hasMD) {
-					l.setAIMMD(hasMD);
-					if (read) {
-						proc.stats.pc_aim.pc_ReadHits.incr();
-					} else {
-						proc.stats.pc_aim.pc_WriteHits.incr();
-					}
+		long lineAddr = privLine.lineAddress().get();
+		int set = index(lineAddr);
+		clearStaleLines(proc, set);
+		int pos = find(set, lineAddr);
+		if (pos >= 0) {
+			// Line is already present, so need not add
+			if (hasMD) {
+				aimMD[set * assoc + pos] = true;
+				if (read) {
+					proc.stats.incr(Stat.pc_AIMCacheReadHits);
+				} else {
+					proc.stats.incr(Stat.pc_AIMCacheWriteHits);
 				}
-				return;
 			}
+			return;
 		}
 		// Line is not present, so add
 		addLineWithoutCheckingForDuplicates(proc, privLine, read, hasMD, phase);
 	}
 
-	// I had issues with ConcurrentModificationException. So I get around the problem by creating
-	// a copy and selectively copying over lines.
-	void clearAIMCache(Processor<Line> proc) {
-		List<Deque<Line>> tmpSets = new ArrayList<Deque<Line>>(numSets);
-		for (int i = 0; i < numSets; i++) {
-			tmpSets.add(new LinkedList<Line>());
-		}
-
-		int i = 0;
-		while (i < numSets) {
-			Deque<Line> origSet = sets.get(i);
-			Deque<Line> newSet = tmpSets.get(i);
-			assert newSet.size() == 0;
-
-			for (Line origLine : origSet) {
-				assert origLine.id().equals(processor.id);
-				assert !origLine.isPrivateCacheLine();
-
-				if (origLine.lineAddress() == null) {
-					newSet.addLast(lineFactory.create(processor, levelInHierarchy));
-				} else {
-					boolean valid = false;
-					// An AIM line has to be present in the LLC.
-					Line llcLine = proc.L3cache.getLine(origLine);
-					assert llcLine != null;
-					for (int j = 0; j < proc.params.numProcessors(); j++) {
-						CpuId cpuId = new CpuId(j);
-						if (llcLine.hasReadOffsets(cpuId) || llcLine.hasWrittenOffsets(cpuId)) {
-							valid = true;
-							break;
-						}
-					}
-
-					if (valid) {
-						Line copy = lineFactory.create(processor, levelInHierarchy,
-								origLine.lineAddress());
-						newSet.addLast(copy);
-					} else {
-						newSet.addLast(lineFactory.create(processor, levelInHierarchy));
-					}
-
-				}
-			}
-
-			assert newSet.size() == origSet.size();
-			assert newSet.size() == assoc;
-			i++;
-		}
-
-		// Reset the cache
-		sets = tmpSets;
-	}
-
+	/**
+	 * Drop the lines that no core accessed in its current region. The sets are cleared lazily, the
+	 * next time each of them is looked up.
+	 */
 	void clearAIMCache2(Processor<Line> proc) {
-		Iterator<Deque<Line>> setIt = sets.iterator();
-		while (setIt.hasNext()) {
-			Deque<Line> deq = setIt.next();
-			Iterator<Line> deqIt = deq.iterator();
-			int numLinesRemoved = 0;
-			while (deqIt.hasNext()) {
-				Line aimLine = deqIt.next();
-				assert aimLine.id().equals(new CpuId(0));
-
-				if (aimLine.lineAddress() == null) {
-					continue;
-				}
-
-				boolean valid = false;
-				Line llcLine = proc.L3cache.getLine(aimLine);
-				assert llcLine != null;
-				for (int i = 0; i < proc.params.numProcessors(); i++) {
-					CpuId cpuId = new CpuId(i);
-					Processor<Line> p = proc.machine.getProc(cpuId);
-					PerCoreLineMetadata md = llcLine.getPerCoreMetadata(cpuId);
-					assert md != null;
-					assert md.epoch.getRegionId() <= p.getCurrentEpoch().getRegionId();
-					if (llcLine.hasReadOffsets(cpuId) || llcLine.hasWrittenOffsets(cpuId)) {
-						valid = true;
-						break;
-					}
-				}
-
-				if (!valid) {
-					deqIt.remove();
-					numLinesRemoved++;
-				}
-			}
-			for (int i = 0; i < numLinesRemoved; i++) {
-				deq.addLast(lineFactory.create(processor, levelInHierarchy));
-			}
-			assert deq.size() == assoc;
-		}
+		clears++;
 	}
 }
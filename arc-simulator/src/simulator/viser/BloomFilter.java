@@ -1,122 +1,178 @@
 package simulator.viser;
 
-import java.util.BitSet;
+/**
+ * A Bloom filter of up to 128 bits, kept in two longs. The hash functions are Guava's murmur3_32
+ * and murmur3_128 of the line address, inlined for 8-byte keys so that no hash objects are
+ * allocated. Further functions are derived from those two by double hashing.
+ */
+public final class BloomFilter {
 
-import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hashing;
+	public static final int DEFAULT_BITS = 112;
+	public static final int DEFAULT_BYTES = DEFAULT_BITS / SystemConstants.BITS_IN_BYTE;
+	public static final int MAX_BITS = 2 * Long.SIZE;
 
-/** A fixed-size Bloom filter, with support for up to three hash functions. */
-public final class BloomFilter {
+	/** Bits 0-63 of the filter */
+	private long lo;
+	/** Bits 64-127 of the filter */
+	private long hi;
 
-	private static final int NUM_BITS = 112;
-	public static final int NUM_BYTES = NUM_BITS / SystemConstants.BITS_IN_BYTE;
+	private final int numBits;
+	private final int numHashes;
 
-	private final BitSet filter = new BitSet(NUM_BITS); // number of bits
+	public BloomFilter(int numBits, int numHashes) {
+		if (numBits < 1 || numBits > MAX_BITS) {
+			throw new IllegalArgumentException(
+					"Bloom filter size should be 1 to " + MAX_BITS + " bits, not " + numBits);
+		}
+		if (numHashes < 1) {
+			throw new IllegalArgumentException("Bloom filter needs a hash function");
+		}
+		this.numBits = numBits;
+		this.numHashes = numHashes;
+	}
 
-	// Guava hash
-	private static final HashFunction hf2 = Hashing.murmur3_32();
-	private static final HashFunction hf3 = Hashing.murmur3_128();
+	public int numBits() {
+		return numBits;
+	}
+
+	public int numHashes() {
+		return numHashes;
+	}
 
-	// Use two hash functions by default, help avoid false positives. This improves the
-	// network usage of fluidanimate, and helps the geomean slightly.
-	private static final boolean useJavaHash = false;
-	private static final boolean useMurmur3_32 = true;
+	/** Size of the filter in a network message */
+	public int numBytes() {
+		return (numBits + SystemConstants.BITS_IN_BYTE - 1) / SystemConstants.BITS_IN_BYTE;
+	}
 
-	// private static final boolean useMurmur3_128 = false;
 	public void clear() {
-		filter.clear();
+		lo = 0;
+		hi = 0;
 	}
 
-	// We possibly need not bother with negative hashcodes
-	// RZ: I encountered a negative hashcode with raytrace with simsmall.
-	/*
-	 * Exception in thread "main" java.lang.IndexOutOfBoundsException: bitIndex < 0: -16 at
-	 * java.util.BitSet.set(BitSet.java:436) at
-	 * simulator.viser.BloomFilter.setBit(BloomFilter.java:--) at
-	 * simulator.viser.BloomFilter.add(BloomFilter.java:--) ...
-	 */
+	// RZ: I encountered a negative hashcode with raytrace with simsmall, so the bit positions are
+	// taken from the absolute value of the remainder.
 	public void add(long lineAddress) {
-		int bitPos;
-		if (useJavaHash) {
-			bitPos = getJavaHashBit(lineAddress);
-			if (bitPos < 0) {
-				System.out.println(
-						"Negative hashcode:" + bitPos + " from line address:" + lineAddress);
+		int h1 = murmur3_32(lineAddress);
+		setBit(bit(h1));
+		if (numHashes > 1) {
+			long h2 = murmur3_128(lineAddress);
+			setBit(bit(h2));
+			for (int i = 2; i < numHashes; i++) {
+				setBit(bit(h2 + (i - 1) * (long) h1));
 			}
-			setBit(bitPos);
 		}
-		if (useMurmur3_32) {
-			bitPos = getMurmur3_32_Bit(lineAddress);
-			if (bitPos < 0) {
-				System.out.println(
-						"Negative hashcode:" + bitPos + " from line address:" + lineAddress);
-			}
-			setBit(bitPos);
+	}
+
+	public boolean contains(long lineAddress) {
+		int h1 = murmur3_32(lineAddress);
+		if (!getBit(bit(h1))) {
+			return false;
 		}
-		if (/* useMurmur3_128 || */ ViserSim.useTwoBloomFuncs()) {
-			bitPos = getMurmur3_128_Bit(lineAddress);
-			if (bitPos < 0) {
-				System.out.println(
-						"Negative hashcode:" + bitPos + " from line address:" + lineAddress);
+		if (numHashes > 1) {
+			long h2 = murmur3_128(lineAddress);
+			if (!getBit(bit(h2))) {
+				return false;
+			}
+			for (int i = 2; i < numHashes; i++) {
+				if (!getBit(bit(h2 + (i - 1) * (long) h1))) {
+					return false;
+				}
 			}
-			setBit(bitPos);
 		}
+		return true;
+	}
+
+	private int bit(long hash) {
+		return (int) Math.abs(hash % numBits);
 	}
 
 	private void setBit(int bitPos) {
-		filter.set(bitPos);
+		if (bitPos < Long.SIZE) {
+			lo |= 1L << bitPos;
+		} else {
+			hi |= 1L << bitPos;
+		}
 	}
 
-	// Java hashcode
-	private int getJavaHashBit(long value) {
-		int firstInt = new Long(value).hashCode();
-		int firstBit = (Math.abs(firstInt)) % NUM_BITS;
-		return firstBit;
+	private boolean getBit(int bitPos) {
+		long word = (bitPos < Long.SIZE) ? lo : hi;
+		return (word & (1L << bitPos)) != 0;
 	}
 
-	// Guava murmur3_32
-	private int getMurmur3_32_Bit(long value) {
-		int secondInt = hf2.hashLong(value).asInt();
-		int secondBit = Math.abs(secondInt) % NUM_BITS;
-		return secondBit;
+	// Guava's Murmur3_32HashFunction.hashLong() with seed 0
+
+	private static int murmur3_32(long value) {
+		int h1 = mixH1(0, mixK1((int) value));
+		h1 = mixH1(h1, mixK1((int) (value >>> 32)));
+		h1 ^= 8; // length in bytes
+		h1 ^= h1 >>> 16;
+		h1 *= 0x85ebca6b;
+		h1 ^= h1 >>> 13;
+		h1 *= 0xc2b2ae35;
+		h1 ^= h1 >>> 16;
+		return h1;
 	}
 
-	// Guava murmur3_128
-	private int getMurmur3_128_Bit(long value) {
-		long thirdLong = hf3.hashLong(value).asLong();
-		int thirdBit = (int) (Math.abs(thirdLong) % NUM_BITS);
-		return thirdBit;
+	private static int mixK1(int k1) {
+		k1 *= 0xcc9e2d51;
+		k1 = Integer.rotateLeft(k1, 15);
+		k1 *= 0x1b873593;
+		return k1;
 	}
 
-	public boolean contains(long lineAddress) {
-		if (useJavaHash) {
-			if (!filter.get(getJavaHashBit(lineAddress))) {
-				return false;
-			}
-		}
-		if (useMurmur3_32) {
-			if (!filter.get(getMurmur3_32_Bit(lineAddress))) {
-				return false;
-			}
-		}
-		if (/* useMurmur3_128 || */ ViserSim.useTwoBloomFuncs()) {
-			if (!filter.get(getMurmur3_128_Bit(lineAddress))) {
-				return false;
-			}
-		}
-		return true;
+	private static int mixH1(int h1, int k1) {
+		h1 ^= k1;
+		h1 = Integer.rotateLeft(h1, 13);
+		h1 = h1 * 5 + 0xe6546b64;
+		return h1;
+	}
+
+	// Guava's Murmur3_128HashFunction.hashLong().asLong() with seed 0. The 8 bytes of the key
+	// are all in k1, and the result is the low half of the hash.
+
+	private static long murmur3_128(long value) {
+		long k1 = value;
+		k1 *= 0x87c37b91114253d5L;
+		k1 = Long.rotateLeft(k1, 31);
+		k1 *= 0x4cf5ad432745937fL;
+		long h1 = k1 ^ 8; // length in bytes
+		long h2 = 8;
+		h1 += h2;
+		h2 += h1;
+		h1 = fmix64(h1);
+		h2 = fmix64(h2);
+		return h1 + h2;
+	}
+
+	private static long fmix64(long k) {
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
 	}
 
 	public void print() {
-		System.out.println(filter.toString());
+		System.out.println(toString());
 	}
 
+	/** The set bits, in the format of {@link java.util.BitSet#toString()} */
 	@Override
 	public String toString() {
-		return filter.toString();
+		StringBuilder s = new StringBuilder("{");
+		for (int i = 0; i < numBits; i++) {
+			if (getBit(i)) {
+				if (s.length() > 1) {
+					s.append(", ");
+				}
+				s.append(i);
+			}
+		}
+		return s.append("}").toString();
 	}
 
 	public int cardinality() {
-		return filter.cardinality();
+		return Long.bitCount(lo) + Long.bitCount(hi);
 	}
 }
@@ -1,5 +1,7 @@
 package simulator.viser;
 
+import java.util.Arrays;
+
 /** Base class for all cache lines */
 abstract class CoherentLine {
   protected LineAddress addr;
@@ -90,11 +92,30 @@ class ViserLine extends VILine {
   /**
    * Viser needs to store values in addition to tags (unlike MESI). We do not need per-core values,
    * since LLC values are globally visible.
+   *
+   * Only the offsets that hold a value are stored: bit i of valueMask is set if offset i has one,
+   * and values holds them packed in offset order. Every other offset reads as 0. Most lines only
+   * ever see a few offsets written, and AIM lines none at all.
+   */
+  private long valueMask;
+  private long[] values = NO_VALUES;
+  /** Last writer of each offset, packed like the values. Other offsets read as -1. */
+  private long lastWriterMask;
+  private short[] lastWriters = NO_WRITERS;
+
+  private static final long[] NO_VALUES = new long[0];
+  private static final short[] NO_WRITERS = new short[0];
+  /** L1/L2 line, i.e., one that only holds the metadata of its owner core */
+  private final boolean privateLine;
+  /** Region of the last access by the owner core of a private line */
+  private int ownEpoch = Machine.NO_REGION;
+  private long ownWriteEncoding;
+  private long ownReadEncoding;
+  /**
+   * Per-core metadata that LLC needs to maintain for evicted lines. A private line only creates
+   * one to hold the sites of its owner core, with site tracking.
    */
-  private long[] values = new long[SystemConstants.LINE_SIZE()];
-  private short[] lastWriters = new short[SystemConstants.LINE_SIZE()];
-  /** Per-core metadata that LLC needs to maintain for evicted lines. */
-  private PerCoreLineMetadata[] perCoreMd;
+  private PerCoreLineMetadata perCoreMd;
   /**
    * LLC needs to maintain the owner core in case write back of dirty lines are deferred.
    */
@@ -116,7 +137,10 @@ class ViserLine extends VILine {
     }
     this.ownerProc = proc;
     this.level = level;
-    allocatePerCoreMetadata();
+    this.privateLine = (level != CacheLevel.L3);
+    if (!privateLine) {
+      perCoreMd = new PerCoreLineMetadata(proc.params.numProcessors());
+    }
     initLastWriters();
     this.hasAIMMD = false;
   }
@@ -129,21 +153,14 @@ class ViserLine extends VILine {
     }
     this.ownerProc = proc;
     this.level = level;
-    allocatePerCoreMetadata();
+    this.privateLine = (level != CacheLevel.L3);
+    if (!privateLine) {
+      perCoreMd = new PerCoreLineMetadata(proc.params.numProcessors());
+    }
     initLastWriters();
     this.hasAIMMD = false;
   }
 
-  // The space allocation is optimized for L1/L2 lines. However, the potential
-  // for improvement is bounded.
-  private void allocatePerCoreMetadata() {
-    int size = (level == CacheLevel.L3) ? ownerProc.params.numProcessors() : 1;
-    perCoreMd = new PerCoreLineMetadata[size];
-    for (int i = 0; i < perCoreMd.length; i++) {
-      perCoreMd[i] = new PerCoreLineMetadata();
-    }
-  }
-
   public ViserState getState() {
     return state;
   }
@@ -234,83 +251,62 @@ class ViserLine extends VILine {
 
   // In Java, we do not easily get an unsigned integer
   public long getWriteEncoding(CpuId cid) {
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-    assert md.epoch.getRegionId() <= p.getCurrentEpoch().getRegionId() : "Epoch mismatch";
-
-    if (p.getCurrentEpoch().equals(md.epoch)) {
-      return md.writeEncoding;
+    int current = ownerProc.machine.getEpoch(cid);
+    assert getEpoch(cid) <= current : "Epoch mismatch";
+    if (getEpoch(cid) == current) {
+      return privateLine ? ownWriteEncoding : perCoreMd.writeEncoding[cid.get()];
     } else {
       return 0;
     }
   }
 
   public int[] getWriteSiteInfo(CpuId cid) {
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-    return md.writeSiteInfo;
+    assert ownerProc.machine.getEpoch(cid) >= getEpoch(cid);
+    int[][] sites = (perCoreMd == null) ? null : perCoreMd.writeSiteInfo;
+    return (sites == null) ? null : sites[slot(cid)];
   }
 
   public int[] getWriteLastSiteInfo(CpuId cid) {
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-    return md.writeLastSiteInfo;
+    assert ownerProc.machine.getEpoch(cid) >= getEpoch(cid);
+    int[][] sites = (perCoreMd == null) ? null : perCoreMd.writeLastSiteInfo;
+    return (sites == null) ? null : sites[slot(cid)];
   }
 
   public void orWriteEncoding(CpuId cid, long enc) {
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-    if (p.getCurrentEpoch().equals(md.epoch)) {
-      md.writeEncoding |= enc;
-    } else {
-      md.writeEncoding = enc;
-    }
+    setWriteEncoding(cid, getWriteEncoding(cid) | enc);
   }
 
   public void clearWriteEncodingFromAccess(CpuId cid, long enc) {
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-    if (p.getCurrentEpoch().equals(md.epoch)) {
-      md.writeEncoding &= ~enc;
-    } else {
-      md.writeEncoding = 0L;
-    }
+    setWriteEncoding(cid, getWriteEncoding(cid) & ~enc);
   }
 
   public void updateWriteSiteInfo(CpuId cid, long enc, int[] si, int[] lastSi) {
     if (si == null) {
       return;
     }
+    assert ownerProc.machine.getEpoch(cid) >= getEpoch(cid);
 
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-
+    PerCoreLineMetadata md = siteMetadata();
+    int slot = slot(cid);
     if (md.writeSiteInfo == null) {
-      md.writeSiteInfo = new int[SystemConstants.LINE_SIZE()];
-      md.writeLastSiteInfo = new int[SystemConstants.LINE_SIZE()];
+      md.writeSiteInfo = new int[md.epoch.length][];
+      md.writeLastSiteInfo = new int[md.epoch.length][];
+    }
+    if (md.writeSiteInfo[slot] == null) {
+      md.writeSiteInfo[slot] = new int[SystemConstants.LINE_SIZE()];
+      md.writeLastSiteInfo[slot] = new int[SystemConstants.LINE_SIZE()];
     }
     for (int i = 0; i < SystemConstants.LINE_SIZE(); i++) {
       if (((1L << i) & enc) != 0) {
-        md.writeSiteInfo[i] = si[i];
-        md.writeLastSiteInfo[i] = lastSi[i];
+        md.writeSiteInfo[slot][i] = si[i];
+        md.writeLastSiteInfo[slot][i] = lastSi[i];
       }
     }
   }
 
   public void clearWriteEncoding(CpuId cid) {
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-    md.writeEncoding = 0L;
+    assert ownerProc.machine.getEpoch(cid) >= getEpoch(cid);
+    setWriteEncoding(cid, 0L);
   }
 
   public boolean isOffsetWritten(CpuId cid, long enc) {
@@ -322,83 +318,62 @@ class ViserLine extends VILine {
   }
 
   public long getReadEncoding(CpuId cid) {
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-    if (p.getCurrentEpoch().equals(md.epoch)) {
-      return md.readEncoding;
+    int current = ownerProc.machine.getEpoch(cid);
+    assert current >= getEpoch(cid);
+    if (getEpoch(cid) == current) {
+      return privateLine ? ownReadEncoding : perCoreMd.readEncoding[cid.get()];
     } else {
       return 0;
     }
   }
 
   public int[] getReadSiteInfo(CpuId cid) {
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-    return md.readSiteInfo;
+    assert ownerProc.machine.getEpoch(cid) >= getEpoch(cid);
+    int[][] sites = (perCoreMd == null) ? null : perCoreMd.readSiteInfo;
+    return (sites == null) ? null : sites[slot(cid)];
   }
 
   public int[] getReadLastSiteInfo(CpuId cid) {
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-    return md.readLastSiteInfo;
+    assert ownerProc.machine.getEpoch(cid) >= getEpoch(cid);
+    int[][] sites = (perCoreMd == null) ? null : perCoreMd.readLastSiteInfo;
+    return (sites == null) ? null : sites[slot(cid)];
   }
 
   public void orReadEncoding(CpuId cid, long enc) {
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-    if (p.getCurrentEpoch().equals(md.epoch)) {
-      md.readEncoding |= enc;
-    } else {
-      md.readEncoding = enc;
-    }
+    setReadEncoding(cid, getReadEncoding(cid) | enc);
   }
 
   public void clearReadEncodingFromAccess(CpuId cid, long enc) {
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-    if (p.getCurrentEpoch().equals(md.epoch)) {
-      md.readEncoding &= ~enc;
-    } else {
-      md.readEncoding = 0L;
-    }
+    setReadEncoding(cid, getReadEncoding(cid) & ~enc);
   }
 
   public void updateReadSiteInfo(CpuId cid, long enc, int[] si, int[] lastSi) {
     if (si == null) {
       return;
     }
+    assert ownerProc.machine.getEpoch(cid) >= getEpoch(cid);
 
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-
+    PerCoreLineMetadata md = siteMetadata();
+    int slot = slot(cid);
     if (md.readSiteInfo == null) {
-      md.readSiteInfo = new int[SystemConstants.LINE_SIZE()];
-      md.readLastSiteInfo = new int[SystemConstants.LINE_SIZE()];
+      md.readSiteInfo = new int[md.epoch.length][];
+      md.readLastSiteInfo = new int[md.epoch.length][];
+    }
+    if (md.readSiteInfo[slot] == null) {
+      md.readSiteInfo[slot] = new int[SystemConstants.LINE_SIZE()];
+      md.readLastSiteInfo[slot] = new int[SystemConstants.LINE_SIZE()];
     }
     for (int i = 0; i < SystemConstants.LINE_SIZE(); i++) {
       if (((1L << i) & enc) != 0) {
-        md.readSiteInfo[i] = si[i];
-        md.readLastSiteInfo[i] = lastSi[i];
+        md.readSiteInfo[slot][i] = si[i];
+        md.readLastSiteInfo[slot][i] = lastSi[i];
       }
     }
   }
 
   public void clearReadEncoding(CpuId cid) {
-    Processor<ViserLine> p = ownerProc.machine.getProc(cid);
-    PerCoreLineMetadata md = getPerCoreMetadata(cid);
-    assert p.getCurrentEpoch().getRegionId() >= md.epoch.getRegionId();
-    md.readEncoding = 0L;
+    assert ownerProc.machine.getEpoch(cid) >= getEpoch(cid);
+    setReadEncoding(cid, 0L);
   }
 
   /** Read by the given cpu, before being updated. */
@@ -456,44 +431,81 @@ class ViserLine extends VILine {
     return getLastWriter(addr.lineOffset());
   }
 
+  /** Index of the given offset in an array packed according to mask */
+  private static int packedIndex(long mask, int offset) {
+    return Long.bitCount(mask & ((1L << offset) - 1));
+  }
+
   public long getValue(int offset) {
     assert offset < SystemConstants.LINE_SIZE();
-    return values[offset];
+    long bit = 1L << offset;
+    return ((valueMask & bit) == 0) ? 0 : values[packedIndex(valueMask, offset)];
   }
 
   public short getLastWriter(int offset) {
     assert offset < SystemConstants.LINE_SIZE();
-    return lastWriters[offset];
+    long bit = 1L << offset;
+    return ((lastWriterMask & bit) == 0) ? -1 : lastWriters[packedIndex(lastWriterMask, offset)];
   }
 
+  /** Returns a fresh array with the last writer of every offset. */
   public short[] getLastWriters() {
-    return lastWriters;
+    short[] l_writers = new short[SystemConstants.LINE_SIZE()];
+    for (int i = 0; i < l_writers.length; i++) {
+      l_writers[i] = getLastWriter(i);
+    }
+    return l_writers;
   }
 
   public void initLastWriters() {
-    for (int i = 0; i < lastWriters.length; i++) {
-      lastWriters[i] = -1;
-    }
+    lastWriterMask = 0;
+    lastWriters = NO_WRITERS;
   }
 
   public void setLastWriters(short[] l_writers) {
-    for (int i = 0; i < lastWriters.length; i++) {
-      lastWriters[i] = l_writers[i];
+    initLastWriters();
+    for (int i = 0; i < l_writers.length; i++) {
+      if (l_writers[i] != -1) {
+        setLastWriters(1L << i, new CpuId(l_writers[i]));
+      }
     }
   }
 
+  /** this <-- other */
+  public void copyLastWriters(ViserLine other) {
+    lastWriterMask = other.lastWriterMask;
+    lastWriters = (lastWriterMask == 0) ? NO_WRITERS
+        : Arrays.copyOf(other.lastWriters, Long.bitCount(lastWriterMask));
+  }
+
   public void setLastWritersFromPrivateLine(ViserLine src) {
-    assert src.perCoreMd.length == 1;
+    assert src.privateLine;
     long enc = src.getWriteEncoding(src.id());
     setLastWriters(enc, src.id());
   }
 
   public void setLastWriters(long enc, CpuId lastWriter) {
+    if (!ownerProc.params.siteTracking()) {
+      return; // last writers are only used to report conflicting sites
+    }
+    enc &= lineMask();
+    if (enc == 0) {
+      return;
+    }
     short l_writers = lastWriter.get();
-    for (int i = 0; i < lastWriters.length; i++) {
-      if (((1L << i) & enc) != 0)
-        lastWriters[i] = l_writers;
+    long mask = lastWriterMask | enc;
+    short[] merged = (mask == lastWriterMask) ? lastWriters : new short[Long.bitCount(mask)];
+    // Merge from the highest offset down; if no offset is added, this updates in place
+    int src = Long.bitCount(lastWriterMask) - 1;
+    for (int dst = merged.length - 1; dst >= 0; dst--) {
+      int offset = 63 - Long.numberOfLeadingZeros(mask);
+      long bit = 1L << offset;
+      short old = ((lastWriterMask & bit) != 0) ? lastWriters[src--] : -1;
+      merged[dst] = ((enc & bit) != 0) ? l_writers : old;
+      mask &= ~bit;
     }
+    lastWriterMask |= enc;
+    lastWriters = merged;
   }
 
   public void setValue(ByteAddress addr, long value) {
@@ -502,15 +514,26 @@ class ViserLine extends VILine {
 
   public void setValue(int offset, long value) {
     assert offset < SystemConstants.LINE_SIZE();
-    values[offset] = value;
+    long bit = 1L << offset;
+    if ((valueMask & bit) != 0) {
+      values[packedIndex(valueMask, offset)] = value;
+    } else if (value != 0) {
+      int index = packedIndex(valueMask, offset);
+      int count = Long.bitCount(valueMask);
+      long[] grown = new long[count + 1];
+      System.arraycopy(values, 0, grown, 0, index);
+      System.arraycopy(values, index, grown, index + 1, count - index);
+      grown[index] = value;
+      values = grown;
+      valueMask |= bit;
+    }
   }
 
   /** this <-- other */
   public void copyAllValues(ViserLine other) {
-    assert values != null && other.values != null && values.length == other.values.length;
-    for (int i = 0; i < values.length; i++) {
-      values[i] = other.values[i];
-    }
+    valueMask = other.valueMask;
+    values = (valueMask == 0) ? NO_VALUES
+        : Arrays.copyOf(other.values, Long.bitCount(valueMask));
   }
 
   /** Note that the cpu id from the source line is used. WAR bits are also copied. */
@@ -531,44 +554,184 @@ class ViserLine extends VILine {
 
   /** Copy values based on enc. */
   public void copyRequestedValues(ViserLine source, long enc) {
-    // Iterate over all the bits
-    for (int i = 0; i < SystemConstants.LINE_SIZE(); i++) {
-      // Check if the ith bit is set in "enc". if yes, then update the value from
-      // source line to this line.
-      long mask = 1L << i; // Lines are 64 bytes
-      if ((enc & mask) != 0) { // ith bit is set
-        assert (enc & mask) == mask;
-        values[i] = source.values[i];
+    enc &= lineMask();
+    if (((valueMask | source.valueMask) & enc) == 0) {
+      return; // all the requested offsets are 0 on both sides
+    }
+    // Offsets in enc take the source's value (or lack of one), the others keep ours
+    long mask = (valueMask & ~enc) | (source.valueMask & enc);
+    long[] merged = (mask == 0) ? NO_VALUES : new long[Long.bitCount(mask)];
+    int mine = 0;
+    int theirs = 0;
+    int dst = 0;
+    for (long m = valueMask | source.valueMask; m != 0; m &= m - 1) {
+      long bit = Long.lowestOneBit(m);
+      long value = 0;
+      boolean present;
+      if ((enc & bit) != 0) {
+        present = (source.valueMask & bit) != 0;
+        if (present) {
+          value = source.values[theirs];
+        }
+      } else {
+        present = (valueMask & bit) != 0;
+        if (present) {
+          value = values[mine];
+        }
+      }
+      if ((valueMask & bit) != 0) {
+        mine++;
+      }
+      if ((source.valueMask & bit) != 0) {
+        theirs++;
+      }
+      if (present) {
+        merged[dst++] = value;
       }
     }
+    valueMask = mask;
+    values = merged;
   }
 
-  public Epoch getEpoch(CpuId cid) {
-    return getPerCoreMetadata(cid).epoch;
+  /** One bit for each byte offset of a line */
+  private static long lineMask() {
+    return (SystemConstants.LINE_SIZE() == Long.SIZE) ? -1L
+        : (1L << SystemConstants.LINE_SIZE()) - 1;
   }
 
-  public void setEpoch(CpuId cid, Epoch ep) {
-    if (isPrivateCacheLine()) {
+  /** Region in which the given core last accessed this line */
+  public int getEpoch(CpuId cid) {
+    if (privateLine) {
       assert cid.equals(id());
-      cid = new CpuId(0);
+      return ownEpoch;
     }
-    perCoreMd[cid.get()].epoch = (ep == null ? new Epoch() : new Epoch(ep));
+    return perCoreMd.epoch[cid.get()];
   }
 
-  public void setPerCoreMetadata(CpuId cid, PerCoreLineMetadata md) {
-    if (isPrivateCacheLine()) {
+  public void setEpoch(CpuId cid, int ep) {
+    if (privateLine) {
       assert cid.equals(id());
-      cid = new CpuId(0);
+      ownEpoch = ep;
+    } else {
+      perCoreMd.epoch[cid.get()] = ep;
     }
-    perCoreMd[cid.get()] = md;
   }
 
-  public PerCoreLineMetadata getPerCoreMetadata(CpuId cid) {
-    if (isPrivateCacheLine()) {
+  /**
+   * Store the encoding as of the current region of the core, which needs to be set before the
+   * encodings are read again.
+   */
+  private void setWriteEncoding(CpuId cid, long enc) {
+    if (privateLine) {
+      assert cid.equals(id());
+      ownWriteEncoding = enc;
+    } else {
+      perCoreMd.writeEncoding[cid.get()] = enc;
+    }
+  }
+
+  private void setReadEncoding(CpuId cid, long enc) {
+    if (privateLine) {
+      assert cid.equals(id());
+      ownReadEncoding = enc;
+    } else {
+      perCoreMd.readEncoding[cid.get()] = enc;
+    }
+  }
+
+  /** Index of the given core in the per-core metadata */
+  private int slot(CpuId cid) {
+    if (privateLine) {
       assert cid.equals(id());
-      cid = new CpuId(0);
+      return 0;
+    }
+    return cid.get();
+  }
+
+  /** The metadata block that holds the sites of this line */
+  private PerCoreLineMetadata siteMetadata() {
+    if (perCoreMd == null) {
+      assert privateLine;
+      perCoreMd = new PerCoreLineMetadata(1);
+    }
+    return perCoreMd;
+  }
+
+  /** this <-- other, for all cores. Both are LLC lines. */
+  public void copyPerCoreMetadata(ViserLine other) {
+    assert !privateLine && !other.privateLine;
+    perCoreMd = new PerCoreLineMetadata(other.perCoreMd);
+  }
+
+  public String perCoreMetadataToString(CpuId cid) {
+    if (privateLine) {
+      assert cid.equals(id());
+      return "Epoch:" + ownEpoch + " Read encoding:" + Long.toBinaryString(ownReadEncoding)
+          + " Write encoding:" + Long.toBinaryString(ownWriteEncoding) + "\n";
+    }
+    return perCoreMd.toString(cid.get());
+  }
+
+  /** Save this LLC line in the given record of the memory. */
+  void storeTo(MemoryStore<?> mem, int rec) {
+    assert !privateLine && state == ViserState.VISER_VALID : "Only valid LLC lines go to memory";
+    mem.versions[rec] = version;
+    mem.deferredOwners[rec] = deferredLineOwnerID;
+    mem.lockOwners[rec] = lockOwnerID;
+    mem.flags[rec] = (byte) ((dirty ? MemoryStore.DIRTY : 0) | (hasAIMMD ? MemoryStore.AIM_MD : 0)
+        | (concurrentRemoteWrite ? MemoryStore.CONCURRENT_REMOTE_WRITE : 0));
+    int n = mem.numCores;
+    System.arraycopy(perCoreMd.epoch, 0, mem.epochs, rec * n, n);
+    System.arraycopy(perCoreMd.writeEncoding, 0, mem.writeEncodings, rec * n, n);
+    System.arraycopy(perCoreMd.readEncoding, 0, mem.readEncodings, rec * n, n);
+    // The line may still change, so the memory keeps copies of the arrays
+    mem.valueMasks[rec] = valueMask;
+    mem.values[rec] = (valueMask == 0) ? null : values.clone();
+    if (mem.sites != null) {
+      mem.lastWriterMasks[rec] = lastWriterMask;
+      mem.lastWriters[rec] = (lastWriterMask == 0) ? null : lastWriters.clone();
+      mem.sites[rec] = perCoreMd.hasSites() ? new PerCoreLineMetadata(perCoreMd) : null;
+    }
+  }
+
+  /** Empty this LLC line, which has left the LLC, and give it a new address. */
+  void reuseAt(LineAddress a) {
+    assert !privateLine;
+    addr = a;
+    initLastWriters();
+    perCoreMd.clearSites();
+  }
+
+  /** Fill this new or reused LLC line from the given record of the memory. */
+  void loadFrom(MemoryStore<?> mem, int rec) {
+    assert !privateLine;
+    changeStateTo(ViserState.VISER_VALID);
+    version = mem.versions[rec];
+    deferredLineOwnerID = mem.deferredOwners[rec];
+    lockOwnerID = mem.lockOwners[rec];
+    byte flags = mem.flags[rec];
+    dirty = (flags & MemoryStore.DIRTY) != 0;
+    hasAIMMD = (flags & MemoryStore.AIM_MD) != 0;
+    concurrentRemoteWrite = (flags & MemoryStore.CONCURRENT_REMOTE_WRITE) != 0;
+    int n = mem.numCores;
+    System.arraycopy(mem.epochs, rec * n, perCoreMd.epoch, 0, n);
+    System.arraycopy(mem.writeEncodings, rec * n, perCoreMd.writeEncoding, 0, n);
+    System.arraycopy(mem.readEncodings, rec * n, perCoreMd.readEncoding, 0, n);
+    valueMask = mem.valueMasks[rec];
+    if (valueMask == 0) {
+      values = NO_VALUES;
+    } else if (values.length == mem.values[rec].length) { // a reused line keeps its array
+      System.arraycopy(mem.values[rec], 0, values, 0, values.length);
+    } else {
+      values = mem.values[rec].clone();
+    }
+    if (mem.sites != null) {
+      lastWriterMask = mem.lastWriterMasks[rec];
+      lastWriters = (lastWriterMask == 0) ? NO_WRITERS : mem.lastWriters[rec].clone();
+      if (mem.sites[rec] != null) {
+        perCoreMd.copySitesFrom(mem.sites[rec]);
+      }
     }
-    return perCoreMd[cid.get()];
   }
 
   public boolean isLineDeferred() {
@@ -0,0 +1,177 @@
+package simulator.viser;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * One set of a set-associative cache. Lines live in way-indexed slots and their line addresses
+ * are mirrored in a flat tag array, so a lookup scans primitive tags and only dereferences the
+ * line it hits. The recency order of the ways is packed into log_2(assoc) bits per way (a single
+ * word for up to 16 ways), and the PLRU MRU bits are one word per set. Neither hits nor
+ * evictions allocate or relink anything.
+ *
+ * Positions are numbered in recency order, 0 being the MRU line and size()-1 the LRU line. The
+ * PLRU policy never reorders a set, so its positions and ways coincide.
+ */
+final class CacheSet<Line extends ViserLine> implements Iterable<Line> {
+	/** Tag of a slot whose line has no address */
+	static final long NO_TAG = -1L;
+
+	private final Line[] lines;
+	/** Line address of each way, or NO_TAG */
+	private final long[] tags;
+
+	private final int wayBits;
+	private final long wayMask;
+	private final int waysPerWord;
+	/** The way at each position, packed wayBits bits per position */
+	private final long[] order;
+
+	/** PLRU: bit i is set if way i has been used recently */
+	long mruBits = 0;
+
+	@SuppressWarnings("unchecked")
+	CacheSet(int assoc) {
+		assert BitTwiddle.isPowerOf2(assoc) && assoc <= Long.SIZE;
+		lines = (Line[]) new ViserLine[assoc];
+		tags = new long[assoc];
+		Arrays.fill(tags, NO_TAG);
+		wayBits = Math.max(1, BitTwiddle.floorLog2(assoc));
+		wayMask = (1L << wayBits) - 1;
+		waysPerWord = Long.SIZE / wayBits;
+		order = new long[(assoc + waysPerWord - 1) / waysPerWord];
+		for (int pos = 0; pos < assoc; pos++) {
+			setWayAt(pos, pos);
+		}
+	}
+
+	int size() {
+		return lines.length;
+	}
+
+	/** The way at the given position in recency order */
+	int wayAt(int pos) {
+		return (int) ((order[pos / waysPerWord] >>> ((pos % waysPerWord) * wayBits)) & wayMask);
+	}
+
+	private void setWayAt(int pos, int way) {
+		int w = pos / waysPerWord;
+		int shift = (pos % waysPerWord) * wayBits;
+		order[w] = (order[w] & ~(wayMask << shift)) | ((long) way << shift);
+	}
+
+	private int positionOf(int way) {
+		for (int pos = 0; pos < lines.length; pos++) {
+			if (wayAt(pos) == way) {
+				return pos;
+			}
+		}
+		throw new IllegalStateException("Way " + way + " is missing from the recency order");
+	}
+
+	/** The line at the given position in recency order */
+	Line get(int pos) {
+		return lines[wayAt(pos)];
+	}
+
+	Line first() {
+		return get(0);
+	}
+
+	Line last() {
+		return get(lines.length - 1);
+	}
+
+	Line getWay(int way) {
+		return lines[way];
+	}
+
+	/** Store a line in the given way without changing the recency order. */
+	void put(int way, Line line) {
+		lines[way] = line;
+		LineAddress la = line.lineAddress();
+		tags[way] = (la == null) ? NO_TAG : la.get();
+	}
+
+	/** The way holding this very line object, or -1 */
+	int wayOf(Line line) {
+		for (int way = 0; way < lines.length; way++) {
+			if (lines[way] == line) {
+				return way;
+			}
+		}
+		return -1;
+	}
+
+	/** The way of the valid line with the given line address, or -1 */
+	int find(long lineAddr) {
+		return find(lineAddr, 0);
+	}
+
+	/** Like {@link #find(long)}, but only consider ways starting at {@code fromWay}. */
+	int find(long lineAddr, int fromWay) {
+		for (int way = fromWay; way < tags.length; way++) {
+			if (tags[way] == lineAddr && lines[way].valid()) {
+				return way;
+			}
+		}
+		return -1;
+	}
+
+	/** Move the given way to the MRU position. */
+	void touch(int way) {
+		int pos = positionOf(way);
+		if (pos == 0) {
+			return;
+		}
+		if (order.length == 1) {
+			// shift the positions before pos up by one, and put the way in front
+			long o = order[0];
+			int shift = pos * wayBits;
+			long before = o & ((1L << shift) - 1);
+			long after = (shift + wayBits == Long.SIZE) ? 0 : o & (-1L << (shift + wayBits));
+			order[0] = after | (before << wayBits) | way;
+			return;
+		}
+		for (; pos > 0; pos--) {
+			setWayAt(pos, wayAt(pos - 1));
+		}
+		setWayAt(0, way);
+	}
+
+	/** Move the given way to the LRU position. */
+	void demote(int way) {
+		int pos = positionOf(way);
+		for (; pos < lines.length - 1; pos++) {
+			setWayAt(pos, wayAt(pos + 1));
+		}
+		setWayAt(lines.length - 1, way);
+	}
+
+	/** Iterates over the lines in recency order. */
+	@Override
+	public Iterator<Line> iterator() {
+		return new Iterator<Line>() {
+			private int pos = 0;
+
+			@Override
+			public boolean hasNext() {
+				return pos < lines.length;
+			}
+
+			@Override
+			public Line next() {
+				if (pos == lines.length) {
+					throw new NoSuchElementException();
+				}
+				return get(pos++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+}
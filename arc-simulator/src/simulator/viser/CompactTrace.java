@@ -0,0 +1,239 @@
+package simulator.viser;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compact on-disk trace format. The raw front-end record is a fixed 43 bytes; here each record
+ * only stores the fields it actually uses, as varints, and memory addresses are delta-encoded
+ * against the previous address of the same thread.
+ *
+ * <pre>
+ * file   := MAGIC VERSION block*
+ * block  := recordCount:int payloadLength:int payload   (big-endian ints)
+ * record := type:byte semantics:byte tid:byte mask:varint field*
+ * </pre>
+ *
+ * The mask says which fields follow, in the order of the FIELD_* bits. Addresses are zigzag
+ * varint deltas and values are zigzag varints; everything else is an unsigned varint. The
+ * per-thread address history is reset at every block, so each block can be decoded on its own.
+ * The eventID of the raw record is not used by the simulators and is dropped.
+ */
+final class CompactTrace {
+	static final byte[] MAGIC = { 'C', 'T', 'R', 'C' };
+	static final byte VERSION = 1;
+	/** Records per block */
+	static final int BLOCK_RECORDS = 1 << 16;
+
+	static final int FIELD_ADDR = 1 << 0;
+	static final int FIELD_MEM_OP_SIZE = 1 << 1;
+	static final int FIELD_BITS = 1 << 2;
+	static final int FIELD_VALUE = 1 << 3;
+	static final int FIELD_INSN_COUNT = 1 << 4;
+	static final int FIELD_LINENO = 1 << 5;
+	static final int FIELD_FNO = 1 << 6;
+	static final int FIELD_RNO = 1 << 7;
+	static final int FIELD_LAST_LINENO = 1 << 8;
+	static final int FIELD_LAST_FNO = 1 << 9;
+
+	private CompactTrace() {
+	}
+
+	/** Whether the trace starts with the compact magic. Does not consume anything. */
+	static boolean isCompact(TraceReader in) throws IOException {
+		// No raw record starts with this byte, since event types are small
+		return in.peek() == MAGIC[0];
+	}
+
+	static long zigzag(long v) {
+		return (v << 1) ^ (v >> 63);
+	}
+
+	static long unzigzag(long v) {
+		return (v >>> 1) ^ -(v & 1);
+	}
+
+	/** Decodes a compact trace into the slots of a TraceDecoder batch. */
+	static final class Reader {
+		private final TraceReader in;
+		private final long[] lastAddr = new long[256];
+		/** Records left in the current block */
+		private int remaining = 0;
+
+		Reader(TraceReader in) throws IOException {
+			this.in = in;
+			for (byte m : MAGIC) {
+				if (in.readByte() != m) {
+					throw new IOException("Not a compact trace");
+				}
+			}
+			byte version = in.readByte();
+			if (version != VERSION) {
+				throw new IOException("Unsupported compact trace version " + version);
+			}
+		}
+
+		/** Whether the next record starts a new block, i.e., the reader is at a sync point */
+		boolean atBlockStart() {
+			return remaining == 0;
+		}
+
+		/** Called after the underlying reader was moved to the start of a block. */
+		void resetToBlockStart() {
+			remaining = 0;
+		}
+
+		private long readVarLong() throws IOException {
+			long v = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = in.readByte();
+				v |= (long) (b & 0x7f) << shift;
+				shift += 7;
+			} while (b < 0);
+			return v;
+		}
+
+		void decode(TraceDecoder.Batch b, int i) throws IOException {
+			while (remaining == 0) {
+				remaining = in.readInt();
+				in.readInt(); // payload length, only needed to skip blocks
+				Arrays.fill(lastAddr, 0);
+			}
+			b.type[i] = in.readByte();
+			b.semantics[i] = in.readByte();
+			byte tid = in.readByte();
+			b.tid[i] = tid;
+			int mask = (int) readVarLong();
+			if ((mask & FIELD_ADDR) != 0) {
+				long addr = lastAddr[tid & 0xff] + unzigzag(readVarLong());
+				lastAddr[tid & 0xff] = addr;
+				b.addr[i] = addr;
+			} else {
+				b.addr[i] = 0;
+			}
+			b.memOpSize[i] = (mask & FIELD_MEM_OP_SIZE) != 0 ? (byte) readVarLong() : 0;
+			b.bits[i] = (mask & FIELD_BITS) != 0 ? (byte) readVarLong() : 0;
+			b.value[i] = (mask & FIELD_VALUE) != 0 ? unzigzag(readVarLong()) : 0;
+			b.insnCount[i] = (mask & FIELD_INSN_COUNT) != 0 ? (int) readVarLong() : 0;
+			b.lineno[i] = (mask & FIELD_LINENO) != 0 ? (short) readVarLong() : 0;
+			b.fno[i] = (mask & FIELD_FNO) != 0 ? (short) readVarLong() : 0;
+			b.rno[i] = (mask & FIELD_RNO) != 0 ? (short) readVarLong() : 0;
+			b.lastLineno[i] = (mask & FIELD_LAST_LINENO) != 0 ? (short) readVarLong() : 0;
+			b.lastFno[i] = (mask & FIELD_LAST_FNO) != 0 ? (short) readVarLong() : 0;
+			remaining--;
+		}
+	}
+
+	/** Encodes decoded records into a compact trace file. */
+	static final class Writer implements Closeable {
+		private final DataOutputStream out;
+		private final long[] lastAddr = new long[256];
+		private byte[] block = new byte[1 << 20];
+		private int blockBytes = 0;
+		private int blockRecords = 0;
+
+		Writer(String fileName) throws IOException {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)));
+			out.write(MAGIC);
+			out.writeByte(VERSION);
+		}
+
+		private void put(byte v) {
+			if (blockBytes == block.length) {
+				block = Arrays.copyOf(block, block.length << 1);
+			}
+			block[blockBytes++] = v;
+		}
+
+		private void putVarLong(long v) {
+			while ((v & ~0x7fL) != 0) {
+				put((byte) ((v & 0x7f) | 0x80));
+				v >>>= 7;
+			}
+			put((byte) v);
+		}
+
+		/** Unsigned varint of a short/int/byte field, as the decoder widens them back. */
+		private void putVarInt(int v) {
+			putVarLong(v & 0xffffffffL);
+		}
+
+		void write(TraceDecoder.Batch b, int i) throws IOException {
+			int tid = b.tid[i] & 0xff;
+			int mask = 0;
+			mask |= b.addr[i] != 0 ? FIELD_ADDR : 0;
+			mask |= b.memOpSize[i] != 0 ? FIELD_MEM_OP_SIZE : 0;
+			mask |= b.bits[i] != 0 ? FIELD_BITS : 0;
+			mask |= b.value[i] != 0 ? FIELD_VALUE : 0;
+			mask |= b.insnCount[i] != 0 ? FIELD_INSN_COUNT : 0;
+			mask |= b.lineno[i] != 0 ? FIELD_LINENO : 0;
+			mask |= b.fno[i] != 0 ? FIELD_FNO : 0;
+			mask |= b.rno[i] != 0 ? FIELD_RNO : 0;
+			mask |= b.lastLineno[i] != 0 ? FIELD_LAST_LINENO : 0;
+			mask |= b.lastFno[i] != 0 ? FIELD_LAST_FNO : 0;
+
+			put(b.type[i]);
+			put(b.semantics[i]);
+			put(b.tid[i]);
+			putVarInt(mask);
+			if ((mask & FIELD_ADDR) != 0) {
+				putVarLong(zigzag(b.addr[i] - lastAddr[tid]));
+				lastAddr[tid] = b.addr[i];
+			}
+			if ((mask & FIELD_MEM_OP_SIZE) != 0) {
+				putVarInt(b.memOpSize[i] & 0xff);
+			}
+			if ((mask & FIELD_BITS) != 0) {
+				putVarInt(b.bits[i] & 0xff);
+			}
+			if ((mask & FIELD_VALUE) != 0) {
+				putVarLong(zigzag(b.value[i]));
+			}
+			if ((mask & FIELD_INSN_COUNT) != 0) {
+				putVarInt(b.insnCount[i]);
+			}
+			if ((mask & FIELD_LINENO) != 0) {
+				putVarInt(b.lineno[i] & 0xffff);
+			}
+			if ((mask & FIELD_FNO) != 0) {
+				putVarInt(b.fno[i] & 0xffff);
+			}
+			if ((mask & FIELD_RNO) != 0) {
+				putVarInt(b.rno[i] & 0xffff);
+			}
+			if ((mask & FIELD_LAST_LINENO) != 0) {
+				putVarInt(b.lastLineno[i] & 0xffff);
+			}
+			if ((mask & FIELD_LAST_FNO) != 0) {
+				putVarInt(b.lastFno[i] & 0xffff);
+			}
+			if (++blockRecords == BLOCK_RECORDS) {
+				flushBlock();
+			}
+		}
+
+		private void flushBlock() throws IOException {
+			if (blockRecords == 0) {
+				return;
+			}
+			out.writeInt(blockRecords);
+			out.writeInt(blockBytes);
+			out.write(block, 0, blockBytes);
+			blockRecords = 0;
+			blockBytes = 0;
+			Arrays.fill(lastAddr, 0);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flushBlock();
+			out.close();
+		}
+	}
+}
@@ -17,12 +17,13 @@ public class Conflict {
 	short lastLineNumber1;
 	// dynamic count
 	private double counter;
-	// we don't want to count a conflict more than once within a line. use the following
-	// flag to control this. Not count when the flag is true.
-	private boolean allowCounting = true;
+	// we don't want to count a conflict more than once within a line. this is the number of the
+	// last line that counted it, from the conflict table.
+	private int countedLine = -1;
+	private final SimContext ctx;
 
-	public Conflict(int f0, int l0, int r0, int f1, int l1, int r1, int lf0, int ll0, int lf1,
-			int ll1) {
+	public Conflict(SimContext ctx, int f0, int l0, int r0, int f1, int l1, int r1, int lf0,
+			int ll0, int lf1, int ll1) {
 		// put the site with smaller line number first;
 		if (l0 <= l1) {
 			fileNumber0 = (short) f0;
@@ -48,13 +49,14 @@ public class Conflict {
 			lastLineNumber1 = (short) ll0;
 		}
 		counter = 0;
+		this.ctx = ctx;
 	}
 
-	public void inc() {
-		if (!ViserSim.modelOnlyROI()
-				|| ViserSim.getPARSECPhase() == PARSEC_PHASE.IN_ROI && allowCounting) {
+	public void inc(int line) {
+		if (!ctx.modelOnlyROI()
+				|| ctx.getPARSECPhase() == PARSEC_PHASE.IN_ROI && countedLine != line) {
 			counter++;
-			allowCounting = false;
+			countedLine = line;
 		}
 	}
 
@@ -78,10 +80,6 @@ public class Conflict {
 		}
 	}
 
-	public void allowCounting() {
-		allowCounting = true;
-	}
-
 	public double getCounter() {
 		return counter;
 	}
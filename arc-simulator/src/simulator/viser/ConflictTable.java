@@ -0,0 +1,97 @@
+package simulator.viser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The distinct conflicts found so far, in the order they were first found, indexed by their pair
+ * of sites. The sites are packed into a long, the one with the smaller line number first, as
+ * {@link Conflict} orders them. If a site has no line number, the conflict is also told apart by
+ * its caller sites, so the entries with the same sites are chained and matched on the packed
+ * caller sites. A conflict counts once per conflicting line, which is a line number in
+ * {@link #nextLine()} rather than a flag that has to be reset in every entry.
+ */
+final class ConflictTable {
+	private static final int MIN_CAPACITY = 16;
+
+	private final SimContext ctx;
+	private final List<Conflict> conflicts = new ArrayList<Conflict>();
+	/** First entry with each pair of sites */
+	private final LongIntHashMap index = new LongIntHashMap();
+	/** Next entry with the same pair of sites, or NONE */
+	private int[] next = new int[MIN_CAPACITY];
+	/** Packed caller sites of each entry */
+	private long[] callerSites = new long[MIN_CAPACITY];
+	/** Number of the conflicting line being reported */
+	private int line = 0;
+
+	ConflictTable(SimContext ctx) {
+		this.ctx = ctx;
+	}
+
+	int size() {
+		return conflicts.size();
+	}
+
+	Conflict get(int i) {
+		return conflicts.get(i);
+	}
+
+	/** Count the conflict between the given sites, adding an entry the first time it is found. */
+	void update(int f0, int l0, int r0, int f1, int l1, int r1, int lf0, int ll0, int lf1,
+			int ll1) {
+		boolean bySites = l0 != 0 && l1 != 0;
+		// Conflict.isTheSame() compares the sites of the first and second access in this order
+		long sites = (l0 <= l1) ? pack(f0, l0, f1, l1) : pack(f1, l1, f0, l0);
+		long callers = (l0 <= l1) ? pack(lf0, ll0, lf1, ll1) : pack(lf1, ll1, lf0, ll0);
+		// Site numbers are kept as shorts, and one that does not fit never matches an entry
+		boolean fits = fits(f0) && fits(l0) && fits(f1) && fits(l1)
+				&& (bySites || (fits(lf0) && fits(ll0) && fits(lf1) && fits(ll1)));
+
+		int head = fits ? index.get(sites) : LongIntHashMap.NONE;
+		for (int e = head; e != LongIntHashMap.NONE; e = next[e]) {
+			if (bySites || callerSites[e] == callers) {
+				conflicts.get(e).inc(line);
+				return;
+			}
+		}
+
+		Conflict conflict = new Conflict(ctx, f0, l0, r0, f1, l1, r1, lf0, ll0, lf1, ll1);
+		conflict.inc(line);
+		int e = conflicts.size();
+		conflicts.add(conflict);
+		if (e == next.length) {
+			next = Arrays.copyOf(next, e * 2);
+			callerSites = Arrays.copyOf(callerSites, e * 2);
+		}
+		callerSites[e] = callers;
+		next[e] = LongIntHashMap.NONE;
+		// Append, so that the entries are matched in the order they were added. An entry is
+		// indexed by its sites as shorts even if they did not fit, since later ones may match.
+		int first = index.get(sites);
+		if (first == LongIntHashMap.NONE) {
+			index.put(sites, e);
+		} else {
+			int tail = first;
+			while (next[tail] != LongIntHashMap.NONE) {
+				tail = next[tail];
+			}
+			next[tail] = e;
+		}
+	}
+
+	/** Allow each conflict to be counted again, for the next conflicting line. */
+	void nextLine() {
+		line++;
+	}
+
+	private static boolean fits(int siteNumber) {
+		return siteNumber == (short) siteNumber;
+	}
+
+	private static long pack(int file0, int line0, int file1, int line1) {
+		return ((file0 & 0xffffL) << 48) | ((line0 & 0xffffL) << 32) | ((file1 & 0xffffL) << 16)
+				| (line1 & 0xffffL);
+	}
+}
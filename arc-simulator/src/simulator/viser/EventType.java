@@ -1,9 +1,5 @@
 package simulator.viser;
 
-import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.Map;
-
 public enum EventType {
 
 	INVALID_EVENT(0),
@@ -37,18 +33,25 @@ public enum EventType {
 		this.code = (byte) code;
 	}
 
-	private static final Map<Byte, EventType> lookup = new HashMap<Byte, EventType>();
+	/** Indexed by event code, so decoding an event does not box the code byte */
+	private static final EventType[] lookup;
 
 	static {
-		for (EventType et : EnumSet.allOf(EventType.class))
-			lookup.put(et.asByte(), et);
+		int max = 0;
+		for (EventType et : values()) {
+			max = Math.max(max, et.asByte());
+		}
+		lookup = new EventType[max + 1];
+		for (EventType et : values()) {
+			lookup[et.asByte()] = et;
+		}
 	}
 
 	public static EventType fromByte(byte code) {
 		if (ViserSim.assertsEnabled) {
-			assert lookup.containsKey(code);
+			assert code >= 0 && code < lookup.length && lookup[code] != null;
 		}
-		return lookup.get(code);
+		return lookup[code];
 	}
 
 	public byte asByte() {
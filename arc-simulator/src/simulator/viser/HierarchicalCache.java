@@ -1,9 +1,7 @@
 package simulator.viser;
 
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.NoSuchElementException;
 
 import simulator.viser.Processor.ExecutionPhase;
 
@@ -12,14 +10,14 @@ interface CacheCallbacks<Line extends ViserLine> {
 	 * Called whenever a line needs to be evicted.
 	 *
 	 * @param set
-	 *                  the set from which we need to evict something; the list is ordered from MRU
-	 *                  (front) to LRU (back).
+	 *                  the set from which we need to evict something; its positions are ordered
+	 *                  from MRU (first) to LRU (last).
 	 * @param level
 	 *                  the level of the cache where the eviction is happening
 	 * @return the line to evict
 	 */
-	Line eviction(final Line incoming, final LinkedList<Line> set, CacheLevel level,
-			ExecutionPhase phase, short bits);
+	Line eviction(final Line incoming, final CacheSet<Line> set, CacheLevel level,
+			ExecutionPhase phase);
 }
 
 class CacheConfiguration<Line extends ViserLine> {
@@ -37,7 +35,11 @@ enum CacheLevel {
 class MemoryResponse<Line extends ViserLine> {
 	/** The level of the cache hierarchy where the hit occurred */
 	public CacheLevel whereHit;
-	/** The line containing the requested address. */
+	/**
+	 * The line containing the requested address. When the line comes from the LLC or memory, this
+	 * is the shared line itself rather than a copy, so callers must not modify it; private caches
+	 * install their own copy.
+	 */
 	public Line lineHit;
 
 	public boolean invalidStateHit; // the line was in a special invalid state
@@ -48,6 +50,16 @@ class MemoryResponse<Line extends ViserLine> {
 	/** Track AIM hit (LLC) or miss (MEMORY). */
 	public CacheLevel aimHit;
 
+	MemoryResponse<Line> reset() {
+		whereHit = null;
+		lineHit = null;
+		invalidStateHit = false;
+		invalidStateFailure = false;
+		invalidStateSharedHitLevel = null;
+		aimHit = null;
+		return this;
+	}
+
 	@Override
 	public String toString() {
 		return whereHit.toString() + " " + String.valueOf(lineHit);
@@ -68,14 +80,19 @@ public class HierarchicalCache<Line extends ViserLine> {
 	protected short indexBits;
 	/** mask used to clear out the tag bits */
 	protected long indexMask;
-	protected short assocMask;
+	protected long assocMask;
 
 	protected int numLines;
 
-	protected List<LinkedList<Line>> sets;
-	protected short[] MRUBits;
+	protected CacheSet<Line>[] sets;
 	protected CacheCallbacks<Line> callbacks;
 	protected LineFactory<Line> lineFactory;
+	/** Returned by requestWithSpecialInvalidState(), valid until the next access */
+	private final MemoryResponse<Line> accessResponse = new MemoryResponse<Line>();
+	/** Returned by requestLineFromLLCOrMemory(), valid until its next call */
+	private final MemoryResponse<Line> lineResponse = new MemoryResponse<Line>();
+	/** Slots that may hold valid lines, for private caches only */
+	private final TouchedLines touched;
 
 	/**
 	 * The next higher-level cache in the hierarchy. Can be shared by multiple lower-level caches.
@@ -100,12 +117,13 @@ public class HierarchicalCache<Line extends ViserLine> {
 	 * @param factory
 	 *                       factory for making Line objects
 	 */
+	@SuppressWarnings("unchecked")
 	public HierarchicalCache(CacheConfiguration<Line> thisConfig, CacheCallbacks<Line> handler,
 			HierarchicalCache<Line> nextCache, LineFactory<Line> factory,
 			Processor<Line> processor) {
 		this.lineSize = thisConfig.lineSize;
 		this.assoc = thisConfig.assoc;
-		this.assocMask = (short) (Math.pow(2, assoc) - 1);
+		this.assocMask = -1L >>> (Long.SIZE - assoc);
 		this.callbacks = handler;
 		this.nextCache = nextCache;
 		this.lineFactory = factory;
@@ -126,22 +144,23 @@ public class HierarchicalCache<Line extends ViserLine> {
 		lineOffsetBits = (short) BitTwiddle.floorLog2(thisConfig.lineSize);
 		numLines = thisConfig.cacheSize / thisConfig.lineSize;
 
-		sets = new ArrayList<LinkedList<Line>>(numSets);
-		MRUBits = new short[numSets];
+		@SuppressWarnings("unchecked")
+		CacheSet<Line>[] newSets = (CacheSet<Line>[]) new CacheSet<?>[numSets];
+		sets = newSets;
 
 		for (int i = 0; i < numSets; i++) {
-			LinkedList<Line> set = new LinkedList<Line>();
+			CacheSet<Line> set = new CacheSet<Line>(thisConfig.assoc);
 			for (int j = 0; j < thisConfig.assoc; j++) {
 				// For the LLC, the processor is always P0.
 				if (levelInHierarchy == CacheLevel.L3) {
 					assert this.processor.id.get() == 0;
 				}
 				Line line = lineFactory.create(this.processor, this.levelInHierarchy);
-				set.add(line);
+				set.put(j, line);
 			}
-			sets.add(set);
-			MRUBits[i] = 0;
+			sets[i] = set;
 		}
+		touched = (levelInHierarchy != CacheLevel.L3) ? new TouchedLines(numSets) : null;
 	} // end ctor
 
 	/**
@@ -158,7 +177,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 		assert processor.id.get() == 0;
 		assert privLine.id().equals(proc.id);
 
-		LinkedList<Line> set = sets.get(index(privLine.lineAddress().get()));
+		CacheSet<Line> set = sets[index(privLine.lineAddress().get())];
 
 		boolean hit = true; // LLC hit or miss
 		Line llcLine = getLine(privLine);
@@ -179,17 +198,8 @@ public class HierarchicalCache<Line extends ViserLine> {
 
 			if (!proc.params.writebackInMemory()) {
 				// Evict LRU line, bring line in from memory so that it can be updated
-				Line toEvict = callbacks.eviction(privLine, set, levelInHierarchy, phase,
-						MRUBits[index(privLine.lineAddress().get())]);
-				if (proc.params.usePLRU()) {
-					int lineIndex = set.indexOf(toEvict);
-					set.set(lineIndex, llcLine);
-					setMRUBit(llcLine, false);
-				} else {
-					boolean found = set.remove(toEvict);
-					assert found;
-					set.addFirst(llcLine);
-				}
+				Line toEvict = callbacks.eviction(privLine, set, levelInHierarchy, phase);
+				replaceLine(set, toEvict, llcLine, false);
 				// If we are evicting a valid line that has updated metadata,
 				// then need to virtualize the line in memory
 				if (toEvict.valid()) {
@@ -199,16 +209,21 @@ public class HierarchicalCache<Line extends ViserLine> {
 						proc.aimcache.evictLine(proc, toEvict, phase);
 					}
 				}
+				proc.machine.memory.recycle(toEvict);
 			}
 		}
 
+		if (proc.params.useAIMCache()) {
+			proc.aimcache.applyPendingClear(proc, llcLine);
+		}
+
 		CpuId cid = privLine.id();
 		// clear obsolete encodings before set epoch
 		llcLine.orReadEncoding(cid, 0L);
 		llcLine.orWriteEncoding(cid, 0L);
 
 		// Set the updated epoch on writing back to a shared line
-		assert privLine.getEpoch(cid).equals(proc.getCurrentEpoch());
+		assert privLine.getEpoch(cid) == proc.getCurrentEpoch();
 		llcLine.setEpoch(cid, privLine.getEpoch(cid));
 
 		// Check if the LLC line is "already" deferred by a different core, if yes, then get the
@@ -274,7 +289,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 		}
 
 		if (proc.params.writebackInMemory()) {
-			proc.machine.memory.put(llcLine.lineAddress().get(), llcLine);
+			proc.machine.memory.put(llcLine);
 		}
 
 		if (proc.params.useAIMCache()) {
@@ -295,7 +310,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 		assert processor.id.get() == 0;
 		assert privLine.id().equals(proc.id);
 
-		LinkedList<Line> set = sets.get(index(privLine.lineAddress().get()));
+		CacheSet<Line> set = sets[index(privLine.lineAddress().get())];
 
 		boolean hit = true; // LLC hit or miss
 		Line llcLine = getLine(privLine);
@@ -316,18 +331,9 @@ public class HierarchicalCache<Line extends ViserLine> {
 
 			if (!proc.params.writebackInMemory()) {
 				// Evict LRU line, bring line in from memory so that it can be updated
-				Line toEvict = callbacks.eviction(privLine, set, levelInHierarchy, phase,
-						MRUBits[index(privLine.lineAddress().get())]);
+				Line toEvict = callbacks.eviction(privLine, set, levelInHierarchy, phase);
 
-				if (proc.params.usePLRU()) {
-					int lineIndex = set.indexOf(toEvict);
-					set.set(lineIndex, llcLine);
-					setMRUBit(llcLine, false);
-				} else {
-					boolean found = set.remove(toEvict);
-					assert found;
-					set.addFirst(llcLine);
-				}
+				replaceLine(set, toEvict, llcLine, false);
 				// If we are evicting a valid line that has updated metadata, then need to
 				// virtualize the line in memory
 				if (toEvict.valid()) {
@@ -337,15 +343,20 @@ public class HierarchicalCache<Line extends ViserLine> {
 						proc.aimcache.evictLine(proc, toEvict, phase);
 					}
 				}
+				proc.machine.memory.recycle(toEvict);
 			}
 		}
 
+		if (proc.params.useAIMCache()) {
+			proc.aimcache.applyPendingClear(proc, llcLine);
+		}
+
 		CpuId cid = privLine.id();
 		// clear obsolete encodings before set epoch
 		llcLine.orReadEncoding(cid, 0L);
 		llcLine.orWriteEncoding(cid, 0L);
 		// Set the updated epoch on writing back to a shared line
-		assert privLine.getEpoch(cid).equals(proc.getCurrentEpoch());
+		assert privLine.getEpoch(cid) == proc.getCurrentEpoch();
 		llcLine.setEpoch(cid, privLine.getEpoch(cid));
 
 		llcLine.orReadEncoding(cid, privLine.getReadEncoding(cid));
@@ -353,7 +364,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 				privLine.getReadSiteInfo(cid), privLine.getReadLastSiteInfo(cid));
 
 		if (proc.params.writebackInMemory()) {
-			proc.machine.memory.put(llcLine.lineAddress().get(), llcLine);
+			proc.machine.memory.put(llcLine);
 		}
 
 		if (proc.params.useAIMCache()) {
@@ -376,7 +387,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 		assert processor.id.get() == 0;
 		assert privLine.id().equals(proc.id);
 
-		LinkedList<Line> set = sets.get(index(privLine.lineAddress().get()));
+		CacheSet<Line> set = sets[index(privLine.lineAddress().get())];
 
 		boolean hit = true; // LLC hit or miss
 		Line llcLine = getLine(privLine);
@@ -397,18 +408,9 @@ public class HierarchicalCache<Line extends ViserLine> {
 
 			if (!proc.params.writebackInMemory()) {
 				// Evict LRU line, bring line in from memory so that it can be updated
-				Line toEvict = callbacks.eviction(privLine, set, levelInHierarchy, phase,
-						MRUBits[index(privLine.lineAddress().get())]);
+				Line toEvict = callbacks.eviction(privLine, set, levelInHierarchy, phase);
 
-				if (proc.params.usePLRU()) {
-					int lineIndex = set.indexOf(toEvict);
-					set.set(lineIndex, llcLine);
-					setMRUBit(llcLine, false);
-				} else {
-					boolean found = set.remove(toEvict);
-					assert found;
-					set.addFirst(llcLine);
-				}
+				replaceLine(set, toEvict, llcLine, false);
 				// If we are evicting a valid line that has updated metadata,
 				// then need to virtualize the line in memory
 				if (toEvict.valid()) {
@@ -418,6 +420,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 						proc.aimcache.evictLine(proc, toEvict, phase);
 					}
 				}
+				proc.machine.memory.recycle(toEvict);
 			}
 		}
 
@@ -473,33 +476,31 @@ public class HierarchicalCache<Line extends ViserLine> {
 	Line recallFromL1Cache(CacheLevel level, Line toEvict) {
 		assert (level == CacheLevel.L2)
 				&& (levelInHierarchy == CacheLevel.L1) : "Only L1 and L2 are inclusive.";
-		LinkedList<Line> set = sets.get(index(toEvict.lineAddress().get()));
+		CacheSet<Line> set = sets[index(toEvict.lineAddress().get())];
 		assert set.size() == assoc;
 		// search this cache
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
-			if (line.valid() && line.lineAddress().get() == toEvict.lineAddress().get()) {
-				Line tmp = lineFactory.create(processor, levelInHierarchy, line);
-				if (processor.params.usePLRU()) {
-					resetMRUBit(line);
-					int lineIndex = set.indexOf(line);
-					set.set(lineIndex, lineFactory.create(processor, levelInHierarchy));
-				} else {
-					it.remove();
-					// Create an empty line
-					set.addLast(lineFactory.create(processor, levelInHierarchy));
-				}
-				return tmp; // A valid line should only be found in one slot, so we can safely break
-			}
+		int way = set.find(toEvict.lineAddress().get());
+		if (way < 0) {
+			return null;
+		}
+		// A valid line should only be found in one slot
+		Line line = set.getWay(way);
+		Line tmp = lineFactory.create(processor, levelInHierarchy, line);
+		// Create an empty line
+		set.put(way, lineFactory.create(processor, levelInHierarchy));
+		if (processor.params.usePLRU()) {
+			set.mruBits &= ~(1L << way);
+		} else {
+			set.demote(way);
 		}
-		return null;
+		return tmp;
 	}
 
 	// Virtualize a valid line that is getting evicted from the LLC. The LLC and the private L1/L2
 	// caches are not inclusive.
 	private void evictValidLineFromLLC(Processor<Line> proc, Line toEvict, ExecutionPhase phase) {
 		assert this.levelInHierarchy == CacheLevel.L3 && toEvict.valid();
-		assert toEvict.id().equals(new CpuId(0));
+		assert toEvict.id().get() == 0;
 
 		// Check if the line is deferred, if yes, then get the values from the owner core
 		if (proc.params.deferWriteBacks() && toEvict.isLineDeferred()) {
@@ -512,13 +513,13 @@ public class HierarchicalCache<Line extends ViserLine> {
 		int numWriteMdWritebacks = 0;
 
 		for (int i = 0; i < proc.params.numProcessors(); i++) {
-			CpuId cpuId = new CpuId(i);
-			PerCoreLineMetadata md = toEvict.getPerCoreMetadata(cpuId);
-			Processor<Line> p = processor.machine.getProc(cpuId);
-			assert md.epoch.getRegionId() <= p.getCurrentEpoch().getRegionId();
+			CpuId cpuId = proc.allProcessors[i].id;
+			int ep = toEvict.getEpoch(cpuId);
+			int current = processor.machine.getEpoch(cpuId);
+			assert ep <= current;
 			// Write back read metadata only if the region is ongoing. Write back the write metadata
 			// if the region is ongoing. Write back values if the line is dirty.
-			if (md.epoch.equals(p.getCurrentEpoch())) { /* The region is ongoing */
+			if (ep == current) { /* The region is ongoing */
 				// The private line metadata may not have been written back to the LLC, since we do
 				// not have inclusivity.
 				// assert toEvict.hasReadOffsets(cpuId) || toEvict.hasWrittenOffsets(cpuId);
@@ -553,7 +554,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 			// proc.updateMemoryAccesses(sizeBytes, false);
 
 			if (mdWritebackNeeded) {
-				proc.stats.pc_ViserLLCToMemoryMetadataWriteback.incr();
+				proc.stats.incr(Stat.pc_ViserLLCToMemoryMetadataWriteback);
 			}
 		}
 
@@ -564,7 +565,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 		// memory (if present). We
 		// always write back so that we can always assert that a line will either be in the LLC or
 		// in memory. This is a source of space overhead.
-		proc.machine.memory.put(toEvict.lineAddress().get(), toEvict);
+		proc.machine.memory.put(toEvict);
 	}
 
 	public MemoryResponse<Line> searchPrivateCache(final Line line) {
@@ -577,15 +578,14 @@ public class HierarchicalCache<Line extends ViserLine> {
 		}
 
 		MemoryResponse<Line> ret = new MemoryResponse<Line>();
-		final LinkedList<Line> set = sets.get(index(addr.get()));
+		final CacheSet<Line> set = sets[index(addr.get())];
 		// search this cache
-		for (Line l : set) {
-			if (l.valid() && l.lineAddress().get() == addr.get()) {
-				// hit!
-				ret.lineHit = l;
-				ret.whereHit = levelInHierarchy;
-				return ret;
-			}
+		int way = set.find(addr.get());
+		if (way >= 0) {
+			// hit!
+			ret.lineHit = set.getWay(way);
+			ret.whereHit = levelInHierarchy;
+			return ret;
 		}
 
 		if (nextCache != null && nextCache.levelInHierarchy.compareTo(processor.llc()) < 0) {
@@ -602,15 +602,15 @@ public class HierarchicalCache<Line extends ViserLine> {
 
 	/** Just get the corresponding line, from any cache. */
 	public Line getLine(LineAddress addr) {
-		LinkedList<Line> set = sets.get(index(addr.get()));
+		return getLine(addr.get());
+	}
+
+	/** Just get the line with the given line address, from any cache. */
+	public Line getLine(long lineAddr) {
+		CacheSet<Line> set = sets[index(lineAddr)];
 		// search this cache
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
-			if (line.valid() && line.lineAddress().get() == addr.get()) {
-				return line;
-			}
-		}
-		return null;
+		int way = set.find(lineAddr);
+		return (way < 0) ? null : set.getWay(way);
 	}
 
 	private void updateL2LineWithL1Line(Processor<Line> proc, Line destLine, Line sourceLine,
@@ -634,13 +634,13 @@ public class HierarchicalCache<Line extends ViserLine> {
 											// setting write bits
 			}
 		} else if (!destLine.hasWrittenOffsets(cid) && sourceLine.hasWrittenOffsets(cid)) {
-			proc.stats.pc_CleanL2DirtyL1OnL2Eviction.incr();
+			proc.stats.incr(Stat.pc_CleanL2DirtyL1OnL2Eviction);
 		}
 
 		destLine.orWriteEncoding(cid, sourceLine.getWriteEncoding(cid));
 
 		if (!isL1Eviction && destLine.hasWrittenOffsets(cid))
-			proc.stats.pc_DirtyL2Evictions.incr();
+			proc.stats.incr(Stat.pc_DirtyL2Evictions);
 
 		destLine.updateWriteSiteInfo(cid, sourceLine.getWriteEncoding(cid),
 				sourceLine.getWriteSiteInfo(cid), sourceLine.getWriteLastSiteInfo(cid));
@@ -670,7 +670,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 			assert incoming.getLevel() == CacheLevel.L1;
 			// L1 and L2 caches are inclusive, this implies the line "incoming"
 			// should be present in L2
-			if (ViserSim.xassertsEnabled()) {
+			if (proc.ctx.xassertsEnabled()) {
 				proc.Verify.verifyPrivateCacheInclusivityAndVersions(proc);
 			}
 			evictedFromL1Cache(proc, incoming, phase);
@@ -736,19 +736,19 @@ public class HierarchicalCache<Line extends ViserLine> {
 
 			if (proc.valueValidateReadLine(ExecutionPhase.EVICT_L1_READ_VALIDATION, l2Line,
 					sharedLine)) {
-				proc.stats.pc_FailedValidations.incr();
+				proc.stats.incr(Stat.pc_FailedValidations);
 				// Before pre-commit
 				if (!proc.regionWithExceptions) {
-					proc.stats.pc_RegionsWithFRVs.incr();
+					proc.stats.incr(Stat.pc_RegionsWithFRVs);
 					if (!proc.regionHasDirtyEvictionBeforeFRV && proc.hasDirtyEviction) {
-						proc.stats.pc_RegionHasDirtyEvictionBeforeFRV.incr();
+						proc.stats.incr(Stat.pc_RegionHasDirtyEvictionBeforeFRV);
 						proc.regionHasDirtyEvictionBeforeFRV = true;
 					}
 
-					proc.stats.pc_ExceptionsByFRVs.incr();
-					proc.stats.pc_RegionsWithExceptionsByFRVs.incr();
+					proc.stats.incr(Stat.pc_ExceptionsByFRVs);
+					proc.stats.incr(Stat.pc_RegionsWithExceptionsByFRVs);
 
-					proc.stats.pc_RegionsWithExceptions.incr();
+					proc.stats.incr(Stat.pc_RegionsWithExceptions);
 					proc.regionWithExceptions = true;
 				}
 			}
@@ -833,31 +833,25 @@ public class HierarchicalCache<Line extends ViserLine> {
 			ExecutionPhase phase) {
 		// search this cache
 		Line sharedLine = getLine(incomingL2Line);
+		// Memory hands out copies, so a line that stays in memory needs to be put back
+		boolean putBack = false;
 
 		if (sharedLine == null) {
-			LinkedList<Line> set = sets.get(index(incomingL2Line.lineAddress().get()));
+			CacheSet<Line> set = sets[index(incomingL2Line.lineAddress().get())];
 			// fetch the line from memory
 			sharedLine = proc.machine.memory.get(incomingL2Line.lineAddress().get());
 			assert sharedLine != null : "L1/L2 line should be present either in the LLC or in the memory";
 			assert sharedLine.id().get() == 0 && sharedLine.getLevel() == CacheLevel.L3
 					&& !sharedLine.isLineDeferred();
+			putBack = proc.params.writebackInMemory();
 
 			// Incoming line is not present in the LLC
 			if (!proc.params.writebackInMemory()) {
 				// Evict LRU line, bring line in from memory so that it can be
 				// updated
-				Line toEvict = callbacks.eviction(incomingL2Line, set, levelInHierarchy, phase,
-						MRUBits[index(incomingL2Line.lineAddress().get())]);
+				Line toEvict = callbacks.eviction(incomingL2Line, set, levelInHierarchy, phase);
 
-				if (proc.params.usePLRU()) {
-					int lineIndex = set.indexOf(toEvict);
-					set.set(lineIndex, sharedLine);
-					setMRUBit(sharedLine, false);
-				} else {
-					boolean found = set.remove(toEvict);
-					assert found;
-					set.addFirst(sharedLine);
-				}
+				replaceLine(set, toEvict, sharedLine, false);
 				// If we are evicting a valid line that has updated metadata, then need to
 				// virtualize the line in memory
 				if (toEvict.valid()) {
@@ -867,6 +861,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 						proc.aimcache.evictLine(proc, toEvict, phase);
 					}
 				}
+				proc.machine.memory.recycle(toEvict);
 			}
 		}
 
@@ -922,18 +917,18 @@ public class HierarchicalCache<Line extends ViserLine> {
 
 				if (proc.valueValidateReadLine(ExecutionPhase.EVICT_L2_READ_VALIDATION,
 						incomingL2Line, sharedLine)) {
-					proc.stats.pc_FailedValidations.incr();
+					proc.stats.incr(Stat.pc_FailedValidations);
 					if (!proc.regionWithExceptions) {
-						proc.stats.pc_RegionsWithFRVs.incr();
+						proc.stats.incr(Stat.pc_RegionsWithFRVs);
 						if (!proc.regionHasDirtyEvictionBeforeFRV && proc.hasDirtyEviction) {
-							proc.stats.pc_RegionHasDirtyEvictionBeforeFRV.incr();
+							proc.stats.incr(Stat.pc_RegionHasDirtyEvictionBeforeFRV);
 							proc.regionHasDirtyEvictionBeforeFRV = true;
 						}
 
-						proc.stats.pc_ExceptionsByFRVs.incr();
-						proc.stats.pc_RegionsWithExceptionsByFRVs.incr();
+						proc.stats.incr(Stat.pc_ExceptionsByFRVs);
+						proc.stats.incr(Stat.pc_RegionsWithExceptionsByFRVs);
 
-						proc.stats.pc_RegionsWithExceptions.incr();
+						proc.stats.incr(Stat.pc_RegionsWithExceptions);
 						proc.regionWithExceptions = true;
 					}
 				}
@@ -953,10 +948,12 @@ public class HierarchicalCache<Line extends ViserLine> {
 		CpuId cid = proc.id;
 		Processor<Line> p = proc.machine.getProc(cid);
 
+		if (proc.params.useAIMCache()) {
+			proc.aimcache.applyPendingClear(proc, sharedLine);
+		}
+
 		// Update information in the per-core metadata
-		PerCoreLineMetadata md = sharedLine.getPerCoreMetadata(cid);
-		assert md.epoch.getRegionId() <= p.getCurrentEpoch()
-				.getRegionId() : "LLC line epoch cannot be greater.";
+		assert sharedLine.getEpoch(cid) <= p.getCurrentEpoch() : "LLC line epoch cannot be greater.";
 		// Update read bits
 		sharedLine.orReadEncoding(cid, incomingL2Line.getReadEncoding(cid));
 		sharedLine.updateReadSiteInfo(cid, incomingL2Line.getReadEncoding(cid),
@@ -1025,6 +1022,9 @@ public class HierarchicalCache<Line extends ViserLine> {
 				proc.aimcache.addLineIfNotPresent(proc, incomingL2Line, false, true, phase);
 			}
 		}
+		if (putBack) {
+			proc.machine.memory.put(sharedLine);
+		}
 
 		// This is possibly not required, since the L2 line is already being
 		// evicted. But still
@@ -1068,22 +1068,16 @@ public class HierarchicalCache<Line extends ViserLine> {
 	 */
 	public boolean searchSharedCache(Line incoming) {
 		assert levelInHierarchy == CacheLevel.L3 && incoming.valid();
-		LinkedList<Line> set = sets.get(index(incoming.lineAddress().get()));
+		CacheSet<Line> set = sets[index(incoming.lineAddress().get())];
 		// search this cache
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
-			if (line.valid() && line.lineAddress().get() == incoming.lineAddress().get()) {
-				return true;
-			}
-		}
-		return false;
+		return set.find(incoming.lineAddress().get()) >= 0;
 	}
 
 	/** Insert line into shared cache, possibly evicting another line to memory. */
 	public void insertSharedCache(final Line incoming) {
 		assert levelInHierarchy == CacheLevel.L3;
 
-		LinkedList<Line> set = sets.get(index(incoming.lineAddress().get()));
+		CacheSet<Line> set = sets[index(incoming.lineAddress().get())];
 		assert set.size() == assoc;
 
 		// Check if line exists
@@ -1096,19 +1090,11 @@ public class HierarchicalCache<Line extends ViserLine> {
 		}
 
 		if (toEvict == null) { // Line not already present
-			toEvict = set.getLast(); // straight LRU
+			toEvict = set.last(); // straight LRU
 		}
 
 		// Need not to check for recall
-		if (processor.params.usePLRU()) {
-			int lineIndex = set.indexOf(toEvict);
-			set.set(lineIndex, incoming);
-			setMRUBit(incoming, false);
-		} else {
-			boolean found = set.remove(toEvict);
-			assert found;
-			set.addFirst(incoming);
-		}
+		replaceLine(set, toEvict, incoming, false);
 	}
 
 	/**
@@ -1129,27 +1115,20 @@ public class HierarchicalCache<Line extends ViserLine> {
 
 	private MemoryResponse<Line> __search(final ByteAddress address, final boolean reorderSet) {
 		MemoryResponse<Line> ret = new MemoryResponse<Line>();
-		final LinkedList<Line> set = sets.get(index(address.get()));
+		final CacheSet<Line> set = sets[index(address.get())];
 
 		// search this cache
-		for (Line l : set) {
-
-			if (l.valid() && l.contains(address)) {
-				// hit!
-				ret.lineHit = l;
-				ret.whereHit = levelInHierarchy;
-
-				if (reorderSet) {
-					if (processor.params.usePLRU()) {
-						setMRUBit(l, false);
-					} else {
-						set.remove(l);
-						set.addFirst(l);
-					}
-				}
-
-				return ret;
+		int way = set.find(address.lineAddress().get());
+		if (way >= 0) {
+			// hit!
+			ret.lineHit = set.getWay(way);
+			ret.whereHit = levelInHierarchy;
+
+			if (reorderSet) {
+				touchLine(set, way, false);
 			}
+
+			return ret;
 		}
 
 		// at this point, we missed in this cache
@@ -1175,17 +1154,100 @@ public class HierarchicalCache<Line extends ViserLine> {
 	 * particular order.
 	 */
 	public void visitAllLines(LineVisitor<Line> lv) {
-		for (LinkedList<Line> set : sets) {
-			for (Line l : set) {
-				lv.visit(l);
+		for (CacheSet<Line> set : sets) {
+			for (int way = 0; way < set.size(); way++) {
+				lv.visit(set.getWay(way));
+			}
+		}
+	}
+
+	/**
+	 * The lines in the slots of the touched-line index, in the same order as iterating over all
+	 * sets, and over each set in recency order. The lines of all other slots are invalid, so this
+	 * can replace such an iteration wherever invalid lines are skipped. Only for private caches.
+	 */
+	Iterable<Line> touchedLines() {
+		assert touched != null;
+		touched.compact();
+		return new Iterable<Line>() {
+			@Override
+			public Iterator<Line> iterator() {
+				return new Iterator<Line>() {
+					/** Index into the sets of the touched-line index */
+					private int i = 0;
+					/** Next position in set i */
+					private int pos = 0;
+					private Line next = advance();
+
+					private Line advance() {
+						for (; i < touched.numSets(); i++, pos = 0) {
+							int setIndex = touched.set(i);
+							CacheSet<Line> set = sets[setIndex];
+							while (pos < set.size()) {
+								int way = set.wayAt(pos++);
+								if (touched.contains(setIndex, way)) {
+									return set.getWay(way);
+								}
+							}
+						}
+						return null;
+					}
+
+					@Override
+					public boolean hasNext() {
+						return next != null;
+					}
+
+					@Override
+					public Line next() {
+						if (next == null) {
+							throw new NoSuchElementException();
+						}
+						Line l = next;
+						next = advance();
+						return l;
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+	}
+
+	/** Drop the slots of invalid lines from the touched-line index. Called at region boundaries. */
+	void pruneTouchedLines() {
+		touched.compact();
+		for (int i = 0; i < touched.numSets(); i++) {
+			int setIndex = touched.set(i);
+			CacheSet<Line> set = sets[setIndex];
+			for (int way = 0; way < set.size(); way++) {
+				if (touched.contains(setIndex, way) && !set.getWay(way).valid()) {
+					touched.remove(setIndex, way);
+				}
+			}
+		}
+		touched.compact();
+	}
+
+	/** Verify that the touched-line index covers each valid line. */
+	public void verifyTouchedLines() {
+		for (int i = 0; i < sets.length; i++) {
+			CacheSet<Line> set = sets[i];
+			for (int way = 0; way < set.size(); way++) {
+				if (set.getWay(way).valid()) {
+					assert touched.contains(i, way) : "Valid line missing from the touched lines";
+				}
 			}
 		}
 	}
 
 	/** Verify that each line is indexed into the proper set. */
 	public void verifyIndices() {
-		for (int i = 0; i < sets.size(); i++) {
-			LinkedList<Line> set = sets.get(i);
+		for (int i = 0; i < sets.length; i++) {
+			CacheSet<Line> set = sets[i];
 			for (Line l : set) {
 				if (l.lineAddress() != null) {
 					assert index(l.lineAddress().get()) == i;
@@ -1201,7 +1263,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 			s.append(this.processor + "\n");
 		}
 		s.append("cache=" + this.levelInHierarchy + System.getProperty("line.separator"));
-		for (LinkedList<Line> set : sets) {
+		for (CacheSet<Line> set : sets) {
 			for (Line l : set) {
 				s.append(l.toString() + "\n");
 			}
@@ -1221,49 +1283,40 @@ public class HierarchicalCache<Line extends ViserLine> {
 	MemoryResponse<Line> requestLineFromLLCOrMemory(Processor<Line> proc, Line privLine,
 			boolean read, ExecutionPhase phase) {
 		int setIndex = index(privLine.lineAddress().get());
-		LinkedList<Line> set = sets.get(setIndex);
+		CacheSet<Line> set = sets[setIndex];
 		assert set.size() == assoc;
 
-		MemoryResponse<Line> ret = new MemoryResponse<Line>();
+		MemoryResponse<Line> ret = lineResponse.reset();
 
 		// search this cache
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
-			if (line.valid() && line.lineAddress().equals(privLine.lineAddress())) {
-				// hit!
-				if (proc.params.usePLRU()) {
-					setMRUBit(line, read);
-				} else {
-					// move this line to the mru spot
-					if (line != set.getFirst()) {
-						it.remove();
-						set.addFirst(line);
-					}
-				}
-				assert line == set.getFirst();
-				if (levelInHierarchy == CacheLevel.L3) {
-					// If the line is deferred, fetch the updated values from the owner core into
-					// the LLC.
-					if (proc.params.deferWriteBacks() && line.isLineDeferred()) {
-						proc.fetchDeferredLineFromPrivateCache(line, false, false);
-					}
+		int way = set.find(privLine.lineAddress().get());
+		if (way >= 0) {
+			Line line = set.getWay(way);
+			// hit!
+			touchLine(set, way, read);
+			assert line == set.first();
+			if (levelInHierarchy == CacheLevel.L3) {
+				// If the line is deferred, fetch the updated values from the owner core into
+				// the LLC.
+				if (proc.params.deferWriteBacks() && line.isLineDeferred()) {
+					proc.fetchDeferredLineFromPrivateCache(line, false, false);
 				}
+			}
 
-				assert levelInHierarchy == CacheLevel.L3;
-				ret.lineHit = lineFactory.create(processor, levelInHierarchy, line);
+			assert levelInHierarchy == CacheLevel.L3;
+			ret.lineHit = line;
 
-				if (proc.params.useAIMCache()) {
-					if (/* proc.needToCheckAIMCache(line) */line.hasAIMMD()) {
-						AIMResponse<Line> aimResp = proc.aimcache.request(proc, privLine, read,
-								phase);
-						ret.aimHit = aimResp.whereHit;
-					} else {
-						ret.aimHit = CacheLevel.L3;
-					}
+			if (proc.params.useAIMCache()) {
+				if (/* proc.needToCheckAIMCache(line) */line.hasAIMMD()) {
+					AIMResponse<Line> aimResp = proc.aimcache.request(proc, privLine, read,
+							phase);
+					ret.aimHit = aimResp.whereHit;
+				} else {
+					ret.aimHit = CacheLevel.L3;
 				}
-				ret.whereHit = this.levelInHierarchy;
-				return ret;
 			}
+			ret.whereHit = this.levelInHierarchy;
+			return ret;
 		}
 
 		// if we made it here, we missed in LLC
@@ -1287,31 +1340,21 @@ public class HierarchicalCache<Line extends ViserLine> {
 		// proc.updateMemoryAccesses(sizeInBytes, true);
 
 		assert memLine.valid();
-		assert memLine.id().equals(new CpuId(0));
-		ret.lineHit = lineFactory.create(processor, levelInHierarchy, memLine); // copy a line
+		assert memLine.id().get() == 0;
+		ret.lineHit = memLine; // memLine is installed in this LLC below
 
 		assert levelInHierarchy == CacheLevel.L3 : "Impossible cache level: MEMORY";
 		assert ret.whereHit == CacheLevel.MEMORY && memLine != null;
 		assert ret.lineHit != null && ret.lineHit.valid();
 
-		Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy, phase,
-				MRUBits[setIndex]);
-
-		if (proc.params.usePLRU()) {
-			int lineIndex = set.indexOf(toEvict);
-			set.set(lineIndex, memLine);
-			setMRUBit(memLine, read);
-		} else {
-			boolean found = set.remove(toEvict);
-			assert found;
+		Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy, phase);
 
-			// This is not required for correctness, conflicts on private cache lines will be
-			// detected lazily.
-			// proc.checkPreciseConflicts(memLine, access, read);
+		// This is not required for correctness, conflicts on private cache lines will be
+		// detected lazily.
+		// proc.checkPreciseConflicts(memLine, access, read);
 
-			// NB: only push in the incoming line *after* we've evicted something
-			set.addFirst(memLine);
-		}
+		// NB: only push in the incoming line *after* we've evicted something
+		replaceLine(set, toEvict, memLine, read);
 
 		// If we are evicting a valid line, then need to virtualize the line in memory
 		if (toEvict.valid()) {
@@ -1321,6 +1364,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 				proc.aimcache.evictLine(proc, toEvict, phase);
 			}
 		}
+		proc.machine.memory.recycle(toEvict);
 
 		// So we just fetched a line into the LLC, create one in the AIM cache.
 		if (proc.params.useAIMCache()) {
@@ -1334,104 +1378,95 @@ public class HierarchicalCache<Line extends ViserLine> {
 	MemoryResponse<Line> requestWithSpecialInvalidState(Processor<Line> proc,
 			final DataAccess access, boolean read) {
 		final ByteAddress address = access.addr();
-		int setIndex = index(address.get());
-		LinkedList<Line> set = sets.get(setIndex);
+		CacheSet<Line> set = sets[index(address.get())];
 		assert set.size() == assoc;
 
-		MemoryResponse<Line> ret = new MemoryResponse<Line>();
+		// Only the processor's current access uses the response, so it need not be allocated
+		MemoryResponse<Line> ret = accessResponse.reset();
 
 		ExecutionPhase phase = ExecutionPhase.REGION_BODY;
 
 		// search this cache
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
-			if (line.valid() && line.contains(address)) {
-
-				if (line.getState() == ViserState.VISER_INVALID_TENTATIVE) {
-					assert levelInHierarchy.compareTo(CacheLevel.L3) < 0;
-					// Check if the line still contains valid values by comparing versions with
-					// shared memory
-					MemoryResponse<Line> sharedResp = proc.getLineFromLLCOrMemory(line, read);
-					assert sharedResp.lineHit != null;
-					long localVersion = line.getVersion();
-					long sharedVersion = sharedResp.lineHit.getVersion();
-					assert localVersion <= sharedVersion;
-					if (localVersion == sharedVersion) {
-						ret.invalidStateHit = true;
-						ret.invalidStateSharedHitLevel = sharedResp.whereHit;
-						line.changeStateTo(ViserState.VISER_VALID);
-						if (levelInHierarchy == CacheLevel.L1) {
-							if (proc.params.useL2()) {
-								Line l2Line = proc.L2cache.getLine(line);
-								assert l2Line.getState() == ViserState.VISER_INVALID_TENTATIVE;
-								l2Line.changeStateTo(ViserState.VISER_VALID);
-							}
-						} else {
-							if (ViserSim.assertsEnabled) {
-								assert proc.L1cache.getLine(line) == null;
-							}
+		long lineAddr = access.lineAddr();
+		for (int way = set.find(lineAddr); way >= 0; way = set.find(lineAddr, way + 1)) {
+			Line line = set.getWay(way);
+
+			if (line.getState() == ViserState.VISER_INVALID_TENTATIVE) {
+				assert levelInHierarchy.compareTo(CacheLevel.L3) < 0;
+				// Check if the line still contains valid values by comparing versions with
+				// shared memory
+				MemoryResponse<Line> sharedResp = proc.getLineFromLLCOrMemory(line, read);
+				assert sharedResp.lineHit != null;
+				long localVersion = line.getVersion();
+				long sharedVersion = sharedResp.lineHit.getVersion();
+				assert localVersion <= sharedVersion;
+				if (localVersion == sharedVersion) {
+					ret.invalidStateHit = true;
+					ret.invalidStateSharedHitLevel = sharedResp.whereHit;
+					line.changeStateTo(ViserState.VISER_VALID);
+					if (levelInHierarchy == CacheLevel.L1) {
+						if (proc.params.useL2()) {
+							Line l2Line = proc.L2cache.getLine(line);
+							assert l2Line.getState() == ViserState.VISER_INVALID_TENTATIVE;
+							l2Line.changeStateTo(ViserState.VISER_VALID);
 						}
 					} else {
-						// Consider this to be a miss
-						ret.invalidStateFailure = true;
-						line.invalidate();
-						if (levelInHierarchy == CacheLevel.L1) {
-							if (proc.params.useL2()) {
-								Line l2Line = proc.L2cache.getLine(line);
-								assert l2Line.getState() == ViserState.VISER_INVALID_TENTATIVE;
-								l2Line.invalidate();
-							}
-						} else {
-							if (ViserSim.assertsEnabled) {
-								assert proc.L1cache.getLine(line) == null;
-							}
+						if (ViserSim.assertsEnabled) {
+							assert proc.L1cache.getLine(line) == null;
 						}
-						continue;
 					}
-				}
-
-				// hit!
-				if (proc.params.usePLRU()) {
-					setMRUBit(line, read);
 				} else {
-					// move this line to the mru spot
-					if (line != set.getFirst()) {
-						it.remove();
-						set.addFirst(line);
+					// Consider this to be a miss
+					ret.invalidStateFailure = true;
+					line.invalidate();
+					if (levelInHierarchy == CacheLevel.L1) {
+						if (proc.params.useL2()) {
+							Line l2Line = proc.L2cache.getLine(line);
+							assert l2Line.getState() == ViserState.VISER_INVALID_TENTATIVE;
+							l2Line.invalidate();
+						}
+					} else {
+						if (ViserSim.assertsEnabled) {
+							assert proc.L1cache.getLine(line) == null;
+						}
 					}
+					continue;
 				}
-				assert line == set.getFirst();
-				if (levelInHierarchy == CacheLevel.L3) {
-					// If the line is deferred, fetch the updated values from the owner core into
-					// the LLC.
-					if (proc.params.deferWriteBacks() && line.isLineDeferred()) {
-						proc.fetchDeferredLineFromPrivateCache(line, false, false);
-					}
+			}
+
+			// hit!
+			touchLine(set, way, read);
+			assert line == set.first();
+			if (levelInHierarchy == CacheLevel.L3) {
+				// If the line is deferred, fetch the updated values from the owner core into
+				// the LLC.
+				if (proc.params.deferWriteBacks() && line.isLineDeferred()) {
+					proc.fetchDeferredLineFromPrivateCache(line, false, false);
 				}
+			}
 
-				if (levelInHierarchy == CacheLevel.L1) {
-					ret.lineHit = line;
-				} else if (levelInHierarchy == CacheLevel.L2) { // L2
-					// Create a new object instead of a mere reference
-					ret.lineHit = lineFactory.create(proc, levelInHierarchy, line);
-				} else {
-					assert levelInHierarchy == CacheLevel.L3;
-					ret.lineHit = lineFactory.create(processor, levelInHierarchy, line);
-
-					if (proc.params.useAIMCache()) {
-						if (/* proc.needToCheckAIMCache(line) */ line.hasAIMMD()) {
-							// Check if AIM hit/miss
-							AIMResponse<Line> aimResp = proc.aimcache.request(proc, line, read,
-									phase);
-							ret.aimHit = aimResp.whereHit;
-						} else {
-							ret.aimHit = CacheLevel.L3;
-						}
+			if (levelInHierarchy == CacheLevel.L1) {
+				ret.lineHit = line;
+			} else if (levelInHierarchy == CacheLevel.L2) { // L2
+				// Create a new object instead of a mere reference
+				ret.lineHit = lineFactory.create(proc, levelInHierarchy, line);
+			} else {
+				assert levelInHierarchy == CacheLevel.L3;
+				ret.lineHit = line;
+
+				if (proc.params.useAIMCache()) {
+					if (/* proc.needToCheckAIMCache(line) */ line.hasAIMMD()) {
+						// Check if AIM hit/miss
+						AIMResponse<Line> aimResp = proc.aimcache.request(proc, line, read,
+								phase);
+						ret.aimHit = aimResp.whereHit;
+					} else {
+						ret.aimHit = CacheLevel.L3;
 					}
 				}
-				ret.whereHit = this.levelInHierarchy;
-				return ret;
 			}
+			ret.whereHit = this.levelInHierarchy;
+			return ret;
 		}
 
 		// if we made it here, we missed in this cache
@@ -1465,8 +1500,8 @@ public class HierarchicalCache<Line extends ViserLine> {
 			// proc.updateMemoryAccesses(sizeInBytes, true);
 
 			assert memLine.valid();
-			assert memLine.id().equals(new CpuId(0));
-			ret.lineHit = lineFactory.create(processor, levelInHierarchy, memLine); // copy a line
+			assert memLine.id().get() == 0;
+			ret.lineHit = memLine; // memLine is installed in this LLC below
 		}
 
 		if (levelInHierarchy == CacheLevel.L1) { // miss in L1
@@ -1475,9 +1510,12 @@ public class HierarchicalCache<Line extends ViserLine> {
 				return ret;
 			}
 
+			// Create a copy of the line with the correct owner processor before anything is
+			// written back, since ret.lineHit may be the LLC line itself
+			Line insert = lineFactory.create(proc, levelInHierarchy, ret.lineHit);
+
 			// evict a line (possibly to next-level cache)
-			Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy, phase,
-					MRUBits[setIndex]);
+			Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy, phase);
 			assert toEvict.id() == proc.id
 					&& proc.id == processor.id : "The owner of a private line should always be the current core";
 			if (toEvict.valid() && ViserSim.assertsEnabled && proc.params.useL2()) {
@@ -1490,22 +1528,9 @@ public class HierarchicalCache<Line extends ViserLine> {
 				nextCache.evictedFromHigherCache(proc, toEvict, phase);
 			}
 
-			// Create a copy of the line, not required since ret.lineHit already represents an
-			// unique copy, but
-			// we want to set the correct owner processor
-			Line insert = lineFactory.create(proc, levelInHierarchy, ret.lineHit);
 			// remove the evicted line and insert the new line only after a successful eviction
-			if (proc.params.usePLRU()) {
-				int lineIndex = set.indexOf(toEvict);
-				set.set(lineIndex, insert);
-				setMRUBit(insert, read);
-			} else {
-				boolean found = set.remove(toEvict);
-				assert found;
-				assert insert.id() == processor.id && proc.id == processor.id;
-				// NB: only push in the incoming line *after* we've evicted something
-				set.addFirst(insert);
-			}
+			assert insert.id() == processor.id && proc.id == processor.id;
+			replaceLine(set, toEvict, insert, read);
 			ret.lineHit = insert;
 			// l1 line will be updated with access.value() (l2 line won't)
 
@@ -1515,9 +1540,13 @@ public class HierarchicalCache<Line extends ViserLine> {
 				return ret;
 			}
 
+			// Create a copy of the line before anything is written back, since ret.lineHit is the
+			// LLC line itself
+			assert ret.lineHit.valid();
+			Line insert = lineFactory.create(proc, levelInHierarchy, ret.lineHit);
+
 			// evict a possibly VALID line
-			Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy, phase,
-					MRUBits[setIndex]);
+			Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy, phase);
 			assert toEvict.id() == proc.id
 					&& proc.id == processor.id : "The owner of a private line should always be the current core";
 
@@ -1529,7 +1558,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 				// Set the epoch for a line before being evicted from the L2 cache. The following
 				// assertion
 				// does not work, since a L2 line can get evicted before a region end.
-				assert toEvict.getEpoch(proc.id).equals(proc.getCurrentEpoch());
+				assert toEvict.getEpoch(proc.id) == proc.getCurrentEpoch();
 				// Rui: I can't see any benefit of the following statement.
 				// toEvict.setEpoch(proc.id, proc.getCurrentEpoch());
 
@@ -1537,7 +1566,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 				if (l1Line != null) {
 					assert l1Line.valid();
 					assert l1Line.id() == proc.id;
-					assert l1Line.getEpoch(proc.id).equals(proc.getCurrentEpoch());
+					assert l1Line.getEpoch(proc.id) == proc.getCurrentEpoch();
 					if (l1Line.isWrittenAfterRead(l1Line.id())) {
 						boolean hit = validateReadL2LineOnL1Eviction(proc, l1Line, toEvict, phase);
 
@@ -1572,24 +1601,11 @@ public class HierarchicalCache<Line extends ViserLine> {
 				nextCache.evictedFromHigherCache(proc, toEvict, phase);
 			}
 
-			Line insert = lineFactory.create(proc, levelInHierarchy, ret.lineHit);
-			if (proc.params.usePLRU()) {
-				int lineIndex = set.indexOf(toEvict);
-				set.set(lineIndex, insert);
-				setMRUBit(insert, read);
-			} else {
-				// remove the evicted line and insert the new line only after a successful eviction
-				boolean found = set.remove(toEvict);
-				assert found;
-
-				// Create a copy of the line
-				assert ret.lineHit.valid();
-				// This does not hold, since we already make a copy of the line
-				// assert ret.lineHit.id().get() == 0;
-				assert insert.id() == processor.id && proc.id == processor.id;
-				// NB: only push in the incoming line *after* we've evicted something
-				set.addFirst(insert);
-			}
+			// This does not hold, since we already make a copy of the line
+			// assert ret.lineHit.id().get() == 0;
+			assert insert.id() == processor.id && proc.id == processor.id;
+			// remove the evicted line and insert the new line only after a successful eviction
+			replaceLine(set, toEvict, insert, read);
 			ret.lineHit = insert;
 
 		} else if (levelInHierarchy == CacheLevel.L3) { // miss in LLC
@@ -1598,24 +1614,14 @@ public class HierarchicalCache<Line extends ViserLine> {
 			assert ret.whereHit == CacheLevel.MEMORY && memLine != null;
 			assert ret.lineHit != null && ret.lineHit.valid();
 
-			Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy, phase,
-					MRUBits[setIndex]);
+			Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy, phase);
 
-			if (proc.params.usePLRU()) {
-				int lineIndex = set.indexOf(toEvict);
-				set.set(lineIndex, memLine);
-				setMRUBit(memLine, read);
-			} else {
-				boolean found = set.remove(toEvict);
-				assert found;
-
-				// This is not required for correctness, conflicts on private cache lines will be
-				// detected lazily.
-				// proc.checkPreciseConflicts(memLine, access, read);
+			// This is not required for correctness, conflicts on private cache lines will be
+			// detected lazily.
+			// proc.checkPreciseConflicts(memLine, access, read);
 
-				// NB: only push in the incoming line *after* we've evicted something
-				set.addFirst(memLine);
-			}
+			// NB: only push in the incoming line *after* we've evicted something
+			replaceLine(set, toEvict, memLine, read);
 
 			// If we are evicting a valid line, then need to virtualize the line in memory
 			if (toEvict.valid()) {
@@ -1625,6 +1631,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 					proc.aimcache.evictLine(proc, toEvict, phase);
 				}
 			}
+			proc.machine.memory.recycle(toEvict);
 
 			// So we just fetched a line into the LLC, create one in the AIM cache
 			if (proc.params.useAIMCache()) {
@@ -1637,23 +1644,52 @@ public class HierarchicalCache<Line extends ViserLine> {
 		return ret;
 	}
 
+	/** Put the incoming line in the way of the evicted line, and make it the MRU line. */
+	private void replaceLine(CacheSet<Line> set, Line toEvict, Line incoming, boolean read) {
+		int way = set.wayOf(toEvict);
+		assert way >= 0;
+		if (levelInHierarchy == CacheLevel.L3 && processor.params.useAIMCache()) {
+			// Whether an AIM line is in the LLC is part of its state at the last clear
+			if (toEvict.valid()) {
+				processor.aimcache.applyPendingClear(processor, toEvict);
+			}
+			processor.aimcache.applyPendingClear(processor, incoming);
+		}
+		set.put(way, incoming);
+		if (touched != null) {
+			int setIndex = index(incoming.lineAddress().get());
+			assert sets[setIndex] == set;
+			touched.add(setIndex, way);
+		}
+		touchLine(set, way, read);
+	}
+
+	private void touchLine(CacheSet<Line> set, int way, boolean read) {
+		if (processor.params.usePLRU()) {
+			setMRUBit(set, way, read);
+		} else {
+			set.touch(way);
+		}
+	}
+
 	public void setMRUBit(Line cacheLine, boolean read) {
-		int setIndex = index(cacheLine.lineAddress().get());
-		LinkedList<Line> set = sets.get(setIndex);
-		short bits = MRUBits[setIndex];
-		int lineIndex = set.indexOf(cacheLine);
+		CacheSet<Line> set = sets[index(cacheLine.lineAddress().get())];
+		int lineIndex = set.wayOf(cacheLine);
 		if (lineIndex < 0) {
 			System.out.println("Error: can't find a line in the corresponding set.");
 			System.exit(-777);
 		}
+		setMRUBit(set, lineIndex, read);
+	}
 
-		bits = (short) (bits | (1 << lineIndex));
+	private void setMRUBit(CacheSet<Line> set, int lineIndex, boolean read) {
+		long bits = set.mruBits | (1L << lineIndex);
 		if ((bits & assocMask) == assocMask) { // all bits are set
 			if (processor.params.evictCleanLineFirst() && levelInHierarchy == CacheLevel.L2
 					&& !processor.hasDirtyEviction) {
 				// use modified PLRU on L2
 				for (int i = 0; i < set.size(); i++) {
-					Line line = set.get(i);
+					Line line = set.getWay(i);
 					if (!line.valid()) {
 						System.out.println("lines and bits are inconsistent!");
 						System.exit(-777);
@@ -1666,7 +1702,7 @@ public class HierarchicalCache<Line extends ViserLine> {
 						isDirty = isDirty || !read;
 
 					if (!isDirty) { // read line
-						bits = (short) (bits & ~(1 << i));
+						bits = bits & ~(1L << i);
 					}
 				}
 			}
@@ -1674,31 +1710,21 @@ public class HierarchicalCache<Line extends ViserLine> {
 			if ((bits & assocMask) == assocMask || (bits & assocMask) == 0) { // all lines in the
 																				// set are
 																				// dirty/clean
-				bits = (short) (1 << lineIndex); // keep the last set MRU bit.
+				bits = 1L << lineIndex; // keep the last set MRU bit.
 			}
 		}
-		MRUBits[setIndex] = bits;
+		set.mruBits = bits;
 	}
 
 	// the line should still be valid when this function is called
 	public void resetMRUBit(Line toInvalidate) {
-		int setIndex = index(toInvalidate.lineAddress().get());
-		List<Line> set = sets.get(setIndex);
-		int lineIndex = -1;
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
-			if (line.valid() && line.lineAddress().get() == toInvalidate.lineAddress().get()) {
-				lineIndex = set.indexOf(line);
-				break;
-			}
-		}
+		CacheSet<Line> set = sets[index(toInvalidate.lineAddress().get())];
+		int lineIndex = set.find(toInvalidate.lineAddress().get());
 		if (lineIndex == -1) {
 			System.out.println("Can't find the line to reset MRU bit");
 			System.exit(-1);
 		}
-		short bits = MRUBits[setIndex];
-		bits = (short) (bits & ~(1 << lineIndex));
-		MRUBits[setIndex] = bits;
+		set.mruBits &= ~(1L << lineIndex);
 	}
 
 } // end class HierarchicalCache
@@ -1,5 +1,7 @@
 package simulator.viser;
 
+import java.util.Arrays;
+
 /**
  * These types would be encoded as "variant types" in other languages, but have to be distinct
  * classes in Java. Basically, we want to maintain the distinctions of different kinds of numbers,
@@ -42,10 +44,23 @@ class CpuId {
 class ThreadId {
 	private final byte tid;
 
+	/** Canonical instances, indexed by the unsigned value of the id */
+	private static final ThreadId[] cache = new ThreadId[256];
+
 	public ThreadId(byte id) {
 		tid = (byte) id;
 	}
 
+	/** Returns a shared instance for the given id. ThreadId is immutable, so this is safe. */
+	static ThreadId of(byte id) {
+		ThreadId t = cache[id & 0xff];
+		if (t == null) {
+			t = new ThreadId(id);
+			cache[id & 0xff] = t;
+		}
+		return t;
+	}
+
 	public short get() {
 		return tid;
 	}
@@ -74,61 +89,6 @@ class ThreadId {
 	}
 }
 
-/**
- * Represent per-thread epochs. This is in general a complicated issue, because threads and
- * processes can be swapped in and out and the fact needs to be noted in the cache. To be simple, we
- * disallow swapping threads in and out in a region, except at region boundaries. Moreover,
- * validation needs to be done if a thread gets stuck doing IO within a long region.
- */
-class Epoch {
-	static final int REGION_ID_START = 1;
-	private int regionId;
-
-	public Epoch() {
-		this(-1);
-	}
-
-	public Epoch(Epoch ep) {
-		this(ep.regionId);
-	}
-
-	public Epoch(int reg) {
-		this.regionId = reg;
-	}
-
-	public int getRegionId() {
-		return regionId;
-	}
-
-	public void setRegionId(int reg) {
-		this.regionId = reg;
-	}
-
-	public void incrementRegionId() {
-		this.regionId++;
-		assert this.regionId <= Integer.MAX_VALUE : "Region id has overflowed for Thread";
-	}
-
-	@Override
-	public String toString() {
-		return Integer.toString(regionId);
-	}
-
-	@Override
-	public boolean equals(Object o) {
-		if (o instanceof Epoch) {
-			Epoch that = (Epoch) o;
-			return this.regionId == that.regionId;
-		}
-		return false;
-	}
-
-	@Override
-	public int hashCode() {
-		return regionId;
-	}
-}
-
 /** The fully-qualified address of a particular byte in memory */
 abstract class ByteAddress {
 	protected long addr;
@@ -141,6 +101,10 @@ abstract class ByteAddress {
 		return this.addr;
 	}
 
+	public void set(long a) {
+		this.addr = a;
+	}
+
 	public void incr() {
 		this.addr++;
 	}
@@ -250,53 +214,74 @@ class DataLineAddress extends LineAddress {
  * i++) { if (((1L << i) & enc) != 0) this.siteIndex[i] = si.siteIndex[i]; } } }
  */
 
-class PerCoreLineMetadata {
+/**
+ * The per-core metadata that an LLC line maintains, as a struct of arrays indexed by core id: the
+ * region in which the core last accessed the line, and the bytes it wrote and read in that region.
+ * Encodings of an older region are stale. The site arrays of a core are only allocated once a site
+ * is recorded for it, i.e., with site tracking.
+ */
+final class PerCoreLineMetadata {
+	final int[] epoch;
 	/** Represent precise access information, one bit per byte */
-	long writeEncoding = 0L;
-	long readEncoding = 0L;
-	/**
-	 * Per-thread (not core) epoch. This can be used to avoid clearing lines in the LLC and main
-	 * memory. Each LLC+ line needs to remember the line from each core.
-	 */
-	Epoch epoch;
-	int[] writeSiteInfo = null;
-	int[] readSiteInfo = null;
-	int[] writeLastSiteInfo = null;
-	int[] readLastSiteInfo = null;
-
-	public PerCoreLineMetadata() {
-		this.epoch = new Epoch();
-		this.writeEncoding = 0L;
-		this.readEncoding = 0L;
-	}
-
-	public PerCoreLineMetadata(Epoch ep, long write, long read, int[] writeinfo, int[] readinfo,
-			int[] writelastinfo, int[] readlastinfo) {
-		this.epoch = new Epoch(ep);
-		this.writeEncoding = write;
-		this.readEncoding = read;
-
-		if (writeinfo != null) {
-			writeSiteInfo = new int[SystemConstants.LINE_SIZE()];
-			writeLastSiteInfo = new int[SystemConstants.LINE_SIZE()];
-			for (int i = 0; i < SystemConstants.LINE_SIZE(); i++) {
-				this.writeSiteInfo[i] = writeinfo[i];
-				this.writeLastSiteInfo[i] = writelastinfo[i];
-			}
+	final long[] writeEncoding;
+	final long[] readEncoding;
+	int[][] writeSiteInfo = null;
+	int[][] readSiteInfo = null;
+	int[][] writeLastSiteInfo = null;
+	int[][] readLastSiteInfo = null;
+
+	PerCoreLineMetadata(int numCores) {
+		epoch = new int[numCores];
+		Arrays.fill(epoch, Machine.NO_REGION);
+		writeEncoding = new long[numCores];
+		readEncoding = new long[numCores];
+	}
+
+	/** Deep copy */
+	PerCoreLineMetadata(PerCoreLineMetadata other) {
+		epoch = other.epoch.clone();
+		writeEncoding = other.writeEncoding.clone();
+		readEncoding = other.readEncoding.clone();
+		writeSiteInfo = copySites(other.writeSiteInfo);
+		readSiteInfo = copySites(other.readSiteInfo);
+		writeLastSiteInfo = copySites(other.writeLastSiteInfo);
+		readLastSiteInfo = copySites(other.readLastSiteInfo);
+	}
+
+	boolean hasSites() {
+		return writeSiteInfo != null || readSiteInfo != null;
+	}
+
+	void clearSites() {
+		writeSiteInfo = null;
+		readSiteInfo = null;
+		writeLastSiteInfo = null;
+		readLastSiteInfo = null;
+	}
+
+	/** Deep copy of the sites only */
+	void copySitesFrom(PerCoreLineMetadata other) {
+		writeSiteInfo = copySites(other.writeSiteInfo);
+		readSiteInfo = copySites(other.readSiteInfo);
+		writeLastSiteInfo = copySites(other.writeLastSiteInfo);
+		readLastSiteInfo = copySites(other.readLastSiteInfo);
+	}
+
+	private static int[][] copySites(int[][] sites) {
+		if (sites == null) {
+			return null;
 		}
-		if (readinfo != null) {
-			readSiteInfo = new int[SystemConstants.LINE_SIZE()];
-			readLastSiteInfo = new int[SystemConstants.LINE_SIZE()];
-			for (int i = 0; i < SystemConstants.LINE_SIZE(); i++) {
-				this.readSiteInfo[i] = readinfo[i];
-				this.readLastSiteInfo[i] = readlastinfo[i];
+		int[][] copy = new int[sites.length][];
+		for (int i = 0; i < sites.length; i++) {
+			if (sites[i] != null) {
+				copy[i] = sites[i].clone();
 			}
 		}
+		return copy;
 	}
 
-	@Override
-	public String toString() {
-		return "Epoch:" + epoch + " Read encoding:" + Long.toBinaryString(readEncoding)
-				+ " Write encoding:" + Long.toBinaryString(writeEncoding) + "\n";
+	String toString(int core) {
+		return "Epoch:" + epoch[core] + " Read encoding:" + Long.toBinaryString(readEncoding[core])
+				+ " Write encoding:" + Long.toBinaryString(writeEncoding[core]) + "\n";
 	}
 }
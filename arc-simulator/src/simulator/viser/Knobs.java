@@ -1,20 +1,32 @@
 package simulator.viser;
 
+import java.io.BufferedReader;
+import java.io.FileReader;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.StringTokenizer;
 
 import joptsimple.OptionParser;
+import joptsimple.OptionSet;
 import joptsimple.OptionSpec;
 
 public class Knobs {
 	public static final OptionSpec<Boolean> Help;
+	public static final OptionSpec<String> ConfigFile;
 	public static final OptionSpec<Boolean> Xasserts;
 	public static final OptionSpec<Integer> AssertPeriod;
 	public static final OptionSpec<String> StatsFile;
 	public static final OptionSpec<String> ToSimulatorFifo;
+	public static final OptionSpec<Boolean> PipelinedDecode;
+	public static final OptionSpec<Boolean> SeekToROI;
+	public static final OptionSpec<Integer> ROIWarmupEvents;
+	public static final OptionSpec<Integer> MemoryHotLines;
+	public static final OptionSpec<String> MemorySpillDir;
 
 	public static final OptionSpec<Integer> Cores;
 	public static final OptionSpec<Integer> PinThreads;
@@ -45,6 +57,8 @@ public class Knobs {
 	public static final OptionSpec<Boolean> UseSpecialInvalidState;
 	public static final OptionSpec<Boolean> UseBloomFilter;
 	public static final OptionSpec<Boolean> UseTwoBloomFuncs;
+	public static final OptionSpec<Integer> BloomFilterBits;
+	public static final OptionSpec<Integer> BloomFilterHashes;
 
 	public static final OptionSpec<Boolean> UseAIMCache;
 	public static final OptionSpec<Integer> NumAIMLines;
@@ -84,6 +98,10 @@ public class Knobs {
 
 		Help = parser.accepts("help", "print this help message").withOptionalArg()
 				.ofType(Boolean.class).defaultsTo(false);
+		ConfigFile = parser
+				.accepts("config-file",
+						"File of knobs, one per line, that the command-line knobs override")
+				.withRequiredArg();
 		Xasserts = parser.accepts("xasserts", "enable eXpensive assert checks").withOptionalArg()
 				.ofType(Boolean.class).defaultsTo(false);
 		AssertPeriod = parser.accepts("assert-period", "enable asserts after so many events")
@@ -93,6 +111,25 @@ public class Knobs {
 		ToSimulatorFifo = parser
 				.accepts("tosim-fifo", "named fifo used to get events from the front-end")
 				.withRequiredArg();
+		PipelinedDecode = parser
+				.accepts("pipelined-decode", "Decode the trace on a separate thread")
+				.withRequiredArg().ofType(Boolean.class).defaultsTo(true);
+		SeekToROI = parser
+				.accepts("seek-to-roi",
+						"Use the trace index to skip the events before the ROI of a trace file")
+				.withRequiredArg().ofType(Boolean.class).defaultsTo(false);
+		ROIWarmupEvents = parser
+				.accepts("roi-warmup-events",
+						"Number of events to simulate before the ROI with --seek-to-roi")
+				.withRequiredArg().ofType(Integer.class).defaultsTo(0);
+		MemoryHotLines = parser
+				.accepts("memory-hot-lines",
+						"Most evicted LLC lines to keep on the heap, the others are spilled to a "
+								+ "memory-mapped file (0 keeps all of them on the heap)")
+				.withRequiredArg().ofType(Integer.class).defaultsTo(0);
+		MemorySpillDir = parser
+				.accepts("memory-spill-dir", "Directory of the file that spilled lines go to")
+				.withRequiredArg().defaultsTo(System.getProperty("java.io.tmpdir"));
 		modelOnlyROI = parser.accepts("model-only-roi", "Whether to only simulate the ROI?")
 				.withRequiredArg().ofType(Boolean.class).defaultsTo(true);
 
@@ -167,6 +204,14 @@ public class Knobs {
 		UseTwoBloomFuncs = registerBool(
 				parser.accepts("use-two-bloom-funcs", "Use two Bloom filter functions.")
 						.withRequiredArg().ofType(Boolean.class).defaultsTo(true));
+		BloomFilterBits = parser
+				.accepts("bloom-filter-bits", "Size of each per-core Bloom filter, up to 128 bits")
+				.withRequiredArg().ofType(Integer.class).defaultsTo(BloomFilter.DEFAULT_BITS);
+		BloomFilterHashes = parser
+				.accepts("bloom-filter-hashes",
+						"Number of Bloom filter hash functions (0 picks one or two, following "
+								+ "--use-two-bloom-funcs)")
+				.withRequiredArg().ofType(Integer.class).defaultsTo(0);
 
 		UseAIMCache = registerBool(parser.accepts("use-aim-cache", "Use AIM cache")
 				.withRequiredArg().ofType(Boolean.class).defaultsTo(false));
@@ -237,6 +282,77 @@ public class Knobs {
 				.withRequiredArg().ofType(Boolean.class).defaultsTo(false));
 	}
 
+	/**
+	 * Parse the given knobs, along with the knobs in the file given by --config-file if any. Each
+	 * non-empty line of the file that does not start with '#' holds one knob, as "name value" or
+	 * "name=value", with or without the leading dashes. A knob on the command line overrides the
+	 * same knob in the file.
+	 */
+	public static OptionSet parse(String... args) throws IOException {
+		List<String> cmdline = new ArrayList<String>();
+		String configFile = null;
+		String flag = "--" + ConfigFile.options().get(0);
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals(flag) && i + 1 < args.length) {
+				configFile = args[++i];
+			} else if (args[i].startsWith(flag + "=")) {
+				configFile = args[i].substring(flag.length() + 1);
+			} else {
+				cmdline.add(args[i]);
+			}
+		}
+		if (configFile == null) {
+			return parser.parse(args);
+		}
+
+		Set<String> overridden = new HashSet<String>();
+		for (String arg : cmdline) {
+			if (arg.startsWith("--")) {
+				overridden.add(knobName(arg));
+			}
+		}
+		List<String> knobs = new ArrayList<String>();
+		for (String knob : readConfigFile(configFile)) {
+			if (!overridden.contains(knobName(knob))) {
+				knobs.add(knob);
+			}
+		}
+		knobs.addAll(cmdline);
+		return parser.parse(knobs.toArray(new String[knobs.size()]));
+	}
+
+	/** The knobs in a config file, as "--name=value" or "--name" arguments */
+	static List<String> readConfigFile(String configFile) throws IOException {
+		List<String> knobs = new ArrayList<String>();
+		BufferedReader rd = new BufferedReader(new FileReader(configFile));
+		try {
+			String line;
+			while ((line = rd.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				if (!line.startsWith("--")) {
+					line = "--" + line;
+				}
+				String[] nameValue = line.split("\\s*=\\s*|\\s+", 2);
+				if (nameValue.length == 1) {
+					knobs.add(nameValue[0]);
+				} else {
+					knobs.add(nameValue[0] + "=" + nameValue[1]);
+				}
+			}
+		} finally {
+			rd.close();
+		}
+		return knobs;
+	}
+
+	private static String knobName(String arg) {
+		int eq = arg.indexOf('=');
+		return (eq < 0) ? arg.substring(2) : arg.substring(2, eq);
+	}
+
 	/*
 	 * Below is the stuff that automatically allows certain flags ("registered" ones) to appear in
 	 * the stats output, without any additional effort.
@@ -284,27 +400,27 @@ public class Knobs {
 		return result;
 	}
 
-	public static void dumpRegisteredParams(Writer w) throws IOException {
+	public static void dumpRegisteredParams(OptionSet options, Writer w) throws IOException {
 		for (OptionSpec<Boolean> osb : BooleanParameters) {
-			String value = ViserSim.Options.valueOf(osb) ? "True" : "False";
+			String value = options.valueOf(osb) ? "True" : "False";
 			w.write("'" + format(osb.toString()) + "': " + value + ", ");
 		}
 		for (OptionSpec<String> os : StringParameters) {
-			w.write("'" + format(os.toString()) + "': '" + ViserSim.Options.valueOf(os) + "', ");
+			w.write("'" + format(os.toString()) + "': '" + options.valueOf(os) + "', ");
 		}
 		for (OptionSpec<? extends Enum<?>> os : EnumParameters) {
-			w.write("'" + format(os.toString()) + "': '" + ViserSim.Options.valueOf(os).toString()
+			w.write("'" + format(os.toString()) + "': '" + options.valueOf(os).toString()
 					+ "', ");
 		}
 		for (OptionSpec<Integer> os : IntegerParameters) {
 			if (os == Cores) {
-				w.write("'" + format(os.toString()) + "': '" + ViserSim.Options.valueOf(os)
+				w.write("'" + format(os.toString()) + "': '" + options.valueOf(os)
 						+ "p', ");
 			} else if (os == L1Size || os == L2Size || os == L3Size) {
-				int kb = ViserSim.Options.valueOf(os) / 1024;
+				int kb = options.valueOf(os) / 1024;
 				w.write("'" + format(os.toString()) + "': '" + kb + "KB', ");
 			} else {
-				w.write("'" + format(os.toString()) + "': " + ViserSim.Options.valueOf(os) + ", ");
+				w.write("'" + format(os.toString()) + "': " + options.valueOf(os) + ", ");
 			}
 		}
 	}
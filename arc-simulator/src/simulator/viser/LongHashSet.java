@@ -0,0 +1,121 @@
+package simulator.viser;
+
+import java.util.Arrays;
+
+/**
+ * A set of longs with open addressing and linear probing, so that adding, looking up, and removing
+ * addresses neither boxes them nor allocates entries. Clearing keeps the table, so a set that is
+ * refilled every region only allocates while it grows past its largest size so far.
+ */
+final class LongHashSet {
+	/** Marks a free slot. The key 0 itself is tracked by {@link #hasZero}. */
+	private static final long FREE = 0L;
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private int mask;
+	/** Number of slots in use, not counting the key 0 */
+	private int used;
+	private boolean hasZero;
+
+	LongHashSet() {
+		keys = new long[MIN_CAPACITY];
+		mask = MIN_CAPACITY - 1;
+	}
+
+	int size() {
+		return used + (hasZero ? 1 : 0);
+	}
+
+	boolean isEmpty() {
+		return size() == 0;
+	}
+
+	static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private int slotOf(long key) {
+		int i = hash(key) & mask;
+		while (keys[i] != FREE && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	boolean contains(long key) {
+		if (key == FREE) {
+			return hasZero;
+		}
+		return keys[slotOf(key)] == key;
+	}
+
+	/** Returns true if the key was not present. */
+	boolean add(long key) {
+		if (key == FREE) {
+			boolean added = !hasZero;
+			hasZero = true;
+			return added;
+		}
+		int i = slotOf(key);
+		if (keys[i] == key) {
+			return false;
+		}
+		keys[i] = key;
+		if (++used * 2 > keys.length) {
+			rehash(keys.length * 2);
+		}
+		return true;
+	}
+
+	/** Returns true if the key was present. */
+	boolean remove(long key) {
+		if (key == FREE) {
+			boolean removed = hasZero;
+			hasZero = false;
+			return removed;
+		}
+		int i = slotOf(key);
+		if (keys[i] != key) {
+			return false;
+		}
+		// Shift back the entries of the probe run that follows, so that no tombstones are needed
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			if (keys[j] == FREE) {
+				break;
+			}
+			int home = hash(keys[j]) & mask;
+			// Move keys[j] into the hole at i unless its home lies cyclically in (i, j]
+			if (i <= j ? (i < home && home <= j) : (i < home || home <= j)) {
+				continue;
+			}
+			keys[i] = keys[j];
+			i = j;
+		}
+		keys[i] = FREE;
+		used--;
+		return true;
+	}
+
+	void clear() {
+		if (used > 0) {
+			Arrays.fill(keys, FREE);
+			used = 0;
+		}
+		hasZero = false;
+	}
+
+	private void rehash(int capacity) {
+		long[] old = keys;
+		keys = new long[capacity];
+		mask = capacity - 1;
+		for (long k : old) {
+			if (k != FREE) {
+				keys[slotOf(k)] = k;
+			}
+		}
+	}
+}
@@ -2,16 +2,14 @@ package simulator.viser;
 
 import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.Writer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 class MultipleWritersLineMD<Line> {
 	Line llcLine;
@@ -24,12 +22,13 @@ public class Machine<Line extends ViserLine> {
 	// Variable-sized message requires a two byte header: the first is a read vector for N cores,
 	// and the second is a
 	// write vector for N cores. This is usually required for communication involving memory.
-	public final int VISER_VARIABLE_MSG_HEADER = 2
-			* (int) (Math.ceil(ViserSim.numProcessors() / SystemConstants.BITS_IN_BYTE));
+	public final int VISER_VARIABLE_MSG_HEADER;
 
 	final Processor<Line>[] processors;
 
-	final MachineParams<Line> params;
+	final SimContext ctx;
+
+	final CompiledParams<Line> params;
 
 	public enum SimulationMode {
 		BASELINE, VISER
@@ -38,9 +37,8 @@ public class Machine<Line extends ViserLine> {
 	// public int[] rtnCoverage = new int[1500];
 	// public int[] srcCoverage = new int[400];
 
-	// At most 25 static conflicts
-	List<Conflict> conflicts = new ArrayList<>();
-	List<SiteInfoEntry> siteInfo = new ArrayList<SiteInfoEntry>();
+	final ConflictTable conflicts;
+	SiteInfoTable siteInfo = new SiteInfoTable();
 
 	double[] check_point_time;
 	double check_point_on_chip_network_16bytes = 0;
@@ -48,14 +46,24 @@ public class Machine<Line extends ViserLine> {
 
 	// We backup evicted LLC lines to memory, including the metadata.
 	/** Machine memory. Holds addresses written to. The key is the line address. */
-	final public HashMap<Long, Line> memory = new HashMap<>();
+	final public MemoryStore<Line> memory;
 	private static final int SCAVENGE_MEMORY = 100000;
+	/** Most memory lines that one region boundary checks during a scavenge */
+	private static final int SCAVENGE_BATCH = 4096;
 	private int[] scavengeMap = null;
+	/** Next memory record to check in the ongoing scavenge, or -1 if there is none */
+	private int scavengeCursor = -1;
+	/** Memory lines of this generation and older only have stale epochs */
+	private int expiredGeneration = -1;
 	/**
-	 * Machine-wide epoch. This is per-core and not per-thread. We can just maintain an array of
-	 * integers.
+	 * Machine-wide epoch, i.e., the id of the ongoing region of each core. This is per-core and not
+	 * per-thread. To be simple, we disallow swapping threads in and out in a region, except at
+	 * region boundaries.
 	 */
-	private Epoch[] epochMap = null;
+	private int[] epochMap = null;
+	static final int REGION_ID_START = 1;
+	/** Region of a line that a core has never accessed */
+	static final int NO_REGION = -1;
 	/** For pausing: Global metadata to indicate cores to be paused. */
 	public long pausingBits = 0L;
 
@@ -145,24 +153,284 @@ public class Machine<Line extends ViserLine> {
 		abstract boolean treatAtomicUpdatesAsRegionBoundaries();
 	}
 
+	/**
+	 * The values of a {@link MachineParams}, each read once into a final field. The params built
+	 * from the knobs look their values up in the OptionSet on every call, and the simulator calls
+	 * many of these accessors on every memory access.
+	 */
+	static final class CompiledParams<Line extends ViserLine> extends MachineParams<Line> {
+		private final SimulationMode simulationMode;
+		private final int numProcessors;
+		private final int numPinThreads;
+		private final boolean pintool;
+		private final boolean lockstep;
+		private final CacheConfiguration<Line> l1config;
+		private final boolean useL2;
+		private final CacheConfiguration<Line> l2config;
+		private final CacheConfiguration<Line> l3config;
+		private final LineFactory<Line> lineFactory;
+		private final boolean ignoreStackReferences;
+		private final boolean remoteAccessesAffectLRU;
+		private final boolean writebackInMemory;
+		private final boolean alwaysInvalidateReadOnlyLines;
+		private final boolean invalidateWrittenLinesOnlyAfterVersionCheck;
+		private final boolean updateWrittenLinesDuringVersionCheck;
+		private final boolean invalidateUntouchedLinesOptimization;
+		private final boolean useSpecialInvalidState;
+		private final boolean useBloomFilter;
+		private final boolean useAIMCache;
+		private final boolean clearAIMCacheAtRegionBoundaries;
+		private final boolean deferWriteBacks;
+		private final boolean areDeferredWriteBacksPrecise;
+		private final boolean skipValidatingReadLines;
+		private final boolean ignoreFetchingDeferredLinesDuringReadValidation;
+		private final boolean ignoreFetchingReadBits;
+		private final boolean ignoreFetchingWriteBits;
+		private final boolean validateL1ReadsAlongWithL2;
+		private final boolean siteTracking;
+		private final boolean printConflictingSites;
+		private final boolean treatAtomicUpdatesAsRegularAccesses;
+		private final boolean isHttpd;
+		private final boolean evictCleanLineFirst;
+		private final boolean usePLRU;
+		private final boolean treatAtomicUpdatesAsRegionBoundaries;
+
+		CompiledParams(MachineParams<Line> p) {
+			this.simulationMode = p.simulationMode();
+			this.numProcessors = p.numProcessors();
+			this.numPinThreads = p.numPinThreads();
+			this.pintool = p.pintool();
+			this.lockstep = p.lockstep();
+			this.l1config = p.l1config();
+			this.useL2 = p.useL2();
+			this.l2config = p.l2config();
+			this.l3config = p.l3config();
+			this.lineFactory = p.lineFactory();
+			this.ignoreStackReferences = p.ignoreStackReferences();
+			this.remoteAccessesAffectLRU = p.remoteAccessesAffectLRU();
+			this.writebackInMemory = p.writebackInMemory();
+			this.alwaysInvalidateReadOnlyLines = p.alwaysInvalidateReadOnlyLines();
+			this.invalidateWrittenLinesOnlyAfterVersionCheck = p.invalidateWrittenLinesOnlyAfterVersionCheck();
+			this.updateWrittenLinesDuringVersionCheck = p.updateWrittenLinesDuringVersionCheck();
+			this.invalidateUntouchedLinesOptimization = p.invalidateUntouchedLinesOptimization();
+			this.useSpecialInvalidState = p.useSpecialInvalidState();
+			this.useBloomFilter = p.useBloomFilter();
+			this.useAIMCache = p.useAIMCache();
+			this.clearAIMCacheAtRegionBoundaries = p.clearAIMCacheAtRegionBoundaries();
+			this.deferWriteBacks = p.deferWriteBacks();
+			this.areDeferredWriteBacksPrecise = p.areDeferredWriteBacksPrecise();
+			this.skipValidatingReadLines = p.skipValidatingReadLines();
+			this.ignoreFetchingDeferredLinesDuringReadValidation = p.ignoreFetchingDeferredLinesDuringReadValidation();
+			this.ignoreFetchingReadBits = p.ignoreFetchingReadBits();
+			this.ignoreFetchingWriteBits = p.ignoreFetchingWriteBits();
+			this.validateL1ReadsAlongWithL2 = p.validateL1ReadsAlongWithL2();
+			this.siteTracking = p.siteTracking();
+			this.printConflictingSites = p.printConflictingSites();
+			this.treatAtomicUpdatesAsRegularAccesses = p.treatAtomicUpdatesAsRegularAccesses();
+			this.isHttpd = p.isHttpd();
+			this.evictCleanLineFirst = p.evictCleanLineFirst();
+			this.usePLRU = p.usePLRU();
+			this.treatAtomicUpdatesAsRegionBoundaries = p.treatAtomicUpdatesAsRegionBoundaries();
+		}
+
+		@Override
+		SimulationMode simulationMode() {
+			return simulationMode;
+		}
+
+		@Override
+		int numProcessors() {
+			return numProcessors;
+		}
+
+		@Override
+		int numPinThreads() {
+			return numPinThreads;
+		}
+
+		@Override
+		boolean pintool() {
+			return pintool;
+		}
+
+		@Override
+		boolean lockstep() {
+			return lockstep;
+		}
+
+		@Override
+		CacheConfiguration<Line> l1config() {
+			return l1config;
+		}
+
+		@Override
+		boolean useL2() {
+			return useL2;
+		}
+
+		@Override
+		CacheConfiguration<Line> l2config() {
+			return l2config;
+		}
+
+		@Override
+		CacheConfiguration<Line> l3config() {
+			return l3config;
+		}
+
+		@Override
+		LineFactory<Line> lineFactory() {
+			return lineFactory;
+		}
+
+		@Override
+		boolean ignoreStackReferences() {
+			return ignoreStackReferences;
+		}
+
+		@Override
+		boolean remoteAccessesAffectLRU() {
+			return remoteAccessesAffectLRU;
+		}
+
+		@Override
+		boolean writebackInMemory() {
+			return writebackInMemory;
+		}
+
+		@Override
+		boolean alwaysInvalidateReadOnlyLines() {
+			return alwaysInvalidateReadOnlyLines;
+		}
+
+		@Override
+		boolean invalidateWrittenLinesOnlyAfterVersionCheck() {
+			return invalidateWrittenLinesOnlyAfterVersionCheck;
+		}
+
+		@Override
+		boolean updateWrittenLinesDuringVersionCheck() {
+			return updateWrittenLinesDuringVersionCheck;
+		}
+
+		@Override
+		boolean invalidateUntouchedLinesOptimization() {
+			return invalidateUntouchedLinesOptimization;
+		}
+
+		@Override
+		boolean useSpecialInvalidState() {
+			return useSpecialInvalidState;
+		}
+
+		@Override
+		boolean useBloomFilter() {
+			return useBloomFilter;
+		}
+
+		@Override
+		boolean useAIMCache() {
+			return useAIMCache;
+		}
+
+		@Override
+		boolean clearAIMCacheAtRegionBoundaries() {
+			return clearAIMCacheAtRegionBoundaries;
+		}
+
+		@Override
+		boolean deferWriteBacks() {
+			return deferWriteBacks;
+		}
+
+		@Override
+		boolean areDeferredWriteBacksPrecise() {
+			return areDeferredWriteBacksPrecise;
+		}
+
+		@Override
+		boolean skipValidatingReadLines() {
+			return skipValidatingReadLines;
+		}
+
+		@Override
+		boolean ignoreFetchingDeferredLinesDuringReadValidation() {
+			return ignoreFetchingDeferredLinesDuringReadValidation;
+		}
+
+		@Override
+		boolean ignoreFetchingReadBits() {
+			return ignoreFetchingReadBits;
+		}
+
+		@Override
+		boolean ignoreFetchingWriteBits() {
+			return ignoreFetchingWriteBits;
+		}
+
+		@Override
+		boolean validateL1ReadsAlongWithL2() {
+			return validateL1ReadsAlongWithL2;
+		}
+
+		@Override
+		boolean siteTracking() {
+			return siteTracking;
+		}
+
+		@Override
+		boolean printConflictingSites() {
+			return printConflictingSites;
+		}
+
+		@Override
+		boolean treatAtomicUpdatesAsRegularAccesses() {
+			return treatAtomicUpdatesAsRegularAccesses;
+		}
+
+		@Override
+		boolean isHttpd() {
+			return isHttpd;
+		}
+
+		@Override
+		boolean evictCleanLineFirst() {
+			return evictCleanLineFirst;
+		}
+
+		@Override
+		boolean usePLRU() {
+			return usePLRU;
+		}
+
+		@Override
+		boolean treatAtomicUpdatesAsRegionBoundaries() {
+			return treatAtomicUpdatesAsRegionBoundaries;
+		}
+	}
+
 	@SuppressWarnings("unchecked")
-	public Machine(MachineParams<Line> args) {
-		this.params = args;
+	public Machine(SimContext ctx, MachineParams<Line> args) {
+		this.ctx = ctx;
+		this.params = new CompiledParams<Line>(args);
+		this.conflicts = new ConflictTable(ctx);
+		VISER_VARIABLE_MSG_HEADER = 2
+				* (int) (Math.ceil(ctx.numProcessors() / SystemConstants.BITS_IN_BYTE));
 
 		Map<LineAddress, Integer> varmap = new HashMap<LineAddress, Integer>();
 
 		createEpochs(params.numProcessors());
 
 		// construct processors
-		processors = new Processor[args.numProcessors()];
+		processors = new Processor[params.numProcessors()];
 		for (int i = 0; i < processors.length; i++) {
 			CpuId cpuid = new CpuId(i);
-			/* HACK: see Counter.currentCpu for details */
-			Counter.currentCpu = cpuid;
-			processors[i] = new Processor<Line>(args, this, cpuid, processors, varmap);
+			processors[i] = new Processor<Line>(ctx, params, this, cpuid, processors, varmap);
 		}
-		Counter.currentCpu = null;
 
+		memory = new MemoryStore<Line>(processors[0], params.lineFactory(), params.numProcessors(),
+				params.siteTracking(), ctx.options.valueOf(Knobs.MemoryHotLines),
+				new File(ctx.options.valueOf(Knobs.MemorySpillDir)));
 		check_point_time = new double[processors.length];
 	}
 
@@ -188,10 +456,61 @@ public class Machine<Line extends ViserLine> {
 			p.preFinalizeCounters();
 		}
 
-		// the Counter class keeps track of all its instances, so we only need to dump once
-		SumCounter.dumpCounters(wr, prefix, suffix);
-		MaxCounter.dumpCounters(wr, prefix, suffix);
-		DependentCounter.dumpCounters(wr, prefix, suffix);
+		// each kind of stat is dumped for every core, followed by the global values
+		dumpStats(wr, prefix, suffix, Stat.Kind.SUM, ctx.globalSumCounters, "g_");
+		dumpStats(wr, prefix, suffix, Stat.Kind.MAX, ctx.globalMaxCounters, "max_");
+		dumpStats(wr, prefix, suffix, Stat.Kind.DEPENDENT, ctx.globalDependentCounters, "dep_");
+	}
+
+	private void dumpStats(Writer wr, String prefix, String suffix, Stat.Kind kind,
+			Map<String, Double> globals, String globalPrefix) throws IOException {
+		for (Processor<Line> p : processors) {
+			for (Stat s : Stat.ALL) {
+				if (s.kind == kind) {
+					wr.write(prefix + "'cpuid': " + p.id.get() + ", '" + s + "': " + p.stats.get(s)
+							+ suffix);
+				}
+			}
+		}
+		for (Stat s : Stat.ALL) {
+			if (s.kind == kind) {
+				globals.put(s.name(), globalValue(s));
+			}
+		}
+		for (Map.Entry<String, Double> g : globals.entrySet()) {
+			wr.write(prefix + "'cpuid': -1, '" + g.getKey().replace("pc_", globalPrefix) + "': "
+					+ g.getValue() + suffix);
+		}
+	}
+
+	/**
+	 * The sum or the max of a stat over all cores. A dependent stat is taken from the core with the
+	 * max of its base stat.
+	 */
+	private double globalValue(Stat s) {
+		switch (s.kind) {
+			case SUM:
+				double sum = processors[0].stats.get(s);
+				for (int i = 1; i < processors.length; i++) {
+					sum += processors[i].stats.get(s);
+				}
+				return sum;
+			case MAX:
+				return processors[maxCore(s)].stats.get(s);
+			default:
+				return processors[maxCore(s.base)].stats.get(s);
+		}
+	}
+
+	/** The first core with the max value of a stat */
+	private int maxCore(Stat s) {
+		int max = 0;
+		for (int i = 1; i < processors.length; i++) {
+			if (processors[i].stats.get(s) > processors[max].stats.get(s)) {
+				max = i;
+			}
+		}
+		return max;
 	}
 
 	public void insnsExecuted(final CpuId cpuid, int n) {
@@ -246,8 +565,6 @@ public class Machine<Line extends ViserLine> {
 			}
 		}
 
-		Processor.DataMemoryAccessResult mopResult = new Processor.DataMemoryAccessResult();
-		mopResult.remoteCommunicatedHappened = false;
 		int remainingSize = size;
 
 		// Translate the address for atomic and lock accesses, so that they lie on a separate line
@@ -268,23 +585,22 @@ public class Machine<Line extends ViserLine> {
 			remainingSize = SystemConstants.LINE_SIZE();
 		}
 
+		// The access object is reused and nobody keeps the results, so the accesses of an event do
+		// not allocate anything
 		for (long a = translatedAddr; remainingSize > 0;) {
-			DataByteAddress dba = new DataByteAddress(a);
-			int data_bytesFromStartOfLine = dba.lineOffset();
+			int data_bytesFromStartOfLine = (int) (a & SystemConstants.LINE_OFFSET_MASK());
 			int data_maxSizeAccessWithinThisLine = SystemConstants.LINE_SIZE()
 					- data_bytesFromStartOfLine;
 
 			// data access
 			int accessSize = Math.min(remainingSize, data_maxSizeAccessWithinThisLine);
-			Processor.DataMemoryAccessResult tempMor;
+			DataAccess access = proc.scratchAccess.reset(type, a, accessSize, value, cpuid, tid,
+					siteIndex, lastSiteIndex);
 			if (write) {
-				tempMor = proc.write(new DataAccess(type, dba, accessSize, value, cpuid, tid,
-						siteIndex, lastSiteIndex));
+				proc.write(access);
 			} else {
-				tempMor = proc.read(new DataAccess(type, dba, accessSize, value, cpuid, tid,
-						siteIndex, lastSiteIndex));
+				proc.read(access);
 			}
-			mopResult.aggregate(tempMor);
 
 			a += accessSize;
 			remainingSize -= accessSize;
@@ -302,7 +618,7 @@ public class Machine<Line extends ViserLine> {
 
 		if (semantics == EventType.REG_END) {
 			performingProc.processRegionEnd(tid, type);
-			performingProc.stats.pc_RegionBoundaries.incr();
+			performingProc.stats.incr(Stat.pc_RegionBoundaries);
 		} else if (semantics != EventType.REG_BEGIN) {
 			throw new RuntimeException("Invalid region semantics");
 		}
@@ -345,30 +661,25 @@ public class Machine<Line extends ViserLine> {
 	public void printEpochMap() {
 		System.out.println("Printing epoch map:");
 		for (int i = 0; i < epochMap.length; i++) {
-			Epoch tmp = epochMap[i];
-			System.out.println("Core/thread id:" + i + " Region id:" + tmp.getRegionId());
+			System.out.println("Core/thread id:" + i + " Region id:" + epochMap[i]);
 		}
 	}
 
 	public void createEpochs(int numProcs) {
-		epochMap = new Epoch[numProcs];
-		for (int i = 0; i < numProcs; i++) {
-			epochMap[i] = new Epoch(0);
-		}
+		epochMap = new int[numProcs];
 	}
 
 	public void initializeEpochs() {
-		for (int i = 0; i < epochMap.length; i++) {
-			epochMap[i] = new Epoch(Epoch.REGION_ID_START);
-		}
+		Arrays.fill(epochMap, REGION_ID_START);
 	}
 
 	/** Increment epoch for current core id (not thread) */
 	public void incrementEpoch(CpuId id) {
-		epochMap[id.get()].incrementRegionId();
+		epochMap[id.get()]++;
+		assert epochMap[id.get()] > 0 : "Region id has overflowed for core " + id;
 	}
 
-	public Epoch getEpoch(CpuId id) {
+	public int getEpoch(CpuId id) {
 		return epochMap[id.get()];
 	}
 
@@ -405,12 +716,11 @@ public class Machine<Line extends ViserLine> {
 		}
 		// Check if all cores have executed at least a few regions in between
 		for (int i = 0; i < params.numProcessors(); i++) {
-			assert scavengeMap[i] <= epochMap[i]
-					.getRegionId() : "Scavenges should have happened past in time";
+			assert scavengeMap[i] <= epochMap[i] : "Scavenges should have happened past in time";
 			// Have a gap of one to be more effective.
 			// LATER: This might not work if the main thread is blocked, waiting
 			// for the child threads to finish
-			if (scavengeMap[i] >= (epochMap[i].getRegionId() - 1)) {
+			if (scavengeMap[i] >= (epochMap[i] - 1)) {
 				return false;
 			}
 		}
@@ -419,7 +729,7 @@ public class Machine<Line extends ViserLine> {
 
 	private void updateScavengeMap() {
 		for (int i = 0; i < params.numProcessors(); i++) {
-			scavengeMap[i] = getEpoch(new CpuId(i)).getRegionId();
+			scavengeMap[i] = epochMap[i];
 		}
 	}
 
@@ -430,33 +740,41 @@ public class Machine<Line extends ViserLine> {
 		}
 	}
 
-	// This is an expensive operation. Optimize its invocation, ideally should be invoked only if
-	// needed.
+	// Scavenges are incremental: once started, each region boundary checks at most SCAVENGE_BATCH
+	// memory lines, until the scavenge has walked all of memory.
 	private void scavengeMemory(Processor<Line> proc) {
-		if (!shouldScavenge()) {
-			return;
+		if (scavengeCursor < 0) {
+			if (!shouldScavenge()) {
+				return;
+			}
+			proc.stats.incr(Stat.pc_NumScavenges);
+			// Memory lines put before the previous scavenge started hold epochs from before
+			// scavengeMap, and every core has moved past those. So only lines of the latest
+			// generation need their per-core epochs compared.
+			expiredGeneration = memory.newGeneration() - 2;
+			updateScavengeMap();
+			scavengeCursor = memory.size() - 1;
 		}
 
-		proc.stats.pc_NumScavenges.incr();
 		final long startTime = System.currentTimeMillis();
 
-		// Iterate over all entries in the map, and check whether all the epochs for all cores
-		// have expired for a line. Then, we can safely remove that line.
-
-		Iterator<Entry<Long, Line>> iter = memory.entrySet().iterator();
-		while (iter.hasNext()) {
-			Map.Entry<Long, Line> entry = iter.next();
-			Line test = entry.getValue();
-			assert test.valid() : "Should not backup INVALID lines to memory";
+		// Check whether all the epochs for all cores have expired for a line. Then, we can safely
+		// remove that line. Walk the records downwards, since removing a line moves the last
+		// record. Lines put since the scavenge started may get skipped, but they are recent anyway.
+		int stop = Math.max(-1, scavengeCursor - SCAVENGE_BATCH);
+		for (int rec = Math.min(scavengeCursor, memory.size() - 1); rec > stop; rec--) {
+			long lineAddr = memory.lineAddressOf(rec);
 
 			boolean remove = true;
-			for (int i = 0; i < params.numProcessors(); i++) {
-				CpuId cpu = new CpuId(i);
-				PerCoreLineMetadata md = test.getPerCoreMetadata(cpu);
-				if (md.epoch.getRegionId() == getEpoch(cpu).getRegionId()) {
+			// Lines of expired generations skip the epoch check, but not the private cache check
+			int numCores = (memory.generationOf(rec) > expiredGeneration) ? params.numProcessors()
+					: 0;
+			for (int i = 0; i < numCores; i++) {
+				int ep = memory.epochOf(rec, i);
+				if (ep == epochMap[i]) {
 					remove = false;
 					break;
-				} else if (md.epoch.getRegionId() > getEpoch(cpu).getRegionId()) {
+				} else if (ep > epochMap[i]) {
 					assert false : "Scavenges should have happened past in time";
 				} else {
 					// Nothing to do
@@ -473,7 +791,7 @@ public class Machine<Line extends ViserLine> {
 					// in the two caches are consistent.
 					// LATER: Maybe it is okay to invalidate the L1 and L2 lines? Check if it helps
 					// with simlarge workload sizes.
-					Line l2Line = p.L2cache.getLine(test);
+					Line l2Line = p.L2cache.getLine(lineAddr);
 					if (l2Line != null && l2Line.valid()) {
 						remove = false;
 						break;
@@ -483,25 +801,29 @@ public class Machine<Line extends ViserLine> {
 
 			// Only remove after all of the above checks have passed
 			if (remove) {
-				iter.remove();
+				memory.remove(lineAddr);
 			}
 		}
+		scavengeCursor = stop;
 
-		updateScavengeMap();
-
-		ViserSim.totalScavengeTime += (System.currentTimeMillis() - startTime)
+		ctx.totalScavengeTime += (System.currentTimeMillis() - startTime)
 				/ (double) (1000 * 60);
 	}
 
 	/** Should mostly contain of addresses/lines written to. */
 	void dumpMachineMemory() {
 		System.out.println("*************MACHINE MEMORY START*************\n");
-		for (Entry<Long, Line> entry : memory.entrySet()) {
-			Line line = entry.getValue();
+		// Getting a line may move it between tiers, which renumbers the records
+		long[] lineAddrs = new long[memory.size()];
+		for (int rec = 0; rec < lineAddrs.length; rec++) {
+			lineAddrs[rec] = memory.lineAddressOf(rec);
+		}
+		for (long lineAddr : lineAddrs) {
+			Line line = memory.get(lineAddr);
 			System.out.println("Line: " + line);
 			System.out.println("Per-core metadata:");
 			for (int i = 0; i < params.numProcessors(); i++) {
-				System.out.print("\tCore " + i + ": " + line.getPerCoreMetadata(new CpuId(i)));
+				System.out.print("\tCore " + i + ": " + line.perCoreMetadataToString(new CpuId(i)));
 			}
 		}
 		System.out.println("\n*************MACHINE MEMORY END*************\n");
@@ -539,22 +861,11 @@ public class Machine<Line extends ViserLine> {
 
 	public void updateConflictCounters(int f0, int l0, int r0, int f1, int l1, int r1, int lf0,
 			int ll0, int lf1, int ll1) {
-		for (int i = 0; i < conflicts.size(); i++) {
-			Conflict conflict = conflicts.get(i);
-			if (conflict.isTheSame(f0, l0, f1, l1, lf0, ll0, lf1, ll1)) {
-				conflict.inc();
-				return;
-			}
-		}
-		Conflict conflict = new Conflict(f0, l0, r0, f1, l1, r1, lf0, ll0, lf1, ll1);
-		conflict.inc();
-		conflicts.add(conflict);
+		conflicts.update(f0, l0, r0, f1, l1, r1, lf0, ll0, lf1, ll1);
 	}
 
 	// reset the counters to allow counting for other lines.
 	public void resetConflictCounter() {
-		for (int i = 0; i < conflicts.size(); i++) {
-			conflicts.get(i).allowCounting();
-		}
+		conflicts.nextLine();
 	}
 };
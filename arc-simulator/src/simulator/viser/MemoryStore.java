@@ -0,0 +1,438 @@
+package simulator.viser;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Machine memory, i.e., the backing store for lines evicted from the LLC, keyed by line address.
+ *
+ * Each line is kept as a record in flat primitive columns rather than as a line object: the
+ * version, values, per-core epochs and encodings, the deferred and lock owners, and a few flags.
+ * Records are dense and indexed by line address without boxing. Removing a record moves the last
+ * record into its place.
+ *
+ * With a hot line limit, memory is tiered: the hot tier holds the most recently used records on
+ * the heap, and the least recently used one is demoted to a cold tier of fixed-size records in a
+ * memory-mapped file whenever the hot tier outgrows the limit. Getting a cold line promotes it.
+ * Records are numbered from 0 to size()-1 across both tiers, hot records first.
+ *
+ * Each put stamps the record with the current generation, which the scavenger advances, so that
+ * lines that have not been put for a while can be told apart without looking at their epochs.
+ *
+ * A line is rebuilt on every get, into the last line the LLC handed back if there is one. A caller
+ * that updates a line it got from memory without installing it in the LLC needs to put it back.
+ */
+final class MemoryStore<Line extends ViserLine> {
+	private static final int MIN_CAPACITY = 1024;
+	private static final int NONE = LongIntHashMap.NONE;
+
+	static final byte DIRTY = 1;
+	static final byte AIM_MD = 2;
+	static final byte CONCURRENT_REMOTE_WRITE = 4;
+
+	// Layout of a cold record, see coldRecordBytes()
+	private static final int C_ADDR = 0;
+	private static final int C_GENERATION = 8;
+	private static final int C_VERSION = 12;
+	private static final int C_DEFERRED_OWNER = 16;
+	private static final int C_LOCK_OWNER = 20;
+	private static final int C_FLAGS = 24;
+	private static final int C_VALUE_MASK = 32;
+	private static final int C_EPOCHS = 40;
+
+	/** Memory lines are LLC lines, which belong to P0 */
+	private final Processor<Line> p0;
+	private final LineFactory<Line> factory;
+	final int numCores;
+
+	/** Record of each hot line */
+	private final LongIntHashMap index = new LongIntHashMap();
+	private int size;
+	private int generation = 0;
+
+	// The hot columns, indexed by record. Per-core columns hold numCores entries per record.
+	long[] lineAddrs;
+	int[] generations;
+	int[] versions;
+	int[] deferredOwners;
+	int[] lockOwners;
+	byte[] flags;
+	int[] epochs;
+	long[] writeEncodings;
+	long[] readEncodings;
+	long[] valueMasks;
+	long[][] values;
+	// Only with site tracking, null otherwise
+	long[] lastWriterMasks;
+	short[][] lastWriters;
+	PerCoreLineMetadata[] sites;
+
+	/** A line that has left the LLC, which the next get() fills instead of creating one */
+	private Line spare;
+
+	/** Most hot records, or 0 to keep every record on the heap */
+	private final int hotLimit;
+	/** The cold tier, only with a hot line limit */
+	private final SpillFile cold;
+	// Recency order of the hot records, as a doubly-linked list
+	private int[] newer;
+	private int[] older;
+	private int mru = NONE;
+	private int lru = NONE;
+
+	// Tier stats
+	long hotHits = 0;
+	long coldHits = 0;
+	long misses = 0;
+	long bytesSpilled = 0;
+
+	MemoryStore(Processor<Line> p0, LineFactory<Line> factory, int numCores,
+			boolean siteTracking) {
+		this(p0, factory, numCores, siteTracking, 0, null);
+	}
+
+	MemoryStore(Processor<Line> p0, LineFactory<Line> factory, int numCores,
+			boolean siteTracking, int hotLimit, File spillDir) {
+		assert p0.id.get() == 0;
+		this.p0 = p0;
+		this.factory = factory;
+		this.numCores = numCores;
+		this.hotLimit = hotLimit;
+		if (hotLimit < 0) {
+			throw new IllegalArgumentException("Negative hot memory line limit " + hotLimit);
+		}
+		if (hotLimit > 0) {
+			if (siteTracking) {
+				throw new IllegalArgumentException(
+						"Memory lines cannot be spilled with site tracking");
+			}
+			cold = new SpillFile(spillDir, "arcsim-memory", coldRecordBytes(numCores));
+		} else {
+			cold = null;
+		}
+
+		lineAddrs = new long[MIN_CAPACITY];
+		generations = new int[MIN_CAPACITY];
+		versions = new int[MIN_CAPACITY];
+		deferredOwners = new int[MIN_CAPACITY];
+		lockOwners = new int[MIN_CAPACITY];
+		flags = new byte[MIN_CAPACITY];
+		epochs = new int[MIN_CAPACITY * numCores];
+		writeEncodings = new long[MIN_CAPACITY * numCores];
+		readEncodings = new long[MIN_CAPACITY * numCores];
+		valueMasks = new long[MIN_CAPACITY];
+		values = new long[MIN_CAPACITY][];
+		if (siteTracking) {
+			lastWriterMasks = new long[MIN_CAPACITY];
+			lastWriters = new short[MIN_CAPACITY][];
+			sites = new PerCoreLineMetadata[MIN_CAPACITY];
+		}
+		if (cold != null) {
+			newer = new int[MIN_CAPACITY];
+			older = new int[MIN_CAPACITY];
+		}
+	}
+
+	/** A cold record holds the values of all offsets, whether they are set or not */
+	private static int coldRecordBytes(int numCores) {
+		int bytes = C_EPOCHS + numCores * (4 + 8 + 8) + SystemConstants.LINE_SIZE() * 8;
+		return (bytes + 7) & ~7;
+	}
+
+	/** Lines in both tiers */
+	int size() {
+		return size + coldSize();
+	}
+
+	int hotSize() {
+		return size;
+	}
+
+	int coldSize() {
+		return (cold == null) ? 0 : cold.size();
+	}
+
+	/** Bytes of the cold tier file */
+	long coldBytes() {
+		return (cold == null) ? 0 : cold.mappedBytes();
+	}
+
+	boolean isTiered() {
+		return cold != null;
+	}
+
+	boolean contains(long lineAddr) {
+		return index.get(lineAddr) != NONE
+				|| (cold != null && cold.find(lineAddr) != NONE);
+	}
+
+	/** A fresh LLC line with the contents of the memory line, or null if there is none */
+	Line get(long lineAddr) {
+		int rec = index.get(lineAddr);
+		if (rec != NONE) {
+			hotHits++;
+		} else if (cold != null && (rec = cold.find(lineAddr)) != NONE) {
+			coldHits++;
+			rec = promote(rec);
+		} else {
+			misses++;
+			return null;
+		}
+		touch(rec);
+		Line line = spare;
+		if (line == null) {
+			line = factory.create(p0, CacheLevel.L3, new DataLineAddress(lineAddr));
+		} else {
+			spare = null;
+			line.reuseAt(new DataLineAddress(lineAddr));
+		}
+		line.loadFrom(this, rec);
+		demoteIfFull();
+		return line;
+	}
+
+	/** Overwrite the memory line with the contents of the given LLC line */
+	void put(Line line) {
+		long lineAddr = line.lineAddress().get();
+		int rec = index.get(lineAddr);
+		if (rec == NONE) {
+			if (cold != null) {
+				int coldRec = cold.find(lineAddr);
+				if (coldRec != NONE) {
+					cold.remove(coldRec); // about to be overwritten
+				}
+			}
+			rec = addHot(lineAddr);
+		}
+		touch(rec);
+		generations[rec] = generation;
+		line.storeTo(this, rec);
+		demoteIfFull();
+	}
+
+	/**
+	 * Hand back an LLC line that was just replaced in its set. Nothing may hold on to the line, since
+	 * the next get() reuses it.
+	 */
+	void recycle(Line line) {
+		assert line.getLevel() == CacheLevel.L3 && line.id().get() == 0;
+		spare = line;
+	}
+
+	/** Returns true if there was a memory line for the given address */
+	boolean remove(long lineAddr) {
+		int rec = index.get(lineAddr);
+		if (rec != NONE) {
+			removeHot(rec);
+			return true;
+		}
+		if (cold != null && (rec = cold.find(lineAddr)) != NONE) {
+			cold.remove(rec);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Line address of the given record. Removing a line moves the last record of its tier, so
+	 * remove while walking the records downwards.
+	 */
+	long lineAddressOf(int rec) {
+		assert rec < size();
+		return (rec < size) ? lineAddrs[rec] : cold.getLong(rec - size, C_ADDR);
+	}
+
+	int generationOf(int rec) {
+		assert rec < size();
+		return (rec < size) ? generations[rec] : cold.getInt(rec - size, C_GENERATION);
+	}
+
+	/** Start a new generation, and return it */
+	int newGeneration() {
+		return ++generation;
+	}
+
+	int epochOf(int rec, int core) {
+		assert rec < size();
+		return (rec < size) ? epochs[rec * numCores + core]
+				: cold.getInt(rec - size, C_EPOCHS + 4 * core);
+	}
+
+	private int addHot(long lineAddr) {
+		int rec = size++;
+		if (rec == lineAddrs.length) {
+			growRecords(2 * rec);
+		}
+		index.put(lineAddr, rec);
+		lineAddrs[rec] = lineAddr;
+		if (cold != null) {
+			newer[rec] = older[rec] = NONE;
+		}
+		return rec;
+	}
+
+	private void removeHot(int rec) {
+		index.remove(lineAddrs[rec]);
+		unlink(rec);
+		int last = --size;
+		if (rec != last) {
+			moveRecord(last, rec);
+			index.put(lineAddrs[rec], rec);
+		}
+		values[last] = null;
+		if (sites != null) {
+			lastWriters[last] = null;
+			sites[last] = null;
+		}
+	}
+
+	/** Make the record the most recently used one */
+	private void touch(int rec) {
+		if (cold == null || mru == rec) {
+			return;
+		}
+		unlink(rec);
+		older[rec] = mru;
+		newer[rec] = NONE;
+		if (mru != NONE) {
+			newer[mru] = rec;
+		}
+		mru = rec;
+		if (lru == NONE) {
+			lru = rec;
+		}
+	}
+
+	private void unlink(int rec) {
+		if (cold == null) {
+			return;
+		}
+		if (newer[rec] != NONE) {
+			older[newer[rec]] = older[rec];
+		} else if (mru == rec) {
+			mru = older[rec];
+		}
+		if (older[rec] != NONE) {
+			newer[older[rec]] = newer[rec];
+		} else if (lru == rec) {
+			lru = newer[rec];
+		}
+		newer[rec] = older[rec] = NONE;
+	}
+
+	private void demoteIfFull() {
+		if (cold != null && size > hotLimit) {
+			demote(lru);
+		}
+	}
+
+	/** Move a hot record to the cold tier */
+	private void demote(int rec) {
+		int c = cold.add(lineAddrs[rec]);
+		cold.putInt(c, C_GENERATION, generations[rec]);
+		cold.putInt(c, C_VERSION, versions[rec]);
+		cold.putInt(c, C_DEFERRED_OWNER, deferredOwners[rec]);
+		cold.putInt(c, C_LOCK_OWNER, lockOwners[rec]);
+		cold.putByte(c, C_FLAGS, flags[rec]);
+		cold.putLong(c, C_VALUE_MASK, valueMasks[rec]);
+		int writes = C_EPOCHS + 4 * numCores;
+		int reads = writes + 8 * numCores;
+		for (int i = 0; i < numCores; i++) {
+			cold.putInt(c, C_EPOCHS + 4 * i, epochs[rec * numCores + i]);
+			cold.putLong(c, writes + 8 * i, writeEncodings[rec * numCores + i]);
+			cold.putLong(c, reads + 8 * i, readEncodings[rec * numCores + i]);
+		}
+		int vals = reads + 8 * numCores;
+		int v = 0;
+		for (long m = valueMasks[rec]; m != 0; m &= m - 1) {
+			cold.putLong(c, vals + 8 * Long.numberOfTrailingZeros(m), values[rec][v++]);
+		}
+		bytesSpilled += cold.recordBytes;
+		removeHot(rec);
+	}
+
+	/** Move a cold record to the hot tier, and return its hot record */
+	private int promote(int c) {
+		int rec = addHot(cold.getLong(c, C_ADDR));
+		generations[rec] = cold.getInt(c, C_GENERATION);
+		versions[rec] = cold.getInt(c, C_VERSION);
+		deferredOwners[rec] = cold.getInt(c, C_DEFERRED_OWNER);
+		lockOwners[rec] = cold.getInt(c, C_LOCK_OWNER);
+		flags[rec] = cold.getByte(c, C_FLAGS);
+		long mask = cold.getLong(c, C_VALUE_MASK);
+		valueMasks[rec] = mask;
+		int writes = C_EPOCHS + 4 * numCores;
+		int reads = writes + 8 * numCores;
+		for (int i = 0; i < numCores; i++) {
+			epochs[rec * numCores + i] = cold.getInt(c, C_EPOCHS + 4 * i);
+			writeEncodings[rec * numCores + i] = cold.getLong(c, writes + 8 * i);
+			readEncodings[rec * numCores + i] = cold.getLong(c, reads + 8 * i);
+		}
+		int vals = reads + 8 * numCores;
+		long[] packed = (mask == 0) ? null : new long[Long.bitCount(mask)];
+		int v = 0;
+		for (long m = mask; m != 0; m &= m - 1) {
+			packed[v++] = cold.getLong(c, vals + 8 * Long.numberOfTrailingZeros(m));
+		}
+		values[rec] = packed;
+		cold.remove(c);
+		return rec;
+	}
+
+	private void moveRecord(int from, int to) {
+		lineAddrs[to] = lineAddrs[from];
+		generations[to] = generations[from];
+		versions[to] = versions[from];
+		deferredOwners[to] = deferredOwners[from];
+		lockOwners[to] = lockOwners[from];
+		flags[to] = flags[from];
+		System.arraycopy(epochs, from * numCores, epochs, to * numCores, numCores);
+		System.arraycopy(writeEncodings, from * numCores, writeEncodings, to * numCores, numCores);
+		System.arraycopy(readEncodings, from * numCores, readEncodings, to * numCores, numCores);
+		valueMasks[to] = valueMasks[from];
+		values[to] = values[from];
+		if (sites != null) {
+			lastWriterMasks[to] = lastWriterMasks[from];
+			lastWriters[to] = lastWriters[from];
+			sites[to] = sites[from];
+		}
+		if (cold != null) {
+			// Relink the neighbors of the moved record
+			newer[to] = newer[from];
+			older[to] = older[from];
+			if (newer[to] != NONE) {
+				older[newer[to]] = to;
+			} else if (mru == from) {
+				mru = to;
+			}
+			if (older[to] != NONE) {
+				newer[older[to]] = to;
+			} else if (lru == from) {
+				lru = to;
+			}
+		}
+	}
+
+	private void growRecords(int capacity) {
+		lineAddrs = Arrays.copyOf(lineAddrs, capacity);
+		generations = Arrays.copyOf(generations, capacity);
+		versions = Arrays.copyOf(versions, capacity);
+		deferredOwners = Arrays.copyOf(deferredOwners, capacity);
+		lockOwners = Arrays.copyOf(lockOwners, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+		epochs = Arrays.copyOf(epochs, capacity * numCores);
+		writeEncodings = Arrays.copyOf(writeEncodings, capacity * numCores);
+		readEncodings = Arrays.copyOf(readEncodings, capacity * numCores);
+		valueMasks = Arrays.copyOf(valueMasks, capacity);
+		values = Arrays.copyOf(values, capacity);
+		if (sites != null) {
+			lastWriterMasks = Arrays.copyOf(lastWriterMasks, capacity);
+			lastWriters = Arrays.copyOf(lastWriters, capacity);
+			sites = Arrays.copyOf(sites, capacity);
+		}
+		if (cold != null) {
+			newer = Arrays.copyOf(newer, capacity);
+			older = Arrays.copyOf(older, capacity);
+		}
+	}
+}
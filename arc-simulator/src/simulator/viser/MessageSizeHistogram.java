@@ -0,0 +1,57 @@
+package simulator.viser;
+
+import java.util.Arrays;
+
+/**
+ * The number of network messages of each size, so that the flits they take are worked out when
+ * they are read instead of for every message. It belongs to a context and only counts the messages
+ * sent while the stats are updated.
+ */
+final class MessageSizeHistogram {
+	/** Sizes from here on are kept in {@link #otherSizes}, as are fractional ones */
+	private static final int MAX_SIZE = 1 << 16;
+
+	private final SimContext ctx;
+	/** Number of messages of each size in bytes */
+	private long[] counts = new long[256];
+	private double[] otherSizes = new double[0];
+	private int numOtherSizes = 0;
+
+	MessageSizeHistogram(SimContext ctx) {
+		this.ctx = ctx;
+	}
+
+	void add(double numBytes) {
+		if (!ctx.countStats()) {
+			return;
+		}
+		assert numBytes >= 0 : numBytes;
+		int size = (int) numBytes;
+		if (size == numBytes && size >= 0 && size < MAX_SIZE) {
+			if (size >= counts.length) {
+				int length = Math.min(MAX_SIZE, Integer.highestOneBit(size) << 1);
+				counts = Arrays.copyOf(counts, length);
+			}
+			counts[size]++;
+		} else {
+			if (numOtherSizes == otherSizes.length) {
+				otherSizes = Arrays.copyOf(otherSizes, Math.max(4, numOtherSizes * 2));
+			}
+			otherSizes[numOtherSizes++] = numBytes;
+		}
+	}
+
+	/** The number of flits of the given size that the messages take */
+	long flits(double bytesInFlit) {
+		long flits = 0;
+		for (int size = 1; size < counts.length; size++) {
+			if (counts[size] != 0) {
+				flits += counts[size] * (long) Math.ceil(size / bytesInFlit);
+			}
+		}
+		for (int i = 0; i < numOtherSizes; i++) {
+			flits += (long) Math.ceil(otherSizes[i] / bytesInFlit);
+		}
+		return flits;
+	}
+}
@@ -1,14 +1,12 @@
 package simulator.viser;
 
 import java.util.ArrayList;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 
+import simulator.viser.Stat.Traffic;
 import simulator.viser.ViserSim.PARSEC_PHASE;
 
 public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
@@ -25,6 +23,8 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	final CpuId id;
 	/** Machine reference is shared by all processors */
 	final Machine<Line> machine;
+	/** The simulation this processor belongs to */
+	final SimContext ctx;
 
 	/** L1 caches are always present, and are private to each processor */
 	public final HierarchicalCache<Line> L1cache;
@@ -37,7 +37,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	public final AIMCache<Line> aimcache;
 
 	public final BloomFilter bf;
-	public final HashSet<Long> set; // keep track of unique lines written by the
+	public final LongHashSet set; // keep track of unique lines written by the
 									// LLC in a region
 
 	// Needed if deferred write backs need to be precise
@@ -52,9 +52,19 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	}
 
 	// Let the buffer grow as much as it wants, we assume a searchable write buffer
-	private final HashSet<Long> tccWriteSet = new HashSet<Long>();
+	private final LongHashSet tccWriteSet = new LongHashSet();
 	// Use to model the victim cache, the victim cache need not have duplicates
-	private final HashSet<Long> tccVictimCache = new HashSet<Long>();
+	private final LongHashSet tccVictimCache = new LongHashSet();
+	/** L1 lines that post-commit did not invalidate, indexed by line address */
+	private final ArrayList<Line> skippedL1Lines = new ArrayList<Line>();
+	private final LongIntHashMap skippedL1Index = new LongIntHashMap();
+
+	/** Reused for every data access of this core, see {@link Machine#cacheAccess} */
+	final DataAccess scratchAccess = new DataAccess();
+	/** Returned by read() and write(), valid until the next access of this core */
+	private final DataMemoryAccessResult accessResult = new DataMemoryAccessResult();
+	/** Returned by getLineFromLLCOrMemory(), valid until its next call */
+	private final MemoryResponse<Line> lookupResponse = new MemoryResponse<Line>();
 	TCCPrivateCacheOverflow perRegionCacheOverflow = TCCPrivateCacheOverflow.NO_OVERFLOW;
 	TCCRegionsWithOverflow perRegionOverflow8K = TCCRegionsWithOverflow.NO_OVERFLOW;
 	TCCRegionsWithOverflow perRegionOverflow16K = TCCRegionsWithOverflow.NO_OVERFLOW;
@@ -69,8 +79,8 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	 * List of all the processors in the system. All processors share the same array object.
 	 */
 	final Processor<Line>[] allProcessors;
-	final Machine.MachineParams<Line> params;
-	final ProcessorStats stats = new ProcessorStats();
+	final Machine.CompiledParams<Line> params;
+	final ProcessorStats stats;
 
 	// counter flags should be reset when the current region finishes
 	boolean hasDirtyEviction = false;
@@ -79,360 +89,67 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	boolean regionHasDirtyEvictionBeforeFRV = false;
 
 	class ProcessorStats {
-		// counters for cache events
-		class CacheEventCounter {
-			SumCounter pc_ReadHits;
-			SumCounter pc_ReadMisses;
-			SumCounter pc_WriteHits;
-			SumCounter pc_WriteMisses;
-			SumCounter pc_LineEvictions;
-			SumCounter pc_DirtyLineEvictions;
-
-			// for atomic writes
-			SumCounter pc_AtomicReadHits;
-			SumCounter pc_AtomicReadMisses;
-			SumCounter pc_AtomicWriteHits;
-			SumCounter pc_AtomicWriteMisses;
-
-			// for lock accesses
-			SumCounter pc_LockReadHits;
-			SumCounter pc_LockReadMisses;
-			SumCounter pc_LockWriteHits;
-			SumCounter pc_LockWriteMisses;
-
-			CacheEventCounter(String prefix) {
-				pc_ReadHits = new SumCounter("pc_" + prefix + "ReadHits");
-				pc_ReadMisses = new SumCounter("pc_" + prefix + "ReadMisses");
-				pc_WriteHits = new SumCounter("pc_" + prefix + "WriteHits");
-				pc_WriteMisses = new SumCounter("pc_" + prefix + "WriteMisses");
-				pc_LineEvictions = new SumCounter("pc_" + prefix + "LineEvictions");
-				pc_DirtyLineEvictions = new SumCounter("pc_" + prefix + "DirtyLineEvictions");
-				pc_AtomicWriteHits = new SumCounter("pc_" + prefix + "AtomicWriteHits");
-				pc_AtomicWriteMisses = new SumCounter("pc_" + prefix + "AtomicWriteMisses");
-				pc_AtomicReadHits = new SumCounter("pc_" + prefix + "AtomicReadHits");
-				pc_AtomicReadMisses = new SumCounter("pc_" + prefix + "AtomicReadMisses");
-				pc_LockReadHits = new SumCounter("pc_" + prefix + "LockReadHits");
-				pc_LockReadMisses = new SumCounter("pc_" + prefix + "LockReadMisses");
-				pc_LockWriteHits = new SumCounter("pc_" + prefix + "LockWriteHits");
-				pc_LockWriteMisses = new SumCounter("pc_" + prefix + "LockWriteMisses");
-			}
-		}
-
-		SumCounter pc_ViserWARUpgrades = new SumCounter("pc_ViserWARUpgrades");
-
-		SumCounter pc_OnChipNetworkMessages = new SumCounter("pc_OnChipNetworkMessages");
-		SumCounter pc_OnChipNetworkMessageSizeBytes = new SumCounter(
-				"pc_OnChipNetworkMessageSizeBytes");
-		SumCounter pc_OnChipNetworkMessageSize4BytesFlits = new SumCounter(
-				"pc_OnChipNetworkMessageSize4BytesFlits");
-		SumCounter pc_OnChipNetworkMessageSize8BytesFlits = new SumCounter(
-				"pc_OnChipNetworkMessageSize8BytesFlits");
-		SumCounter pc_OnChipNetworkMessageSize16BytesFlits = new SumCounter(
-				"pc_OnChipNetworkMessageSize16BytesFlits");
-		SumCounter pc_OnChipNetworkMessageSize32BytesFlits = new SumCounter(
-				"pc_OnChipNetworkMessageSize32BytesFlits");
-
-		// Compute the proportion of traffic due to read validation including WAR upgrades
-		SumCounter pc_ViserUpgradeMessages = new SumCounter("pc_ViserUpgradeMessages");
-		SumCounter pc_ViserUpgradeMessageSizeBytes = new SumCounter(
-				"pc_ViserUpgradeMessageSizeBytes");
-		SumCounter pc_ViserUpgradeMessageSize4BytesFlits = new SumCounter(
-				"pc_ViserUpgradeMessageSize4BytesFlits");
-		SumCounter pc_ViserUpgradeMessageSize8BytesFlits = new SumCounter(
-				"pc_ViserUpgradeMessageSize8BytesFlits");
-		SumCounter pc_ViserUpgradeMessageSize16BytesFlits = new SumCounter(
-				"pc_ViserUpgradeMessageSize16BytesFlits");
-		SumCounter pc_ViserUpgradeMessageSize32BytesFlits = new SumCounter(
-				"pc_ViserUpgradeMessageSize32BytesFlits");
-
-		// // Compute traffic if we had incorrectly not used versions for validating reads during
-		// // evictions
-		// SumCounter pc_OnChipMessagesIncorrect = new SumCounter("pc_OnChipMessagesIncorrect");
-		// SumCounter pc_OnChipMessageSizeBytesIncorrect = new SumCounter(
-		// "pc_OnChipMessageSizeBytesIncorrect");
-		// SumCounter pc_OnChipMessageSize4BytesFlitsIncorrect = new SumCounter(
-		// "pc_OnChipMessageSize4BytesFlitsIncorrect");
-		// SumCounter pc_OnChipMessageSize8BytesFlitsIncorrect = new SumCounter(
-		// "pc_OnChipMessageSize8BytesFlitsIncorrect");
-		// SumCounter pc_OnChipMessageSize16BytesFlitsIncorrect = new SumCounter(
-		// "pc_OnChipMessageSize16BytesFlitsIncorrect");
-		// SumCounter pc_OnChipMessageSize32BytesFlitsIncorrect = new SumCounter(
-		// "pc_OnChipMessageSize32BytesFlitsIncorrect");
-
-		// Breakdown of on-chip network traffic
-		// Compute the proportion of traffic due to deferring of lines
-		SumCounter pc_ViserRVDeferredLineMessages = new SumCounter(
-				"pc_ViserRVDeferredLineMessages");
-		SumCounter pc_ViserRVDeferredLineMessageSizeBytes = new SumCounter(
-				"pc_ViserRVDeferredLineMessageSizeBytes");
-		SumCounter pc_ViserRVDeferredLineMessageSize4ByteFlits = new SumCounter(
-				"pc_ViserRVDeferredLineMessageSize4ByteFlits");
-		SumCounter pc_ViserRVDeferredLineMessageSize8ByteFlits = new SumCounter(
-				"pc_ViserRVDeferredLineMessageSize8ByteFlits");
-		SumCounter pc_ViserRVDeferredLineMessageSize16ByteFlits = new SumCounter(
-				"pc_ViserRVDeferredLineMessageSize16ByteFlits");
-		SumCounter pc_ViserRVDeferredLineMessageSize32ByteFlits = new SumCounter(
-				"pc_ViserRVDeferredLineMessageSize32ByteFlits");
-
-		// // Compute traffic if we did not compact 14-bit versions in the header
-		// SumCounter pc_OnChipNetworkMessagesNoCompactVersions = new SumCounter(
-		// "pc_OnChipNetworkMessagesNoCompactVersions");
-		// SumCounter pc_OnChipNetworkMessageSizeBytesNoCompactVersions = new SumCounter(
-		// "pc_OnChipNetworkMessageSizeBytesNoCompactVersions");
-		// SumCounter pc_OnChipNetworkMessageSize4BytesFlitsNoCompactVersions = new SumCounter(
-		// "pc_OnChipNetworkMessageSize4BytesFlitsNoCompactVersions");
-		// SumCounter pc_OnChipNetworkMessageSize8BytesFlitsNoCompactVersions = new SumCounter(
-		// "pc_OnChipNetworkMessageSize8BytesFlitsNoCompactVersions");
-		// SumCounter pc_OnChipNetworkMessageSize16BytesFlitsNoCompactVersions = new SumCounter(
-		// "pc_OnChipNetworkMessageSize16BytesFlitsNoCompactVersions");
-		// SumCounter pc_OnChipNetworkMessageSize32BytesFlitsNoCompactVersions = new SumCounter(
-		// "pc_OnChipNetworkMessageSize32BytesFlitsNoCompactVersions");
-
-		// Breakdown of on-chip network traffic
-		SumCounter pc_ViserRegExecOnChipNetworkMessages = new SumCounter(
-				"pc_ViserRegExecOnChipNetworkMessages");
-		SumCounter pc_ViserRegExecOnChipNetworkMessageSizeBytes = new SumCounter(
-				"pc_ViserRegExecOnChipNetworkMessageSizeBytes");
-		SumCounter pc_ViserRegExecOnChipNetworkMessageSize4BytesFlits = new SumCounter(
-				"pc_ViserRegExecOnChipNetworkMessageSize4BytesFlits");
-		SumCounter pc_ViserRegExecOnChipNetworkMessageSize8BytesFlits = new SumCounter(
-				"pc_ViserRegExecOnChipNetworkMessageSize8BytesFlits");
-		SumCounter pc_ViserRegExecOnChipNetworkMessageSize16BytesFlits = new SumCounter(
-				"pc_ViserRegExecOnChipNetworkMessageSize16BytesFlits");
-		SumCounter pc_ViserRegExecOnChipNetworkMessageSize32BytesFlits = new SumCounter(
-				"pc_ViserRegExecOnChipNetworkMessageSize32BytesFlits");
-
-		SumCounter pc_ViserPreCommitOnChipNetworkMessages = new SumCounter(
-				"pc_ViserPreCommitOnChipNetworkMessages");
-		SumCounter pc_ViserPreCommitOnChipNetworkMessageSizeBytes = new SumCounter(
-				"pc_ViserPreCommitOnChipNetworkMessageSizeBytes");
-		SumCounter pc_ViserPreCommitOnChipNetworkMessageSize4BytesFlits = new SumCounter(
-				"pc_ViserPreCommitOnChipNetworkMessageSize4BytesFlits");
-		SumCounter pc_ViserPreCommitOnChipNetworkMessageSize8BytesFlits = new SumCounter(
-				"pc_ViserPreCommitOnChipNetworkMessageSize8BytesFlits");
-		SumCounter pc_ViserPreCommitOnChipNetworkMessageSize16BytesFlits = new SumCounter(
-				"pc_ViserPreCommitOnChipNetworkMessageSize16BytesFlits");
-		SumCounter pc_ViserPreCommitOnChipNetworkMessageSize32BytesFlits = new SumCounter(
-				"pc_ViserPreCommitOnChipNetworkMessageSize32BytesFlits");
-
-		SumCounter pc_ViserReadValidationOnChipNetworkMessages = new SumCounter(
-				"pc_ViserReadValidationOnChipNetworkMessages");
-		SumCounter pc_ViserReadValidationOnChipNetworkMessageSizeBytes = new SumCounter(
-				"pc_ViserReadValidationOnChipNetworkMessageSizeBytes");
-		SumCounter pc_ViserReadValidationOnChipNetworkMessageSize4BytesFlits = new SumCounter(
-				"pc_ViserReadValidationOnChipNetworkMessageSize4BytesFlits");
-		SumCounter pc_ViserReadValidationOnChipNetworkMessageSize8BytesFlits = new SumCounter(
-				"pc_ViserReadValidationOnChipNetworkMessageSize8BytesFlits");
-		SumCounter pc_ViserReadValidationOnChipNetworkMessageSize16BytesFlits = new SumCounter(
-				"pc_ViserReadValidationOnChipNetworkMessageSize16BytesFlits");
-		SumCounter pc_ViserReadValidationOnChipNetworkMessageSize32BytesFlits = new SumCounter(
-				"pc_ViserReadValidationOnChipNetworkMessageSize32BytesFlits");
-
-		SumCounter pc_ViserPostCommitOnChipNetworkMessages = new SumCounter(
-				"pc_ViserPostCommitOnChipNetworkMessages");
-		SumCounter pc_ViserPostCommitOnChipNetworkMessageSizeBytes = new SumCounter(
-				"pc_ViserPostCommitOnChipNetworkMessageSizeBytes");
-		SumCounter pc_ViserPostCommitOnChipNetworkMessageSize4BytesFlits = new SumCounter(
-				"pc_ViserPostCommitOnChipNetworkMessageSize4BytesFlits");
-		SumCounter pc_ViserPostCommitOnChipNetworkMessageSize8BytesFlits = new SumCounter(
-				"pc_ViserPostCommitOnChipNetworkMessageSize8BytesFlits");
-		SumCounter pc_ViserPostCommitOnChipNetworkMessageSize16BytesFlits = new SumCounter(
-				"pc_ViserPostCommitOnChipNetworkMessageSize16BytesFlits");
-		SumCounter pc_ViserPostCommitOnChipNetworkMessageSize32BytesFlits = new SumCounter(
-				"pc_ViserPostCommitOnChipNetworkMessageSize32BytesFlits");
-
-		// // Variable-sized LLC-to-memory message: 48 bits address + (64 + 64)
-		// // bits map of which
-		// // core's maps are being sent + core's metadata + values if dirty.
-		// SumCounter pc_LLCToMemoryMessages = new SumCounter("pc_LLCToMemoryMessages");
-		// SumCounter pc_LLCToMemoryMessageSizeBytes = new SumCounter(
-		// "pc_LLCToMemoryMessageSizeBytes");
-		// SumCounter pc_LLCToMemoryMessageSize4BytesFlits = new SumCounter(
-		// "pc_LLCToMemoryMessageSize4BytesFlits");
-		// SumCounter pc_LLCToMemoryMessageSize8BytesFlits = new SumCounter(
-		// "pc_LLCToMemoryMessageSize8BytesFlits");
-		// SumCounter pc_LLCToMemoryMessageSize16BytesFlits = new SumCounter(
-		// "pc_LLCToMemoryMessageSize16BytesFlits");
-		// SumCounter pc_LLCToMemoryMessageSize32BytesFlits = new SumCounter(
-		// "pc_LLCToMemoryMessageSize32BytesFlits");
-		// SumCounter pc_LLCToMemoryMessageSize64BytesFlits = new SumCounter(
-		// "pc_LLCToMemoryMessageSize64BytesFlits");
-
-		// // Model memory accesses for McPAT
-		// SumCounter pc_Memory64BytesAccesses = new SumCounter("pc_Memory64BytesAccesses");
-		// SumCounter pc_Memory64BytesReads = new SumCounter("pc_Memory64BytesReads");
-		// SumCounter pc_Memory64BytesWrites = new SumCounter("pc_Memory64BytesWrites");
-
-		// This stat tracks the proportion of messages that actually need to be written back due to
-		// read and write metadata. If the proportion is low, then we can imagine using a software
-		// to convert/encode the data before writing back to memory for Viser.
-		SumCounter pc_ViserLLCToMemoryMetadataWriteback = new SumCounter(
-				"pc_ViserLLCToMemoryMetadataWriteback");
-
-		SumCounter pc_RegionBoundaries = new SumCounter("pc_RegionBoundaries");
-		SumCounter pc_RegionsWithWrites = new SumCounter("pc_RegionsWithWrites");
-
-		SumCounter pc_potentialWrRdValConflicts = new SumCounter("pc_potentialWrRdValConflicts");
-		SumCounter pc_ValidationAttempts = new SumCounter("pc_ValidationAttempts");
-		SumCounter pc_FailedValidations = new SumCounter("pc_FailedValidations");
-
-		// The following "conflict"-related counters don't count failed validations.
-		SumCounter pc_ConflictCheckAttempts = new SumCounter("pc_ConflictCheckAttempts");
-		SumCounter pc_PreciseConflicts = new SumCounter("pc_PreciseConflicts");
-		SumCounter pc_RegExecPreciseConflicts = new SumCounter("pc_RegExecPreciseConflicts");
-		SumCounter pc_PreCommitPreciseConflicts = new SumCounter("pc_PreCommitPreciseConflicts");
-		SumCounter pc_PostCommitPreciseConflicts = new SumCounter("pc_PostCommitPreciseConflicts");
-		SumCounter pc_ReadValidationPreciseConflicts = new SumCounter(
-				"pc_ReadValidationPreciseConflicts");
-		SumCounter pc_RegL2CommitPreciseConflicts = new SumCounter(
-				"pc_RegL2CommitPreciseConflicts");
-		SumCounter pc_RegEvictionRVPreciseConflicts = new SumCounter(
-				"pc_RegEvictionRVPreciseConflicts");
-		SumCounter pc_RWPreciseConflicts = new SumCounter("pc_RWPreciseConflicts");
-		SumCounter pc_WWPreciseConflicts = new SumCounter("pc_WWPreciseConflicts");
-		SumCounter pc_WRPreciseConflicts = new SumCounter("pc_WRPreciseConflicts");
-
-		SumCounter pc_RegionsWithFRVs = new SumCounter("pc_RegionsWithFRVs");
-		SumCounter pc_RegionsWithFRVsAfterPrecommit = new SumCounter(
-				"pc_RegionsWithFRVsAfterPrecommit");
-		SumCounter pc_RegionsWithTolerableConflicts = new SumCounter(
-				"pc_RegionsWithTolerableConflicts");
-		SumCounter pc_RegionsWithExceptions = new SumCounter("pc_RegionsWithExceptions");
-		SumCounter pc_RegionHasDirtyEvictionBeforeFRV = new SumCounter(
-				"pc_RegionHasDirtyEvictionBeforeFRV");
-		SumCounter pc_ExceptionsByFRVs = new SumCounter("pc_ExceptionsByFRVs");
-		SumCounter pc_RegionsWithExceptionsByFRVs = new SumCounter(
-				"pc_RegionsWithExceptionsByFRVs");
-
-		SumCounter pc_DirtyL2Evictions = new SumCounter("pc_DirtyL2Evictions");
-		SumCounter pc_CleanL2DirtyL1OnL2Eviction = new SumCounter("pc_CleanL2DirtyL1OnL2Eviction");
-
-		SumCounter pc_NumScavenges = new SumCounter("pc_NumScavenges");
-
-		CacheEventCounter pc_l1d = new CacheEventCounter("Data_L1");
-		CacheEventCounter pc_l2d = new CacheEventCounter("Data_L2");
-		CacheEventCounter pc_l3d = new CacheEventCounter("Data_L3");
-		CacheEventCounter pc_aim = new CacheEventCounter("AIMCache");
-
-		SumCounter pc_TotalDataReads = new SumCounter("pc_TotalDataReads");
-		SumCounter pc_TotalDataWrites = new SumCounter("pc_TotalDataWrites");
-		SumCounter pc_TotalMemoryAccesses = new SumCounter("pc_TotalMemoryAccesses");
-		SumCounter pc_TotalMemoryAccessesSpecialInvalidState = new SumCounter(
-				"pc_TotalMemoryAccessesSpecialInvalidState");
-
-		SumCounter pc_TotalAtomicReads = new SumCounter("pc_TotalAtomicReads");
-		SumCounter pc_TotalAtomicWrites = new SumCounter("pc_TotalAtomicWrites");
-		SumCounter pc_TotalAtomicAccesses = new SumCounter("pc_TotalAtomicAccesses");
-
-		SumCounter pc_TotalLockReads = new SumCounter("pc_TotalLockReads");
-		SumCounter pc_TotalLockWrites = new SumCounter("pc_TotalLockWrites");
-		SumCounter pc_TotalLockAccesses = new SumCounter("pc_TotalLockAccesses");
-
-		MaxCounter pc_ExecDrivenCycleCount = new MaxCounter("pc_ExecutionDrivenCycleCount");
-
-		// Break down of the cycle counts. The sum should match pc_ExecDrivenCycleCount.
-		DependentCounter pc_ViserRegExecExecDrivenCycleCount = new DependentCounter(
-				"pc_ViserRegExecExecDrivenCycleCount", pc_ExecDrivenCycleCount);
-		DependentCounter pc_ViserPreCommitExecDrivenCycleCount = new DependentCounter(
-				"pc_ViserPreCommitExecDrivenCycleCount", pc_ExecDrivenCycleCount);
-		DependentCounter pc_ViserReadValidationExecDrivenCycleCount = new DependentCounter(
-				"pc_ViserReadValidationExecDrivenCycleCount", pc_ExecDrivenCycleCount);
-		DependentCounter pc_ViserPostCommitExecDrivenCycleCount = new DependentCounter(
-				"pc_ViserPostCommitExecDrivenCycleCount", pc_ExecDrivenCycleCount);
-
-		MaxCounter pc_BandwidthDrivenCycleCount = new MaxCounter("pc_BandwidthDrivenCycleCount");
-		// Break down of the cycle counts.
-		DependentCounter pc_ViserRegExecBWDrivenCycleCount = new DependentCounter(
-				"pc_ViserRegExecBWDrivenCycleCount", pc_BandwidthDrivenCycleCount);
-		DependentCounter pc_ViserPreCommitBWDrivenCycleCount = new DependentCounter(
-				"pc_ViserPreCommitBWDrivenCycleCount", pc_BandwidthDrivenCycleCount);
-		DependentCounter pc_ViserReadValidationBWDrivenCycleCount = new DependentCounter(
-				"pc_ViserReadValidationBWDrivenCycleCount", pc_BandwidthDrivenCycleCount);
-		DependentCounter pc_ViserPostCommitBWDrivenCycleCount = new DependentCounter(
-				"pc_ViserPostCommitBWDrivenCycleCount", pc_BandwidthDrivenCycleCount);
-
-		// NOTE: These are not perfect. We want the total network over number of cycles.
-		MaxCounter pc_reqdBWInGBWith4BytesFlits = new MaxCounter("pc_reqdBWInGBWith4BytesFlits");
-		MaxCounter pc_reqdBWInGBWith8BytesFlits = new MaxCounter("pc_reqdBWInGBWith8BytesFlits");
-		MaxCounter pc_reqdBWInGBWith16BytesFlits = new MaxCounter("pc_reqdBWInGBWith16BytesFlits");
-		MaxCounter pc_reqdBWInGBWith32BytesFlits = new MaxCounter("pc_reqdBWInGBWith32BytesFlits");
+		/** Values of the stats, indexed by {@link Stat#ordinal()} */
+		private final double[] bank = new double[Stat.ALL.length];
+		/** Sizes of the messages of each traffic category, which the flit stats are read from */
+		private final MessageSizeHistogram[] messageSizes =
+				new MessageSizeHistogram[Traffic.values().length];
 
 		HashMap<Integer, Integer> hgramLLCUpdatesInARegion = new HashMap<Integer, Integer>();
 		HashMap<Integer, Integer> hgramLinesValidated = new HashMap<Integer, Integer>();
 		HashMap<Integer, Integer> hgramVersionSizes = new HashMap<Integer, Integer>();
 
-		SumCounter pc_TCCRegionsWBOverflows8K = new SumCounter("pc_TCCRegionsWBOverflows8K");
-		SumCounter pc_TCCRegionsWBOverflows16K = new SumCounter("pc_TCCRegionsWBOverflows16K");
-		SumCounter pc_TCCRegionsWBOverflows32K = new SumCounter("pc_TCCRegionsWBOverflows32K");
-		SumCounter pc_TCCRegionsWBOverflows64K = new SumCounter("pc_TCCRegionsWBOverflows64K");
-
-		SumCounter pc_TCCRegionsCacheOverflows = new SumCounter("pc_TCCRegionsCacheOverflows");
-
-		SumCounter pc_TCCRegionsOverflows8K = new SumCounter("pc_TCCRegionsOverflows8K");
-		SumCounter pc_TCCRegionsOverflows16K = new SumCounter("pc_TCCRegionsOverflows16K");
-		SumCounter pc_TCCRegionsOverflows32K = new SumCounter("pc_TCCRegionsOverflows32K");
-		SumCounter pc_TCCRegionsOverflows64K = new SumCounter("pc_TCCRegionsOverflows64K");
-
-		SumCounter pc_TCCRegionsFirstCacheOverflows8K = new SumCounter(
-				"pc_TCCRegionsFirstCacheOverflows8K");
-		SumCounter pc_TCCRegionsFirstCacheOverflows16K = new SumCounter(
-				"pc_TCCRegionsFirstCacheOverflows16K");
-		SumCounter pc_TCCRegionsFirstCacheOverflows32K = new SumCounter(
-				"pc_TCCRegionsFirstCacheOverflows32K");
-		SumCounter pc_TCCRegionsFirstCacheOverflows64K = new SumCounter(
-				"pc_TCCRegionsFirstCacheOverflows64K");
-
-		SumCounter pc_TCCRegionsFirstWBOverflows8K = new SumCounter(
-				"pc_TCCRegionsFirstWBOverflows8K");
-		SumCounter pc_TCCRegionsFirstWBOverflows16K = new SumCounter(
-				"pc_TCCRegionsFirstWBOverflows16K");
-		SumCounter pc_TCCRegionsFirstWBOverflows32K = new SumCounter(
-				"pc_TCCRegionsFirstWBOverflows32K");
-		SumCounter pc_TCCRegionsFirstWBOverflows64K = new SumCounter(
-				"pc_TCCRegionsFirstWBOverflows64K");
-
-		SumCounter pc_TCCNumSerializedMemoryAccesses8K = new SumCounter(
-				"pc_TCCNumSerializedMemoryAccesses8K");
-		SumCounter pc_TCCNumSerializedMemoryAccesses16K = new SumCounter(
-				"pc_TCCNumSerializedMemoryAccesses16K");
-		SumCounter pc_TCCNumSerializedMemoryAccesses32K = new SumCounter(
-				"pc_TCCNumSerializedMemoryAccesses32K");
-		SumCounter pc_TCCNumSerializedMemoryAccesses64K = new SumCounter(
-				"pc_TCCNumSerializedMemoryAccesses64K");
-
-		// This is all RCC cycles + serialized cycles
-		MaxCounter pc_TCCCycleCount8K = new MaxCounter("pc_TCCCycleCount8K");
-		MaxCounter pc_TCCCycleCount16K = new MaxCounter("pc_TCCCycleCount16K");
-		MaxCounter pc_TCCCycleCount32K = new MaxCounter("pc_TCCCycleCount32K");
-		MaxCounter pc_TCCCycleCount64K = new MaxCounter("pc_TCCCycleCount64K");
-
-		SumCounter pc_TCCBroadCastMessagesBytes = new SumCounter("pc_TCCBroadCastMessagesBytes");
-		SumCounter pc_TCCBroadCastMessages4BytesFlits = new SumCounter(
-				"pc_TCCBroadCastMessages4BytesFlits");
-		SumCounter pc_TCCBroadCastMessages8BytesFlits = new SumCounter(
-				"pc_TCCBroadCastMessages8BytesFlits");
-		SumCounter pc_TCCBroadCastMessages16BytesFlits = new SumCounter(
-				"pc_TCCBroadCastMessages16BytesFlits");
-		SumCounter pc_TCCBroadCastMessages32BytesFlits = new SumCounter(
-				"pc_TCCBroadCastMessages32BytesFlits");
-
-		// Model energy consumption for Bloom filters
-		SumCounter pc_BloomFilterTotalEnergy = new SumCounter("pc_BloomFilterTotalEnergy");
-		SumCounter pc_BloomFilterWriteEnergy = new SumCounter("pc_BloomFilterWriteEnergy");
-		SumCounter pc_BloomFilterReadEnergy = new SumCounter("pc_BloomFilterReadEnergy");
-
-		// FIXME: Take into account the energy cost of line evictions.
-		SumCounter pc_AIMReadEnergy = new SumCounter("pc_AIMReadEnergy");
-		SumCounter pc_AIMWriteEnergy = new SumCounter("pc_AIMWriteEnergy");
-		SumCounter pc_AIMTotalEnergy = new SumCounter("pc_AIMTotalEnergy");
+		ProcessorStats() {
+			for (int i = 0; i < messageSizes.length; i++) {
+				messageSizes[i] = new MessageSizeHistogram(ctx);
+			}
+		}
+
+		double get(Stat s) {
+			if (s.traffic != null) {
+				return messageSizes[s.traffic.ordinal()].flits(s.bytesInFlit);
+			}
+			return bank[s.ordinal()];
+		}
+
+		void set(Stat s, double v) {
+			assert s.traffic == null : s;
+			bank[s.ordinal()] = v;
+		}
+
+		void incr(Stat s) {
+			if (ctx.countStats()) {
+				bank[s.ordinal()]++;
+			}
+		}
+
+		void incr(Stat s, double a) {
+			incr(s, a, false);
+		}
+
+		void incr(Stat s, double a, boolean forceInc) {
+			if (forceInc || ctx.countStats()) {
+				bank[s.ordinal()] += a;
+				if (a < 0) {
+					System.out.println(s + " incr " + a);
+					System.exit(-177);
+				}
+			}
+		}
+
+		MessageSizeHistogram messageSizes(Traffic t) {
+			return messageSizes[t.ordinal()];
+		}
 	}
 
-	public Processor(Machine.MachineParams<Line> args, Machine<Line> machine, CpuId cpuid,
-			Processor<Line>[] processors, Map<LineAddress, Integer> varmap) {
+	public Processor(SimContext ctx, Machine.CompiledParams<Line> args, Machine<Line> machine,
+			CpuId cpuid, Processor<Line>[] processors, Map<LineAddress, Integer> varmap) {
+		this.ctx = ctx;
 		this.params = args;
 		this.id = cpuid;
 		this.machine = machine;
 		this.allProcessors = processors;
+		this.stats = new ProcessorStats();
 
 		/*
 		 * NB: hack to get a shared L3. Necessary because we want to have a Processor object handle
@@ -468,8 +185,8 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 		// Create a per-core bloom filter, which is maintained by the LLC in the
 		// design
-		bf = new BloomFilter();
-		set = new HashSet<Long>();
+		bf = new BloomFilter(ctx.bloomFilterBits(), ctx.bloomFilterHashes());
+		set = new LongHashSet();
 	}
 
 	@Override
@@ -493,61 +210,61 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		// Then we find the max, and set that as the value. We zero out the
 		// others so that the sum
 		// at the end is reasonable.
-		double bwCycles = stats.pc_BandwidthDrivenCycleCount.get();
+		double bwCycles = stats.get(Stat.pc_BandwidthDrivenCycleCount);
 		// numSecs can actually be zero for smaller input sizes
 		double numSecs = bwCycles / (SystemConstants.CLOCK_RATE * Math.pow(10, 9));
 
-		double num4ByteFlits = stats.pc_OnChipNetworkMessageSize4BytesFlits.get();
+		double num4ByteFlits = stats.get(Stat.pc_OnChipNetworkMessageSize4BytesFlits);
 		double bwRateInGBPerSec = (numSecs > 0)
 				? ((num4ByteFlits * SystemConstants.BYTES_IN_FLIT_4) / numSecs) / Math.pow(2, 30)
 				: 0;
-		stats.pc_reqdBWInGBWith4BytesFlits.set(bwRateInGBPerSec);
+		stats.set(Stat.pc_reqdBWInGBWith4BytesFlits, bwRateInGBPerSec);
 
-		double num8ByteFlits = stats.pc_OnChipNetworkMessageSize8BytesFlits.get();
+		double num8ByteFlits = stats.get(Stat.pc_OnChipNetworkMessageSize8BytesFlits);
 		bwRateInGBPerSec = (numSecs > 0)
 				? ((num8ByteFlits * SystemConstants.BYTES_IN_FLIT_8) / numSecs) / Math.pow(2, 30)
 				: 0;
-		stats.pc_reqdBWInGBWith8BytesFlits.set(bwRateInGBPerSec);
+		stats.set(Stat.pc_reqdBWInGBWith8BytesFlits, bwRateInGBPerSec);
 
-		double num16ByteFlits = stats.pc_OnChipNetworkMessageSize16BytesFlits.get();
+		double num16ByteFlits = stats.get(Stat.pc_OnChipNetworkMessageSize16BytesFlits);
 		bwRateInGBPerSec = (numSecs > 0)
 				? ((num16ByteFlits * SystemConstants.BYTES_IN_FLIT_16) / numSecs) / Math.pow(2, 30)
 				: 0;
-		stats.pc_reqdBWInGBWith16BytesFlits.set(bwRateInGBPerSec);
+		stats.set(Stat.pc_reqdBWInGBWith16BytesFlits, bwRateInGBPerSec);
 
-		double num32ByteFlits = stats.pc_OnChipNetworkMessageSize32BytesFlits.get();
+		double num32ByteFlits = stats.get(Stat.pc_OnChipNetworkMessageSize32BytesFlits);
 		bwRateInGBPerSec = (numSecs > 0)
 				? ((num32ByteFlits * SystemConstants.BYTES_IN_FLIT_32) / numSecs) / Math.pow(2, 30)
 				: 0;
-		stats.pc_reqdBWInGBWith32BytesFlits.set(bwRateInGBPerSec);
+		stats.set(Stat.pc_reqdBWInGBWith32BytesFlits, bwRateInGBPerSec);
 	}
 
 	/* Each instruction takes one cycle. */
 	public void insnsExecuted(int n) {
-		stats.pc_ExecDrivenCycleCount.incr(n);
+		stats.incr(Stat.pc_ExecutionDrivenCycleCount, n);
 		updatePhaseExecDrivenCycleCost(ExecutionPhase.REGION_BODY, n);
-		stats.pc_BandwidthDrivenCycleCount.incr(n);
+		stats.incr(Stat.pc_BandwidthDrivenCycleCount, n);
 		updatePhaseBWDrivenCycleCost(ExecutionPhase.REGION_BODY, n);
-		stats.pc_TCCCycleCount8K.incr(n);
-		stats.pc_TCCCycleCount16K.incr(n);
-		stats.pc_TCCCycleCount32K.incr(n);
-		stats.pc_TCCCycleCount64K.incr(n);
+		stats.incr(Stat.pc_TCCCycleCount8K, n);
+		stats.incr(Stat.pc_TCCCycleCount16K, n);
+		stats.incr(Stat.pc_TCCCycleCount32K, n);
+		stats.incr(Stat.pc_TCCCycleCount64K, n);
 	}
 
 	private void memoryCyclesElapsed(int n, DataMemoryAccessResult mor) {
-		stats.pc_ExecDrivenCycleCount.incr(n);
+		stats.incr(Stat.pc_ExecutionDrivenCycleCount, n);
 		updatePhaseExecDrivenCycleCost(ExecutionPhase.REGION_BODY, n);
-		stats.pc_BandwidthDrivenCycleCount.incr(n);
+		stats.incr(Stat.pc_BandwidthDrivenCycleCount, n);
 		updatePhaseBWDrivenCycleCost(ExecutionPhase.REGION_BODY, n);
 
 		if (mor != null) {
 			mor.latency += n;
 		}
 
-		stats.pc_TCCCycleCount8K.incr(n);
-		stats.pc_TCCCycleCount16K.incr(n);
-		stats.pc_TCCCycleCount32K.incr(n);
-		stats.pc_TCCCycleCount64K.incr(n);
+		stats.incr(Stat.pc_TCCCycleCount8K, n);
+		stats.incr(Stat.pc_TCCCycleCount16K, n);
+		stats.incr(Stat.pc_TCCCycleCount32K, n);
+		stats.incr(Stat.pc_TCCCycleCount64K, n);
 
 		// Model TCC stall cycles since region has overflowed
 		if (perRegionOverflow8K != TCCRegionsWithOverflow.NO_OVERFLOW) {
@@ -576,31 +293,15 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	}
 
 	public void updateTCCBroadcastMessage(double numBytes) {
-		stats.pc_TCCBroadCastMessagesBytes.incr(numBytes);
-
-		long num4ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_4);
-		stats.pc_TCCBroadCastMessages4BytesFlits.incr(num4ByteFlits);
-		long num8ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_8);
-		stats.pc_TCCBroadCastMessages8BytesFlits.incr(num8ByteFlits);
-		long num16ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_16);
-		stats.pc_TCCBroadCastMessages16BytesFlits.incr(num16ByteFlits);
-		long num32ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_32);
-		stats.pc_TCCBroadCastMessages32BytesFlits.incr(num32ByteFlits);
+		stats.incr(Stat.pc_TCCBroadCastMessagesBytes, numBytes);
+		stats.messageSizes(Traffic.TCC_BROADCAST).add(numBytes);
 	}
 
 	public void updateUpgradeTrafficForOneNetworkMessage(int numMsgs, double numBytes) {
 		assert numMsgs == 1;
-		stats.pc_ViserUpgradeMessages.incr();
-		stats.pc_ViserUpgradeMessageSizeBytes.incr(numBytes);
-
-		long num4ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_4);
-		stats.pc_ViserUpgradeMessageSize4BytesFlits.incr(num4ByteFlits);
-		long num8ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_8);
-		stats.pc_ViserUpgradeMessageSize8BytesFlits.incr(num8ByteFlits);
-		long num16ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_16);
-		stats.pc_ViserUpgradeMessageSize16BytesFlits.incr(num16ByteFlits);
-		long num32ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_32);
-		stats.pc_ViserUpgradeMessageSize32BytesFlits.incr(num32ByteFlits);
+		stats.incr(Stat.pc_ViserUpgradeMessages);
+		stats.incr(Stat.pc_ViserUpgradeMessageSizeBytes, numBytes);
+		stats.messageSizes(Traffic.UPGRADE).add(numBytes);
 	}
 
 	// public void updateOnChipTrafficForOneNetworkMessageNoCompactVersions(int numMsgs,
@@ -621,94 +322,50 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 	public void updateRVDeferredLineTrafficForOneNetworkMessage(int numMsgs, double numBytes) {
 		assert numMsgs == 1;
-		stats.pc_ViserRVDeferredLineMessages.incr();
-		stats.pc_ViserRVDeferredLineMessageSizeBytes.incr(numBytes);
-
-		long num4ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_4);
-		stats.pc_ViserRVDeferredLineMessageSize4ByteFlits.incr(num4ByteFlits);
-		long num8ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_8);
-		stats.pc_ViserRVDeferredLineMessageSize8ByteFlits.incr(num8ByteFlits);
-		long num16ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_16);
-		stats.pc_ViserRVDeferredLineMessageSize16ByteFlits.incr(num16ByteFlits);
-		long num32ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_32);
-		stats.pc_ViserRVDeferredLineMessageSize32ByteFlits.incr(num32ByteFlits);
+		stats.incr(Stat.pc_ViserRVDeferredLineMessages);
+		stats.incr(Stat.pc_ViserRVDeferredLineMessageSizeBytes, numBytes);
+		stats.messageSizes(Traffic.RV_DEFERRED_LINE).add(numBytes);
 	}
 
 	public void updateTrafficForOneNetworkMessage(int numMsgs, double numBytes,
 			ExecutionPhase phase) {
 		assert numMsgs == 1;
-		stats.pc_OnChipNetworkMessages.incr();
-		stats.pc_OnChipNetworkMessageSizeBytes.incr(numBytes);
+		stats.incr(Stat.pc_OnChipNetworkMessages);
+		stats.incr(Stat.pc_OnChipNetworkMessageSizeBytes, numBytes);
 		// stats.pc_CoreLLCNetworkMessages.incr();
 		// stats.pc_CoreLLCNetworkMessageSizeBytes.incr(numBytes);
-		updateFlitsCountForOneNetworkMessage(numBytes);
+		stats.messageSizes(Traffic.ON_CHIP_NETWORK).add(numBytes);
 		updateExecutionPhaseOnChipNetworkTraffic(numMsgs, numBytes, phase);
 	}
 
-	// Don't call this method directly
-	// In Viser, there is no core-to-core communication unlike MESI
-	private void updateFlitsCountForOneNetworkMessage(double numBytes) {
-		long num4ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_4);
-		stats.pc_OnChipNetworkMessageSize4BytesFlits.incr(num4ByteFlits);
-		// stats.pc_CoreLLCNetworkMessageSize4BytesFlits.incr(num4ByteFlits);
-		long num8ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_8);
-		stats.pc_OnChipNetworkMessageSize8BytesFlits.incr(num8ByteFlits);
-		// stats.pc_CoreLLCNetworkMessageSize8BytesFlits.incr(num8ByteFlits);
-		long num16ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_16);
-		stats.pc_OnChipNetworkMessageSize16BytesFlits.incr(num16ByteFlits);
-		// stats.pc_CoreLLCNetworkMessageSize16BytesFlits.incr(num16ByteFlits);
-		long num32ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_32);
-		stats.pc_OnChipNetworkMessageSize32BytesFlits.incr(num32ByteFlits);
-		// stats.pc_CoreLLCNetworkMessageSize32BytesFlits.incr(num32ByteFlits);
-	}
-
 	// Don't call this method directly
 	private void updateExecutionPhaseOnChipNetworkTraffic(int numMsgs, double numBytes,
 			ExecutionPhase phase) {
-		long num4ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_4);
-		long num8ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_8);
-		long num16ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_16);
-		long num32ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_32);
-
 		switch (phase) {
 			case REGION_BODY: {
-				stats.pc_ViserRegExecOnChipNetworkMessages.incr(numMsgs);
-				stats.pc_ViserRegExecOnChipNetworkMessageSizeBytes.incr(numBytes);
-				stats.pc_ViserRegExecOnChipNetworkMessageSize4BytesFlits.incr(num4ByteFlits);
-				stats.pc_ViserRegExecOnChipNetworkMessageSize8BytesFlits.incr(num8ByteFlits);
-				stats.pc_ViserRegExecOnChipNetworkMessageSize16BytesFlits.incr(num16ByteFlits);
-				stats.pc_ViserRegExecOnChipNetworkMessageSize32BytesFlits.incr(num32ByteFlits);
+				stats.incr(Stat.pc_ViserRegExecOnChipNetworkMessages, numMsgs);
+				stats.incr(Stat.pc_ViserRegExecOnChipNetworkMessageSizeBytes, numBytes);
+				stats.messageSizes(Traffic.REG_EXEC).add(numBytes);
 				break;
 			}
 			case POST_COMMIT: {
-				stats.pc_ViserPostCommitOnChipNetworkMessages.incr(numMsgs);
-				stats.pc_ViserPostCommitOnChipNetworkMessageSizeBytes.incr(numBytes);
-				stats.pc_ViserPostCommitOnChipNetworkMessageSize4BytesFlits.incr(num4ByteFlits);
-				stats.pc_ViserPostCommitOnChipNetworkMessageSize8BytesFlits.incr(num8ByteFlits);
-				stats.pc_ViserPostCommitOnChipNetworkMessageSize16BytesFlits.incr(num16ByteFlits);
-				stats.pc_ViserPostCommitOnChipNetworkMessageSize32BytesFlits.incr(num32ByteFlits);
+				stats.incr(Stat.pc_ViserPostCommitOnChipNetworkMessages, numMsgs);
+				stats.incr(Stat.pc_ViserPostCommitOnChipNetworkMessageSizeBytes, numBytes);
+				stats.messageSizes(Traffic.POST_COMMIT).add(numBytes);
 				break;
 			}
 			case PRE_COMMIT_L1:
 			case PRE_COMMIT_L2:
 			case PRE_COMMIT: {
-				stats.pc_ViserPreCommitOnChipNetworkMessages.incr(numMsgs);
-				stats.pc_ViserPreCommitOnChipNetworkMessageSizeBytes.incr(numBytes);
-				stats.pc_ViserPreCommitOnChipNetworkMessageSize4BytesFlits.incr(num4ByteFlits);
-				stats.pc_ViserPreCommitOnChipNetworkMessageSize8BytesFlits.incr(num8ByteFlits);
-				stats.pc_ViserPreCommitOnChipNetworkMessageSize16BytesFlits.incr(num16ByteFlits);
-				stats.pc_ViserPreCommitOnChipNetworkMessageSize32BytesFlits.incr(num32ByteFlits);
+				stats.incr(Stat.pc_ViserPreCommitOnChipNetworkMessages, numMsgs);
+				stats.incr(Stat.pc_ViserPreCommitOnChipNetworkMessageSizeBytes, numBytes);
+				stats.messageSizes(Traffic.PRE_COMMIT).add(numBytes);
 				break;
 			}
 			case READ_VALIDATION: {
-				stats.pc_ViserReadValidationOnChipNetworkMessages.incr(numMsgs);
-				stats.pc_ViserReadValidationOnChipNetworkMessageSizeBytes.incr(numBytes);
-				stats.pc_ViserReadValidationOnChipNetworkMessageSize4BytesFlits.incr(num4ByteFlits);
-				stats.pc_ViserReadValidationOnChipNetworkMessageSize8BytesFlits.incr(num8ByteFlits);
-				stats.pc_ViserReadValidationOnChipNetworkMessageSize16BytesFlits
-						.incr(num16ByteFlits);
-				stats.pc_ViserReadValidationOnChipNetworkMessageSize32BytesFlits
-						.incr(num32ByteFlits);
+				stats.incr(Stat.pc_ViserReadValidationOnChipNetworkMessages, numMsgs);
+				stats.incr(Stat.pc_ViserReadValidationOnChipNetworkMessageSizeBytes, numBytes);
+				stats.messageSizes(Traffic.READ_VALIDATION).add(numBytes);
 				break;
 			}
 			default: {
@@ -753,19 +410,19 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	void updatePhaseExecDrivenCycleCost(ExecutionPhase phase, double value) {
 		switch (phase) {
 			case REGION_BODY: {
-				stats.pc_ViserRegExecExecDrivenCycleCount.incr(value);
+				stats.incr(Stat.pc_ViserRegExecExecDrivenCycleCount, value);
 				break;
 			}
 			case POST_COMMIT: {
-				stats.pc_ViserPostCommitExecDrivenCycleCount.incr(value);
+				stats.incr(Stat.pc_ViserPostCommitExecDrivenCycleCount, value);
 				break;
 			}
 			case PRE_COMMIT: {
-				stats.pc_ViserPreCommitExecDrivenCycleCount.incr(value);
+				stats.incr(Stat.pc_ViserPreCommitExecDrivenCycleCount, value);
 				break;
 			}
 			case READ_VALIDATION: {
-				stats.pc_ViserReadValidationExecDrivenCycleCount.incr(value);
+				stats.incr(Stat.pc_ViserReadValidationExecDrivenCycleCount, value);
 				break;
 			}
 			default: {
@@ -777,19 +434,19 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	void updatePhaseBWDrivenCycleCost(ExecutionPhase phase, double value) {
 		switch (phase) {
 			case REGION_BODY: {
-				stats.pc_ViserRegExecBWDrivenCycleCount.incr(value);
+				stats.incr(Stat.pc_ViserRegExecBWDrivenCycleCount, value);
 				break;
 			}
 			case POST_COMMIT: {
-				stats.pc_ViserPostCommitBWDrivenCycleCount.incr(value);
+				stats.incr(Stat.pc_ViserPostCommitBWDrivenCycleCount, value);
 				break;
 			}
 			case PRE_COMMIT: {
-				stats.pc_ViserPreCommitBWDrivenCycleCount.incr(value);
+				stats.incr(Stat.pc_ViserPreCommitBWDrivenCycleCount, value);
 				break;
 			}
 			case READ_VALIDATION: {
-				stats.pc_ViserReadValidationBWDrivenCycleCount.incr(value);
+				stats.incr(Stat.pc_ViserReadValidationBWDrivenCycleCount, value);
 				break;
 			}
 			default: {
@@ -800,28 +457,36 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 	void updateAIMEnergy(boolean read) {
 		int numCores = params.numProcessors();
-		int sizeAIM = ViserSim.Options.valueOf(Knobs.NumAIMLines);
+		int sizeAIM = ctx.options.valueOf(Knobs.NumAIMLines);
 
 		switch (numCores) {
 			case 8: {
 				switch (sizeAIM) {
 					case 1 << 14: { // 16K
 						if (read) {
-							stats.pc_AIMReadEnergy.incr(SystemConstants.AIM_8C_16K_READ_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_8C_16K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMReadEnergy,
+									SystemConstants.AIM_8C_16K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_8C_16K_READ_ENERGY);
 						} else {
-							stats.pc_AIMWriteEnergy.incr(SystemConstants.AIM_8C_16K_WRITE_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_8C_16K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMWriteEnergy,
+									SystemConstants.AIM_8C_16K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_8C_16K_WRITE_ENERGY);
 						}
 						break;
 					}
 					case 1 << 15: { // 32K
 						if (read) {
-							stats.pc_AIMReadEnergy.incr(SystemConstants.AIM_8C_32K_READ_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_8C_32K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMReadEnergy,
+									SystemConstants.AIM_8C_32K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_8C_32K_READ_ENERGY);
 						} else {
-							stats.pc_AIMWriteEnergy.incr(SystemConstants.AIM_8C_32K_WRITE_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_8C_32K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMWriteEnergy,
+									SystemConstants.AIM_8C_32K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_8C_32K_WRITE_ENERGY);
 						}
 						break;
 					}
@@ -835,21 +500,29 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 				switch (sizeAIM) {
 					case 1 << 14: { // 16K
 						if (read) {
-							stats.pc_AIMReadEnergy.incr(SystemConstants.AIM_16C_16K_READ_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_16C_16K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMReadEnergy,
+									SystemConstants.AIM_16C_16K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_16C_16K_READ_ENERGY);
 						} else {
-							stats.pc_AIMWriteEnergy.incr(SystemConstants.AIM_16C_16K_WRITE_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_16C_16K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMWriteEnergy,
+									SystemConstants.AIM_16C_16K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_16C_16K_WRITE_ENERGY);
 						}
 						break;
 					}
 					case 1 << 15: { // 32K
 						if (read) {
-							stats.pc_AIMReadEnergy.incr(SystemConstants.AIM_16C_32K_READ_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_16C_32K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMReadEnergy,
+									SystemConstants.AIM_16C_32K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_16C_32K_READ_ENERGY);
 						} else {
-							stats.pc_AIMWriteEnergy.incr(SystemConstants.AIM_16C_32K_WRITE_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_16C_32K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMWriteEnergy,
+									SystemConstants.AIM_16C_32K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_16C_32K_WRITE_ENERGY);
 						}
 						break;
 					}
@@ -863,31 +536,43 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 				switch (sizeAIM) {
 					case 1 << 14: { // 16K
 						if (read) {
-							stats.pc_AIMReadEnergy.incr(SystemConstants.AIM_32C_16K_READ_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_32C_16K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMReadEnergy,
+									SystemConstants.AIM_32C_16K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_32C_16K_READ_ENERGY);
 						} else {
-							stats.pc_AIMWriteEnergy.incr(SystemConstants.AIM_32C_16K_WRITE_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_32C_16K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMWriteEnergy,
+									SystemConstants.AIM_32C_16K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_32C_16K_WRITE_ENERGY);
 						}
 						break;
 					}
 					case 1 << 15: { // 32K
 						if (read) {
-							stats.pc_AIMReadEnergy.incr(SystemConstants.AIM_32C_32K_READ_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_32C_32K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMReadEnergy,
+									SystemConstants.AIM_32C_32K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_32C_32K_READ_ENERGY);
 						} else {
-							stats.pc_AIMWriteEnergy.incr(SystemConstants.AIM_32C_32K_WRITE_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_32C_32K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMWriteEnergy,
+									SystemConstants.AIM_32C_32K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_32C_32K_WRITE_ENERGY);
 						}
 						break;
 					}
 					case 1 << 16: { // 64K
 						if (read) {
-							stats.pc_AIMReadEnergy.incr(SystemConstants.AIM_32C_32K_READ_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_32C_32K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMReadEnergy,
+									SystemConstants.AIM_32C_32K_READ_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_32C_32K_READ_ENERGY);
 						} else {
-							stats.pc_AIMWriteEnergy.incr(SystemConstants.AIM_32C_32K_WRITE_ENERGY);
-							stats.pc_AIMTotalEnergy.incr(SystemConstants.AIM_32C_32K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMWriteEnergy,
+									SystemConstants.AIM_32C_32K_WRITE_ENERGY);
+							stats.incr(Stat.pc_AIMTotalEnergy,
+									SystemConstants.AIM_32C_32K_WRITE_ENERGY);
 						}
 						break;
 					}
@@ -910,28 +595,28 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	void updatePhaseTolerableConflicts(ExecutionPhase phase) {
 		switch (phase) {
 			case REGION_BODY: {
-				stats.pc_RegExecPreciseConflicts.incr();
+				stats.incr(Stat.pc_RegExecPreciseConflicts);
 				break;
 			}
 			case POST_COMMIT: {
-				stats.pc_PostCommitPreciseConflicts.incr();
+				stats.incr(Stat.pc_PostCommitPreciseConflicts);
 				break;
 			}
 			case PRE_COMMIT: {
-				stats.pc_PreCommitPreciseConflicts.incr();
+				stats.incr(Stat.pc_PreCommitPreciseConflicts);
 				break;
 			}
 			case READ_VALIDATION: {
-				stats.pc_ReadValidationPreciseConflicts.incr();
+				stats.incr(Stat.pc_ReadValidationPreciseConflicts);
 				break;
 			}
 			case REGION_L2_COMMIT: {
-				stats.pc_RegL2CommitPreciseConflicts.incr();
+				stats.incr(Stat.pc_RegL2CommitPreciseConflicts);
 				break;
 			}
 			case EVICT_L1_READ_VALIDATION:
 			case EVICT_L2_READ_VALIDATION: {
-				stats.pc_RegEvictionRVPreciseConflicts.incr();
+				stats.incr(Stat.pc_RegEvictionRVPreciseConflicts);
 				break;
 			}
 			default: {
@@ -943,15 +628,15 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	void updateTypeTolerableConflicts(ConflictType type) {
 		switch (type) {
 			case RW: {
-				stats.pc_RWPreciseConflicts.incr();
+				stats.incr(Stat.pc_RWPreciseConflicts);
 				break;
 			}
 			case WW: {
-				stats.pc_WWPreciseConflicts.incr();
+				stats.incr(Stat.pc_WWPreciseConflicts);
 				break;
 			}
 			case WR: {
-				stats.pc_WRPreciseConflicts.incr();
+				stats.incr(Stat.pc_WRPreciseConflicts);
 				break;
 			}
 			default: {
@@ -1007,12 +692,12 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	 */
 
 	@Override
-	public Line eviction(final Line incoming, final LinkedList<Line> set, final CacheLevel level,
-			ExecutionPhase phase, short bits) {
+	public Line eviction(final Line incoming, final CacheSet<Line> set, final CacheLevel level,
+			ExecutionPhase phase) {
 		Line toEvict = null;
 		if (params.usePLRU()) {
 			for (int i = 0; i < set.size(); i++) {
-				Line line = set.get(i);
+				Line line = set.getWay(i);
 				if (!line.valid()) {
 					toEvict = line;
 					break;
@@ -1020,42 +705,33 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 			}
 			if (toEvict == null) { // need to evict a valid line
 				for (int i = 0; i < set.size(); i++) {
-					if ((bits & (1 << i)) == 0) {
-						toEvict = set.get(i);
+					if ((set.mruBits & (1L << i)) == 0) {
+						toEvict = set.getWay(i);
 						break;
 					}
 				}
 			}
 		} else {
-			toEvict = set.getLast(); // straight LRU
+			toEvict = set.last(); // straight LRU
 
 			if ((params.evictCleanLineFirst() && !hasDirtyEviction) && level == CacheLevel.L2
 					&& toEvict.valid()) {
-				List<Line> tmp = new ArrayList<Line>(set.size());
-				boolean notPreferred;
-				long enc;
-				do {
+				// Walk from the LRU towards the MRU line, looking for a line that is neither dirty
+				// nor written after read
+				boolean notPreferred = true;
+				for (int pos = set.size() - 1; pos >= 0 && notPreferred; pos--) {
+					toEvict = set.get(pos);
 					Line l1Line = L1cache.getLine(toEvict);
-
+					long enc;
 					if (l1Line != null && l1Line.valid())
 						enc = l1Line.getWriteEncoding(id) | toEvict.getWriteEncoding(id);
 					else
 						enc = toEvict.getWriteEncoding(id);
 					notPreferred = enc != 0L;
-
-					if (notPreferred && set.size() > 1) { // WAR or dirty line
-						set.removeLast();
-						tmp.add(toEvict);
-						toEvict = set.getLast();
-					} else
-						break;
-				} while (true);
-
-				for (int i = tmp.size() - 1; i >= 0; i--)
-					set.addLast(tmp.get(i));
+				}
 				if (notPreferred) {
 					// System.out.println("WAR Eviction from " + id);
-					toEvict = set.getLast();
+					toEvict = set.last();
 				}
 			}
 		}
@@ -1064,16 +740,16 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		if (toEvict.valid()) {
 			switch (level) {
 				case L1: {
-					stats.pc_l1d.pc_LineEvictions.incr();
+					stats.incr(Stat.pc_Data_L1LineEvictions);
 					if (toEvict.dirty()) {
-						stats.pc_l1d.pc_DirtyLineEvictions.incr();
+						stats.incr(Stat.pc_Data_L1DirtyLineEvictions);
 					}
 					break;
 				}
 				case L2: {
-					stats.pc_l2d.pc_LineEvictions.incr();
+					stats.incr(Stat.pc_Data_L2LineEvictions);
 					if (toEvict.dirty()) {
-						stats.pc_l2d.pc_DirtyLineEvictions.incr();
+						stats.incr(Stat.pc_Data_L2DirtyLineEvictions);
 					}
 					// Only take into account lines accessed in this region
 					if (toEvict.isAccessedInThisRegion(id)) {
@@ -1099,9 +775,9 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 					break;
 				}
 				case L3: {
-					stats.pc_l3d.pc_LineEvictions.incr();
+					stats.incr(Stat.pc_Data_L3LineEvictions);
 					if (toEvict.dirty()) {
-						stats.pc_l3d.pc_DirtyLineEvictions.incr();
+						stats.incr(Stat.pc_Data_L3DirtyLineEvictions);
 					}
 					break;
 				}
@@ -1123,6 +799,12 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		 */
 		boolean remoteCommunicatedHappened = false;
 
+		DataMemoryAccessResult reset() {
+			latency = 0;
+			remoteCommunicatedHappened = false;
+			return this;
+		}
+
 		/**
 		 * Aggregate the result of another memory op into the current result.
 		 */
@@ -1135,33 +817,32 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	/** Perform a data read specified by the given access. */
 	public DataMemoryAccessResult read(final DataAccess access) {
 		if (access.isAtomic()) {
-			stats.pc_TotalAtomicReads.incr();
-			stats.pc_TotalAtomicAccesses.incr();
+			stats.incr(Stat.pc_TotalAtomicReads);
+			stats.incr(Stat.pc_TotalAtomicAccesses);
 		} else if (access.isLockAccess()) {
-			stats.pc_TotalLockReads.incr();
-			stats.pc_TotalLockAccesses.incr();
+			stats.incr(Stat.pc_TotalLockReads);
+			stats.incr(Stat.pc_TotalLockAccesses);
 		} else {
-			stats.pc_TotalDataReads.incr();
-			stats.pc_TotalMemoryAccesses.incr();
+			stats.incr(Stat.pc_TotalDataReads);
+			stats.incr(Stat.pc_TotalMemoryAccesses);
 		}
 
 		if (access.isRegularMemAccess()) {
 			if (perRegionOverflow8K != TCCRegionsWithOverflow.NO_OVERFLOW) {
-				stats.pc_TCCNumSerializedMemoryAccesses8K.incr();
+				stats.incr(Stat.pc_TCCNumSerializedMemoryAccesses8K);
 			}
 			if (perRegionOverflow16K != TCCRegionsWithOverflow.NO_OVERFLOW) {
-				stats.pc_TCCNumSerializedMemoryAccesses16K.incr();
+				stats.incr(Stat.pc_TCCNumSerializedMemoryAccesses16K);
 			}
 			if (perRegionOverflow32K != TCCRegionsWithOverflow.NO_OVERFLOW) {
-				stats.pc_TCCNumSerializedMemoryAccesses32K.incr();
+				stats.incr(Stat.pc_TCCNumSerializedMemoryAccesses32K);
 			}
 			if (perRegionOverflow64K != TCCRegionsWithOverflow.NO_OVERFLOW) {
-				stats.pc_TCCNumSerializedMemoryAccesses64K.incr();
+				stats.incr(Stat.pc_TCCNumSerializedMemoryAccesses64K);
 			}
 		}
 
-		DataMemoryAccessResult dmaResult = new DataMemoryAccessResult();
-		dmaResult.remoteCommunicatedHappened = false;
+		DataMemoryAccessResult dmaResult = accessResult.reset();
 
 		MemoryResponse<Line> resp = null;
 		resp = L1cache.requestWithSpecialInvalidState(this, access, true);
@@ -1171,16 +852,16 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 					&& (resp.invalidStateFailure ? !resp.invalidStateHit : true);
 		}
 		if (resp.invalidStateHit || resp.invalidStateFailure) {
-			stats.pc_TotalMemoryAccessesSpecialInvalidState.incr();
+			stats.incr(Stat.pc_TotalMemoryAccessesSpecialInvalidState);
 		}
 
 		// Remove current address from TCC vicitim cache since it has been reused
-		tccVictimCache.remove(access.lineAddress().get());
+		tccVictimCache.remove(access.lineAddr());
 
 		Line line = resp.lineHit;
 		assert line.id() == id : "The owner of a private line should always be the current core";
 		assert line.valid() && line.getLevel() == CacheLevel.L1;
-		assert line.getEpoch(id).equals(getCurrentEpoch());
+		assert line.getEpoch(id) == getCurrentEpoch();
 
 		// update metadata after compute costs
 
@@ -1189,11 +870,11 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		switch (resp.whereHit) {
 			case L1: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicReadHits.incr();
+					stats.incr(Stat.pc_Data_L1AtomicReadHits);
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockReadHits.incr();
+					stats.incr(Stat.pc_Data_L1LockReadHits);
 				} else {
-					stats.pc_l1d.pc_ReadHits.incr();
+					stats.incr(Stat.pc_Data_L1ReadHits);
 				}
 
 				if (resp.invalidStateHit) {
@@ -1257,19 +938,19 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 			case L2: {
 				assert params.useL2();
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicReadHits.incr();
+						stats.incr(Stat.pc_Data_L2AtomicReadHits);
 					}
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockReadHits.incr();
+						stats.incr(Stat.pc_Data_L2LockReadHits);
 					}
 				} else {
-					stats.pc_l1d.pc_ReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1ReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_ReadHits.incr();
+						stats.incr(Stat.pc_Data_L2ReadHits);
 					}
 				}
 
@@ -1335,23 +1016,23 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 			case L3: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicReadMisses.incr();
+						stats.incr(Stat.pc_Data_L2AtomicReadMisses);
 					}
-					stats.pc_l3d.pc_AtomicReadHits.incr();
+					stats.incr(Stat.pc_Data_L3AtomicReadHits);
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockReadMisses.incr();
+						stats.incr(Stat.pc_Data_L2LockReadMisses);
 					}
-					stats.pc_l3d.pc_LockReadHits.incr();
+					stats.incr(Stat.pc_Data_L3LockReadHits);
 				} else {
-					stats.pc_l1d.pc_ReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1ReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_ReadMisses.incr();
+						stats.incr(Stat.pc_Data_L2ReadMisses);
 					}
-					stats.pc_l3d.pc_ReadHits.incr();
+					stats.incr(Stat.pc_Data_L3ReadHits);
 				}
 
 				// request to LLC, and a return data message
@@ -1369,11 +1050,10 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 						// updateMemoryAccesses(sizeBytesOutgoing, true);
 
 						// Account for the return message
-						Line memLine = machine.memory.get(line.lineAddress().get());
-						// If the memory line is null, it implies no metadata.
-						if (memLine != null) {
-							// accountOffChipTraffic(memLine);
-						}
+						// If there is no memory line, it implies no metadata.
+						// if (machine.memory.contains(line.lineAddress().get())) {
+						// accountOffChipTraffic(memLine);
+						// }
 						// int sizeBytes = SystemConstants.DATA_MESSAGE_CONTROL_BYTES
 						// + getAIMLineSize();
 						// updateMemoryAccesses(sizeBytes, true);
@@ -1417,23 +1097,23 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 			case MEMORY: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicReadMisses.incr();
+						stats.incr(Stat.pc_Data_L2AtomicReadMisses);
 					}
-					stats.pc_l3d.pc_AtomicReadMisses.incr();
+					stats.incr(Stat.pc_Data_L3AtomicReadMisses);
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockReadMisses.incr();
+						stats.incr(Stat.pc_Data_L2LockReadMisses);
 					}
-					stats.pc_l3d.pc_LockReadMisses.incr();
+					stats.incr(Stat.pc_Data_L3LockReadMisses);
 				} else {
-					stats.pc_l1d.pc_ReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1ReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_ReadMisses.incr();
+						stats.incr(Stat.pc_Data_L2ReadMisses);
 					}
-					stats.pc_l3d.pc_ReadMisses.incr();
+					stats.incr(Stat.pc_Data_L3ReadMisses);
 				}
 
 				memoryCyclesElapsed(SystemConstants.MEMORY_LATENCY, dmaResult);
@@ -1515,15 +1195,15 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		if (ViserSim.assertsEnabled) {
 			Line l1Line = L1cache.getLine(line);
 			Line l2Line = L2cache.getLine(line);
-			assert l1Line.getState() == l2Line.getState() : "Event:" + ViserSim.totalEvents;
+			assert l1Line.getState() == l2Line.getState() : "Event:" + ctx.totalEvents;
 			assert l1Line.getVersion() == l2Line
 					.getVersion() : "L1 and L2 cache line version should match, Event: "
-							+ ViserSim.totalEvents;
-			assert l1Line.getEpoch(id).equals(l2Line.getEpoch(id)) : "Event:"
-					+ ViserSim.totalEvents;
+							+ ctx.totalEvents;
+			assert l1Line.getEpoch(id) == l2Line.getEpoch(id) : "Event:"
+					+ ctx.totalEvents;
 		}
 
-		if (ViserSim.xassertsEnabled()) {
+		if (ctx.xassertsEnabled()) {
 			// This does not hold in Viser, since the L3 cache is not inclusive.
 			// Verify.verifyInvalidLinesInLLC();
 			Verify.verifyCacheIndexing();
@@ -1544,11 +1224,11 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 				/* line size */ + machine.VISER_VARIABLE_MSG_HEADER
 				+ SystemConstants.VISER_VERSION_BYTES; // version bytes
 		for (int i = 0; i < params.numProcessors(); i++) {
-			CpuId cpuId = new CpuId(i);
-			PerCoreLineMetadata md = memLine.getPerCoreMetadata(cpuId);
-			Processor<Line> p = machine.getProc(cpuId);
-			assert md.epoch.getRegionId() <= p.getCurrentEpoch().getRegionId();
-			if (md.epoch.equals(p.getCurrentEpoch())) {
+			CpuId cpuId = allProcessors[i].id;
+			int ep = memLine.getEpoch(cpuId);
+			int current = machine.getEpoch(cpuId);
+			assert ep <= current;
+			if (ep == current) {
 				// read and write information for this processor, if it is
 				// non-zero
 				if (memLine.hasReadOffsets(cpuId)) {
@@ -1599,7 +1279,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 	// No need to fetch the line if the access misses a private cache
 	public DataMemoryAccessResult lockReleaseWrite(final DataAccess access) {
-		DataMemoryAccessResult dmaResult = new DataMemoryAccessResult();
+		DataMemoryAccessResult dmaResult = accessResult.reset();
 		MemoryResponse<Line> resp = L1cache.requestWithSpecialInvalidState(this, access, false);
 		if (params.useSpecialInvalidState()) {
 			// Both cannot be true at the same time
@@ -1607,7 +1287,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 					&& (resp.invalidStateFailure ? !resp.invalidStateHit : true);
 		}
 		if (resp.invalidStateHit || resp.invalidStateFailure) {
-			stats.pc_TotalMemoryAccessesSpecialInvalidState.incr();
+			stats.incr(Stat.pc_TotalMemoryAccessesSpecialInvalidState);
 		}
 
 		Line line = resp.lineHit;
@@ -1615,15 +1295,15 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 			assert line
 					.id() == id : "The owner of a private line should always be the current core";
 			assert line.valid() && line.getLevel() == CacheLevel.L1;
-			assert line.getEpoch(id).equals(getCurrentEpoch());
+			assert line.getEpoch(id) == getCurrentEpoch();
 		}
 
 		switch (resp.whereHit) {
 			case L1: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicWriteHits.incr();
+					stats.incr(Stat.pc_Data_L1AtomicWriteHits);
 				} else {
-					stats.pc_l1d.pc_LockWriteHits.incr();
+					stats.incr(Stat.pc_Data_L1LockWriteHits);
 				}
 				memoryCyclesElapsed(SystemConstants.L1_HIT_LATENCY, dmaResult);
 				break;
@@ -1631,14 +1311,14 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 			case L2: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicWriteHits.incr();
+						stats.incr(Stat.pc_Data_L2AtomicWriteHits);
 					}
 				} else {
-					stats.pc_l1d.pc_LockWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockWriteHits.incr();
+						stats.incr(Stat.pc_Data_L2LockWriteHits);
 					}
 				}
 				memoryCyclesElapsed(SystemConstants.L2_HIT_LATENCY, dmaResult);
@@ -1646,17 +1326,17 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 			}
 			case L3: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicWriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2AtomicWriteMisses);
 					}
-					stats.pc_l3d.pc_AtomicWriteHits.incr();
+					stats.incr(Stat.pc_Data_L3AtomicWriteHits);
 				} else {
-					stats.pc_l1d.pc_LockWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockWriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2LockWriteMisses);
 					}
-					stats.pc_l3d.pc_LockWriteHits.incr();
+					stats.incr(Stat.pc_Data_L3LockWriteHits);
 				}
 				// request to LLC, and no return message
 				memoryCyclesElapsed(SystemConstants.L3_ACCESS, dmaResult);
@@ -1667,18 +1347,18 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 			}
 			case MEMORY: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicWriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2AtomicWriteMisses);
 					}
-					stats.pc_l3d.pc_AtomicWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L3AtomicWriteMisses);
 				}
 				{
-					stats.pc_l1d.pc_LockWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockWriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2LockWriteMisses);
 					}
-					stats.pc_l3d.pc_LockWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L3LockWriteMisses);
 				}
 				memoryCyclesElapsed(SystemConstants.MEMORY_ACCESS, dmaResult);
 				// request to LLC, and no return message
@@ -1698,6 +1378,9 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		Line llcLine = sharedResp.lineHit;
 		// Still keep the same owner
 		llcLine.setLockOwnerID(id.get());
+		if (sharedResp.whereHit == CacheLevel.MEMORY) {
+			machine.memory.put(llcLine); // memory hands out copies
+		}
 		line.setLockOwnerID(id.get());
 
 		if (access.type == MemoryAccessType.ATOMIC_WRITE) {
@@ -1707,7 +1390,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 			// read ahead.
 			// Invalidate the line in the last owner
 			if (line.getLockOwnerID() >= 0 && line.getLockOwnerID() != id.get()) {
-				Processor<Line> lastOwner = machine.getProc(new CpuId(line.getLockOwnerID()));
+				Processor<Line> lastOwner = allProcessors[line.getLockOwnerID()];
 				Line l2Line = lastOwner.L2cache.getLine(line);
 				if (l2Line != null && l2Line.valid()) {
 					l2Line.invalidate();
@@ -1724,14 +1407,14 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	/** Make a write request. */
 	public DataMemoryAccessResult write(final DataAccess access) {
 		if (access.isAtomic()) {
-			stats.pc_TotalAtomicWrites.incr();
-			stats.pc_TotalAtomicAccesses.incr();
+			stats.incr(Stat.pc_TotalAtomicWrites);
+			stats.incr(Stat.pc_TotalAtomicAccesses);
 		} else if (access.isLockAccess()) {
-			stats.pc_TotalLockWrites.incr();
-			stats.pc_TotalLockAccesses.incr();
+			stats.incr(Stat.pc_TotalLockWrites);
+			stats.incr(Stat.pc_TotalLockAccesses);
 		} else {
-			stats.pc_TotalDataWrites.incr();
-			stats.pc_TotalMemoryAccesses.incr();
+			stats.incr(Stat.pc_TotalDataWrites);
+			stats.incr(Stat.pc_TotalMemoryAccesses);
 		}
 
 		if (access.type() == MemoryAccessType.LOCK_REL_WRITE
@@ -1749,7 +1432,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 				perRegionOverflow8K = TCCRegionsWithOverflow.WB_OVERFLOWN;
 			}
 			if (perRegionOverflow8K != TCCRegionsWithOverflow.NO_OVERFLOW) {
-				stats.pc_TCCNumSerializedMemoryAccesses8K.incr();
+				stats.incr(Stat.pc_TCCNumSerializedMemoryAccesses8K);
 			}
 
 			// 16K WB
@@ -1758,7 +1441,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 				perRegionOverflow16K = TCCRegionsWithOverflow.WB_OVERFLOWN;
 			}
 			if (perRegionOverflow16K != TCCRegionsWithOverflow.NO_OVERFLOW) {
-				stats.pc_TCCNumSerializedMemoryAccesses16K.incr();
+				stats.incr(Stat.pc_TCCNumSerializedMemoryAccesses16K);
 			}
 
 			// 32K WB
@@ -1767,7 +1450,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 				perRegionOverflow32K = TCCRegionsWithOverflow.WB_OVERFLOWN;
 			}
 			if (perRegionOverflow32K != TCCRegionsWithOverflow.NO_OVERFLOW) {
-				stats.pc_TCCNumSerializedMemoryAccesses32K.incr();
+				stats.incr(Stat.pc_TCCNumSerializedMemoryAccesses32K);
 			}
 
 			// 64K WB
@@ -1776,11 +1459,11 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 				perRegionOverflow64K = TCCRegionsWithOverflow.WB_OVERFLOWN;
 			}
 			if (perRegionOverflow64K != TCCRegionsWithOverflow.NO_OVERFLOW) {
-				stats.pc_TCCNumSerializedMemoryAccesses64K.incr();
+				stats.incr(Stat.pc_TCCNumSerializedMemoryAccesses64K);
 			}
 		}
 
-		DataMemoryAccessResult dmaResult = new DataMemoryAccessResult();
+		DataMemoryAccessResult dmaResult = accessResult.reset();
 
 		MemoryResponse<Line> resp = L1cache.requestWithSpecialInvalidState(this, access, false);
 		if (params.useSpecialInvalidState()) {
@@ -1789,17 +1472,17 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 					&& (resp.invalidStateFailure ? !resp.invalidStateHit : true);
 		}
 		if (resp.invalidStateHit || resp.invalidStateFailure) {
-			stats.pc_TotalMemoryAccessesSpecialInvalidState.incr();
+			stats.incr(Stat.pc_TotalMemoryAccessesSpecialInvalidState);
 		}
 
 		Line line = resp.lineHit;
 
 		// Remove current address from TCC vicitim cache since it has been reused
-		tccVictimCache.remove(access.lineAddress().get());
+		tccVictimCache.remove(access.lineAddr());
 
 		assert line.id() == id : "The owner of a private line should always be the current core";
 		assert line.valid() && line.getLevel() == CacheLevel.L1;
-		assert line.getEpoch(id).equals(getCurrentEpoch());
+		assert line.getEpoch(id) == getCurrentEpoch();
 
 		long enc = access.getEncoding();
 		if (access.isRegularMemAccess()) { // regular write
@@ -1832,7 +1515,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 				// flowing in from the
 				// memory,
 				// not the front-end.
-				stats.pc_ViserWARUpgrades.incr();
+				stats.incr(Stat.pc_ViserWARUpgrades);
 			}
 		}
 		// set write encoding after computing costs
@@ -1843,11 +1526,11 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		switch (resp.whereHit) {
 			case L1: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicWriteHits.incr();
+					stats.incr(Stat.pc_Data_L1AtomicWriteHits);
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockWriteHits.incr();
+					stats.incr(Stat.pc_Data_L1LockWriteHits);
 				} else {
-					stats.pc_l1d.pc_WriteHits.incr();
+					stats.incr(Stat.pc_Data_L1WriteHits);
 				}
 
 				if (access.isRegularMemAccess() && resp.invalidStateHit) {
@@ -1911,19 +1594,19 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 			case L2: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicWriteHits.incr();
+						stats.incr(Stat.pc_Data_L2AtomicWriteHits);
 					}
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockWriteHits.incr();
+						stats.incr(Stat.pc_Data_L2LockWriteHits);
 					}
 				} else {
-					stats.pc_l1d.pc_WriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1WriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_WriteHits.incr();
+						stats.incr(Stat.pc_Data_L2WriteHits);
 					}
 				}
 
@@ -1989,23 +1672,23 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 			case L3: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicWriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2AtomicWriteMisses);
 					}
-					stats.pc_l3d.pc_AtomicWriteHits.incr();
+					stats.incr(Stat.pc_Data_L3AtomicWriteHits);
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockWriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2LockWriteMisses);
 					}
-					stats.pc_l3d.pc_LockWriteHits.incr();
+					stats.incr(Stat.pc_Data_L3LockWriteHits);
 				} else {
-					stats.pc_l1d.pc_WriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1WriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_WriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2WriteMisses);
 					}
-					stats.pc_l3d.pc_WriteHits.incr();
+					stats.incr(Stat.pc_Data_L3WriteHits);
 				}
 
 				// request to LLC, and a return data message
@@ -2023,11 +1706,10 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 						// updateMemoryAccesses(sizeBytesOutgoing, true);
 
 						// Account for the return message
-						Line memLine = machine.memory.get(line.lineAddress().get());
-						// If the memory line is null, it implies no metadata.
-						if (memLine != null) {
-							// accountOffChipTraffic(memLine);
-						}
+						// If there is no memory line, it implies no metadata.
+						// if (machine.memory.contains(line.lineAddress().get())) {
+						// accountOffChipTraffic(memLine);
+						// }
 						// int sizeInBytes = SystemConstants.DATA_MESSAGE_CONTROL_BYTES
 						// + getAIMLineSize();
 						// updateMemoryAccesses(sizeInBytes, false);
@@ -2073,23 +1755,23 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 			case MEMORY: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicWriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2AtomicWriteMisses);
 					}
-					stats.pc_l3d.pc_AtomicWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L3AtomicWriteMisses);
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockWriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2LockWriteMisses);
 					}
-					stats.pc_l3d.pc_LockWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L3LockWriteMisses);
 				} else {
-					stats.pc_l1d.pc_WriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1WriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_WriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2WriteMisses);
 					}
-					stats.pc_l3d.pc_WriteMisses.incr();
+					stats.incr(Stat.pc_Data_L3WriteMisses);
 				}
 
 				memoryCyclesElapsed(SystemConstants.MEMORY_LATENCY, dmaResult);
@@ -2165,7 +1847,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 			// Invalidate the line in the last owner
 			if (line.getLockOwnerID() >= 0 && line.getLockOwnerID() != id.get()) {
-				Processor<Line> lastOwner = machine.getProc(new CpuId(line.getLockOwnerID()));
+				Processor<Line> lastOwner = allProcessors[line.getLockOwnerID()];
 				Line l2Line = lastOwner.L2cache.getLine(line);
 				if (l2Line != null && l2Line.valid()) {
 					l2Line.invalidate();
@@ -2177,6 +1859,9 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 			line.setLockOwnerID(id.get());
 			llcLine.setLockOwnerID(id.get()); // Current core owns the lock
+			if (sharedResp.whereHit == CacheLevel.MEMORY) {
+				machine.memory.put(llcLine); // memory hands out copies
+			}
 		}
 
 		if (ViserSim.assertsEnabled && access.type() != MemoryAccessType.LOCK_REL_WRITE) {
@@ -2189,11 +1874,11 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 			assert l1Line.getState() == l2Line.getState();
 			assert l1Line.getVersion() == l2Line
 					.getVersion() : "L1 and L2 cache line version should match, Total events: "
-							+ ViserSim.totalEvents;
-			assert l1Line.getEpoch(id).equals(l2Line.getEpoch(id));
+							+ ctx.totalEvents;
+			assert l1Line.getEpoch(id) == l2Line.getEpoch(id);
 		}
 
-		if (ViserSim.xassertsEnabled()) {
+		if (ctx.xassertsEnabled()) {
 			// This does not hold in Viser, since the L3 cache is not inclusive.
 			// Verify.verifyInvalidLinesInLLC();
 			Verify.verifyCacheIndexing();
@@ -2229,7 +1914,8 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		}
 	}
 
-	public Epoch getCurrentEpoch() {
+	/** Id of the ongoing region of this core */
+	public int getCurrentEpoch() {
 		return machine.getEpoch(id);
 	}
 
@@ -2241,25 +1927,24 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	 */
 	void checkPreciseWriteReadConflicts(Line sharedLine, Line privLine, ExecutionPhase phase) {
 		if (!(!params.isHttpd()
-				&& (!ViserSim.modelOnlyROI() || ViserSim.getPARSECPhase() == PARSEC_PHASE.IN_ROI)
-				|| ViserSim.getPARSECPhase() == PARSEC_PHASE.IN_SERVER_ROI)) { // Not
+				&& ctx.countStats()
+				|| ctx.getPARSECPhase() == PARSEC_PHASE.IN_SERVER_ROI)) { // Not
 																				// in
 																				// ROIs
 			return;
 		}
 
-		stats.pc_ConflictCheckAttempts.incr();
+		stats.incr(Stat.pc_ConflictCheckAttempts);
 		long existingReads = privLine.getReadEncoding(id);
 		for (int i = 0; i < params.numProcessors(); i++) {
 			if (i == id.get()) {
 				continue; // ignore the same processor
 			}
-			CpuId cpuId = new CpuId(i);
-			Processor<Line> p = machine.getProc(cpuId);
-			PerCoreLineMetadata md = sharedLine.getPerCoreMetadata(cpuId);
-			assert md != null;
-			assert md.epoch.getRegionId() <= p.getCurrentEpoch().getRegionId();
-			if (md.epoch.equals(p.getCurrentEpoch())) { // The region is ongoing
+			CpuId cpuId = allProcessors[i].id;
+			int ep = sharedLine.getEpoch(cpuId);
+			int current = machine.getEpoch(cpuId);
+			assert ep <= current;
+			if (ep == current) { // The region is ongoing
 				long sharedWrites = sharedLine.getWriteEncoding(cpuId);
 				if ((sharedWrites & existingReads) != 0) {
 					boolean preciseConflict = true;
@@ -2268,7 +1953,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 								privLine, sharedWrites, existingReads);
 					}
 					if (preciseConflict) {
-						stats.pc_PreciseConflicts.incr();
+						stats.incr(Stat.pc_PreciseConflicts);
 						updatePhaseTolerableConflicts(phase);
 						updateTypeTolerableConflicts(ConflictType.WR);
 						// Pause the current(reader) core at a precise
@@ -2368,9 +2053,9 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		if (!regionWithExceptions) {
 			if (!regionConflicted) {
 				regionConflicted = true;
-				stats.pc_RegionsWithTolerableConflicts.incr();
+				stats.incr(Stat.pc_RegionsWithTolerableConflicts);
 
-				stats.pc_RegionsWithExceptions.incr();
+				stats.incr(Stat.pc_RegionsWithExceptions);
 				regionWithExceptions = true;
 			}
 		}
@@ -2382,26 +2067,25 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	// used at precommit, early-pre-commit
 	void checkPreciseConflicts(Line sharedLine, Line privLine, ExecutionPhase phase) {
 		if (!(!params.isHttpd()
-				&& (!ViserSim.modelOnlyROI() || ViserSim.getPARSECPhase() == PARSEC_PHASE.IN_ROI)
-				|| ViserSim.getPARSECPhase() == PARSEC_PHASE.IN_SERVER_ROI)) { // Not
+				&& ctx.countStats()
+				|| ctx.getPARSECPhase() == PARSEC_PHASE.IN_SERVER_ROI)) { // Not
 																				// in
 																				// ROIs
 			return;
 		}
 
-		stats.pc_ConflictCheckAttempts.incr();
+		stats.incr(Stat.pc_ConflictCheckAttempts);
 		long existingWrites = privLine.getWriteEncoding(id);
 		// long existingReads = privLine.getReadEncoding(id);
 		for (int i = 0; i < params.numProcessors(); i++) {
 			if (i == id.get()) {
 				continue; // ignore the same processor
 			}
-			CpuId cpuId = new CpuId(i);
-			Processor<Line> p = machine.getProc(cpuId);
-			PerCoreLineMetadata md = sharedLine.getPerCoreMetadata(cpuId);
-			assert md != null;
-			assert md.epoch.getRegionId() <= p.getCurrentEpoch().getRegionId();
-			if (md.epoch.equals(p.getCurrentEpoch())) { // The region is ongoing
+			CpuId cpuId = allProcessors[i].id;
+			int ep = sharedLine.getEpoch(cpuId);
+			int current = machine.getEpoch(cpuId);
+			assert ep <= current;
+			if (ep == current) { // The region is ongoing
 				long sharedWrites = sharedLine.getWriteEncoding(cpuId);
 				long sharedReads = sharedLine.getReadEncoding(cpuId);
 				if ((sharedReads & existingWrites) != 0) {
@@ -2411,7 +2095,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 								privLine, sharedReads, existingWrites);
 					}
 					if (preciseConflict) {
-						stats.pc_PreciseConflicts.incr();
+						stats.incr(Stat.pc_PreciseConflicts);
 						updatePhaseTolerableConflicts(phase);
 						updateTypeTolerableConflicts(ConflictType.RW);
 						handleConflict(cpuId);
@@ -2424,7 +2108,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 								privLine, sharedWrites, existingWrites);
 					}
 					if (preciseConflict) {
-						stats.pc_PreciseConflicts.incr();
+						stats.incr(Stat.pc_PreciseConflicts);
 						updatePhaseTolerableConflicts(phase);
 						updateTypeTolerableConflicts(ConflictType.WW);
 						handleConflict(cpuId);
@@ -2442,12 +2126,11 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	Line clearAccessEncoding(Line sharedLine) {
 		int count = 0;
 		for (int i = 0; i < params.numProcessors(); i++) {
-			CpuId cpuId = new CpuId(i);
-			Processor<Line> p = machine.getProc(cpuId);
-			PerCoreLineMetadata md = sharedLine.getPerCoreMetadata(cpuId);
-			assert md != null;
-			assert md.epoch.getRegionId() <= p.getCurrentEpoch().getRegionId();
-			if (md.epoch.getRegionId() < p.getCurrentEpoch().getRegionId()) {
+			CpuId cpuId = allProcessors[i].id;
+			int ep = sharedLine.getEpoch(cpuId);
+			int current = machine.getEpoch(cpuId);
+			assert ep <= current;
+			if (ep < current) {
 				sharedLine.clearReadEncoding(cpuId);
 				sharedLine.clearWriteEncoding(cpuId);
 				count++;
@@ -2491,28 +2174,24 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	private void sendDirtyValuesToLLC() {
 		final HashSet<Long> dirtyL1Lines = new HashSet<Long>();
 
-		for (Deque<Line> set : L1cache.sets) {
-			for (Line l : set) {
-				if (l.hasWrittenOffsets(id)) {
-					assert l.valid() : "Written line has to be VALID";
-					assert l.getEpoch(id).equals(getCurrentEpoch());
+		for (Line l : L1cache.touchedLines()) {
+			if (l.hasWrittenOffsets(id)) {
+				assert l.valid() : "Written line has to be VALID";
+				assert l.getEpoch(id) == getCurrentEpoch();
 
-					dirtyL1Lines.add(l.lineAddress().get()); // We want to skip L2 lines
-					L3cache.updateWriteInfoInLLC(this, l, ExecutionPhase.PRE_COMMIT_L1);
-				}
+				dirtyL1Lines.add(l.lineAddress().get()); // We want to skip L2 lines
+				L3cache.updateWriteInfoInLLC(this, l, ExecutionPhase.PRE_COMMIT_L1);
 			}
 		}
 
 		if (params.useL2()) {
 			// Visit L2-only dirty lines, and skip L1 dirty lines.
-			for (Deque<Line> set : L2cache.sets) {
-				for (Line l : set) {
-					if (l.hasWrittenOffsets(id)) {
-						assert l.valid() : "Dirty line has to be VALID.";
-						assert l.getEpoch(id).equals(getCurrentEpoch());
-						if (!dirtyL1Lines.contains(l.lineAddress().get())) {
-							L3cache.updateWriteInfoInLLC(this, l, ExecutionPhase.PRE_COMMIT_L2);
-						}
+			for (Line l : L2cache.touchedLines()) {
+				if (l.hasWrittenOffsets(id)) {
+					assert l.valid() : "Dirty line has to be VALID.";
+					assert l.getEpoch(id) == getCurrentEpoch();
+					if (!dirtyL1Lines.contains(l.lineAddress().get())) {
+						L3cache.updateWriteInfoInLLC(this, l, ExecutionPhase.PRE_COMMIT_L2);
 					}
 				}
 			}
@@ -2535,61 +2214,59 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 		boolean written = false; // Track whether there is at least one written line
 		// phase = ExecutionPhase.PRE_COMMIT_L1;
-		for (Deque<Line> set : L1cache.sets) {
-			for (Line l : set) {
-				if (l.hasWrittenOffsets(id)) {
-					if (!written) {
-						written = true;
-					}
+		for (Line l : L1cache.touchedLines()) {
+			if (l.hasWrittenOffsets(id)) {
+				if (!written) {
+					written = true;
+				}
 
-					assert l.valid() : "Written line has to be VALID";
-					assert l.getEpoch(id).equals(getCurrentEpoch());
+				assert l.valid() : "Written line has to be VALID";
+				assert l.getEpoch(id) == getCurrentEpoch();
 
-					dirtyL1Lines.add(l.lineAddress().get()); // We want to skip L2 lines
+				dirtyL1Lines.add(l.lineAddress().get()); // We want to skip L2 lines
 
-					// Compute size of a message to LLC. We do not need to send
-					// the version, we can just increment it
-					int sizeInBytes = SystemConstants.TAG_BYTES
-							+ SystemConstants.VISER_WRITE_METADATA_BYTES;
+				// Compute size of a message to LLC. We do not need to send
+				// the version, we can just increment it
+				int sizeInBytes = SystemConstants.TAG_BYTES
+						+ SystemConstants.VISER_WRITE_METADATA_BYTES;
 
-					// send values after read validation
-					if (!params.deferWriteBacks()) {
-						// size of values sent
-						sizeInBytes += Long.bitCount(l.getWriteEncoding(id));
-					}
-					totalSizeInBytes += sizeInBytes;
+				// send values after read validation
+				if (!params.deferWriteBacks()) {
+					// size of values sent
+					sizeInBytes += Long.bitCount(l.getWriteEncoding(id));
+				}
+				totalSizeInBytes += sizeInBytes;
 
-					boolean hit = L3cache.checkConflictsForWrittenLines(proc, l,
-							ExecutionPhase.PRE_COMMIT_L1);
+				boolean hit = L3cache.checkConflictsForWrittenLines(proc, l,
+						ExecutionPhase.PRE_COMMIT_L1);
 
-					// Check if it is an LLC miss. This is not a streaming operation.
-					if (!hit) {
-						updateTrafficForOneNetworkMessage(1, sizeInBytes,
-								ExecutionPhase.PRE_COMMIT);
-						// updateTrafficForLLCToMemoryMessage(sizeInBytes, false);
-						// updateMemoryAccesses(getAIMLineSize(), false);
-					}
+				// Check if it is an LLC miss. This is not a streaming operation.
+				if (!hit) {
+					updateTrafficForOneNetworkMessage(1, sizeInBytes,
+							ExecutionPhase.PRE_COMMIT);
+					// updateTrafficForLLCToMemoryMessage(sizeInBytes, false);
+					// updateMemoryAccesses(getAIMLineSize(), false);
+				}
 
-					int cost = hit ? SystemConstants.L3_ACCESS : SystemConstants.MEMORY_ACCESS;
-					stats.pc_ExecDrivenCycleCount.incr(cost);
-					updatePhaseExecDrivenCycleCost(ExecutionPhase.PRE_COMMIT, cost);
-					// Count execution cycles but taking into account bandwidth
-					bandwidthBasedCost += (sizeInBytes * SystemConstants.LLC_MULTIPLIER);
-					if (!hit) {
-						bandwidthBasedCost += (sizeInBytes * SystemConstants.MEM_MULTIPLIER);
-					}
+				int cost = hit ? SystemConstants.L3_ACCESS : SystemConstants.MEMORY_ACCESS;
+				stats.incr(Stat.pc_ExecutionDrivenCycleCount, cost);
+				updatePhaseExecDrivenCycleCost(ExecutionPhase.PRE_COMMIT, cost);
+				// Count execution cycles but taking into account bandwidth
+				bandwidthBasedCost += (sizeInBytes * SystemConstants.LLC_MULTIPLIER);
+				if (!hit) {
+					bandwidthBasedCost += (sizeInBytes * SystemConstants.MEM_MULTIPLIER);
 				}
 			}
 		}
 
 		int bwCost = (int) Math.ceil(bandwidthBasedCost);
-		stats.pc_BandwidthDrivenCycleCount.incr(bwCost);
+		stats.incr(Stat.pc_BandwidthDrivenCycleCount, bwCost);
 		updatePhaseBWDrivenCycleCost(ExecutionPhase.PRE_COMMIT, bwCost);
 
-		stats.pc_TCCCycleCount8K.incr(bwCost);
-		stats.pc_TCCCycleCount16K.incr(bwCost);
-		stats.pc_TCCCycleCount32K.incr(bwCost);
-		stats.pc_TCCCycleCount64K.incr(bwCost);
+		stats.incr(Stat.pc_TCCCycleCount8K, bwCost);
+		stats.incr(Stat.pc_TCCCycleCount16K, bwCost);
+		stats.incr(Stat.pc_TCCCycleCount32K, bwCost);
+		stats.incr(Stat.pc_TCCCycleCount64K, bwCost);
 
 		// Model TCC stall cycles since region has overflowed
 		if (perRegionOverflow8K != TCCRegionsWithOverflow.NO_OVERFLOW) {
@@ -2619,59 +2296,57 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		if (params.useL2()) {
 			// phase = ExecutionPhase.PRE_COMMIT_L2;
 			// Visit L2-only dirty lines, and skip L1 dirty lines.
-			for (Deque<Line> set : L2cache.sets) {
-				for (Line l : set) {
-					if (l.hasWrittenOffsets(id)) {
-						assert l.valid() : "Dirty line has to be VALID.";
-						assert l.getEpoch(id).equals(getCurrentEpoch());
-
-						if (!dirtyL1Lines.contains(l.lineAddress().get())) {
-							if (!written) {
-								written = true;
-							}
+			for (Line l : L2cache.touchedLines()) {
+				if (l.hasWrittenOffsets(id)) {
+					assert l.valid() : "Dirty line has to be VALID.";
+					assert l.getEpoch(id) == getCurrentEpoch();
 
-							// Compute size of a message to LLC. We do not need to send the version,
-							// we can just increment it
-							int sizeBytes = SystemConstants.TAG_BYTES
-									+ SystemConstants.VISER_WRITE_METADATA_BYTES;
-							if (!params.deferWriteBacks()) {
-								sizeBytes += Long.bitCount(l.getWriteEncoding(id));
-							}
-							totalSizeInBytes += sizeBytes;
+					if (!dirtyL1Lines.contains(l.lineAddress().get())) {
+						if (!written) {
+							written = true;
+						}
 
-							boolean hit = L3cache.checkConflictsForWrittenLines(proc, l,
-									ExecutionPhase.PRE_COMMIT_L2);
+						// Compute size of a message to LLC. We do not need to send the version,
+						// we can just increment it
+						int sizeBytes = SystemConstants.TAG_BYTES
+								+ SystemConstants.VISER_WRITE_METADATA_BYTES;
+						if (!params.deferWriteBacks()) {
+							sizeBytes += Long.bitCount(l.getWriteEncoding(id));
+						}
+						totalSizeInBytes += sizeBytes;
 
-							// Check if it is an LLC miss
-							if (!hit) {
-								updateTrafficForOneNetworkMessage(1, sizeBytes,
-										ExecutionPhase.PRE_COMMIT);
-								// updateTrafficForLLCToMemoryMessage(sizeBytes, false);
-								// updateMemoryAccesses(getAIMLineSize(), false);
-							}
+						boolean hit = L3cache.checkConflictsForWrittenLines(proc, l,
+								ExecutionPhase.PRE_COMMIT_L2);
 
-							int cost = hit ? SystemConstants.L3_ACCESS
-									: SystemConstants.MEMORY_ACCESS;
-							stats.pc_ExecDrivenCycleCount.incr(cost);
-							updatePhaseExecDrivenCycleCost(ExecutionPhase.PRE_COMMIT, cost);
-							// Count execution cycles but taking into account bandwidth
-							bandwidthBasedCost += (sizeBytes * SystemConstants.LLC_MULTIPLIER);
-							if (!hit) {
-								bandwidthBasedCost += (sizeBytes * SystemConstants.MEM_MULTIPLIER);
-							}
+						// Check if it is an LLC miss
+						if (!hit) {
+							updateTrafficForOneNetworkMessage(1, sizeBytes,
+									ExecutionPhase.PRE_COMMIT);
+							// updateTrafficForLLCToMemoryMessage(sizeBytes, false);
+							// updateMemoryAccesses(getAIMLineSize(), false);
+						}
+
+						int cost = hit ? SystemConstants.L3_ACCESS
+								: SystemConstants.MEMORY_ACCESS;
+						stats.incr(Stat.pc_ExecutionDrivenCycleCount, cost);
+						updatePhaseExecDrivenCycleCost(ExecutionPhase.PRE_COMMIT, cost);
+						// Count execution cycles but taking into account bandwidth
+						bandwidthBasedCost += (sizeBytes * SystemConstants.LLC_MULTIPLIER);
+						if (!hit) {
+							bandwidthBasedCost += (sizeBytes * SystemConstants.MEM_MULTIPLIER);
 						}
 					}
 				}
 			}
 
 			bwCost = (int) Math.ceil(bandwidthBasedCost);
-			stats.pc_BandwidthDrivenCycleCount.incr(bwCost);
+			stats.incr(Stat.pc_BandwidthDrivenCycleCount, bwCost);
 			updatePhaseBWDrivenCycleCost(ExecutionPhase.PRE_COMMIT, bwCost);
 
-			stats.pc_TCCCycleCount8K.incr(bwCost);
-			stats.pc_TCCCycleCount16K.incr(bwCost);
-			stats.pc_TCCCycleCount32K.incr(bwCost);
-			stats.pc_TCCCycleCount64K.incr(bwCost);
+			stats.incr(Stat.pc_TCCCycleCount8K, bwCost);
+			stats.incr(Stat.pc_TCCCycleCount16K, bwCost);
+			stats.incr(Stat.pc_TCCCycleCount32K, bwCost);
+			stats.incr(Stat.pc_TCCCycleCount64K, bwCost);
 			// Model TCC stall cycles since region has overflowed
 			if (perRegionOverflow8K != TCCRegionsWithOverflow.NO_OVERFLOW) {
 				tccPerRegionStalledCycles8K += SystemConstants.L3_HIT_LATENCY;
@@ -2739,7 +2414,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 			// the write signature
 			// overlaps
 			if (params.skipValidatingReadLines() && params.useBloomFilter() && rvResp.overlap) {
-				int sizeBytes = SystemConstants.BLOOM_FILTER_LLC_MESSAGE;
+				int sizeBytes = bloomFilterMessageBytes();
 				updateTrafficForOneNetworkMessage(1, sizeBytes, ExecutionPhase.READ_VALIDATION);
 			}
 		}
@@ -2765,202 +2440,201 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		int totalSizeBytes = 0;
 		boolean rdValAndWriteSignatureOverlap = false;
 
-		for (Deque<Line> set : cache.sets) {
-			for (Line l : set) {
-				if (!l.valid() || !l.hasReadOffsets(id)) {
+		for (Line l : cache.touchedLines()) {
+			if (!l.valid() || !l.hasReadOffsets(id)) {
+				continue;
+			}
+			// Line is valid and has some reads
+
+			// A read line needs to be validated only if the Bloom filter
+			// tells the core that
+			// the line has been
+			// updated during the region.
+			if (params.skipValidatingReadLines() && params.useBloomFilter()) {
+				stats.incr(Stat.pc_BloomFilterTotalEnergy,
+						SystemConstants.BLOOM_FILTER_READ_ENERGY);
+				stats.incr(Stat.pc_BloomFilterReadEnergy, SystemConstants.BLOOM_FILTER_READ_ENERGY);
+
+				if (!bloomFilterContains(l.lineAddress().get())) {
 					continue;
 				}
-				// Line is valid and has some reads
-
-				// A read line needs to be validated only if the Bloom filter
-				// tells the core that
-				// the line has been
-				// updated during the region.
-				if (params.skipValidatingReadLines() && params.useBloomFilter()) {
-					stats.pc_BloomFilterTotalEnergy.incr(SystemConstants.BLOOM_FILTER_READ_ENERGY);
-					stats.pc_BloomFilterReadEnergy.incr(SystemConstants.BLOOM_FILTER_READ_ENERGY);
-
-					if (!bf.contains(l.lineAddress().get())) {
-						continue;
-					}
-				}
+			}
 
-				// There is a read line that is updated by a remote core, so
-				// read validation needs
-				// to repeat at least one more time after fetching the write
-				// signature, according to
-				// the
-				// do-while-retry algorithm. We do not implement that algorithm
-				// faithfully since the
-				// simulator is single-threaded.
-				rdValAndWriteSignatureOverlap = true;
-
-				int l2Version = l.getVersion();
-				long readEnc = l.getReadEncoding(id);
-				// Need the tag bits, since the LLC/memory might reply
-				// asynchronously
-				int sizeBytes = SystemConstants.DATA_MESSAGE_CONTROL_BYTES
-						+ SystemConstants.TAG_BYTES + Long.bitCount(readEnc);
-
-				// Get the corresponding line from memory or LLC
-				MemoryResponse<Line> resp = L3cache.requestLineFromLLCOrMemory(this, l, true,
+			// There is a read line that is updated by a remote core, so
+			// read validation needs
+			// to repeat at least one more time after fetching the write
+			// signature, according to
+			// the
+			// do-while-retry algorithm. We do not implement that algorithm
+			// faithfully since the
+			// simulator is single-threaded.
+			rdValAndWriteSignatureOverlap = true;
+
+			int l2Version = l.getVersion();
+			long readEnc = l.getReadEncoding(id);
+			// Need the tag bits, since the LLC/memory might reply
+			// asynchronously
+			int sizeBytes = SystemConstants.DATA_MESSAGE_CONTROL_BYTES
+					+ SystemConstants.TAG_BYTES + Long.bitCount(readEnc);
+
+			// Get the corresponding line from memory or LLC
+			MemoryResponse<Line> resp = L3cache.requestLineFromLLCOrMemory(this, l, true,
+					ExecutionPhase.READ_VALIDATION);
+			Line sharedLine = resp.lineHit;
+			assert sharedLine != null && sharedLine.getLevel() == CacheLevel.L3;
+
+			int sharedVersion = sharedLine.getVersion();
+
+			if (resp.whereHit == CacheLevel.L3) {
+				maxBatchExecLatency = Math.max(maxBatchExecLatency, SystemConstants.L3_ACCESS);
+			} else {
+				assert resp.whereHit == CacheLevel.MEMORY;
+				maxBatchExecLatency = Math.max(maxBatchExecLatency,
+						SystemConstants.MEMORY_ACCESS);
+				whereHitInBatch = CacheLevel.MEMORY;
+
+				// LLC will forward the message to memory
+				int sizeMemBytes = SystemConstants.DATA_MESSAGE_CONTROL_BYTES
+						+ SystemConstants.TAG_BYTES + SystemConstants.VISER_VERSION_BYTES;
+				updateTrafficForOneNetworkMessage(1, sizeMemBytes,
 						ExecutionPhase.READ_VALIDATION);
-				Line sharedLine = resp.lineHit;
-				assert sharedLine != null && sharedLine.getLevel() == CacheLevel.L3;
+				// updateTrafficForLLCToMemoryMessage(sizeMemBytes, true);
+				// updateMemoryAccesses(getAIMLineSize(), true);
 
-				int sharedVersion = sharedLine.getVersion();
+				memBatchSizeBytes += sizeMemBytes;
+			}
 
-				if (resp.whereHit == CacheLevel.L3) {
-					maxBatchExecLatency = Math.max(maxBatchExecLatency, SystemConstants.L3_ACCESS);
-				} else {
-					assert resp.whereHit == CacheLevel.MEMORY;
-					maxBatchExecLatency = Math.max(maxBatchExecLatency,
-							SystemConstants.MEMORY_ACCESS);
-					whereHitInBatch = CacheLevel.MEMORY;
-
-					// LLC will forward the message to memory
-					int sizeMemBytes = SystemConstants.DATA_MESSAGE_CONTROL_BYTES
-							+ SystemConstants.TAG_BYTES + SystemConstants.VISER_VERSION_BYTES;
-					updateTrafficForOneNetworkMessage(1, sizeMemBytes,
+			// In case of a version match, the LLC responds with a NACK if a
+			// write bit is set in
+			// the AIM cache,
+			// indicating a potential write-read conflict. Otherwise, RCC
+			// could miss
+			// serializability violations.
+			// Validation is not retried in case a conflict is observed
+			// since the versions
+			// already match.
+			if (l2Version == sharedVersion && !retryAttempt) {
+				if (checkIfWriteBitIsSet(sharedLine)) {
+					stats.incr(Stat.pc_potentialWrRdValConflicts);
+
+					// One LLC-to-core control message
+					int sizeIncomingMessage = SystemConstants.CONTROL_MESSAGE_SIZE_BYTES;
+					updateTrafficForOneNetworkMessage(1, sizeIncomingMessage,
+							ExecutionPhase.READ_VALIDATION);
+					// The CC then compares the version, the data values, and the (core's) read
+					// bits and (AIM's) write bits.
+					// One core-to-LLC message
+					// We do not need to send version and data bytes, since
+					// the LLC has precise bits in the cache
+					int sizeOutgoingMessage = SystemConstants.DATA_MESSAGE_CONTROL_BYTES
+							+ SystemConstants.VISER_READ_METADATA_BYTES;
+					updateTrafficForOneNetworkMessage(1, sizeOutgoingMessage,
 							ExecutionPhase.READ_VALIDATION);
-					// updateTrafficForLLCToMemoryMessage(sizeMemBytes, true);
-					// updateMemoryAccesses(getAIMLineSize(), true);
 
-					memBatchSizeBytes += sizeMemBytes;
-				}
+					// Check for a precise write-read conflict
+					checkPreciseWriteReadConflicts(sharedLine, l,
+							ExecutionPhase.READ_VALIDATION);
 
-				// In case of a version match, the LLC responds with a NACK if a
-				// write bit is set in
-				// the AIM cache,
-				// indicating a potential write-read conflict. Otherwise, RCC
-				// could miss
-				// serializability violations.
-				// Validation is not retried in case a conflict is observed
-				// since the versions
-				// already match.
-				if (l2Version == sharedVersion && !retryAttempt) {
-					if (checkIfWriteBitIsSet(sharedLine)) {
-						stats.pc_potentialWrRdValConflicts.incr();
-
-						// One LLC-to-core control message
-						int sizeIncomingMessage = SystemConstants.CONTROL_MESSAGE_SIZE_BYTES;
-						updateTrafficForOneNetworkMessage(1, sizeIncomingMessage,
-								ExecutionPhase.READ_VALIDATION);
-						// The CC then compares the version, the data values, and the (core's) read
-						// bits and (AIM's) write bits.
-						// One core-to-LLC message
-						// We do not need to send version and data bytes, since
-						// the LLC has precise bits in the cache
-						int sizeOutgoingMessage = SystemConstants.DATA_MESSAGE_CONTROL_BYTES
-								+ SystemConstants.VISER_READ_METADATA_BYTES;
-						updateTrafficForOneNetworkMessage(1, sizeOutgoingMessage,
-								ExecutionPhase.READ_VALIDATION);
-
-						// Check for a precise write-read conflict
-						checkPreciseWriteReadConflicts(sharedLine, l,
-								ExecutionPhase.READ_VALIDATION);
-
-						// We do not account for the performance, since we
-						// expect this case to be
-						// rare and to be on the
-						// slow path
-					}
+					// We do not account for the performance, since we
+					// expect this case to be
+					// rare and to be on the
+					// slow path
 				}
+			}
 
-				boolean preciseConflictFound = false;
-				if (l2Version != sharedVersion) {
-					assert l2Version < sharedVersion : "Local version should be smaller it seems.";
-
-					// Since there's no early writing back during pre-commit, version mismatch
-					// definitely indicates the existence of remote writers.
-					if (l.hasWrittenOffsets(id)) {
-						// The current core is the last writer, but there are remote writers as
-						// well. Still need to setConcurrentRemoteWrite for self-invalidation during
-						// post-commit.
-						l.setConcurrentRemoteWrite();
-					}
-
-					l.setVersion(sharedVersion);
+			boolean preciseConflictFound = false;
+			if (l2Version != sharedVersion) {
+				assert l2Version < sharedVersion : "Local version should be smaller it seems.";
 
-					vvResp.versionsMatch = false;
+				// Since there's no early writing back during pre-commit, version mismatch
+				// definitely indicates the existence of remote writers.
+				if (l.hasWrittenOffsets(id)) {
+					// The current core is the last writer, but there are remote writers as
+					// well. Still need to setConcurrentRemoteWrite for self-invalidation during
+					// post-commit.
+					l.setConcurrentRemoteWrite();
+				}
 
-					// If it misses in the LLC, then the reply has to come from memory
-					if (resp.whereHit == CacheLevel.MEMORY) {
-						updateTrafficForOneNetworkMessage(1, sizeBytes,
-								ExecutionPhase.READ_VALIDATION);
-						// updateTrafficForLLCToMemoryMessage(sizeBytes, true);
-						// updateMemoryAccesses(getAIMLineSize(), true);
-					}
+				l.setVersion(sharedVersion);
 
-					// Mismatched versions, so the LLC replies with the values that are read.
-					// These are not streaming operations.
-					updateTrafficForOneNetworkMessage(1, sizeBytes, ExecutionPhase.READ_VALIDATION);
-
-					if (!params.ignoreFetchingDeferredLinesDuringReadValidation()) {
-						// Before value validation, make sure that the LLC has
-						// the up-to-date values
-						// This might be high if there are lots of true
-						// conflicts or false positives
-						if (params.deferWriteBacks() && sharedLine.isLineDeferred()
-								&& sharedLine.getDeferredLineOwnerID() != id.get()) {
-							fetchDeferredLineFromPrivateCache(sharedLine, true, false);
-						}
-					}
+				vvResp.versionsMatch = false;
 
-					preciseConflictFound = valueValidateReadLine(ExecutionPhase.READ_VALIDATION, l,
-							sharedLine);
+				// If it misses in the LLC, then the reply has to come from memory
+				if (resp.whereHit == CacheLevel.MEMORY) {
+					updateTrafficForOneNetworkMessage(1, sizeBytes,
+							ExecutionPhase.READ_VALIDATION);
+					// updateTrafficForLLCToMemoryMessage(sizeBytes, true);
+					// updateMemoryAccesses(getAIMLineSize(), true);
 				}
 
-				l2LineCounter++;
-				numLinesValidated++;
-
-				// Execution cycles should be over one batch of concurrent
-				// messages since the
-				// latency
-				// depends on where the shared line hits (LLC or memory).
-				if (l2LineCounter % BATCH_SIZE == 0) {
-					stats.pc_ExecDrivenCycleCount.incr(maxBatchExecLatency);
-					updatePhaseExecDrivenCycleCost(ExecutionPhase.READ_VALIDATION,
-							maxBatchExecLatency);
-
-					int batchSizeBytes = SystemConstants.VISER_RV_MESSAGE_SIZE_BYTES;
-					totalSizeBytes += batchSizeBytes;
-
-					// Count execution cycles but taking into account bandwidth
-					long bandwidthBasedLatency = (long) Math
-							.ceil(batchSizeBytes * SystemConstants.LLC_MULTIPLIER);
-					if (whereHitInBatch == CacheLevel.MEMORY) {
-						// assert memBatchSizeBytes < batchSizeBytes;
-						bandwidthBasedLatency += (long) Math
-								.ceil(memBatchSizeBytes * SystemConstants.MEM_MULTIPLIER);
+				// Mismatched versions, so the LLC replies with the values that are read.
+				// These are not streaming operations.
+				updateTrafficForOneNetworkMessage(1, sizeBytes, ExecutionPhase.READ_VALIDATION);
+
+				if (!params.ignoreFetchingDeferredLinesDuringReadValidation()) {
+					// Before value validation, make sure that the LLC has
+					// the up-to-date values
+					// This might be high if there are lots of true
+					// conflicts or false positives
+					if (params.deferWriteBacks() && sharedLine.isLineDeferred()
+							&& sharedLine.getDeferredLineOwnerID() != id.get()) {
+						fetchDeferredLineFromPrivateCache(sharedLine, true, false);
 					}
-					stats.pc_BandwidthDrivenCycleCount.incr(bandwidthBasedLatency);
-					updatePhaseBWDrivenCycleCost(ExecutionPhase.READ_VALIDATION,
-							bandwidthBasedLatency);
-
-					maxBatchExecLatency = 0;
-					memBatchSizeBytes = 0;
-					l2LineCounter = 0;
-					whereHitInBatch = CacheLevel.L3;
 				}
-				if (preciseConflictFound) {
-					// update counters
-					stats.pc_FailedValidations.incr();
-					if (!regionWithExceptions) {
-						stats.pc_RegionsWithFRVs.incr();
-						// After pre-commit
-						stats.pc_RegionsWithFRVsAfterPrecommit.incr();
-						if (!regionHasDirtyEvictionBeforeFRV && hasDirtyEviction) {
-							stats.pc_RegionHasDirtyEvictionBeforeFRV.incr();
-							regionHasDirtyEvictionBeforeFRV = true;
-						}
 
-						stats.pc_ExceptionsByFRVs.incr();
-						stats.pc_RegionsWithExceptionsByFRVs.incr();
+				preciseConflictFound = valueValidateReadLine(ExecutionPhase.READ_VALIDATION, l,
+						sharedLine);
+			}
 
-						stats.pc_RegionsWithExceptions.incr();
-						regionWithExceptions = true;
+			l2LineCounter++;
+			numLinesValidated++;
+
+			// Execution cycles should be over one batch of concurrent
+			// messages since the
+			// latency
+			// depends on where the shared line hits (LLC or memory).
+			if (l2LineCounter % BATCH_SIZE == 0) {
+				stats.incr(Stat.pc_ExecutionDrivenCycleCount, maxBatchExecLatency);
+				updatePhaseExecDrivenCycleCost(ExecutionPhase.READ_VALIDATION,
+						maxBatchExecLatency);
+
+				int batchSizeBytes = SystemConstants.VISER_RV_MESSAGE_SIZE_BYTES;
+				totalSizeBytes += batchSizeBytes;
+
+				// Count execution cycles but taking into account bandwidth
+				long bandwidthBasedLatency = (long) Math
+						.ceil(batchSizeBytes * SystemConstants.LLC_MULTIPLIER);
+				if (whereHitInBatch == CacheLevel.MEMORY) {
+					// assert memBatchSizeBytes < batchSizeBytes;
+					bandwidthBasedLatency += (long) Math
+							.ceil(memBatchSizeBytes * SystemConstants.MEM_MULTIPLIER);
+				}
+				stats.incr(Stat.pc_BandwidthDrivenCycleCount, bandwidthBasedLatency);
+				updatePhaseBWDrivenCycleCost(ExecutionPhase.READ_VALIDATION,
+						bandwidthBasedLatency);
+
+				maxBatchExecLatency = 0;
+				memBatchSizeBytes = 0;
+				l2LineCounter = 0;
+				whereHitInBatch = CacheLevel.L3;
+			}
+			if (preciseConflictFound) {
+				// update counters
+				stats.incr(Stat.pc_FailedValidations);
+				if (!regionWithExceptions) {
+					stats.incr(Stat.pc_RegionsWithFRVs);
+					// After pre-commit
+					stats.incr(Stat.pc_RegionsWithFRVsAfterPrecommit);
+					if (!regionHasDirtyEvictionBeforeFRV && hasDirtyEviction) {
+						stats.incr(Stat.pc_RegionHasDirtyEvictionBeforeFRV);
+						regionHasDirtyEvictionBeforeFRV = true;
 					}
+
+					stats.incr(Stat.pc_ExceptionsByFRVs);
+					stats.incr(Stat.pc_RegionsWithExceptionsByFRVs);
+
+					stats.incr(Stat.pc_RegionsWithExceptions);
+					regionWithExceptions = true;
 				}
 			}
 		}
@@ -2969,7 +2643,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		if (l2LineCounter > 0) {
 			assert l2LineCounter < BATCH_SIZE;
 
-			stats.pc_ExecDrivenCycleCount.incr(maxBatchExecLatency);
+			stats.incr(Stat.pc_ExecutionDrivenCycleCount, maxBatchExecLatency);
 			updatePhaseExecDrivenCycleCost(ExecutionPhase.READ_VALIDATION, maxBatchExecLatency);
 
 			// Count the cost of sending a batched message
@@ -2984,7 +2658,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 				bandwidthBasedLatency += (long) Math
 						.ceil(memBatchSizeBytes * SystemConstants.MEM_MULTIPLIER);
 			}
-			stats.pc_BandwidthDrivenCycleCount.incr(bandwidthBasedLatency);
+			stats.incr(Stat.pc_BandwidthDrivenCycleCount, bandwidthBasedLatency);
 			updatePhaseBWDrivenCycleCost(ExecutionPhase.READ_VALIDATION, bandwidthBasedLatency);
 		}
 
@@ -3001,43 +2675,41 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	private void rvMergeReadInformationFromL1ToL2() {
 		assert params.useL2();
 
-		for (Deque<Line> set : L2cache.sets) {
-			for (Line l2Line : set) {
-				if (!l2Line.valid()) {
-					continue;
-				}
-				Line l1Line = L1cache.getLine(l2Line);
-				if (l1Line == null) {
-					continue;
-				}
-				if (l1Line.hasReadOffsets(id)) {
-					// To comply with value updates, only update read-only bits
-					// from l1line
-					l2Line.orReadEncoding(id,
-							l1Line.getReadEncoding(id) & ~l1Line.getWriteEncoding(id));
-					l2Line.updateReadSiteInfo(id,
-							l1Line.getReadEncoding(id) & ~l1Line.getWriteEncoding(id),
-							l1Line.getReadSiteInfo(id), l1Line.getReadLastSiteInfo(id));
-				}
-				l2Line.copyReadOnlyValuesFromSource(l1Line);
-				/*
-				 * Also need to merge write metadata. Otherwise, (l2Version + 1 < sharedVersion ||
-				 * !l2line.hasWrittenOffsets(id)) is True (line 2360 in
-				 * rvPrivateCacheMergedHelper(HierarchicalCache<Line>, boolean)) doesn't necessarily
-				 * indicate that "these were current remote writes", because even if the current
-				 * core is the last and only writer, (!l2line.hasWrittenOffsets(id)) can till be
-				 * true. As a result, false failed read validation will be reported between the core
-				 * and itself.
-				 */
-				// L1Line's write bits are still needed although we don't
-				// increase versions for
-				// shared lines during
-				// pre-commit, because we need to know if there are concurrent
-				// writers.
-				// not set dirty bit because we don't actually write back dirty
-				// values from L1 here.
-				l2Line.orWriteEncoding(id, l1Line.getWriteEncoding(id));
+		for (Line l2Line : L2cache.touchedLines()) {
+			if (!l2Line.valid()) {
+				continue;
+			}
+			Line l1Line = L1cache.getLine(l2Line);
+			if (l1Line == null) {
+				continue;
+			}
+			if (l1Line.hasReadOffsets(id)) {
+				// To comply with value updates, only update read-only bits
+				// from l1line
+				l2Line.orReadEncoding(id,
+						l1Line.getReadEncoding(id) & ~l1Line.getWriteEncoding(id));
+				l2Line.updateReadSiteInfo(id,
+						l1Line.getReadEncoding(id) & ~l1Line.getWriteEncoding(id),
+						l1Line.getReadSiteInfo(id), l1Line.getReadLastSiteInfo(id));
 			}
+			l2Line.copyReadOnlyValuesFromSource(l1Line);
+			/*
+			 * Also need to merge write metadata. Otherwise, (l2Version + 1 < sharedVersion ||
+			 * !l2line.hasWrittenOffsets(id)) is True (line 2360 in
+			 * rvPrivateCacheMergedHelper(HierarchicalCache<Line>, boolean)) doesn't necessarily
+			 * indicate that "these were current remote writes", because even if the current
+			 * core is the last and only writer, (!l2line.hasWrittenOffsets(id)) can till be
+			 * true. As a result, false failed read validation will be reported between the core
+			 * and itself.
+			 */
+			// L1Line's write bits are still needed although we don't
+			// increase versions for
+			// shared lines during
+			// pre-commit, because we need to know if there are concurrent
+			// writers.
+			// not set dirty bit because we don't actually write back dirty
+			// values from L1 here.
+			l2Line.orWriteEncoding(id, l1Line.getWriteEncoding(id));
 		}
 	}
 
@@ -3046,7 +2718,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	// only counts one failed read validation.
 	boolean valueValidateReadLine(ExecutionPhase phase, Line privLine, Line sharedLine) {
 		assert sharedLine != null;
-		stats.pc_ValidationAttempts.incr();
+		stats.incr(Stat.pc_ValidationAttempts);
 		boolean preciseConflict = false;
 		if (privLine.valid() && privLine.hasReadOffsets(id)) { // Line has some
 																// reads
@@ -3061,9 +2733,8 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 						// The current core has read from this byte offset,
 						// match values
 						if (!params.isHttpd()
-								&& (!ViserSim.modelOnlyROI()
-										|| ViserSim.getPARSECPhase() == PARSEC_PHASE.IN_ROI)
-								|| ViserSim.getPARSECPhase() == PARSEC_PHASE.IN_SERVER_ROI) {
+								&& ctx.countStats()
+								|| ctx.getPARSECPhase() == PARSEC_PHASE.IN_SERVER_ROI) {
 							if (params.siteTracking()) {
 								SiteInfoEntry privSi = machine.siteInfo.get(privSiIndex[offset]);
 								SiteInfoEntry privLastSi = machine.siteInfo
@@ -3073,7 +2744,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 								int privRno = privSi.routineIndexNo;
 								short lw = sharedLine.getLastWriter(offset);
 								if (lw != -1) {
-									CpuId lastWriter = new CpuId(lw);
+									CpuId lastWriter = allProcessors[lw].id;
 									int sharedSiIndex = sharedLine
 											.getWriteSiteInfo(lastWriter)[offset];
 									SiteInfoEntry sharedSi = machine.siteInfo.get(sharedSiIndex);
@@ -3195,7 +2866,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 	// This method should not be there. There is nothing like a lookup in a cache.
 	MemoryResponse<Line> getLineFromLLCOrMemory(Line l, boolean read) {
 		assert l.valid();
-		MemoryResponse<Line> resp = new MemoryResponse<Line>();
+		MemoryResponse<Line> resp = lookupResponse.reset();
 
 		// Get the corresponding line from memory or LLC
 		Line llcLine = L3cache.getLine(l);
@@ -3209,7 +2880,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 		if (params.useAIMCache() && /* needToCheckAIMCache(llcLine) */
 				llcLine.hasAIMMD()) {
-			aimcache.getLine(this, l, read);
+			aimcache.containsLine(this, l, read);
 		}
 
 		assert llcLine != null && llcLine.valid();
@@ -3243,7 +2914,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 	/** Initiated on behalf of the shared cache */
 	void fetchDeferredLineFromPrivateCache(Line llcLine, boolean rv, boolean notCountCosts) {
-		Processor<Line> ownerCore = machine.getProc(new CpuId(llcLine.getDeferredLineOwnerID()));
+		Processor<Line> ownerCore = allProcessors[llcLine.getDeferredLineOwnerID()];
 		CpuId cid = ownerCore.id;
 		Line line;
 
@@ -3252,6 +2923,10 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		assert privateResp.lineHit != null;
 		line = privateResp.lineHit;
 
+		if (params.useAIMCache()) {
+			aimcache.applyPendingClear(this, llcLine);
+		}
+
 		// Update read bits
 		llcLine.orReadEncoding(cid, line.getReadEncoding(cid));
 		llcLine.updateReadSiteInfo(cid, line.getReadEncoding(cid), line.getReadSiteInfo(cid),
@@ -3362,16 +3037,16 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 			updateTCCBroadcastMessage(sizeBytesReturn);
 
 			// Cost is LLC latency
-			stats.pc_ExecDrivenCycleCount.incr(SystemConstants.L3_HIT_LATENCY);
+			stats.incr(Stat.pc_ExecutionDrivenCycleCount, SystemConstants.L3_HIT_LATENCY);
 			updatePhaseExecDrivenCycleCost(ExecutionPhase.REGION_BODY,
 					SystemConstants.L3_HIT_LATENCY);
-			stats.pc_BandwidthDrivenCycleCount.incr(SystemConstants.L3_HIT_LATENCY);
+			stats.incr(Stat.pc_BandwidthDrivenCycleCount, SystemConstants.L3_HIT_LATENCY);
 			updatePhaseBWDrivenCycleCost(ExecutionPhase.REGION_BODY,
 					SystemConstants.L3_HIT_LATENCY);
-			stats.pc_TCCCycleCount8K.incr(SystemConstants.L3_HIT_LATENCY);
-			stats.pc_TCCCycleCount16K.incr(SystemConstants.L3_HIT_LATENCY);
-			stats.pc_TCCCycleCount32K.incr(SystemConstants.L3_HIT_LATENCY);
-			stats.pc_TCCCycleCount64K.incr(SystemConstants.L3_HIT_LATENCY);
+			stats.incr(Stat.pc_TCCCycleCount8K, SystemConstants.L3_HIT_LATENCY);
+			stats.incr(Stat.pc_TCCCycleCount16K, SystemConstants.L3_HIT_LATENCY);
+			stats.incr(Stat.pc_TCCCycleCount32K, SystemConstants.L3_HIT_LATENCY);
+			stats.incr(Stat.pc_TCCCycleCount64K, SystemConstants.L3_HIT_LATENCY);
 
 			// Model TCC stall cycles since region has overflowed
 			if (perRegionOverflow8K != TCCRegionsWithOverflow.NO_OVERFLOW) {
@@ -3462,7 +3137,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 		// Only increase the counter for a successful region
 		if (written) {
-			stats.pc_RegionsWithWrites.incr();
+			stats.incr(Stat.pc_RegionsWithWrites);
 		}
 
 		// Tell the LLC to clear all write and read info for this core. This can be better handled
@@ -3472,7 +3147,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		// Add network traffic for the Bloom filter sent by the LLC. This is
 		// needed during read validation.
 		if (params.useBloomFilter()) {
-			int sizeBytes = SystemConstants.BLOOM_FILTER_LLC_MESSAGE;
+			int sizeBytes = bloomFilterMessageBytes();
 			updateTrafficForOneNetworkMessage(1, sizeBytes, ExecutionPhase.READ_VALIDATION);
 
 			// Update histogram
@@ -3487,7 +3162,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		// be better handled with epochs.
 		machine.incrementEpoch(id);
 
-		if (ViserSim.xassertsEnabled() && params.alwaysInvalidateReadOnlyLines()
+		if (ctx.xassertsEnabled() && params.alwaysInvalidateReadOnlyLines()
 				&& !params.invalidateWrittenLinesOnlyAfterVersionCheck()) {
 			Verify.verifyPrivateCacheLinesAreInvalid(this);
 		}
@@ -3499,8 +3174,8 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 			set.clear();
 			bf.clear();
 
-			stats.pc_BloomFilterTotalEnergy.incr(SystemConstants.BLOOM_FILTER_WRITE_ENERGY);
-			stats.pc_BloomFilterWriteEnergy.incr(SystemConstants.BLOOM_FILTER_WRITE_ENERGY);
+			stats.incr(Stat.pc_BloomFilterTotalEnergy, SystemConstants.BLOOM_FILTER_WRITE_ENERGY);
+			stats.incr(Stat.pc_BloomFilterWriteEnergy, SystemConstants.BLOOM_FILTER_WRITE_ENERGY);
 		}
 
 		// Clear stale lines from the AIM
@@ -3517,63 +3192,63 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		updateTCCBroadcastMessage(numBytes);
 
 		if (tccWriteSet.size() > SystemConstants.TCC_WB_SIZE_8K) {
-			stats.pc_TCCRegionsWBOverflows8K.incr();
+			stats.incr(Stat.pc_TCCRegionsWBOverflows8K);
 		}
 		if (tccWriteSet.size() > SystemConstants.TCC_WB_SIZE_16K) {
-			stats.pc_TCCRegionsWBOverflows16K.incr();
+			stats.incr(Stat.pc_TCCRegionsWBOverflows16K);
 		}
 		if (tccWriteSet.size() > SystemConstants.TCC_WB_SIZE_32K) {
-			stats.pc_TCCRegionsWBOverflows32K.incr();
+			stats.incr(Stat.pc_TCCRegionsWBOverflows32K);
 		}
 		if (tccWriteSet.size() > SystemConstants.TCC_WB_SIZE_64K) {
-			stats.pc_TCCRegionsWBOverflows64K.incr();
+			stats.incr(Stat.pc_TCCRegionsWBOverflows64K);
 		}
 
 		if (perRegionCacheOverflow == TCCPrivateCacheOverflow.OVERFLOWN) {
-			stats.pc_TCCRegionsCacheOverflows.incr();
+			stats.incr(Stat.pc_TCCRegionsCacheOverflows);
 		}
 
 		// 8K
 		if (perRegionOverflow8K == TCCRegionsWithOverflow.WB_OVERFLOWN
 				|| perRegionOverflow8K == TCCRegionsWithOverflow.CACHE_OVERFLOWN) {
-			stats.pc_TCCRegionsOverflows8K.incr();
+			stats.incr(Stat.pc_TCCRegionsOverflows8K);
 			if (perRegionOverflow8K == TCCRegionsWithOverflow.WB_OVERFLOWN) {
-				stats.pc_TCCRegionsFirstWBOverflows8K.incr();
+				stats.incr(Stat.pc_TCCRegionsFirstWBOverflows8K);
 			} else {
-				stats.pc_TCCRegionsFirstCacheOverflows8K.incr();
+				stats.incr(Stat.pc_TCCRegionsFirstCacheOverflows8K);
 			}
 		}
 
 		// 16K
 		if (perRegionOverflow16K == TCCRegionsWithOverflow.WB_OVERFLOWN
 				|| perRegionOverflow16K == TCCRegionsWithOverflow.CACHE_OVERFLOWN) {
-			stats.pc_TCCRegionsOverflows16K.incr();
+			stats.incr(Stat.pc_TCCRegionsOverflows16K);
 			if (perRegionOverflow16K == TCCRegionsWithOverflow.WB_OVERFLOWN) {
-				stats.pc_TCCRegionsFirstWBOverflows16K.incr();
+				stats.incr(Stat.pc_TCCRegionsFirstWBOverflows16K);
 			} else {
-				stats.pc_TCCRegionsFirstCacheOverflows16K.incr();
+				stats.incr(Stat.pc_TCCRegionsFirstCacheOverflows16K);
 			}
 		}
 
 		// 32K
 		if (perRegionOverflow32K == TCCRegionsWithOverflow.WB_OVERFLOWN
 				|| perRegionOverflow32K == TCCRegionsWithOverflow.CACHE_OVERFLOWN) {
-			stats.pc_TCCRegionsOverflows32K.incr();
+			stats.incr(Stat.pc_TCCRegionsOverflows32K);
 			if (perRegionOverflow32K == TCCRegionsWithOverflow.WB_OVERFLOWN) {
-				stats.pc_TCCRegionsFirstWBOverflows32K.incr();
+				stats.incr(Stat.pc_TCCRegionsFirstWBOverflows32K);
 			} else {
-				stats.pc_TCCRegionsFirstCacheOverflows32K.incr();
+				stats.incr(Stat.pc_TCCRegionsFirstCacheOverflows32K);
 			}
 		}
 
 		// 64K
 		if (perRegionOverflow64K == TCCRegionsWithOverflow.WB_OVERFLOWN
 				|| perRegionOverflow64K == TCCRegionsWithOverflow.CACHE_OVERFLOWN) {
-			stats.pc_TCCRegionsOverflows64K.incr();
+			stats.incr(Stat.pc_TCCRegionsOverflows64K);
 			if (perRegionOverflow64K == TCCRegionsWithOverflow.WB_OVERFLOWN) {
-				stats.pc_TCCRegionsFirstWBOverflows64K.incr();
+				stats.incr(Stat.pc_TCCRegionsFirstWBOverflows64K);
 			} else {
-				stats.pc_TCCRegionsFirstCacheOverflows64K.incr();
+				stats.incr(Stat.pc_TCCRegionsFirstCacheOverflows64K);
 			}
 		}
 
@@ -3582,40 +3257,40 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		// 8K
 		if (perRegionOverflow8K != TCCRegionsWithOverflow.NO_OVERFLOW) {
 			for (int i = 0; i < params.numProcessors(); i++) {
-				CpuId cpuId = new CpuId(i);
+				CpuId cpuId = allProcessors[i].id;
 				if (!cpuId.equals(id)) {
 					Processor<Line> p = machine.getProc(cpuId);
-					p.stats.pc_TCCCycleCount8K.incr(tccPerRegionStalledCycles8K);
+					p.stats.incr(Stat.pc_TCCCycleCount8K, tccPerRegionStalledCycles8K);
 				}
 			}
 		}
 		// 16K
 		if (perRegionOverflow16K != TCCRegionsWithOverflow.NO_OVERFLOW) {
 			for (int i = 0; i < params.numProcessors(); i++) {
-				CpuId cpuId = new CpuId(i);
+				CpuId cpuId = allProcessors[i].id;
 				if (!cpuId.equals(id)) {
 					Processor<Line> p = machine.getProc(cpuId);
-					p.stats.pc_TCCCycleCount16K.incr(tccPerRegionStalledCycles16K);
+					p.stats.incr(Stat.pc_TCCCycleCount16K, tccPerRegionStalledCycles16K);
 				}
 			}
 		}
 		// 32K
 		if (perRegionOverflow32K != TCCRegionsWithOverflow.NO_OVERFLOW) {
 			for (int i = 0; i < params.numProcessors(); i++) {
-				CpuId cpuId = new CpuId(i);
+				CpuId cpuId = allProcessors[i].id;
 				if (!cpuId.equals(id)) {
 					Processor<Line> p = machine.getProc(cpuId);
-					p.stats.pc_TCCCycleCount32K.incr(tccPerRegionStalledCycles32K);
+					p.stats.incr(Stat.pc_TCCCycleCount32K, tccPerRegionStalledCycles32K);
 				}
 			}
 		}
 		// 64K
 		if (perRegionOverflow64K != TCCRegionsWithOverflow.NO_OVERFLOW) {
 			for (int i = 0; i < params.numProcessors(); i++) {
-				CpuId cpuId = new CpuId(i);
+				CpuId cpuId = allProcessors[i].id;
 				if (!cpuId.equals(id)) {
 					Processor<Line> p = machine.getProc(cpuId);
-					p.stats.pc_TCCCycleCount64K.incr(tccPerRegionStalledCycles64K);
+					p.stats.incr(Stat.pc_TCCCycleCount64K, tccPerRegionStalledCycles64K);
 				}
 			}
 		}
@@ -3635,7 +3310,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		// NOTE: The following checks are expensive
 
 		// Assert that all metadata related to this core is zero
-		if (ViserSim.assertsEnabled || ViserSim.xassertsEnabled()) {
+		if (ViserSim.assertsEnabled || ctx.xassertsEnabled()) {
 			Verify.verifyPrivateMetadataCleared(this);
 			Verify.verifySharedMetadataCleared(this);
 			Verify.verifyTCCRegionOverflowBreakdown(this);
@@ -3707,13 +3382,34 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		stats.hgramVersionSizes.put(key, val);
 	}
 
+	/** Size of the message that carries the Bloom filter from the LLC */
+	private int bloomFilterMessageBytes() {
+		return SystemConstants.DATA_MESSAGE_CONTROL_BYTES + bf.numBytes();
+	}
+
+	/**
+	 * Query the Bloom filter, and count the positives for lines that the LLC did not actually
+	 * update in this region.
+	 */
+	private boolean bloomFilterContains(long lineAddr) {
+		if (!bf.contains(lineAddr)) {
+			assert !set.contains(lineAddr) : "Bloom filters have no false negatives";
+			return false;
+		}
+		stats.incr(Stat.pc_BloomFilterPositives);
+		if (!set.contains(lineAddr)) {
+			stats.incr(Stat.pc_BloomFilterFalsePositives);
+		}
+		return true;
+	}
+
 	// We do not add performance cost since this is not on the critical path,
 	// DRFx 2011 adds two
 	// cycles
 	void updatePerCoreBloomFilters(Line line) {
 		long lineAddr = line.lineAddress().get();
 		for (int i = 0; i < params.numProcessors(); i++) {
-			CpuId cpuId = new CpuId(i);
+			CpuId cpuId = allProcessors[i].id;
 			if (cpuId.equals(id)) { // Avoid polluting the filter of the
 									// initiator core
 				continue;
@@ -3722,8 +3418,8 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 			p.bf.add(lineAddr);
 			p.set.add(lineAddr);
 
-			p.stats.pc_BloomFilterTotalEnergy.incr(SystemConstants.BLOOM_FILTER_WRITE_ENERGY);
-			p.stats.pc_BloomFilterWriteEnergy.incr(SystemConstants.BLOOM_FILTER_WRITE_ENERGY);
+			p.stats.incr(Stat.pc_BloomFilterTotalEnergy, SystemConstants.BLOOM_FILTER_WRITE_ENERGY);
+			p.stats.incr(Stat.pc_BloomFilterWriteEnergy, SystemConstants.BLOOM_FILTER_WRITE_ENERGY);
 		}
 	}
 
@@ -3746,18 +3442,28 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		sendDirtyValuesToLLC();
 		// Track L1 lines that were skipped, so that we can skip invalidating
 		// those lines in the L2 cache.
-		HashSet<Line> skippedL1Lines = new HashSet<Line>();
-		postCommitSelfInvalidateSFRs(type, CacheLevel.L1, skippedL1Lines);
+		skippedL1Lines.clear();
+		skippedL1Index.clear();
+		postCommitSelfInvalidateSFRs(type, CacheLevel.L1);
 		if (params.useL2()) {
-			postCommitSelfInvalidateSFRs(type, CacheLevel.L2, skippedL1Lines);
+			postCommitSelfInvalidateSFRs(type, CacheLevel.L2);
 		}
+		// Most lines are invalid now, so the next region's passes start from a small index
+		L1cache.pruneTouchedLines();
+		if (params.useL2()) {
+			L2cache.pruneTouchedLines();
+		}
+	}
+
+	private void skipL1Line(Line l1Line) {
+		assert skippedL1Index.get(l1Line.lineAddress().get()) == LongIntHashMap.NONE;
+		skippedL1Index.put(l1Line.lineAddress().get(), skippedL1Lines.size());
+		skippedL1Lines.add(l1Line);
 	}
 
-	private void postCommitSelfInvalidateSFRs(EventType type, CacheLevel level,
-			HashSet<Line> skippedL1Lines) {
-		Epoch currentEp = getCurrentEpoch();
-		Epoch nextEp;
-		nextEp = new Epoch(currentEp.getRegionId() + 1);
+	private void postCommitSelfInvalidateSFRs(EventType type, CacheLevel level) {
+		int currentEp = getCurrentEpoch();
+		int nextEp = currentEp + 1;
 
 		// We can assume parallelization while sending messages, and hence
 		// account for the slowest
@@ -3772,273 +3478,259 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		int totalSizeInBytes = 0;
 
 		HierarchicalCache<Line> cache = (level == CacheLevel.L1) ? L1cache : L2cache;
-		for (Deque<Line> set : cache.sets) {
-			for (Line l : set) {
-				if (!l.valid()) {
+		for (Line l : cache.touchedLines()) {
+			if (!l.valid()) {
+				continue;
+			}
+			assert l.id() == id : "Private lines should be owned by the same core";
+
+			if (level == CacheLevel.L2) {
+				int skipped = skippedL1Index.get(l.lineAddress().get());
+				if (skipped != LongIntHashMap.NONE) {
+					// So the L1 line corresponding to this L2 line was
+					// not invalidated
+					Line l1Line = skippedL1Lines.get(skipped);
+					// Clear metadata from private L2 line
+					l.clearReadEncoding(id);
+					l.clearWriteEncoding(id);
+					l.setVersion(l1Line.getVersion()); // Needed if the L1
+														// line was dirty
+					l.setEpoch(id, nextEp);
+					l.clearConcurrentRemoteWrite();
+
 					continue;
 				}
-				assert l.id() == id : "Private lines should be owned by the same core";
+			}
 
-				if (level == CacheLevel.L2) {
-					boolean found = false;
-					Line l1Line = null;
-					Iterator<Line> it = skippedL1Lines.iterator();
-					// Speed up searching by removing found lines
-					while (it.hasNext()) {
-						Line skip = it.next();
-						if (skip.lineAddress().get() == l.lineAddress().get()) {
-							// So the L1 line corresponding to this L2 line was
-							// not invalidated
-							found = true;
-							l1Line = skip;
-							it.remove();
-							break;
-						}
+			if (l.isLineReadOnly(id)) {
+				assert l.getEpoch(id) == currentEp;
+
+				// Optimization: After a successful read validation, we know
+				// that read-only
+				// lines have valid
+				// values before the start of the next region, so we can
+				// avoid invalidating the
+				// line. This should
+				// allow more hits in the private caches.
+				if (params.alwaysInvalidateReadOnlyLines()) {
+					l.invalidate();
+				} else {
+					// Need to clear read and write metadata if we are not
+					// going to invalidate
+					// the line
+					l.clearReadEncoding(id);
+					l.clearWriteEncoding(id);
+					l.setEpoch(id, nextEp);
+					l.clearConcurrentRemoteWrite();
+					if (params.useL2() && level == CacheLevel.L1) {
+						skipL1Line(l);
 					}
+				}
 
-					if (found) {
-						// Clear metadata from private L2 line
-						l.clearReadEncoding(id);
-						l.clearWriteEncoding(id);
-						l.setVersion(l1Line.getVersion()); // Needed if the L1
-															// line was dirty
-						l.setEpoch(id, nextEp);
-						l.clearConcurrentRemoteWrite();
+			} else if (l.hasWrittenOffsets(id)) { // Written line
+				assert l.getEpoch(id) == currentEp;
 
-						continue;
+				MemoryResponse<Line> resp = getLineFromLLCOrMemory(l, true);
+				Line sharedLine = resp.lineHit;
+				assert sharedLine != null;
+				int sharedVer = sharedLine.getVersion();
+				boolean llcHit = (resp.whereHit == CacheLevel.L3) ? true : false;
+
+				// Need to *model* the write back the dirty bytes for
+				// WAR-upgraded lines
+				if (l.isWrittenAfterRead(id)) {
+					// Compute size of a message to LLC. We do not need to
+					// send the version, we
+					// can just increment
+					// it
+					long writeEnc = l.getWriteEncoding(id);
+					int sizeInBytes = SystemConstants.TAG_BYTES;
+					if (!params.deferWriteBacks()) {
+						sizeInBytes += Long.bitCount(writeEnc);
+					}
+					totalSizeInBytes += sizeInBytes;
+
+					int cost = llcHit ? SystemConstants.L3_ACCESS
+							: SystemConstants.MEMORY_ACCESS;
+					stats.incr(Stat.pc_ExecutionDrivenCycleCount, cost);
+					updatePhaseExecDrivenCycleCost(ExecutionPhase.POST_COMMIT, cost);
+					// Count execution cycles but taking into account
+					// bandwidth
+					bandwidthBasedCost += (sizeInBytes * SystemConstants.LLC_MULTIPLIER);
+					if (!llcHit) {
+						bandwidthBasedCost += (sizeInBytes * SystemConstants.MEM_MULTIPLIER);
 					}
 				}
 
-				if (l.isLineReadOnly(id)) {
-					assert l.getEpoch(id).equals(currentEp);
-
-					// Optimization: After a successful read validation, we know
-					// that read-only
-					// lines have valid
-					// values before the start of the next region, so we can
-					// avoid invalidating the
-					// line. This should
-					// allow more hits in the private caches.
-					if (params.alwaysInvalidateReadOnlyLines()) {
-						l.invalidate();
-					} else {
-						// Need to clear read and write metadata if we are not
-						// going to invalidate
-						// the line
+				if (params.invalidateWrittenLinesOnlyAfterVersionCheck()) {
+					long myVer = l.getVersion();
+					assert myVer < sharedVer;
+					// The line may have been read and written. In that
+					// case, read validation
+					// updates the version number in the private cache, but
+					// then writing back
+					// increases the version number in the LLC. So sharedVer
+					// should always be
+					// larger than myVer.
+					// TODO: opt opportunities: all the offsets of the line
+					// have been touched
+					if (myVer == sharedVer - 1
+							// myVer values may have been updated during
+							// read validation
+							&& !l.isThereAConcurrentRemoteWrite()) {
+						// Need not invalidate, since there has been no
+						// concurrent write
 						l.clearReadEncoding(id);
 						l.clearWriteEncoding(id);
+						l.setVersion(sharedVer); // Update the version
 						l.setEpoch(id, nextEp);
-						l.clearConcurrentRemoteWrite();
 						if (params.useL2() && level == CacheLevel.L1) {
-							skippedL1Lines.add(l);
+							skipL1Line(l);
 						}
-					}
-
-				} else if (l.hasWrittenOffsets(id)) { // Written line
-					assert l.getEpoch(id).equals(currentEp);
-
-					MemoryResponse<Line> resp = getLineFromLLCOrMemory(l, true);
-					Line sharedLine = resp.lineHit;
-					assert sharedLine != null;
-					int sharedVer = sharedLine.getVersion();
-					boolean llcHit = (resp.whereHit == CacheLevel.L3) ? true : false;
-
-					// Need to *model* the write back the dirty bytes for
-					// WAR-upgraded lines
-					if (l.isWrittenAfterRead(id)) {
-						// Compute size of a message to LLC. We do not need to
-						// send the version, we
-						// can just increment
-						// it
-						long writeEnc = l.getWriteEncoding(id);
-						int sizeInBytes = SystemConstants.TAG_BYTES;
-						if (!params.deferWriteBacks()) {
-							sizeInBytes += Long.bitCount(writeEnc);
-						}
-						totalSizeInBytes += sizeInBytes;
-
-						int cost = llcHit ? SystemConstants.L3_ACCESS
-								: SystemConstants.MEMORY_ACCESS;
-						stats.pc_ExecDrivenCycleCount.incr(cost);
-						updatePhaseExecDrivenCycleCost(ExecutionPhase.POST_COMMIT, cost);
-						// Count execution cycles but taking into account
-						// bandwidth
-						bandwidthBasedCost += (sizeInBytes * SystemConstants.LLC_MULTIPLIER);
-						if (!llcHit) {
-							bandwidthBasedCost += (sizeInBytes * SystemConstants.MEM_MULTIPLIER);
-						}
-					}
-
-					if (params.invalidateWrittenLinesOnlyAfterVersionCheck()) {
-						long myVer = l.getVersion();
-						assert myVer < sharedVer;
-						// The line may have been read and written. In that
-						// case, read validation
-						// updates the version number in the private cache, but
-						// then writing back
-						// increases the version number in the LLC. So sharedVer
-						// should always be
-						// larger than myVer.
-						// TODO: opt opportunities: all the offsets of the line
-						// have been touched
-						if (myVer == sharedVer - 1
-								// myVer values may have been updated during
-								// read validation
-								&& !l.isThereAConcurrentRemoteWrite()) {
-							// Need not invalidate, since there has been no
-							// concurrent write
+					} else {
+						if (params.updateWrittenLinesDuringVersionCheck()) {
+							// Update the values with LLC contents
+							l.copyAllValues(sharedLine);
+							if (level == CacheLevel.L1) {
+								Line l2Line = L2cache.getLine(l);
+								assert l2Line != null;
+								l2Line.copyAllValues(sharedLine);
+								if (params.useL2()) {
+									skipL1Line(l);
+								}
+							}
 							l.clearReadEncoding(id);
 							l.clearWriteEncoding(id);
-							l.setVersion(sharedVer); // Update the version
+							l.setVersion(sharedVer);
 							l.setEpoch(id, nextEp);
-							if (params.useL2() && level == CacheLevel.L1) {
-								skippedL1Lines.add(l);
-							}
+
+							int cost = (resp.whereHit == CacheLevel.L3)
+									? SystemConstants.L3_ACCESS
+									: SystemConstants.MEMORY_ACCESS;
+							stats.incr(Stat.pc_ExecutionDrivenCycleCount, cost);
+							updatePhaseExecDrivenCycleCost(ExecutionPhase.POST_COMMIT, cost);
+							stats.incr(Stat.pc_BandwidthDrivenCycleCount, cost);
+							updatePhaseBWDrivenCycleCost(ExecutionPhase.POST_COMMIT, cost);
+							stats.incr(Stat.pc_TCCCycleCount8K, cost);
+							stats.incr(Stat.pc_TCCCycleCount16K, cost);
+							stats.incr(Stat.pc_TCCCycleCount32K, cost);
+							stats.incr(Stat.pc_TCCCycleCount64K, cost);
 						} else {
-							if (params.updateWrittenLinesDuringVersionCheck()) {
-								// Update the values with LLC contents
-								l.copyAllValues(sharedLine);
-								if (level == CacheLevel.L1) {
-									Line l2Line = L2cache.getLine(l);
-									assert l2Line != null;
-									l2Line.copyAllValues(sharedLine);
-									if (params.useL2()) {
-										skippedL1Lines.add(l);
-									}
-								}
-								l.clearReadEncoding(id);
-								l.clearWriteEncoding(id);
-								l.setVersion(sharedVer);
-								l.setEpoch(id, nextEp);
-
-								int cost = (resp.whereHit == CacheLevel.L3)
-										? SystemConstants.L3_ACCESS
-										: SystemConstants.MEMORY_ACCESS;
-								stats.pc_ExecDrivenCycleCount.incr(cost);
-								updatePhaseExecDrivenCycleCost(ExecutionPhase.POST_COMMIT, cost);
-								stats.pc_BandwidthDrivenCycleCount.incr(cost);
-								updatePhaseBWDrivenCycleCost(ExecutionPhase.POST_COMMIT, cost);
-								stats.pc_TCCCycleCount8K.incr(cost);
-								stats.pc_TCCCycleCount16K.incr(cost);
-								stats.pc_TCCCycleCount32K.incr(cost);
-								stats.pc_TCCCycleCount64K.incr(cost);
-							} else {
-								// A written line is now being invalidated, this
-								// requires that we
-								// should
-								// write back the data and remove the line from
-								// the per-core
-								// deferred set if the
-								// line was deferred.
-								// The line should not be deferred and has
-								// already been written
-								// back.
-								l.invalidate();
-							}
+							// A written line is now being invalidated, this
+							// requires that we
+							// should
+							// write back the data and remove the line from
+							// the per-core
+							// deferred set if the
+							// line was deferred.
+							// The line should not be deferred and has
+							// already been written
+							// back.
+							l.invalidate();
 						}
-
-						l.clearConcurrentRemoteWrite();
-					} else {
-						l.invalidate();
 					}
 
-				} else { // Untouched lines
+					l.clearConcurrentRemoteWrite();
+				} else {
+					l.invalidate();
+				}
 
-					// The read/write access information might not be up-to-date
-					// in the L2 cache
-					if (level == CacheLevel.L1) {
-						if (params.alwaysInvalidateReadOnlyLines()
-								&& !params.invalidateWrittenLinesOnlyAfterVersionCheck()
-								&& !params.invalidateUntouchedLinesOptimization()) {
-							assert l.getEpoch(id).getRegionId() < currentEp.getRegionId();
-						}
+			} else { // Untouched lines
 
-						if (ViserSim.assertsEnabled) {
-							// L2 line should also be untouched
-							Line l2Line = L2cache.getLine(l);
-							assert !l2Line.isLineReadOnly(id) && !l2Line.hasWrittenOffsets(id);
-							assert !l2Line.isAccessedInThisRegion(id);
-						}
+				// The read/write access information might not be up-to-date
+				// in the L2 cache
+				if (level == CacheLevel.L1) {
+					if (params.alwaysInvalidateReadOnlyLines()
+							&& !params.invalidateWrittenLinesOnlyAfterVersionCheck()
+							&& !params.invalidateUntouchedLinesOptimization()) {
+						assert l.getEpoch(id) < currentEp;
 					}
 
-					if (params.invalidateUntouchedLinesOptimization()) {
-						// Get the current version of the LLC line. If the versions match, it
-						// implies that there was no concurrent writer, so we can avoid
-						// invalidation.
-						MemoryResponse<Line> resp = L3cache.requestLineFromLLCOrMemory(this, l,
-								true, ExecutionPhase.POST_COMMIT);
-						assert resp.lineHit != null;
-						long sharedVer = resp.lineHit.getVersion();
-						long myVer = l.getVersion();
-						if (myVer == sharedVer) {
-							// Need not invalidate, since there has been no concurrent write
-							l.clearReadEncoding(id);
-							l.clearWriteEncoding(id);
-							l.setEpoch(id, nextEp);
-							l.clearConcurrentRemoteWrite();
+					if (ViserSim.assertsEnabled) {
+						// L2 line should also be untouched
+						Line l2Line = L2cache.getLine(l);
+						assert !l2Line.isLineReadOnly(id) && !l2Line.hasWrittenOffsets(id);
+						assert !l2Line.isAccessedInThisRegion(id);
+					}
+				}
 
-							// If an L1 line is untouched, then we can assert that the L2 line is
-							// also untouched. In that case, we can avoid adding this line.
-							if (level == CacheLevel.L1) {
-								// skippedL1Lines.add(l);
-								if (ViserSim.assertsEnabled) {
-									Line l2Line = L2cache.getLine(l);
-									assert !l2Line.isAccessedInThisRegion(id);
-								}
+				if (params.invalidateUntouchedLinesOptimization()) {
+					// Get the current version of the LLC line. If the versions match, it
+					// implies that there was no concurrent writer, so we can avoid
+					// invalidation.
+					MemoryResponse<Line> resp = L3cache.requestLineFromLLCOrMemory(this, l,
+							true, ExecutionPhase.POST_COMMIT);
+					assert resp.lineHit != null;
+					long sharedVer = resp.lineHit.getVersion();
+					long myVer = l.getVersion();
+					if (myVer == sharedVer) {
+						// Need not invalidate, since there has been no concurrent write
+						l.clearReadEncoding(id);
+						l.clearWriteEncoding(id);
+						l.setEpoch(id, nextEp);
+						l.clearConcurrentRemoteWrite();
+
+						// If an L1 line is untouched, then we can assert that the L2 line is
+						// also untouched. In that case, we can avoid adding this line.
+						if (level == CacheLevel.L1) {
+							// skipL1Line(l);
+							if (ViserSim.assertsEnabled) {
+								Line l2Line = L2cache.getLine(l);
+								assert !l2Line.isAccessedInThisRegion(id);
 							}
-						} else {
-							l.invalidate();
 						}
+					} else {
+						l.invalidate();
+					}
 
-					} else if (params.useBloomFilter()) {
-						stats.pc_BloomFilterTotalEnergy
-								.incr(SystemConstants.BLOOM_FILTER_READ_ENERGY);
-						stats.pc_BloomFilterReadEnergy
-								.incr(SystemConstants.BLOOM_FILTER_READ_ENERGY);
-
-						// LLC might have written it
-						if (bf.contains(l.lineAddress().get())) {
-							// Some of these lines could have been marked deferred in the LLC, which
-							// could lead to assertion failures while checking deferred LLC lines.
-							// This happens in RCC-SI, possibly because we do not use a special
-							// INVALID state there.
-							if (params.useSpecialInvalidState()) {
-								l.clearReadEncoding(id);
-								l.clearWriteEncoding(id);
-								l.setEpoch(id, nextEp);
-								l.clearConcurrentRemoteWrite();
-								l.changeStateTo(ViserState.VISER_INVALID_TENTATIVE);
-							} else {
-								l.invalidate();
-							}
-						} else { // Definitely not updated by the LLC
+				} else if (params.useBloomFilter()) {
+					stats.incr(Stat.pc_BloomFilterTotalEnergy,
+							SystemConstants.BLOOM_FILTER_READ_ENERGY);
+					stats.incr(Stat.pc_BloomFilterReadEnergy,
+							SystemConstants.BLOOM_FILTER_READ_ENERGY);
+
+					// LLC might have written it
+					if (bloomFilterContains(l.lineAddress().get())) {
+						// Some of these lines could have been marked deferred in the LLC, which
+						// could lead to assertion failures while checking deferred LLC lines.
+						// This happens in RCC-SI, possibly because we do not use a special
+						// INVALID state there.
+						if (params.useSpecialInvalidState()) {
 							l.clearReadEncoding(id);
 							l.clearWriteEncoding(id);
 							l.setEpoch(id, nextEp);
 							l.clearConcurrentRemoteWrite();
+							l.changeStateTo(ViserState.VISER_INVALID_TENTATIVE);
+						} else {
+							l.invalidate();
 						}
-
-					} else if (params.useSpecialInvalidState()) {
-
-						assert !params.useBloomFilter() : "Shouldn't come here if both are enabled";
+					} else { // Definitely not updated by the LLC
 						l.clearReadEncoding(id);
 						l.clearWriteEncoding(id);
 						l.setEpoch(id, nextEp);
 						l.clearConcurrentRemoteWrite();
-						l.changeStateTo(ViserState.VISER_INVALID_TENTATIVE);
-
-					} else {
-						// It is wrong to not invalidate untouched lines, because of imprecision.
-						// The read might be data-race-free, but we would report a failed read
-						// validation.
-						l.invalidate();
 					}
+
+				} else if (params.useSpecialInvalidState()) {
+
+					assert !params.useBloomFilter() : "Shouldn't come here if both are enabled";
+					l.clearReadEncoding(id);
+					l.clearWriteEncoding(id);
+					l.setEpoch(id, nextEp);
+					l.clearConcurrentRemoteWrite();
+					l.changeStateTo(ViserState.VISER_INVALID_TENTATIVE);
+
+				} else {
+					// It is wrong to not invalidate untouched lines, because of imprecision.
+					// The read might be data-race-free, but we would report a failed read
+					// validation.
+					l.invalidate();
 				}
 			}
 		}
 
 		double bwCost = Math.ceil(bandwidthBasedCost);
-		stats.pc_BandwidthDrivenCycleCount.incr(bwCost);
+		stats.incr(Stat.pc_BandwidthDrivenCycleCount, bwCost);
 		updatePhaseBWDrivenCycleCost(ExecutionPhase.POST_COMMIT, bwCost);
 
 		if (totalSizeInBytes > 0) {
@@ -4051,42 +3743,26 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 
 		/** AIM Cache lines should be a strict subset of the LLC lines */
 		public void verifyAIMCacheInclusivity(final Processor<Line> proc) {
-			assert ViserSim.XASSERTS && ViserSim.xassertsEnabled();
+			assert ctx.xasserts && ctx.xassertsEnabled();
 
-			AIMCache.LineVisitor<Line> lv = new AIMCache.LineVisitor<Line>() {
+			AIMCache.TagVisitor tv = new AIMCache.TagVisitor() {
 				@Override
-				public void visit(Line line) {
-					if (line.lineAddress() != null) {
-						assert line.getLevel() == CacheLevel.L3;
-						Line llcLine = L3cache.getLine(line);
-						if (llcLine == null) {
-							System.out.println(ViserSim.totalEvents);
-							System.out.println(line);
-						}
-						assert llcLine != null : "AIM is a subset of the LLC";
+				public void visit(long lineAddr) {
+					Line llcLine = L3cache.getLine(lineAddr);
+					if (llcLine == null) {
+						System.out.println(ctx.totalEvents);
+						System.out.println(lineAddr);
 					}
+					assert llcLine != null : "AIM is a subset of the LLC";
 				}
 			};
-			aimcache.visitAllLines(lv);
+			aimcache.visitAllTags(tv);
 		}
 
 		public void verifyAIMCacheDuplicates(final Processor<Line> proc) {
-			assert ViserSim.XASSERTS && ViserSim.xassertsEnabled();
-
-			for (Deque<Line> set : aimcache.sets) {
-				for (Line l : set) {
-					if (l.lineAddress() != null) {
-						int counter = 0;
-						for (Line tmp : set) {
-							if (tmp.lineAddress() != null
-									&& l.lineAddress().equals(tmp.lineAddress())) {
-								counter++;
-							}
-						}
-						assert counter == 1;
-					}
-				}
-			}
+			assert ctx.xasserts && ctx.xassertsEnabled();
+
+			aimcache.verifyNoDuplicates();
 		}
 
 		public void verifyPrivateMetadataCleared(final Processor<Line> proc) {
@@ -4140,7 +3816,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		 * Verify that the owner core will have non-null metadata for private cache lines
 		 */
 		public void verifyPerCoreMetadata(final Processor<Line> proc) {
-			assert ViserSim.XASSERTS && ViserSim.xassertsEnabled();
+			assert ctx.xasserts && ctx.xassertsEnabled();
 
 			HierarchicalCache.LineVisitor<Line> l1Lv = new HierarchicalCache.LineVisitor<Line>() {
 				@Override
@@ -4187,7 +3863,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		 * correspond to invalid lines and are present only once.
 		 */
 		public void verifyInvalidLinesInLLC() {
-			assert ViserSim.XASSERTS && ViserSim.xassertsEnabled();
+			assert ctx.xasserts && ctx.xassertsEnabled();
 
 			// Iterate over invalid LLC lines
 			final HashSet<Line> invalidLLCLines = new HashSet<Line>();
@@ -4253,13 +3929,15 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		}
 
 		private void verifyCacheIndexing() {
-			assert ViserSim.XASSERTS && ViserSim.xassertsEnabled();
+			assert ctx.xasserts && ctx.xassertsEnabled();
 
 			for (Processor<Line> p : allProcessors) {
 				p.L1cache.verifyIndices();
+				p.L1cache.verifyTouchedLines();
 
 				if (p.L2cache != null) {
 					p.L2cache.verifyIndices();
+					p.L2cache.verifyTouchedLines();
 				}
 			}
 
@@ -4269,55 +3947,55 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		}
 
 		private void verifyTCCRegionOverflowBreakdown(final Processor<Line> proc) {
-			double target = proc.stats.pc_RegionBoundaries.get();
-			double actual = proc.stats.pc_TCCRegionsFirstCacheOverflows8K.get()
-					+ proc.stats.pc_TCCRegionsWBOverflows8K.get();
-			assert target >= actual : "Sum8 should be less " + ViserSim.totalEvents;
-			actual = proc.stats.pc_TCCRegionsFirstCacheOverflows16K.get()
-					+ proc.stats.pc_TCCRegionsWBOverflows16K.get();
-			assert target >= actual : "Sum16 should be less " + ViserSim.totalEvents;
-			actual = proc.stats.pc_TCCRegionsFirstCacheOverflows32K.get()
-					+ proc.stats.pc_TCCRegionsWBOverflows32K.get();
-			assert target >= actual : "Sum32 should be less " + ViserSim.totalEvents;
-			actual = proc.stats.pc_TCCRegionsFirstCacheOverflows64K.get()
-					+ proc.stats.pc_TCCRegionsWBOverflows64K.get();
-			assert target >= actual : "Sum64 should be less " + ViserSim.totalEvents;
+			double target = proc.stats.get(Stat.pc_RegionBoundaries);
+			double actual = proc.stats.get(Stat.pc_TCCRegionsFirstCacheOverflows8K)
+					+ proc.stats.get(Stat.pc_TCCRegionsWBOverflows8K);
+			assert target >= actual : "Sum8 should be less " + ctx.totalEvents;
+			actual = proc.stats.get(Stat.pc_TCCRegionsFirstCacheOverflows16K)
+					+ proc.stats.get(Stat.pc_TCCRegionsWBOverflows16K);
+			assert target >= actual : "Sum16 should be less " + ctx.totalEvents;
+			actual = proc.stats.get(Stat.pc_TCCRegionsFirstCacheOverflows32K)
+					+ proc.stats.get(Stat.pc_TCCRegionsWBOverflows32K);
+			assert target >= actual : "Sum32 should be less " + ctx.totalEvents;
+			actual = proc.stats.get(Stat.pc_TCCRegionsFirstCacheOverflows64K)
+					+ proc.stats.get(Stat.pc_TCCRegionsWBOverflows64K);
+			assert target >= actual : "Sum64 should be less " + ctx.totalEvents;
 		}
 
 		private void verifyExecutionCostBreakdown(final Processor<Line> proc) {
-			assert ViserSim.XASSERTS && ViserSim.xassertsEnabled();
-
-			double target = proc.stats.pc_ExecDrivenCycleCount.get();
-			double actual = proc.stats.pc_ViserRegExecExecDrivenCycleCount.get()
-					+ proc.stats.pc_ViserPreCommitExecDrivenCycleCount.get()
-					+ proc.stats.pc_ViserReadValidationExecDrivenCycleCount.get()
-					+ proc.stats.pc_ViserPostCommitExecDrivenCycleCount.get();
-			assert target == actual : "Values differ: " + ViserSim.totalEvents;
-
-			target = proc.stats.pc_BandwidthDrivenCycleCount.get();
-			actual = proc.stats.pc_ViserRegExecBWDrivenCycleCount.get()
-					+ proc.stats.pc_ViserPreCommitBWDrivenCycleCount.get()
-					+ proc.stats.pc_ViserReadValidationBWDrivenCycleCount.get()
-					+ proc.stats.pc_ViserPostCommitBWDrivenCycleCount.get();
-			assert target == actual : "Values differ: " + ViserSim.totalEvents;
-
-			target = proc.stats.pc_OnChipNetworkMessages.get();
-			actual = proc.stats.pc_ViserRegExecOnChipNetworkMessages.get()
-					+ proc.stats.pc_ViserPreCommitOnChipNetworkMessages.get()
-					+ proc.stats.pc_ViserReadValidationOnChipNetworkMessages.get()
-					+ proc.stats.pc_ViserPostCommitOnChipNetworkMessages.get();
-			assert target == actual : "Values differ: " + ViserSim.totalEvents;
-
-			target = proc.stats.pc_OnChipNetworkMessageSize16BytesFlits.get();
-			actual = proc.stats.pc_ViserRegExecOnChipNetworkMessageSize16BytesFlits.get()
-					+ proc.stats.pc_ViserPreCommitOnChipNetworkMessageSize16BytesFlits.get()
-					+ proc.stats.pc_ViserReadValidationOnChipNetworkMessageSize16BytesFlits.get()
-					+ proc.stats.pc_ViserPostCommitOnChipNetworkMessageSize16BytesFlits.get();
-			assert target == actual : "Values differ: " + ViserSim.totalEvents;
+			assert ctx.xasserts && ctx.xassertsEnabled();
+
+			double target = proc.stats.get(Stat.pc_ExecutionDrivenCycleCount);
+			double actual = proc.stats.get(Stat.pc_ViserRegExecExecDrivenCycleCount)
+					+ proc.stats.get(Stat.pc_ViserPreCommitExecDrivenCycleCount)
+					+ proc.stats.get(Stat.pc_ViserReadValidationExecDrivenCycleCount)
+					+ proc.stats.get(Stat.pc_ViserPostCommitExecDrivenCycleCount);
+			assert target == actual : "Values differ: " + ctx.totalEvents;
+
+			target = proc.stats.get(Stat.pc_BandwidthDrivenCycleCount);
+			actual = proc.stats.get(Stat.pc_ViserRegExecBWDrivenCycleCount)
+					+ proc.stats.get(Stat.pc_ViserPreCommitBWDrivenCycleCount)
+					+ proc.stats.get(Stat.pc_ViserReadValidationBWDrivenCycleCount)
+					+ proc.stats.get(Stat.pc_ViserPostCommitBWDrivenCycleCount);
+			assert target == actual : "Values differ: " + ctx.totalEvents;
+
+			target = proc.stats.get(Stat.pc_OnChipNetworkMessages);
+			actual = proc.stats.get(Stat.pc_ViserRegExecOnChipNetworkMessages)
+					+ proc.stats.get(Stat.pc_ViserPreCommitOnChipNetworkMessages)
+					+ proc.stats.get(Stat.pc_ViserReadValidationOnChipNetworkMessages)
+					+ proc.stats.get(Stat.pc_ViserPostCommitOnChipNetworkMessages);
+			assert target == actual : "Values differ: " + ctx.totalEvents;
+
+			target = proc.stats.get(Stat.pc_OnChipNetworkMessageSize16BytesFlits);
+			actual = proc.stats.get(Stat.pc_ViserRegExecOnChipNetworkMessageSize16BytesFlits)
+					+ proc.stats.get(Stat.pc_ViserPreCommitOnChipNetworkMessageSize16BytesFlits)
+					+ proc.stats.get(Stat.pc_ViserReadValidationOnChipNetworkMessageSize16BytesFlits)
+					+ proc.stats.get(Stat.pc_ViserPostCommitOnChipNetworkMessageSize16BytesFlits);
+			assert target == actual : "Values differ: " + ctx.totalEvents;
 		}
 
 		private void verifyPrivateCacheLinesAreInvalid(final Processor<Line> proc) {
-			assert ViserSim.XASSERTS && ViserSim.xassertsEnabled();
+			assert ctx.xasserts && ctx.xassertsEnabled();
 
 			HierarchicalCache.LineVisitor<Line> lv = new HierarchicalCache.LineVisitor<Line>() {
 				@Override
@@ -4339,7 +4017,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 		 * line versions for VALID lines should be the same in both L1 and L2 caches.
 		 */
 		public void verifyPrivateCacheInclusivityAndVersions(final Processor<Line> proc) {
-			assert ViserSim.XASSERTS && ViserSim.xassertsEnabled();
+			assert ctx.xasserts && ctx.xassertsEnabled();
 
 			// Only valid is L2 is enabled
 			if (params.useL2()) {
@@ -4409,7 +4087,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 						.getProc(new CpuId(dl.getDeferredLineOwnerID()));
 				MemoryResponse<Line> privateResp = ownerCore.L1cache.searchPrivateCache(dl);
 				if (privateResp.lineHit == null) {
-					System.out.println(ViserSim.totalEvents);
+					System.out.println(ctx.totalEvents);
 					System.out.println(dl);
 				}
 				assert privateResp.lineHit != null;
@@ -4439,7 +4117,7 @@ public class Processor<Line extends ViserLine> implements CacheCallbacks<Line> {
 				MemoryResponse<Line> resp = proc.L2cache
 						.searchPrivateCache(new DataLineAddress(entry.getKey()));
 				if (resp.lineHit == null) {
-					System.out.println(ViserSim.totalEvents);
+					System.out.println(ctx.totalEvents);
 					System.out.println(proc);
 					System.out.println("Line address:" + entry.getKey());
 					System.out.println(proc.L2cache.getLine(new DataLineAddress(entry.getKey())));
@@ -0,0 +1,108 @@
+package simulator.viser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import joptsimple.OptionSet;
+import simulator.viser.ViserSim.PARSEC_PHASE;
+
+/**
+ * The state of one simulation: its knobs, the PARSEC phase, the event counts, and the global values
+ * of the stats of its machine. A Machine and everything in it belongs to exactly one context, so
+ * independent simulations can run concurrently in the same JVM.
+ */
+final class SimContext {
+	final OptionSet options;
+
+	/** enable checking of computationally expensive asserts */
+	final boolean xasserts;
+
+	// Knobs that are read on every event or counter update, looked up once
+	private final int assertPeriod;
+	private final boolean modelOnlyROI;
+	private final int numProcessors;
+	private final int bloomFilterBits;
+	private final int bloomFilterHashes;
+
+	private PARSEC_PHASE phase = PARSEC_PHASE.PRE_ROI;
+	/** Whether counters are updated in the current phase, see {@link #countStats()} */
+	private boolean countStats;
+
+	int maxLiveThreads;
+	int numSpawnedThreads;
+	int currentLiveThreads;
+	long insnsExecuted;
+	long stackAccesses;
+	long totalEvents = 0;
+	long basicBlockEvents;
+	double totalScavengeTime = 0;
+
+	// maps pc stat names => global values, filled in when the stats are dumped
+	final Map<String, Double> globalSumCounters = new HashMap<String, Double>();
+	final Map<String, Double> globalMaxCounters = new HashMap<String, Double>();
+	final Map<String, Double> globalDependentCounters = new HashMap<String, Double>();
+
+	SimContext(OptionSet options) {
+		this.options = options;
+		this.xasserts = options.valueOf(Knobs.Xasserts);
+		this.assertPeriod = options.valueOf(Knobs.AssertPeriod);
+		this.modelOnlyROI = options.valueOf(Knobs.modelOnlyROI);
+		this.countStats = !modelOnlyROI;
+		this.numProcessors = options.valueOf(Knobs.Cores);
+		this.bloomFilterBits = options.valueOf(Knobs.BloomFilterBits);
+		int hashes = options.valueOf(Knobs.BloomFilterHashes);
+		if (hashes == 0) {
+			hashes = options.valueOf(Knobs.UseTwoBloomFuncs) ? 2 : 1;
+		}
+		this.bloomFilterHashes = hashes;
+	}
+
+	boolean debugPrint() {
+		return totalEvents == ViserSim.debugCurrent;
+	}
+
+	// These checks are expensive
+	boolean xassertsEnabled() {
+		if (xasserts) {
+			if ((totalEvents % assertPeriod == 0)
+					&& totalEvents > ViserSim.debugStart) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	boolean modelOnlyROI() {
+		return modelOnlyROI;
+	}
+
+	void setPARSECPhase(PARSEC_PHASE p) {
+		phase = p;
+		countStats = !modelOnlyROI || p == PARSEC_PHASE.IN_ROI;
+	}
+
+	/** Whether counters count, which is only in the ROI if only the ROI is modeled */
+	boolean countStats() {
+		return countStats;
+	}
+
+	PARSEC_PHASE getPARSECPhase() {
+		return phase;
+	}
+
+	boolean useTwoBloomFuncs() {
+		return options.valueOf(Knobs.UseTwoBloomFuncs);
+	}
+
+	int bloomFilterBits() {
+		return bloomFilterBits;
+	}
+
+	int bloomFilterHashes() {
+		return bloomFilterHashes;
+	}
+
+	int numProcessors() {
+		return numProcessors;
+	}
+}
@@ -0,0 +1,76 @@
+package simulator.viser;
+
+import java.util.ArrayList;
+
+/**
+ * Interns source sites so that every distinct (file, line, routine) triple gets a stable index.
+ * Lookups go through an open-addressing hash table keyed on the packed triple, so interning a site
+ * costs O(1) no matter how many sites the program has.
+ */
+class SiteInfoTable {
+	private static final int INITIAL_CAPACITY = 1 << 10;
+
+	/** Sites in index order */
+	private final ArrayList<SiteInfoEntry> entries = new ArrayList<SiteInfoEntry>();
+	/** Packed site keys */
+	private long[] keys = new long[INITIAL_CAPACITY];
+	/** Index + 1 of the site stored in the same slot of keys, 0 for an empty slot */
+	private int[] slots = new int[INITIAL_CAPACITY];
+
+	static long pack(short fno, short lno, short rno) {
+		return ((fno & 0xffffL) << 32) | ((lno & 0xffffL) << 16) | (rno & 0xffffL);
+	}
+
+	private static int hash(long key, int mask) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	/** Return the index of the given site, adding it to the table if it is new. */
+	int intern(short fno, short lno, short rno) {
+		long key = pack(fno, lno, rno);
+		int mask = keys.length - 1;
+		int i = hash(key, mask);
+		while (slots[i] != 0) {
+			if (keys[i] == key) {
+				return slots[i] - 1;
+			}
+			i = (i + 1) & mask;
+		}
+		entries.add(new SiteInfoEntry(fno, lno, rno));
+		int index = entries.size() - 1;
+		keys[i] = key;
+		slots[i] = index + 1;
+		if (2 * entries.size() > keys.length) {
+			rehash();
+		}
+		return index;
+	}
+
+	private void rehash() {
+		long[] oldKeys = keys;
+		int[] oldSlots = slots;
+		keys = new long[oldKeys.length << 1];
+		slots = new int[oldSlots.length << 1];
+		int mask = keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldSlots[j] == 0) {
+				continue;
+			}
+			int i = hash(oldKeys[j], mask);
+			while (slots[i] != 0) {
+				i = (i + 1) & mask;
+			}
+			keys[i] = oldKeys[j];
+			slots[i] = oldSlots[j];
+		}
+	}
+
+	SiteInfoEntry get(int index) {
+		return entries.get(index);
+	}
+
+	int size() {
+		return entries.size();
+	}
+}
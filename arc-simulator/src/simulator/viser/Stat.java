@@ -0,0 +1,317 @@
+package simulator.viser;
+
+/**
+ * The stats that each processor counts. A processor keeps their values in a bank indexed by
+ * ordinal, and the stats are dumped under their names in the order they are declared here. Flit
+ * stats are not counted, they are worked out from the message sizes of their traffic category
+ * whenever they are read.
+ */
+enum Stat {
+	
+	pc_ViserWARUpgrades,
+
+	pc_OnChipNetworkMessages,
+	pc_OnChipNetworkMessageSizeBytes,
+	pc_OnChipNetworkMessageSize4BytesFlits(Traffic.ON_CHIP_NETWORK,
+			SystemConstants.BYTES_IN_FLIT_4),
+	pc_OnChipNetworkMessageSize8BytesFlits(Traffic.ON_CHIP_NETWORK,
+			SystemConstants.BYTES_IN_FLIT_8),
+	pc_OnChipNetworkMessageSize16BytesFlits(Traffic.ON_CHIP_NETWORK,
+			SystemConstants.BYTES_IN_FLIT_16),
+	pc_OnChipNetworkMessageSize32BytesFlits(Traffic.ON_CHIP_NETWORK,
+			SystemConstants.BYTES_IN_FLIT_32),
+
+	// Compute the proportion of traffic due to read validation including WAR upgrades
+	pc_ViserUpgradeMessages,
+	pc_ViserUpgradeMessageSizeBytes,
+	pc_ViserUpgradeMessageSize4BytesFlits(Traffic.UPGRADE, SystemConstants.BYTES_IN_FLIT_4),
+	pc_ViserUpgradeMessageSize8BytesFlits(Traffic.UPGRADE, SystemConstants.BYTES_IN_FLIT_8),
+	pc_ViserUpgradeMessageSize16BytesFlits(Traffic.UPGRADE, SystemConstants.BYTES_IN_FLIT_16),
+	pc_ViserUpgradeMessageSize32BytesFlits(Traffic.UPGRADE, SystemConstants.BYTES_IN_FLIT_32),
+
+	// Breakdown of on-chip network traffic
+	// Compute the proportion of traffic due to deferring of lines
+	pc_ViserRVDeferredLineMessages,
+	pc_ViserRVDeferredLineMessageSizeBytes,
+	pc_ViserRVDeferredLineMessageSize4ByteFlits(Traffic.RV_DEFERRED_LINE,
+			SystemConstants.BYTES_IN_FLIT_4),
+	pc_ViserRVDeferredLineMessageSize8ByteFlits(Traffic.RV_DEFERRED_LINE,
+			SystemConstants.BYTES_IN_FLIT_8),
+	pc_ViserRVDeferredLineMessageSize16ByteFlits(Traffic.RV_DEFERRED_LINE,
+			SystemConstants.BYTES_IN_FLIT_16),
+	pc_ViserRVDeferredLineMessageSize32ByteFlits(Traffic.RV_DEFERRED_LINE,
+			SystemConstants.BYTES_IN_FLIT_32),
+
+	// Breakdown of on-chip network traffic
+	pc_ViserRegExecOnChipNetworkMessages,
+	pc_ViserRegExecOnChipNetworkMessageSizeBytes,
+	pc_ViserRegExecOnChipNetworkMessageSize4BytesFlits(Traffic.REG_EXEC,
+			SystemConstants.BYTES_IN_FLIT_4),
+	pc_ViserRegExecOnChipNetworkMessageSize8BytesFlits(Traffic.REG_EXEC,
+			SystemConstants.BYTES_IN_FLIT_8),
+	pc_ViserRegExecOnChipNetworkMessageSize16BytesFlits(Traffic.REG_EXEC,
+			SystemConstants.BYTES_IN_FLIT_16),
+	pc_ViserRegExecOnChipNetworkMessageSize32BytesFlits(Traffic.REG_EXEC,
+			SystemConstants.BYTES_IN_FLIT_32),
+
+	pc_ViserPreCommitOnChipNetworkMessages,
+	pc_ViserPreCommitOnChipNetworkMessageSizeBytes,
+	pc_ViserPreCommitOnChipNetworkMessageSize4BytesFlits(Traffic.PRE_COMMIT,
+			SystemConstants.BYTES_IN_FLIT_4),
+	pc_ViserPreCommitOnChipNetworkMessageSize8BytesFlits(Traffic.PRE_COMMIT,
+			SystemConstants.BYTES_IN_FLIT_8),
+	pc_ViserPreCommitOnChipNetworkMessageSize16BytesFlits(Traffic.PRE_COMMIT,
+			SystemConstants.BYTES_IN_FLIT_16),
+	pc_ViserPreCommitOnChipNetworkMessageSize32BytesFlits(Traffic.PRE_COMMIT,
+			SystemConstants.BYTES_IN_FLIT_32),
+
+	pc_ViserReadValidationOnChipNetworkMessages,
+	pc_ViserReadValidationOnChipNetworkMessageSizeBytes,
+	pc_ViserReadValidationOnChipNetworkMessageSize4BytesFlits(Traffic.READ_VALIDATION,
+			SystemConstants.BYTES_IN_FLIT_4),
+	pc_ViserReadValidationOnChipNetworkMessageSize8BytesFlits(Traffic.READ_VALIDATION,
+			SystemConstants.BYTES_IN_FLIT_8),
+	pc_ViserReadValidationOnChipNetworkMessageSize16BytesFlits(Traffic.READ_VALIDATION,
+			SystemConstants.BYTES_IN_FLIT_16),
+	pc_ViserReadValidationOnChipNetworkMessageSize32BytesFlits(Traffic.READ_VALIDATION,
+			SystemConstants.BYTES_IN_FLIT_32),
+
+	pc_ViserPostCommitOnChipNetworkMessages,
+	pc_ViserPostCommitOnChipNetworkMessageSizeBytes,
+	pc_ViserPostCommitOnChipNetworkMessageSize4BytesFlits(Traffic.POST_COMMIT,
+			SystemConstants.BYTES_IN_FLIT_4),
+	pc_ViserPostCommitOnChipNetworkMessageSize8BytesFlits(Traffic.POST_COMMIT,
+			SystemConstants.BYTES_IN_FLIT_8),
+	pc_ViserPostCommitOnChipNetworkMessageSize16BytesFlits(Traffic.POST_COMMIT,
+			SystemConstants.BYTES_IN_FLIT_16),
+	pc_ViserPostCommitOnChipNetworkMessageSize32BytesFlits(Traffic.POST_COMMIT,
+			SystemConstants.BYTES_IN_FLIT_32),
+
+	// This stat tracks the proportion of messages that actually need to be written back due to
+	// read and write metadata. If the proportion is low, then we can imagine using a software
+	// to convert/encode the data before writing back to memory for Viser.
+	pc_ViserLLCToMemoryMetadataWriteback,
+
+	pc_RegionBoundaries,
+	pc_RegionsWithWrites,
+
+	pc_potentialWrRdValConflicts,
+	pc_ValidationAttempts,
+	pc_FailedValidations,
+
+	// The following "conflict"-related counters don't count failed validations.
+	pc_ConflictCheckAttempts,
+	pc_PreciseConflicts,
+	pc_RegExecPreciseConflicts,
+	pc_PreCommitPreciseConflicts,
+	pc_PostCommitPreciseConflicts,
+	pc_ReadValidationPreciseConflicts,
+	pc_RegL2CommitPreciseConflicts,
+	pc_RegEvictionRVPreciseConflicts,
+	pc_RWPreciseConflicts,
+	pc_WWPreciseConflicts,
+	pc_WRPreciseConflicts,
+
+	pc_RegionsWithFRVs,
+	pc_RegionsWithFRVsAfterPrecommit,
+	pc_RegionsWithTolerableConflicts,
+	pc_RegionsWithExceptions,
+	pc_RegionHasDirtyEvictionBeforeFRV,
+	pc_ExceptionsByFRVs,
+	pc_RegionsWithExceptionsByFRVs,
+
+	pc_DirtyL2Evictions,
+	pc_CleanL2DirtyL1OnL2Eviction,
+
+	pc_NumScavenges,
+
+	pc_Data_L1ReadHits,
+	pc_Data_L1ReadMisses,
+	pc_Data_L1WriteHits,
+	pc_Data_L1WriteMisses,
+	pc_Data_L1LineEvictions,
+	pc_Data_L1DirtyLineEvictions,
+	pc_Data_L1AtomicWriteHits,
+	pc_Data_L1AtomicWriteMisses,
+	pc_Data_L1AtomicReadHits,
+	pc_Data_L1AtomicReadMisses,
+	pc_Data_L1LockReadHits,
+	pc_Data_L1LockReadMisses,
+	pc_Data_L1LockWriteHits,
+	pc_Data_L1LockWriteMisses,
+	pc_Data_L2ReadHits,
+	pc_Data_L2ReadMisses,
+	pc_Data_L2WriteHits,
+	pc_Data_L2WriteMisses,
+	pc_Data_L2LineEvictions,
+	pc_Data_L2DirtyLineEvictions,
+	pc_Data_L2AtomicWriteHits,
+	pc_Data_L2AtomicWriteMisses,
+	pc_Data_L2AtomicReadHits,
+	pc_Data_L2AtomicReadMisses,
+	pc_Data_L2LockReadHits,
+	pc_Data_L2LockReadMisses,
+	pc_Data_L2LockWriteHits,
+	pc_Data_L2LockWriteMisses,
+	pc_Data_L3ReadHits,
+	pc_Data_L3ReadMisses,
+	pc_Data_L3WriteHits,
+	pc_Data_L3WriteMisses,
+	pc_Data_L3LineEvictions,
+	pc_Data_L3DirtyLineEvictions,
+	pc_Data_L3AtomicWriteHits,
+	pc_Data_L3AtomicWriteMisses,
+	pc_Data_L3AtomicReadHits,
+	pc_Data_L3AtomicReadMisses,
+	pc_Data_L3LockReadHits,
+	pc_Data_L3LockReadMisses,
+	pc_Data_L3LockWriteHits,
+	pc_Data_L3LockWriteMisses,
+	pc_AIMCacheReadHits,
+	pc_AIMCacheReadMisses,
+	pc_AIMCacheWriteHits,
+	pc_AIMCacheWriteMisses,
+	pc_AIMCacheLineEvictions,
+	pc_AIMCacheDirtyLineEvictions,
+	pc_AIMCacheAtomicWriteHits,
+	pc_AIMCacheAtomicWriteMisses,
+	pc_AIMCacheAtomicReadHits,
+	pc_AIMCacheAtomicReadMisses,
+	pc_AIMCacheLockReadHits,
+	pc_AIMCacheLockReadMisses,
+	pc_AIMCacheLockWriteHits,
+	pc_AIMCacheLockWriteMisses,
+
+	pc_TotalDataReads,
+	pc_TotalDataWrites,
+	pc_TotalMemoryAccesses,
+	pc_TotalMemoryAccessesSpecialInvalidState,
+
+	pc_TotalAtomicReads,
+	pc_TotalAtomicWrites,
+	pc_TotalAtomicAccesses,
+
+	pc_TotalLockReads,
+	pc_TotalLockWrites,
+	pc_TotalLockAccesses,
+
+	pc_ExecutionDrivenCycleCount(Kind.MAX),
+
+	// Break down of the cycle counts. The sum should match pc_ExecutionDrivenCycleCount.
+	pc_ViserRegExecExecDrivenCycleCount(pc_ExecutionDrivenCycleCount),
+	pc_ViserPreCommitExecDrivenCycleCount(pc_ExecutionDrivenCycleCount),
+	pc_ViserReadValidationExecDrivenCycleCount(pc_ExecutionDrivenCycleCount),
+	pc_ViserPostCommitExecDrivenCycleCount(pc_ExecutionDrivenCycleCount),
+
+	pc_BandwidthDrivenCycleCount(Kind.MAX),
+	// Break down of the cycle counts.
+	pc_ViserRegExecBWDrivenCycleCount(pc_BandwidthDrivenCycleCount),
+	pc_ViserPreCommitBWDrivenCycleCount(pc_BandwidthDrivenCycleCount),
+	pc_ViserReadValidationBWDrivenCycleCount(pc_BandwidthDrivenCycleCount),
+	pc_ViserPostCommitBWDrivenCycleCount(pc_BandwidthDrivenCycleCount),
+
+	// NOTE: These are not perfect. We want the total network over number of cycles.
+	pc_reqdBWInGBWith4BytesFlits(Kind.MAX),
+	pc_reqdBWInGBWith8BytesFlits(Kind.MAX),
+	pc_reqdBWInGBWith16BytesFlits(Kind.MAX),
+	pc_reqdBWInGBWith32BytesFlits(Kind.MAX),
+
+	pc_TCCRegionsWBOverflows8K,
+	pc_TCCRegionsWBOverflows16K,
+	pc_TCCRegionsWBOverflows32K,
+	pc_TCCRegionsWBOverflows64K,
+
+	pc_TCCRegionsCacheOverflows,
+
+	pc_TCCRegionsOverflows8K,
+	pc_TCCRegionsOverflows16K,
+	pc_TCCRegionsOverflows32K,
+	pc_TCCRegionsOverflows64K,
+
+	pc_TCCRegionsFirstCacheOverflows8K,
+	pc_TCCRegionsFirstCacheOverflows16K,
+	pc_TCCRegionsFirstCacheOverflows32K,
+	pc_TCCRegionsFirstCacheOverflows64K,
+
+	pc_TCCRegionsFirstWBOverflows8K,
+	pc_TCCRegionsFirstWBOverflows16K,
+	pc_TCCRegionsFirstWBOverflows32K,
+	pc_TCCRegionsFirstWBOverflows64K,
+
+	pc_TCCNumSerializedMemoryAccesses8K,
+	pc_TCCNumSerializedMemoryAccesses16K,
+	pc_TCCNumSerializedMemoryAccesses32K,
+	pc_TCCNumSerializedMemoryAccesses64K,
+
+	// This is all RCC cycles + serialized cycles
+	pc_TCCCycleCount8K(Kind.MAX),
+	pc_TCCCycleCount16K(Kind.MAX),
+	pc_TCCCycleCount32K(Kind.MAX),
+	pc_TCCCycleCount64K(Kind.MAX),
+
+	pc_TCCBroadCastMessagesBytes,
+	pc_TCCBroadCastMessages4BytesFlits(Traffic.TCC_BROADCAST, SystemConstants.BYTES_IN_FLIT_4),
+	pc_TCCBroadCastMessages8BytesFlits(Traffic.TCC_BROADCAST, SystemConstants.BYTES_IN_FLIT_8),
+	pc_TCCBroadCastMessages16BytesFlits(Traffic.TCC_BROADCAST, SystemConstants.BYTES_IN_FLIT_16),
+	pc_TCCBroadCastMessages32BytesFlits(Traffic.TCC_BROADCAST, SystemConstants.BYTES_IN_FLIT_32),
+
+	// Model energy consumption for Bloom filters
+	pc_BloomFilterTotalEnergy,
+	pc_BloomFilterWriteEnergy,
+	pc_BloomFilterReadEnergy,
+	pc_BloomFilterPositives,
+	pc_BloomFilterFalsePositives,
+
+	// FIXME: Take into account the energy cost of line evictions.
+	pc_AIMReadEnergy,
+	pc_AIMWriteEnergy,
+	pc_AIMTotalEnergy;
+
+	/** How the values of the cores are combined into a global value */
+	enum Kind {
+		/** The sum over all cores, dumped as g_ */
+		SUM,
+		/** The maximum over all cores, dumped as max_ */
+		MAX,
+		/** The value of the core with the maximum of the base stat, dumped as dep_ */
+		DEPENDENT
+	}
+
+	/** The categories of network traffic whose message sizes are kept */
+	enum Traffic {
+		ON_CHIP_NETWORK, UPGRADE, RV_DEFERRED_LINE, REG_EXEC, PRE_COMMIT, READ_VALIDATION,
+		POST_COMMIT, TCC_BROADCAST
+	}
+
+	static final Stat[] ALL = values();
+
+	final Kind kind;
+	/** The max stat that a dependent stat is reported along with */
+	final Stat base;
+	/** The traffic that a flit stat is worked out from, null for a counted stat */
+	final Traffic traffic;
+	final double bytesInFlit;
+
+	private Stat() {
+		this(Kind.SUM, null, null, 0);
+	}
+
+	private Stat(Kind kind) {
+		this(kind, null, null, 0);
+	}
+
+	private Stat(Stat base) {
+		this(Kind.DEPENDENT, base, null, 0);
+	}
+
+	private Stat(Traffic traffic, double bytesInFlit) {
+		this(Kind.SUM, null, traffic, bytesInFlit);
+	}
+
+	private Stat(Kind kind, Stat base, Traffic traffic, double bytesInFlit) {
+		this.kind = kind;
+		this.base = base;
+		this.traffic = traffic;
+		this.bytesInFlit = bytesInFlit;
+	}
+}
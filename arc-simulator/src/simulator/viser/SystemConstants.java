@@ -1,5 +1,7 @@
 package simulator.viser;
 
+import java.util.Arrays;
+
 enum MemoryAccessType {
 	MEMORY_READ, MEMORY_WRITE, ATOMIC_READ, ATOMIC_WRITE, LOCK_ACQ_READ, LOCK_ACQ_WRITE,
 	LOCK_REL_WRITE
@@ -39,9 +41,9 @@ class SystemConstants {
 	public static final int VISER_RV_MESSAGE_SIZE_BYTES = DATA_MESSAGE_CONTROL_BYTES
 			+ VISER_RV_DATA_MESSAGE_SIZE_BYTES;
 
-	// Try to fit it into one 16-byte flit
+	// Try to fit it into one 16-byte flit, with the default filter size
 	public static final int BLOOM_FILTER_LLC_MESSAGE = DATA_MESSAGE_CONTROL_BYTES
-			+ BloomFilter.NUM_BYTES;
+			+ BloomFilter.DEFAULT_BYTES;
 	// Bloom filter energy numbers are extrapolated from the following paper:
 	// http://www.eecg.utoronto.ca/~moshovos/research/lcbf.pdf
 	public static final double BLOOM_FILTER_WRITE_ENERGY = 3.85 * Math.pow(10, -12);
@@ -229,6 +231,11 @@ abstract class GenericAccess {
 		return addr.lineAddress();
 	}
 
+	/** Like {@link #lineAddress()}, without allocating a LineAddress */
+	long lineAddr() {
+		return addr.get() & ~SystemConstants.LINE_OFFSET_MASK();
+	}
+
 	short lineOffset() {
 		return addr.lineOffset();
 	}
@@ -248,12 +255,27 @@ class DataAccess extends GenericAccess {
 	private int[] lastSiteInfo = null;
 	private long encoding;
 
+	/** The site arrays hold the sites of this access */
+	private boolean hasSites = false;
+
+	/** An access to be filled in by {@link #reset}, so that one object serves many accesses */
+	DataAccess() {
+		this.baseAddr = new DataByteAddress(0);
+		this.addr = new DataByteAddress(0);
+	}
+
 	DataAccess(MemoryAccessType mtype, ByteAddress addr, final int size, long value, CpuId core,
 			ThreadId tid, int siteIndex, int lastSiteIndex) {
+		this();
+		reset(mtype, addr.get(), size, value, core, tid, siteIndex, lastSiteIndex);
+	}
+
+	DataAccess reset(MemoryAccessType mtype, long addr, final int size, long value, CpuId core,
+			ThreadId tid, int siteIndex, int lastSiteIndex) {
 		this.type = mtype;
-		// make defensive copies
-		this.baseAddr = new DataByteAddress(addr.get());
-		this.addr = new DataByteAddress(addr.get());
+		// the address objects are our own, callers never see them change
+		this.baseAddr.set(addr);
+		this.addr.set(addr);
 		this.size = size;
 		this.value = value;
 		// ensure access fits within a cache line
@@ -262,17 +284,22 @@ class DataAccess extends GenericAccess {
 		this.core = core;
 		this.thread = tid;
 
-		if (siteIndex != -1) {
+		hasSites = (siteIndex != -1);
+		if (hasSites) {
 			if (siteInfo == null) {
 				siteInfo = new int[SystemConstants.LINE_SIZE()];
 				lastSiteInfo = new int[SystemConstants.LINE_SIZE()];
+			} else {
+				Arrays.fill(siteInfo, 0);
+				Arrays.fill(lastSiteInfo, 0);
 			}
-			for (int i = addr.lineOffset(); i < addr.lineOffset() + size; i++) {
+			for (int i = lineOffset(); i < lineOffset() + size; i++) {
 				this.siteInfo[i] = siteIndex;
 				this.lastSiteInfo[i] = lastSiteIndex;
 			}
 		}
 		this.encoding = getEncodingForAccess();
+		return this;
 	}
 
 	@Override
@@ -304,11 +331,11 @@ class DataAccess extends GenericAccess {
 	}
 
 	public int[] siteInfo() {
-		return siteInfo;
+		return hasSites ? siteInfo : null;
 	}
 
 	public int[] lastSiteInfo() {
-		return lastSiteInfo;
+		return hasSites ? lastSiteInfo : null;
 	}
 
 	public boolean isAtomic() {
@@ -328,18 +355,9 @@ class DataAccess extends GenericAccess {
 		return encoding;
 	}
 
-	private long getEncodingForOffset(int off) {
-		return (1L << off);
-	}
-
 	// full bit map, we want to be precise at the byte-level
 	private long getEncodingForAccess() {
-		long tmp = 0;
-		ByteAddress start = new DataByteAddress(this.addr().get());
-		for (int i = 0; i < this.size(); i++) {
-			tmp |= getEncodingForOffset(start.lineOffset());
-			start.incr();
-		}
-		return tmp;
+		long bytes = (size == Long.SIZE) ? -1L : (1L << size) - 1;
+		return bytes << lineOffset();
 	}
 }
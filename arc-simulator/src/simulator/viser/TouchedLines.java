@@ -0,0 +1,79 @@
+package simulator.viser;
+
+import java.util.Arrays;
+
+/**
+ * The slots of a private cache that may hold valid lines, as a bitmap of ways per set and a list
+ * of the sets that have any. A slot is added when a line is filled into it, and the slots of
+ * invalid lines are dropped at region boundaries. Since post-commit invalidates most lines, the
+ * region-end passes over a cache visit about the lines the region filled or kept, instead of
+ * every slot of the cache.
+ */
+final class TouchedLines {
+	/** Bit i of ways[s] is set if way i of set s is in the index */
+	private final long[] ways;
+	/** The sets with a nonzero ways entry, and possibly some whose ways were all removed */
+	private final int[] sets;
+	private int numSets;
+	private boolean sorted = true;
+	/** Whether slots were removed since the last {@link #compact()} */
+	private boolean removed = false;
+
+	TouchedLines(int numCacheSets) {
+		ways = new long[numCacheSets];
+		sets = new int[numCacheSets];
+	}
+
+	void add(int set, int way) {
+		assert way < Long.SIZE;
+		// A set emptied by remove() is still listed, and would be listed twice
+		assert !removed : "Compact the index before adding to it";
+		if (ways[set] == 0) {
+			if (numSets > 0 && sets[numSets - 1] > set) {
+				sorted = false;
+			}
+			sets[numSets++] = set;
+		}
+		ways[set] |= 1L << way;
+	}
+
+	void remove(int set, int way) {
+		ways[set] &= ~(1L << way);
+		removed = true;
+	}
+
+	boolean contains(int set, int way) {
+		return (ways[set] & (1L << way)) != 0;
+	}
+
+	/** Sort the sets and drop those whose ways were all removed. */
+	void compact() {
+		if (!sorted) {
+			Arrays.sort(sets, 0, numSets);
+			sorted = true;
+		}
+		int n = 0;
+		for (int i = 0; i < numSets; i++) {
+			if (ways[sets[i]] != 0) {
+				sets[n++] = sets[i];
+			}
+		}
+		numSets = n;
+		removed = false;
+	}
+
+	/** Number of sets in the index. Only meaningful right after {@link #compact()}. */
+	int numSets() {
+		return numSets;
+	}
+
+	/** The i-th set of the index, in ascending order after {@link #compact()} */
+	int set(int i) {
+		assert i < numSets;
+		return sets[i];
+	}
+
+	long ways(int set) {
+		return ways[set];
+	}
+}
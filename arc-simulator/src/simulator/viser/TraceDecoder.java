@@ -0,0 +1,247 @@
+package simulator.viser;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Decodes raw trace records into batches of primitive slots. In pipelined mode a separate decoder
+ * thread fills a bounded ring of pre-allocated batches while the simulation thread consumes them,
+ * so pipe/disk I/O and decoding overlap with cache modeling. Records are always handed out in
+ * trace order, and decoding stops right after the THREAD_FINISH event of thread 0, just where the
+ * simulation stops. Both the raw 43-byte records and the {@link CompactTrace} format are
+ * understood; the format is detected from the first bytes of the trace.
+ */
+final class TraceDecoder implements Closeable {
+	static final int BATCH_SIZE = 4096;
+	static final int NUM_BATCHES = 8;
+
+	/** Decoded records, stored as parallel arrays indexed by slot */
+	static final class Batch {
+		final byte[] type;
+		final byte[] semantics;
+		final byte[] tid;
+		final long[] addr;
+		final byte[] memOpSize;
+		final byte[] bits;
+		final long[] value;
+		final int[] insnCount;
+		final short[] lineno;
+		final short[] fno;
+		final short[] rno;
+		final short[] lastLineno;
+		final short[] lastFno;
+		/** Number of valid slots */
+		int count;
+		/** No batch follows this one */
+		boolean last;
+
+		Batch(int size) {
+			type = new byte[size];
+			semantics = new byte[size];
+			tid = new byte[size];
+			addr = new long[size];
+			memOpSize = new byte[size];
+			bits = new byte[size];
+			value = new long[size];
+			insnCount = new int[size];
+			lineno = new short[size];
+			fno = new short[size];
+			rno = new short[size];
+			lastLineno = new short[size];
+			lastFno = new short[size];
+		}
+	}
+
+	private final TraceReader in;
+	/** Non-null if the trace is in the compact format */
+	private final CompactTrace.Reader compact;
+	private final boolean pipelined;
+
+	/** Batches the decoder thread may fill */
+	private final ArrayBlockingQueue<Batch> free;
+	/** Filled batches in trace order */
+	private final ArrayBlockingQueue<Batch> full;
+	private final Thread decoder;
+	private boolean started = false;
+	/** Set by the decoder thread before it publishes the last batch */
+	private IOException error;
+
+	private Batch current;
+	private int pos;
+
+	/**
+	 * @param pipelined
+	 *                      decode on a separate thread. Must be false when the front-end waits on
+	 *                      the simulator (lockstep), since the decoder would block filling a batch.
+	 */
+	TraceDecoder(TraceReader in, boolean pipelined) throws IOException {
+		this.in = in;
+		this.compact = CompactTrace.isCompact(in) ? new CompactTrace.Reader(in) : null;
+		this.pipelined = pipelined;
+		if (pipelined) {
+			free = new ArrayBlockingQueue<Batch>(NUM_BATCHES);
+			full = new ArrayBlockingQueue<Batch>(NUM_BATCHES);
+			for (int i = 0; i < NUM_BATCHES; i++) {
+				free.add(new Batch(BATCH_SIZE));
+			}
+			decoder = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					decodeLoop();
+				}
+			}, "trace-decoder");
+			decoder.setDaemon(true);
+		} else {
+			free = null;
+			full = null;
+			decoder = null;
+			current = new Batch(1);
+		}
+	}
+
+	boolean isCompact() {
+		return compact != null;
+	}
+
+	/**
+	 * Whether the next record starts at a sync point, i.e., decoding can restart at the current
+	 * position of the reader.
+	 */
+	boolean atSyncPoint() {
+		return compact == null || compact.atBlockStart();
+	}
+
+	/**
+	 * Continue decoding at a sync point previously reported by {@link #atSyncPoint()}. Only
+	 * allowed before the first record is consumed.
+	 */
+	void seek(long offset) throws IOException {
+		assert !started;
+		in.seek(offset);
+		if (compact != null) {
+			compact.resetToBlockStart();
+		}
+	}
+
+	/** Read one record into slot i. Returns true if the simulation ends with this record. */
+	private boolean decode(Batch b, int i) throws IOException {
+		if (compact != null) {
+			compact.decode(b, i);
+			return b.type[i] == EventType.THREAD_FINISH.asByte() && b.tid[i] == 0;
+		}
+		byte type = in.readByte();
+		byte tid;
+		b.type[i] = type;
+		b.semantics[i] = in.readByte();
+		b.tid[i] = tid = (byte) in.readShort();
+		b.addr[i] = in.readLong();
+		b.memOpSize[i] = (byte) in.readInt();
+		b.bits[i] = in.readByte();
+		b.value[i] = in.readLong();
+		b.insnCount[i] = in.readInt();
+		b.lineno[i] = in.readShort();
+		b.fno[i] = in.readShort();
+		b.rno[i] = in.readShort();
+		in.readInt(); // eventID
+		b.lastLineno[i] = in.readShort();
+		b.lastFno[i] = in.readShort();
+		return type == EventType.THREAD_FINISH.asByte() && tid == 0;
+	}
+
+	private void decodeLoop() {
+		try {
+			boolean done = false;
+			while (!done) {
+				Batch b = free.take();
+				b.count = 0;
+				try {
+					while (b.count < BATCH_SIZE) {
+						boolean finished = decode(b, b.count);
+						b.count++;
+						if (finished) {
+							done = true;
+							break;
+						}
+					}
+				} catch (EOFException eof) {
+					done = true;
+				} catch (IOException ioe) {
+					error = ioe;
+					done = true;
+				}
+				b.last = done;
+				full.put(b);
+			}
+		} catch (InterruptedException ie) {
+			// The simulation closed the decoder
+		}
+	}
+
+	/**
+	 * Move to the next record and return its slot in {@link #batch()}. Throws EOFException once
+	 * the trace is exhausted, like the underlying reader.
+	 */
+	int advance() throws IOException {
+		if (!pipelined) {
+			started = true;
+			decode(current, 0);
+			return 0;
+		}
+		if (current != null && ++pos < current.count) {
+			return pos;
+		}
+		if (!started) {
+			// Started lazily, so that the trace can be repositioned first
+			decoder.start();
+			started = true;
+		}
+		try {
+			while (true) {
+				if (current != null) {
+					if (current.last) {
+						if (error != null) {
+							throw error;
+						}
+						throw new EOFException();
+					}
+					free.put(current);
+				}
+				current = full.take();
+				pos = 0;
+				if (current.count > 0) {
+					return 0;
+				}
+			}
+		} catch (InterruptedException ie) {
+			throw new InterruptedIOException();
+		}
+	}
+
+	/**
+	 * Like {@link #advance()}, but consume the rest of the current batch at once: the records from
+	 * the returned slot up to {@code batch().count} are handed out together, so that several
+	 * consumers can share them. Pipelined mode only.
+	 */
+	int advanceBatch() throws IOException {
+		assert pipelined;
+		int i = advance();
+		pos = current.count - 1;
+		return i;
+	}
+
+	/** The batch holding the record returned by the last call to {@link #advance()} */
+	Batch batch() {
+		return current;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (decoder != null) {
+			decoder.interrupt();
+		}
+		in.close();
+	}
+}
@@ -0,0 +1,225 @@
+package simulator.viser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sidecar index for a stored trace, kept next to it as {@code <trace>.idx}. It records the
+ * position of the ROI_START, ROI_END and SERVER_ROI_* events, and periodic sync points where
+ * decoding can restart: every SYNC_INTERVAL records for raw traces, and every block for compact
+ * traces. The index is built by one pass over the trace the first time it is needed.
+ */
+final class TraceIndex {
+	static final byte[] MAGIC = { 'T', 'I', 'D', 'X' };
+	static final byte VERSION = 1;
+	/** Records between two sync points of a raw trace */
+	static final int SYNC_INTERVAL = 1 << 16;
+
+	/** Length of the indexed trace, to detect a stale index */
+	private final long traceLength;
+	/** Event type and record number of each ROI marker, in trace order */
+	private final byte[] markerTypes;
+	private final long[] markerRecords;
+	/** Record number and byte offset of each sync point, in trace order */
+	private final long[] syncRecords;
+	private final long[] syncOffsets;
+
+	private TraceIndex(long traceLength, byte[] markerTypes, long[] markerRecords,
+			long[] syncRecords, long[] syncOffsets) {
+		this.traceLength = traceLength;
+		this.markerTypes = markerTypes;
+		this.markerRecords = markerRecords;
+		this.syncRecords = syncRecords;
+		this.syncOffsets = syncOffsets;
+	}
+
+	static boolean isMarker(byte type) {
+		return type == EventType.ROI_START.asByte() || type == EventType.ROI_END.asByte()
+				|| type == EventType.SERVER_ROI_START.asByte()
+				|| type == EventType.SERVER_ROI_END.asByte();
+	}
+
+	static String indexFile(String traceFile) {
+		return traceFile + ".idx";
+	}
+
+	/** Scan the whole trace once. */
+	static TraceIndex build(String traceFile) throws IOException {
+		List<Byte> types = new ArrayList<Byte>();
+		List<Long> markers = new ArrayList<Long>();
+		List<Long> records = new ArrayList<Long>();
+		List<Long> offsets = new ArrayList<Long>();
+
+		TraceReader in = new TraceReader.MappedTraceReader(traceFile);
+		TraceDecoder decoder = new TraceDecoder(in, false);
+		long record = 0;
+		while (true) {
+			if (decoder.atSyncPoint() && (decoder.isCompact() || record % SYNC_INTERVAL == 0)) {
+				records.add(record);
+				offsets.add(in.position());
+			}
+			int i;
+			try {
+				i = decoder.advance();
+			} catch (EOFException eof) {
+				break;
+			}
+			byte type = decoder.batch().type[i];
+			if (isMarker(type)) {
+				types.add(type);
+				markers.add(record);
+			}
+			record++;
+		}
+		decoder.close();
+
+		byte[] markerTypes = new byte[types.size()];
+		long[] markerRecords = new long[types.size()];
+		for (int j = 0; j < markerTypes.length; j++) {
+			markerTypes[j] = types.get(j);
+			markerRecords[j] = markers.get(j);
+		}
+		long[] syncRecords = new long[records.size()];
+		long[] syncOffsets = new long[records.size()];
+		for (int j = 0; j < syncRecords.length; j++) {
+			syncRecords[j] = records.get(j);
+			syncOffsets[j] = offsets.get(j);
+		}
+		return new TraceIndex(new File(traceFile).length(), markerTypes, markerRecords,
+				syncRecords, syncOffsets);
+	}
+
+	void save(String indexFile) throws IOException {
+		DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(indexFile)));
+		try {
+			out.write(MAGIC);
+			out.writeByte(VERSION);
+			out.writeLong(traceLength);
+			out.writeInt(markerTypes.length);
+			for (int j = 0; j < markerTypes.length; j++) {
+				out.writeByte(markerTypes[j]);
+				out.writeLong(markerRecords[j]);
+			}
+			out.writeInt(syncRecords.length);
+			for (int j = 0; j < syncRecords.length; j++) {
+				out.writeLong(syncRecords[j]);
+				out.writeLong(syncOffsets[j]);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/** Returns null if there is no usable index for the trace. */
+	static TraceIndex load(String traceFile) throws IOException {
+		File f = new File(indexFile(traceFile));
+		if (!f.isFile()) {
+			return null;
+		}
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)));
+		try {
+			for (byte m : MAGIC) {
+				if (in.readByte() != m) {
+					return null;
+				}
+			}
+			if (in.readByte() != VERSION) {
+				return null;
+			}
+			long traceLength = in.readLong();
+			if (traceLength != new File(traceFile).length()) {
+				return null;
+			}
+			int n = in.readInt();
+			byte[] markerTypes = new byte[n];
+			long[] markerRecords = new long[n];
+			for (int j = 0; j < n; j++) {
+				markerTypes[j] = in.readByte();
+				markerRecords[j] = in.readLong();
+			}
+			n = in.readInt();
+			long[] syncRecords = new long[n];
+			long[] syncOffsets = new long[n];
+			for (int j = 0; j < n; j++) {
+				syncRecords[j] = in.readLong();
+				syncOffsets[j] = in.readLong();
+			}
+			return new TraceIndex(traceLength, markerTypes, markerRecords, syncRecords,
+					syncOffsets);
+		} catch (EOFException eof) {
+			return null;
+		} finally {
+			in.close();
+		}
+	}
+
+	static TraceIndex loadOrBuild(String traceFile) throws IOException {
+		TraceIndex index = load(traceFile);
+		if (index == null) {
+			index = build(traceFile);
+			try {
+				index.save(indexFile(traceFile));
+			} catch (IOException e) {
+				// Not fatal, the index is simply rebuilt next time
+				System.err.println("Could not save trace index: " + e.getMessage());
+			}
+		}
+		return index;
+	}
+
+	/** Record number of the first ROI_START or SERVER_ROI_START event, or -1 if none */
+	long roiStart() {
+		for (int j = 0; j < markerTypes.length; j++) {
+			if (markerTypes[j] == EventType.ROI_START.asByte()
+					|| markerTypes[j] == EventType.SERVER_ROI_START.asByte()) {
+				return markerRecords[j];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Position a fresh decoder so that the next record it returns is the given one: seek to the
+	 * closest preceding sync point and decode forward from there.
+	 */
+	void seek(TraceDecoder decoder, long record) throws IOException {
+		int j = 0;
+		while (j + 1 < syncRecords.length && syncRecords[j + 1] <= record) {
+			j++;
+		}
+		decoder.seek(syncOffsets[j]);
+		for (long r = syncRecords[j]; r < record; r++) {
+			decoder.advance();
+		}
+	}
+
+	/**
+	 * Skip the pre-ROI part of a stored trace, keeping {@code warmup} events before the ROI.
+	 *
+	 * @return the number of skipped events
+	 */
+	static long seekToROI(String traceFile, TraceDecoder decoder, long warmup)
+			throws IOException {
+		if (!new File(traceFile).isFile()) {
+			throw new IllegalArgumentException("Seeking to the ROI needs a trace file: " + traceFile);
+		}
+		TraceIndex index = loadOrBuild(traceFile);
+		long roi = index.roiStart();
+		if (roi < 0) {
+			return 0;
+		}
+		long first = Math.max(0, roi - warmup);
+		index.seek(decoder, first);
+		return first;
+	}
+}
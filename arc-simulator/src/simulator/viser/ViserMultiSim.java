@@ -0,0 +1,221 @@
+package simulator.viser;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import simulator.viser.Machine.SimulationMode;
+
+/**
+ * Simulates several configurations over a single pass of the trace, instead of forking the
+ * front-end stream into one FIFO and one JVM per configuration. The trace is decoded once and
+ * every decoded batch is handed to one worker thread per machine.
+ *
+ * <pre>
+ * ViserMultiSim config-file shared-knobs...
+ * </pre>
+ *
+ * Each non-empty line of the config file that does not start with '#' holds the knobs of one
+ * configuration, appended to the shared knobs. Every configuration needs its own --stats-file.
+ * The shared knobs may name a --config-file with the knobs common to all the configurations.
+ */
+public class ViserMultiSim {
+
+	/** Knobs that affect the shared trace or the static system constants */
+	private static final List<OptionSpec<?>> SHARED_KNOBS = Arrays.<OptionSpec<?>> asList(
+			Knobs.ToSimulatorFifo, Knobs.Cores, Knobs.LineSize, Knobs.SeekToROI,
+			Knobs.ROIWarmupEvents);
+
+	private static final String prix = "[arcsim] ";
+
+	/** The batch shared by all workers during the current round */
+	private static TraceDecoder.Batch batch;
+	/** Slot of the first record of the current round */
+	private static int from;
+	/** The trace is exhausted, workers should exit */
+	private static boolean done;
+
+	/** Drives the machine of one configuration. */
+	static final class Worker implements Runnable {
+		final Machine<ViserLine> machine;
+		final CyclicBarrier barrier;
+		final Event e = new Event();
+		/** The machine has seen the final event */
+		boolean finished = false;
+		Throwable error;
+
+		Worker(Machine<ViserLine> machine, CyclicBarrier barrier) {
+			this.machine = machine;
+			this.barrier = barrier;
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					barrier.await(); // wait for the next batch
+					if (done) {
+						return;
+					}
+					if (!finished && error == null) {
+						try {
+							simulate();
+						} catch (Throwable t) {
+							// Keep taking part in the rounds so that the other machines can finish
+							error = t;
+						}
+					}
+					barrier.await(); // this batch is consumed
+				}
+			} catch (InterruptedException ie) {
+				error = ie;
+			} catch (BrokenBarrierException bbe) {
+				error = bbe;
+			}
+		}
+
+		private void simulate() {
+			for (int i = from; i < batch.count; i++) {
+				ViserSim.fillEvent(batch, i, machine, e);
+				if (ViserSim.handleEvent(e, machine, prix)) {
+					finished = true;
+					break;
+				}
+			}
+		}
+	}
+
+	/** Parse the knobs of each configuration in the config file. */
+	static List<OptionSet> readConfigs(String configFile, String[] shared) throws IOException {
+		List<OptionSet> configs = new ArrayList<OptionSet>();
+		BufferedReader rd = new BufferedReader(new FileReader(configFile));
+		try {
+			String line;
+			while ((line = rd.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				List<String> args = new ArrayList<String>(Arrays.asList(shared));
+				args.addAll(Arrays.asList(line.split("\\s+")));
+				configs.add(Knobs.parse(args.toArray(new String[args.size()])));
+			}
+		} finally {
+			rd.close();
+		}
+
+		if (configs.isEmpty()) {
+			throw new IllegalArgumentException("No configurations in " + configFile);
+		}
+		OptionSet first = configs.get(0);
+		Set<String> statsFiles = new HashSet<String>();
+		for (OptionSet o : configs) {
+			for (OptionSpec<?> k : SHARED_KNOBS) {
+				if (!first.valueOf(k).equals(o.valueOf(k))) {
+					throw new IllegalArgumentException(
+							"All configurations must use the same " + k.options() + " knob");
+				}
+			}
+			if (o.valueOf(Knobs.Lockstep)) {
+				throw new IllegalArgumentException("Lockstep mode needs one simulator per fifo");
+			}
+			if (!statsFiles.add(o.valueOf(Knobs.StatsFile))) {
+				throw new IllegalArgumentException(
+						"Configurations share the stats file " + o.valueOf(Knobs.StatsFile));
+			}
+		}
+		return configs;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1 || args[0].startsWith("-")) {
+			System.out.println("usage: ViserMultiSim config-file shared-knobs...");
+			Knobs.parser.printHelpOn(System.out);
+			return;
+		}
+		List<OptionSet> configs = readConfigs(args[0], Arrays.copyOfRange(args, 1, args.length));
+		OptionSet shared = configs.get(0);
+
+		TraceReader in = TraceReader.open(shared.valueOf(Knobs.ToSimulatorFifo));
+		final long startTime = System.currentTimeMillis();
+
+		CyclicBarrier barrier = new CyclicBarrier(configs.size() + 1);
+		List<Worker> workers = new ArrayList<Worker>();
+		for (OptionSet o : configs) {
+			SimContext ctx = new SimContext(o);
+			SimulationMode simMode = ViserSim.simulationMode(ctx);
+			workers.add(new Worker(ViserSim.createMachine(ctx, simMode), barrier));
+		}
+
+		System.out.println(
+				prix + "starting simulation of " + configs.size() + " configurations...");
+
+		TraceDecoder decoder = new TraceDecoder(in, true);
+		if (shared.valueOf(Knobs.SeekToROI)) {
+			long skipped = TraceIndex.seekToROI(shared.valueOf(Knobs.ToSimulatorFifo), decoder,
+					shared.valueOf(Knobs.ROIWarmupEvents));
+			System.out.println(prix + "skipped " + skipped + " pre-ROI events");
+		}
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < workers.size(); i++) {
+			Thread t = new Thread(workers.get(i), "machine-" + i);
+			t.start();
+			threads.add(t);
+		}
+		try {
+			while (true) {
+				try {
+					from = decoder.advanceBatch();
+					batch = decoder.batch();
+				} catch (EOFException eof) {
+					done = true;
+				}
+				barrier.await(); // hand out the batch
+				if (done) {
+					break;
+				}
+				barrier.await(); // all machines are done with it
+			}
+			for (Thread t : threads) {
+				t.join();
+			}
+		} catch (InterruptedException ie) {
+			throw new RuntimeException(ie);
+		} catch (BrokenBarrierException bbe) {
+			throw new RuntimeException(bbe);
+		}
+
+		decoder.close();
+		double mins = (System.currentTimeMillis() - startTime) / (double) (1000 * 60);
+
+		int failed = 0;
+		for (Worker w : workers) {
+			if (w.error != null) {
+				System.err.println(prix + "simulation for "
+						+ w.machine.ctx.options.valueOf(Knobs.StatsFile) + " failed:");
+				w.error.printStackTrace();
+				failed++;
+				continue;
+			}
+			if (w.machine.params.siteTracking()) {
+				ViserSim.printConflicts(w.machine, prix);
+			}
+			ViserSim.generateStats(mins, w.machine);
+		}
+		if (failed > 0) {
+			throw new RuntimeException(failed + " of " + workers.size() + " simulations failed");
+		}
+		System.err.println(prix + "finished");
+	}
+}
@@ -1,11 +1,8 @@
 package simulator.viser;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedWriter;
-import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -18,35 +15,15 @@ import simulator.viser.Machine.SimulationMode;
 
 public class ViserSim {
 
-	/** enable checking of computationally expensive asserts */
-	public static boolean XASSERTS = true;
-
 	public enum PARSEC_PHASE {
 		PRE_ROI, IN_ROI, POST_ROI, IN_SERVER_ROI, POST_SERVER_ROI
 	}
 
-	private static PARSEC_PHASE phase = PARSEC_PHASE.PRE_ROI;
-
-	static OptionSet Options;
-
-	private static int maxLiveThreads;
-	private static int numSpawnedThreads;
-	private static int currentLiveThreads;
-	private static long insnsExecuted;
-	private static long stackAccesses;
-	static long totalEvents = 0;
-	private static long basicBlockEvents;
-	public static double totalScavengeTime = 0;
-
 	public static final long debugStart = 640000;
 	public static final long debugCurrent = 640643;
 	public static final long debugByteAddress = 139812783786240L;
 	public static final long debugLineAddress = 139812783786240L;
 
-	public static boolean debugPrint() {
-		return totalEvents == debugCurrent;
-	}
-
 	// http://docs.oracle.com/javase/7/docs/technotes/guides/language/assert.html
 	static boolean assertsEnabled = false;
 
@@ -54,71 +31,90 @@ public class ViserSim {
 		assert assertsEnabled = true; // Intentional side effect!!!
 	}
 
-	// These checks are expensive
-	public static boolean xassertsEnabled() {
-		if (XASSERTS) {
-			if ((totalEvents % Options.valueOf(Knobs.AssertPeriod) == 0)
-					&& totalEvents > debugStart) {
-				return true;
-			}
+	public static void main(String[] args) throws IOException {
+		OptionSet options = Knobs.parse(args);
+		if (options.has(Knobs.Help)) {
+			Knobs.parser.printHelpOn(System.out);
+			return;
 		}
-		return false;
-	}
+		SimContext ctx = new SimContext(options);
 
-	public static boolean modelOnlyROI() {
-		return Options.valueOf(Knobs.modelOnlyROI);
-	}
+		final SimulationMode simMode = simulationMode(ctx);
 
-	public static void setPARSECPhase(PARSEC_PHASE p) {
-		phase = p;
-	}
+		TraceReader in;
+		try {
+			in = TraceReader.open(options.valueOf(Knobs.ToSimulatorFifo));
+		} catch (FileNotFoundException fnf) {
+			fnf.printStackTrace();
+			return;
+		}
 
-	public static PARSEC_PHASE getPARSECPhase() {
-		return phase;
-	}
+		final long startTime = System.currentTimeMillis();
+		Machine<ViserLine> sim = createMachine(ctx, simMode);
+		if (sim.params.lockstep()) {
+			sim.openPerThreadFifos();
+		}
 
-	public static boolean useTwoBloomFuncs() {
-		return Options.valueOf(Knobs.UseTwoBloomFuncs);
-	}
+		String prix = "[arcsim] ";
 
-	public static int numProcessors() {
-		return Options.valueOf(Knobs.Cores);
-	}
+		System.out.println(prix + "starting simulation...");
 
-	public static void main(String[] args) throws IOException {
-		Options = Knobs.parser.parse(args);
-		if (Options.has(Knobs.Help)) {
-			Knobs.parser.printHelpOn(System.out);
-			return;
+		// The front-end waits on the simulator in lockstep mode, so decode inline there
+		TraceDecoder decoder = new TraceDecoder(in,
+				options.valueOf(Knobs.PipelinedDecode) && !sim.params.lockstep());
+		if (options.valueOf(Knobs.SeekToROI)) {
+			long skipped = TraceIndex.seekToROI(options.valueOf(Knobs.ToSimulatorFifo), decoder,
+					options.valueOf(Knobs.ROIWarmupEvents));
+			System.out.println(prix + "skipped " + skipped + " pre-ROI events");
+		}
+		short Cid = 0;
+		Event e = new Event();
+		while (true) {
+			try {
+				getNextEvent(decoder, sim, Cid, e);
+				boolean simulationFinished = handleEvent(e, sim, prix);
+				Cid = sim.cpuOfTid(e.threadId).get();
+				if (simulationFinished)
+					break;
+			} catch (EOFException eof) {
+				break;
+			}
 		}
-		XASSERTS = Options.valueOf(Knobs.Xasserts);
 
-		final SimulationMode simMode;
-		if (Options.valueOf(Knobs.SimulationMode).equals("baseline")) {
-			throw new UnsupportedOperationException("Baseline mode not supported.");
-		} else if (Options.valueOf(Knobs.SimulationMode).equals("viser")) {
-			simMode = SimulationMode.VISER;
-		} else {
-			throw new IllegalStateException(
-					"Invalid simulation mode: " + Options.valueOf(Knobs.SimulationMode));
+		decoder.close();
+		double mins = (System.currentTimeMillis() - startTime) / (double) (1000 * 60);
+
+		if (sim.params.lockstep()) {
+			sim.closePerThreadFifos(); // Close per-thread fifos
 		}
 
-		if (!BitTwiddle.isPowerOf2(numProcessors())) {
-			throw new IllegalArgumentException("Number of cores is not a power of 2.");
+		if (sim.params.siteTracking()) {
+			printConflicts(sim, prix);
 		}
+		generateStats(mins, sim);
+		System.err.println(prix + "finished");
+	} // end main()
 
-		DataInputStream in;
-		try {
-			FileInputStream fis = new FileInputStream(Options.valueOf(Knobs.ToSimulatorFifo));
-			in = new DataInputStream(new BufferedInputStream(fis));
-		} catch (FileNotFoundException fnf) {
-			fnf.printStackTrace();
-			return;
+	static SimulationMode simulationMode(SimContext ctx) {
+		OptionSet options = ctx.options;
+		if (options.valueOf(Knobs.SimulationMode).equals("baseline")) {
+			throw new UnsupportedOperationException("Baseline mode not supported.");
+		} else if (options.valueOf(Knobs.SimulationMode).equals("viser")) {
+			if (!BitTwiddle.isPowerOf2(ctx.numProcessors())) {
+				throw new IllegalArgumentException("Number of cores is not a power of 2.");
+			}
+			return SimulationMode.VISER;
+		} else {
+			throw new IllegalStateException(
+					"Invalid simulation mode: " + options.valueOf(Knobs.SimulationMode));
 		}
+	}
 
-		final long startTime = System.currentTimeMillis();
-		SystemConstants.setLineSize(Options.valueOf(Knobs.LineSize));
-		SystemConstants.setLLCAccessTimes(numProcessors());
+	/** Build a machine configured by the options of the given context. */
+	static Machine<ViserLine> createMachine(final SimContext ctx, final SimulationMode simMode) {
+		final OptionSet options = ctx.options;
+		SystemConstants.setLineSize(options.valueOf(Knobs.LineSize));
+		SystemConstants.setLLCAccessTimes(ctx.numProcessors());
 
 		Machine.MachineParams<ViserLine> p = new Machine.MachineParams<ViserLine>() {
 			@Override
@@ -128,12 +124,12 @@ public class ViserSim {
 
 			@Override
 			int numProcessors() {
-				return ViserSim.numProcessors();
+				return ctx.numProcessors();
 			}
 
 			@Override
 			int numPinThreads() {
-				return Options.valueOf(Knobs.PinThreads);
+				return options.valueOf(Knobs.PinThreads);
 			}
 
 			@Override
@@ -143,9 +139,9 @@ public class ViserSim {
 				// values are always the same
 				return new CacheConfiguration<ViserLine>() {
 					{
-						cacheSize = Options.valueOf(Knobs.L1Size);
+						cacheSize = options.valueOf(Knobs.L1Size);
 						lineSize = SystemConstants.LINE_SIZE();
-						assoc = Options.valueOf(Knobs.L1Assoc);
+						assoc = options.valueOf(Knobs.L1Assoc);
 						level = CacheLevel.L1;
 					}
 				};
@@ -153,21 +149,21 @@ public class ViserSim {
 
 			@Override
 			boolean pintool() {
-				return Options.valueOf(Knobs.Pintool);
+				return options.valueOf(Knobs.Pintool);
 			}
 
 			@Override
 			boolean useL2() {
-				return Options.valueOf(Knobs.UseL2);
+				return options.valueOf(Knobs.UseL2);
 			}
 
 			@Override
 			CacheConfiguration<ViserLine> l2config() {
 				return new CacheConfiguration<ViserLine>() {
 					{
-						cacheSize = Options.valueOf(Knobs.L2Size);
+						cacheSize = options.valueOf(Knobs.L2Size);
 						lineSize = SystemConstants.LINE_SIZE();
-						assoc = Options.valueOf(Knobs.L2Assoc);
+						assoc = options.valueOf(Knobs.L2Assoc);
 						level = CacheLevel.L2;
 					}
 				};
@@ -177,9 +173,9 @@ public class ViserSim {
 			CacheConfiguration<ViserLine> l3config() {
 				return new CacheConfiguration<ViserLine>() {
 					{
-						cacheSize = Options.valueOf(Knobs.L3Size);
+						cacheSize = options.valueOf(Knobs.L3Size);
 						lineSize = SystemConstants.LINE_SIZE();
-						assoc = Options.valueOf(Knobs.L3Assoc);
+						assoc = options.valueOf(Knobs.L3Assoc);
 						level = CacheLevel.L3;
 					}
 				};
@@ -214,7 +210,7 @@ public class ViserSim {
 						tmp.changeStateTo(l.getState());
 						tmp.setVersion(l.getVersion());
 						tmp.copyAllValues(l);
-						tmp.setLastWriters(l.getLastWriters());
+						tmp.copyLastWriters(l);
 						tmp.setLockOwnerID(l.getLockOwnerID());
 						tmp.setAIMMD(l.hasAIMMD());
 						// We do not update deferred owner id from here.
@@ -228,17 +224,7 @@ public class ViserSim {
 									l.getReadSiteInfo(cid), l.getReadLastSiteInfo(cid));
 							tmp.setEpoch(proc.id, proc.getCurrentEpoch());
 						} else {
-							for (int i = 0; i < proc.params.numProcessors(); i++) {
-								CpuId cpuId = new CpuId(i);
-								PerCoreLineMetadata tmpMd = l.getPerCoreMetadata(cpuId);
-								// We do not bother with epoch here, since it should be
-								// taken care of automatically later
-								PerCoreLineMetadata md = new PerCoreLineMetadata(tmpMd.epoch,
-										tmpMd.writeEncoding, tmpMd.readEncoding,
-										tmpMd.writeSiteInfo, tmpMd.readSiteInfo,
-										tmpMd.writeLastSiteInfo, tmpMd.readLastSiteInfo);
-								tmp.setPerCoreMetadata(cpuId, md);
-							}
+							tmp.copyPerCoreMetadata(l);
 						}
 						return tmp;
 					}
@@ -247,107 +233,107 @@ public class ViserSim {
 
 			@Override
 			boolean ignoreStackReferences() {
-				return Options.valueOf(Knobs.IgnoreStackRefs);
+				return options.valueOf(Knobs.IgnoreStackRefs);
 			}
 
 			@Override
 			boolean remoteAccessesAffectLRU() {
-				return Options.valueOf(Knobs.RemoteAccessesAffectLRU);
+				return options.valueOf(Knobs.RemoteAccessesAffectLRU);
 			}
 
 			@Override
 			boolean writebackInMemory() {
-				return Options.valueOf(Knobs.WritebackInMemory);
+				return options.valueOf(Knobs.WritebackInMemory);
 			}
 
 			@Override
 			boolean alwaysInvalidateReadOnlyLines() {
-				return Options.valueOf(Knobs.AlwaysInvalidateReadOnlyLines);
+				return options.valueOf(Knobs.AlwaysInvalidateReadOnlyLines);
 			}
 
 			@Override
 			boolean invalidateWrittenLinesOnlyAfterVersionCheck() {
-				return Options.valueOf(Knobs.InvalidateWrittenLinesOnlyAfterVersionCheck);
+				return options.valueOf(Knobs.InvalidateWrittenLinesOnlyAfterVersionCheck);
 			}
 
 			@Override
 			boolean updateWrittenLinesDuringVersionCheck() {
-				return Options.valueOf(Knobs.UpdateWrittenLinesDuringVersionCheck);
+				return options.valueOf(Knobs.UpdateWrittenLinesDuringVersionCheck);
 			}
 
 			@Override
 			boolean invalidateUntouchedLinesOptimization() {
-				return Options.valueOf(Knobs.InvalidateUntouchedLinesOptimization);
+				return options.valueOf(Knobs.InvalidateUntouchedLinesOptimization);
 			}
 
 			@Override
 			boolean useSpecialInvalidState() {
-				return Options.valueOf(Knobs.UseSpecialInvalidState);
+				return options.valueOf(Knobs.UseSpecialInvalidState);
 			}
 
 			@Override
 			boolean useBloomFilter() {
-				return Options.valueOf(Knobs.UseBloomFilter);
+				return options.valueOf(Knobs.UseBloomFilter);
 			}
 
 			@Override
 			boolean useAIMCache() {
-				return Options.valueOf(Knobs.UseAIMCache);
+				return options.valueOf(Knobs.UseAIMCache);
 			}
 
 			@Override
 			boolean clearAIMCacheAtRegionBoundaries() {
-				return Options.valueOf(Knobs.ClearAIMAtRegionBoundaries);
+				return options.valueOf(Knobs.ClearAIMAtRegionBoundaries);
 			}
 
 			@Override
 			boolean deferWriteBacks() {
-				return Options.valueOf(Knobs.DeferWritebacks);
+				return options.valueOf(Knobs.DeferWritebacks);
 			}
 
 			@Override
 			boolean areDeferredWriteBacksPrecise() {
-				return Options.valueOf(Knobs.DeferredWritebacksPrecise);
+				return options.valueOf(Knobs.DeferredWritebacksPrecise);
 			}
 
 			@Override
 			boolean skipValidatingReadLines() {
-				return Options.valueOf(Knobs.SkipValidatingReadLines);
+				return options.valueOf(Knobs.SkipValidatingReadLines);
 			}
 
 			@Override
 			boolean ignoreFetchingDeferredLinesDuringReadValidation() {
-				return Options.valueOf(Knobs.IgnoreFetchingDeferredLinesDuringReadValidation);
+				return options.valueOf(Knobs.IgnoreFetchingDeferredLinesDuringReadValidation);
 			}
 
 			@Override
 			boolean ignoreFetchingReadBits() {
-				return Options.valueOf(Knobs.IgnoreFetchingReadBits);
+				return options.valueOf(Knobs.IgnoreFetchingReadBits);
 			}
 
 			@Override
 			boolean validateL1ReadsAlongWithL2() {
-				return Options.valueOf(Knobs.ValidateL1ReadsAlongWithL2);
+				return options.valueOf(Knobs.ValidateL1ReadsAlongWithL2);
 			}
 
 			@Override
 			boolean lockstep() {
-				return Options.valueOf(Knobs.Lockstep);
+				return options.valueOf(Knobs.Lockstep);
 			}
 
 			@Override
 			boolean siteTracking() {
-				return Options.valueOf(Knobs.SiteTracking);
+				return options.valueOf(Knobs.SiteTracking);
 			}
 
 			@Override
 			boolean treatAtomicUpdatesAsRegularAccesses() {
-				return Options.valueOf(Knobs.TreatAtomicUpdatesAsRegularAccesses);
+				return options.valueOf(Knobs.TreatAtomicUpdatesAsRegularAccesses);
 			}
 
 			@Override
 			boolean ignoreFetchingWriteBits() {
-				return Options.valueOf(Knobs.IgnoreFetchingWriteBits);
+				return options.valueOf(Knobs.IgnoreFetchingWriteBits);
 			}
 
 			@Override
@@ -357,64 +343,32 @@ public class ViserSim {
 
 			@Override
 			boolean isHttpd() {
-				return Options.valueOf(Knobs.IsHttpd);
+				return options.valueOf(Knobs.IsHttpd);
 			}
 
 			@Override
 			boolean evictCleanLineFirst() {
-				return Options.valueOf(Knobs.EvictCleanLineFirst);
+				return options.valueOf(Knobs.EvictCleanLineFirst);
 			}
 
 			@Override
 			boolean usePLRU() {
-				return Options.valueOf(Knobs.UsePLRU);
+				return options.valueOf(Knobs.UsePLRU);
 			}
 
 			@Override
 			boolean treatAtomicUpdatesAsRegionBoundaries() {
-				return Options.valueOf(Knobs.TreatAtomicUpdatesAsRegionBoundaries);
+				return options.valueOf(Knobs.TreatAtomicUpdatesAsRegionBoundaries);
 			}
 		};
 
-		Machine<ViserLine> sim = new Machine<ViserLine>(p);
-		if (sim.params.lockstep()) {
-			sim.openPerThreadFifos();
-		}
+		Machine<ViserLine> sim = new Machine<ViserLine>(ctx, p);
 		sim.initializeEpochs();
 		sim.prepareScavengeMap(p.numProcessors());
+		return sim;
+	}
 
-		String prix = "[arcsim] ";
-
-		System.out.println(prix + "starting simulation...");
-
-		short Cid = 0;
-		while (true) {
-			try {
-				Event e = getNextEvent(in, sim, Cid);
-				boolean simulationFinished = handleEvent(e, sim, prix);
-				Cid = sim.cpuOfTid(e.tid).get();
-				if (simulationFinished)
-					break;
-			} catch (EOFException eof) {
-				break;
-			}
-		}
-
-		in.close();
-		double mins = (System.currentTimeMillis() - startTime) / (double) (1000 * 60);
-
-		if (sim.params.lockstep()) {
-			sim.closePerThreadFifos(); // Close per-thread fifos
-		}
-
-		if (sim.params.siteTracking()) {
-			printConflicts(sim, prix);
-		}
-		generateStats(mins, sim);
-		System.err.println(prix + "finished");
-	} // end main()
-
-	private static void printConflicts(Machine<ViserLine> sim, String prex) {
+	static void printConflicts(Machine<ViserLine> sim, String prex) {
 		System.out.println(
 				"====================================================================================");
 		System.out.println("Total Sites: " + sim.siteInfo.size());
@@ -443,54 +397,46 @@ public class ViserSim {
 				"====================================================================================");
 	}
 
-	private static Event getNextEvent(DataInputStream in, Machine<ViserLine> sim, short lastCid)
-			throws IOException {
-		byte type = in.readByte();
-		byte semantics = in.readByte();
-		byte tid = (byte) in.readShort();
-		Event e = new Event(EventType.fromByte(type), EventType.fromByte(semantics), tid);
-		e.addr = in.readLong();
-		e.memOpSize = (byte) in.readInt();
-		byte bits = in.readByte();
-		e.stackRef = (bits & 0x1) == 1;
-		e.value = in.readLong();
-		e.insnCount = in.readInt();
+	/** Decode the next trace record into {@code e}, overwriting its previous contents. */
+	private static void getNextEvent(TraceDecoder in, Machine<ViserLine> sim, short lastCid,
+			Event e) throws IOException {
+		int i = in.advance();
+		fillEvent(in.batch(), i, sim, e);
+	}
+
+	/** Copy slot i of a decoded batch into {@code e}. */
+	static void fillEvent(TraceDecoder.Batch b, int i, Machine<ViserLine> sim, Event e) {
+		byte type = b.type[i];
+		byte semantics = b.semantics[i];
+		byte tid = b.tid[i];
+		e.set(EventType.fromByte(type), EventType.fromByte(semantics), tid);
+		e.addr = b.addr[i];
+		e.memOpSize = b.memOpSize[i];
+		e.stackRef = (b.bits[i] & 0x1) == 1;
+		e.value = b.value[i];
+		e.insnCount = b.insnCount[i];
 
 		// site info
-		short lineno = in.readShort();
-		short fno = in.readShort();
-		short rno = in.readShort();
-		in.readInt(); // eventID
-		short lastLineno = in.readShort();
-		short lastFno = in.readShort();
+		short lineno = b.lineno[i];
+		short fno = b.fno[i];
+		short rno = b.rno[i];
+		short lastLineno = b.lastLineno[i];
+		short lastFno = b.lastFno[i];
 
 		if (sim.params.siteTracking()) {
-			SiteInfoEntry siEntry = new SiteInfoEntry(fno, lineno, rno);
-			int index = sim.siteInfo.indexOf(siEntry);
-			if (index == -1) {
-				sim.siteInfo.add(siEntry);
-				index = sim.siteInfo.size() - 1;
-			}
-			e.siteIndex = index;
-
+			e.siteIndex = sim.siteInfo.intern(fno, lineno, rno);
 			// last site info
-			siEntry = new SiteInfoEntry(lastFno, lastLineno, (short) 0);
-			index = sim.siteInfo.indexOf(siEntry);
-			if (index == -1) {
-				sim.siteInfo.add(siEntry);
-				index = sim.siteInfo.size() - 1;
-			}
-			e.lastSiteIndex = index;
+			e.lastSiteIndex = sim.siteInfo.intern(lastFno, lastLineno, (short) 0);
 		} else {
 			e.siteIndex = -1;
 			e.lastSiteIndex = -1;
 		}
 
-		totalEvents++;
+		sim.ctx.totalEvents++;
 
 		boolean debug = false;
-		if (debug && totalEvents >= 1355800) {
-			System.out.println(totalEvents);
+		if (debug && sim.ctx.totalEvents >= 1355800) {
+			System.out.println(sim.ctx.totalEvents);
 			System.out.println("Event type:" + EventType.fromByte(type) /* + " Byte:" + by */);
 			System.out.println("Semantics:" + EventType.fromByte(semantics));
 			System.out.println("Tid:" + tid);
@@ -502,7 +448,6 @@ public class ViserSim {
 			System.out.println("SiteIndex:" + e.siteIndex);
 			System.out.println();
 		}
-		return e;
 	}
 
 	/**
@@ -512,18 +457,19 @@ public class ViserSim {
 	 *              the next event from the front-end
 	 * @return true when the simulation is finished, false otherwise
 	 */
-	private static boolean handleEvent(final Event e, Machine<ViserLine> machine, String prefix) {
-		CpuId cpuid = machine.cpuOfTid(e.tid);
+	static boolean handleEvent(final Event e, Machine<ViserLine> machine, String prefix) {
+		SimContext ctx = machine.ctx;
+		CpuId cpuid = machine.cpuOfTid(e.threadId);
 
 		switch (e.type) {
 			case ROI_START: {
-				assert phase == PARSEC_PHASE.PRE_ROI;
-				phase = PARSEC_PHASE.IN_ROI;
+				assert ctx.getPARSECPhase() == PARSEC_PHASE.PRE_ROI;
+				ctx.setPARSECPhase(PARSEC_PHASE.IN_ROI);
 				break;
 			}
 			case ROI_END: {
-				assert phase == PARSEC_PHASE.IN_ROI;
-				phase = PARSEC_PHASE.POST_ROI;
+				assert ctx.getPARSECPhase() == PARSEC_PHASE.IN_ROI;
+				ctx.setPARSECPhase(PARSEC_PHASE.POST_ROI);
 				break;
 			}
 
@@ -536,62 +482,62 @@ public class ViserSim {
 
 			case THREAD_JOIN:
 			case THREAD_SPAWN: { // Called from the parent thread
-				machine.processRegionBoundary(cpuid, e.tid, e.type, e.semantics);
+				machine.processRegionBoundary(cpuid, e.threadId, e.type, e.semantics);
 				break;
 			}
 
 			case THREAD_START: { // Called from the child thread
-				currentLiveThreads++;
-				numSpawnedThreads++;
-				maxLiveThreads = Math.max(maxLiveThreads, currentLiveThreads);
-				machine.processRegionBoundary(cpuid, e.tid, e.type, e.semantics);
+				ctx.currentLiveThreads++;
+				ctx.numSpawnedThreads++;
+				ctx.maxLiveThreads = Math.max(ctx.maxLiveThreads, ctx.currentLiveThreads);
+				machine.processRegionBoundary(cpuid, e.threadId, e.type, e.semantics);
 				break;
 			}
 
 			case THREAD_FINISH: { // Called from the child thread
-				currentLiveThreads--;
-				machine.processRegionBoundary(cpuid, e.tid, e.type, e.semantics); // when main
+				ctx.currentLiveThreads--;
+				machine.processRegionBoundary(cpuid, e.threadId, e.type, e.semantics); // when main
 																					// thread exits,
 																					// tear
 																					// down
 																					// simulation
-				if (e.tid.get() == 0) {
+				if (e.tid == 0) {
 					return true;
 				}
 				break;
 			}
 
 			case MEMORY_READ: {
-				machine.cacheRead(cpuid, e.addr, e.memOpSize, e.value, e.tid, e.siteIndex,
+				machine.cacheRead(cpuid, e.addr, e.memOpSize, e.value, e.threadId, e.siteIndex,
 						e.lastSiteIndex, MemoryAccessType.MEMORY_READ);
 				break;
 			}
 
 			case MEMORY_WRITE: {
-				machine.cacheWrite(cpuid, e.addr, e.memOpSize, e.value, e.tid, e.siteIndex,
+				machine.cacheWrite(cpuid, e.addr, e.memOpSize, e.value, e.threadId, e.siteIndex,
 						e.lastSiteIndex, MemoryAccessType.MEMORY_WRITE);
 				break;
 			}
 
 			case BASIC_BLOCK: {
-				insnsExecuted += e.insnCount;
+				ctx.insnsExecuted += e.insnCount;
 				machine.insnsExecuted(cpuid, e.insnCount);
-				basicBlockEvents++;
+				ctx.basicBlockEvents++;
 				break;
 			}
 
 			case LOCK_ACQUIRE:
 			case LOCK_RELEASE: {
-				machine.processRegionBoundary(cpuid, e.tid, e.type, e.semantics);
+				machine.processRegionBoundary(cpuid, e.threadId, e.type, e.semantics);
 				break;
 			}
 
 			case ATOMIC_READ: {
 				if (machine.params.treatAtomicUpdatesAsRegularAccesses()) {
-					machine.cacheRead(cpuid, e.addr, e.memOpSize, e.value, e.tid, e.siteIndex,
+					machine.cacheRead(cpuid, e.addr, e.memOpSize, e.value, e.threadId, e.siteIndex,
 							e.lastSiteIndex, MemoryAccessType.MEMORY_READ);
 				} else {
-					machine.cacheRead(cpuid, e.addr, e.memOpSize, e.value, e.tid, e.siteIndex,
+					machine.cacheRead(cpuid, e.addr, e.memOpSize, e.value, e.threadId, e.siteIndex,
 							e.lastSiteIndex, MemoryAccessType.ATOMIC_READ);
 				}
 				break;
@@ -599,43 +545,43 @@ public class ViserSim {
 
 			case ATOMIC_WRITE: {
 				if (machine.params.treatAtomicUpdatesAsRegularAccesses()) {
-					machine.cacheWrite(cpuid, e.addr, e.memOpSize, e.value, e.tid, e.siteIndex,
+					machine.cacheWrite(cpuid, e.addr, e.memOpSize, e.value, e.threadId, e.siteIndex,
 							e.lastSiteIndex, MemoryAccessType.MEMORY_WRITE);
 				} else {
-					machine.cacheWrite(cpuid, e.addr, e.memOpSize, e.value, e.tid, e.siteIndex,
+					machine.cacheWrite(cpuid, e.addr, e.memOpSize, e.value, e.threadId, e.siteIndex,
 							e.lastSiteIndex, MemoryAccessType.ATOMIC_WRITE);
 				}
 				break;
 			}
 
 			case LOCK_ACQ_READ: {
-				machine.cacheRead(cpuid, e.addr, e.memOpSize, e.value, e.tid, e.siteIndex,
+				machine.cacheRead(cpuid, e.addr, e.memOpSize, e.value, e.threadId, e.siteIndex,
 						e.lastSiteIndex, MemoryAccessType.LOCK_ACQ_READ);
 				break;
 			}
 
 			case LOCK_ACQ_WRITE: {
-				machine.cacheWrite(cpuid, e.addr, e.memOpSize, e.value, e.tid, e.siteIndex,
+				machine.cacheWrite(cpuid, e.addr, e.memOpSize, e.value, e.threadId, e.siteIndex,
 						e.lastSiteIndex, MemoryAccessType.LOCK_ACQ_WRITE);
 				break;
 			}
 
 			case LOCK_REL_WRITE: {
-				machine.cacheWrite(cpuid, e.addr, e.memOpSize, e.value, e.tid, e.siteIndex,
+				machine.cacheWrite(cpuid, e.addr, e.memOpSize, e.value, e.threadId, e.siteIndex,
 						e.lastSiteIndex, MemoryAccessType.LOCK_REL_WRITE);
 				break;
 			}
 
 			case SERVER_ROI_START: {
-				if (phase == PARSEC_PHASE.PRE_ROI) {
-					phase = PARSEC_PHASE.IN_SERVER_ROI;
+				if (ctx.getPARSECPhase() == PARSEC_PHASE.PRE_ROI) {
+					ctx.setPARSECPhase(PARSEC_PHASE.IN_SERVER_ROI);
 				}
 				break;
 			}
 
 			case SERVER_ROI_END: {
-				if (phase == PARSEC_PHASE.IN_SERVER_ROI) {
-					phase = PARSEC_PHASE.POST_SERVER_ROI;
+				if (ctx.getPARSECPhase() == PARSEC_PHASE.IN_SERVER_ROI) {
+					ctx.setPARSECPhase(PARSEC_PHASE.POST_SERVER_ROI);
 				}
 				break;
 			}
@@ -648,26 +594,27 @@ public class ViserSim {
 				throw new RuntimeException("Impossible event type:\n" + e);
 			}
 		}
-		totalEvents++;
+		ctx.totalEvents++;
 		if (e.stackRef) {
-			stackAccesses++;
+			ctx.stackAccesses++;
 		}
 		return false; // not done processing events yet
 	} // end handleEvent()
 
-	private static void generateStats(double simRuntimeMins, Machine<ViserLine> machine)
+	static void generateStats(double simRuntimeMins, Machine<ViserLine> machine)
 			throws IOException {
+		SimContext ctx = machine.ctx;
 		System.out.println("[arcsim] exiting...");
 		// each stat is dumped as a Python dictionary object
 
 		StringWriter prefix = new StringWriter();
 		prefix.write("{'ViserStat':True, ");
-		Knobs.dumpRegisteredParams(prefix);
+		Knobs.dumpRegisteredParams(ctx.options, prefix);
 
 		String suffix = "}" + System.getProperty("line.separator");
 
 		// Viser: Overwrite files
-		String statsFilename = Options.valueOf(Knobs.StatsFile);
+		String statsFilename = ctx.options.valueOf(Knobs.StatsFile);
 		File f = new File(statsFilename);
 		// // check for filename collisions and rename around them
 		// while (f.exists()) {
@@ -681,41 +628,41 @@ public class ViserSim {
 
 		DecimalFormat fmt = new DecimalFormat("0.000");
 
-		double denom = MaxCounter.globalCounters.get("pc_ExecutionDrivenCycleCount").get();
+		double denom = ctx.globalMaxCounters.get("pc_ExecutionDrivenCycleCount");
 		double value;
 
-		value = DependentCounter.globalCounters.get("pc_ViserRegExecExecDrivenCycleCount").get()
+		value = ctx.globalDependentCounters.get("pc_ViserRegExecExecDrivenCycleCount")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserRegExecExecDrivenCycleCount': "
 				+ fmt.format(value) + suffix);
-		value = DependentCounter.globalCounters.get("pc_ViserPreCommitExecDrivenCycleCount").get()
+		value = ctx.globalDependentCounters.get("pc_ViserPreCommitExecDrivenCycleCount")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserPreCommitExecDrivenCycleCount': "
 				+ fmt.format(value) + suffix);
-		value = DependentCounter.globalCounters.get("pc_ViserReadValidationExecDrivenCycleCount")
-				.get() / denom;
+		value = ctx.globalDependentCounters.get("pc_ViserReadValidationExecDrivenCycleCount")
+				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserReadValidationExecDrivenCycleCount': "
 				+ fmt.format(value) + suffix);
-		value = DependentCounter.globalCounters.get("pc_ViserPostCommitExecDrivenCycleCount").get()
+		value = ctx.globalDependentCounters.get("pc_ViserPostCommitExecDrivenCycleCount")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserPostCommitExecDrivenCycleCount': "
 				+ fmt.format(value) + suffix);
 
-		denom = MaxCounter.globalCounters.get("pc_BandwidthDrivenCycleCount").get();
+		denom = ctx.globalMaxCounters.get("pc_BandwidthDrivenCycleCount");
 
-		value = DependentCounter.globalCounters.get("pc_ViserRegExecBWDrivenCycleCount").get()
+		value = ctx.globalDependentCounters.get("pc_ViserRegExecBWDrivenCycleCount")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserRegExecBWDrivenCycleCount': "
 				+ fmt.format(value) + suffix);
-		value = DependentCounter.globalCounters.get("pc_ViserPreCommitBWDrivenCycleCount").get()
+		value = ctx.globalDependentCounters.get("pc_ViserPreCommitBWDrivenCycleCount")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserPreCommitBWDrivenCycleCount': "
 				+ fmt.format(value) + suffix);
-		value = DependentCounter.globalCounters.get("pc_ViserReadValidationBWDrivenCycleCount")
-				.get() / denom;
+		value = ctx.globalDependentCounters.get("pc_ViserReadValidationBWDrivenCycleCount")
+				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserReadValidationBWDrivenCycleCount': "
 				+ fmt.format(value) + suffix);
-		value = DependentCounter.globalCounters.get("pc_ViserPostCommitBWDrivenCycleCount").get()
+		value = ctx.globalDependentCounters.get("pc_ViserPostCommitBWDrivenCycleCount")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserPostCommitBWDrivenCycleCount': "
 				+ fmt.format(value) + suffix);
@@ -725,31 +672,49 @@ public class ViserSim {
 		statsFd.write(prefix.toString() + "'SimulationRunningTimeMins': "
 				+ String.format("%.2f", simRuntimeMins) + suffix);
 		statsFd.write(prefix.toString() + "'ScavengeRunningTimeMins': "
-				+ String.format("%.2f", totalScavengeTime) + suffix);
+				+ String.format("%.2f", ctx.totalScavengeTime) + suffix);
+		if (machine.memory.isTiered()) {
+			MemoryStore<ViserLine> mem = machine.memory;
+			long lookups = mem.hotHits + mem.coldHits + mem.misses;
+			statsFd.write(prefix.toString() + "'MemoryHotTierHits': " + mem.hotHits + suffix);
+			statsFd.write(prefix.toString() + "'MemoryColdTierHits': " + mem.coldHits + suffix);
+			statsFd.write(prefix.toString() + "'MemoryTierMisses': " + mem.misses + suffix);
+			statsFd.write(prefix.toString() + "'MemoryHotTierHitRate': "
+					+ String.format("%.4f", (lookups == 0) ? 0 : mem.hotHits / (double) lookups)
+					+ suffix);
+			statsFd.write(prefix.toString() + "'MemoryColdTierHitRate': "
+					+ String.format("%.4f", (lookups == 0) ? 0 : mem.coldHits / (double) lookups)
+					+ suffix);
+			statsFd.write(prefix.toString() + "'MemorySpilledBytes': " + mem.bytesSpilled + suffix);
+			statsFd.write(prefix.toString() + "'MemoryHotTierLines': " + mem.hotSize() + suffix);
+			statsFd.write(prefix.toString() + "'MemoryColdTierLines': " + mem.coldSize() + suffix);
+			statsFd.write(prefix.toString() + "'MemoryColdTierFileBytes': " + mem.coldBytes()
+					+ suffix);
+		}
 
 		double gigs = Runtime.getRuntime().totalMemory() / (double) (1 << 30);
 		String memUsage = "'MemUsageGB': " + String.format("%.2f", gigs);
 		statsFd.write(prefix.toString() + memUsage + suffix);
 
-		statsFd.write(prefix.toString() + "'MaxLiveThreads': " + maxLiveThreads + suffix);
-		statsFd.write(prefix.toString() + "'NumSpawnedThreads': " + numSpawnedThreads + suffix);
-		statsFd.write(prefix.toString() + "'StackAccesses': " + stackAccesses + suffix);
-		statsFd.write(prefix.toString() + "'Instructions': " + insnsExecuted + suffix);
-		statsFd.write(prefix.toString() + "'TotalEvents': " + totalEvents + suffix);
-		statsFd.write(prefix.toString() + "'BasicBlocks': " + basicBlockEvents + suffix);
-		double totalMemAccesses = SumCounter.globalCounters.get("pc_TotalMemoryAccesses").get();
-		double totalRegionBoundaries = SumCounter.globalCounters.get("pc_RegionBoundaries").get();
+		statsFd.write(prefix.toString() + "'MaxLiveThreads': " + ctx.maxLiveThreads + suffix);
+		statsFd.write(prefix.toString() + "'NumSpawnedThreads': " + ctx.numSpawnedThreads + suffix);
+		statsFd.write(prefix.toString() + "'StackAccesses': " + ctx.stackAccesses + suffix);
+		statsFd.write(prefix.toString() + "'Instructions': " + ctx.insnsExecuted + suffix);
+		statsFd.write(prefix.toString() + "'TotalEvents': " + ctx.totalEvents + suffix);
+		statsFd.write(prefix.toString() + "'BasicBlocks': " + ctx.basicBlockEvents + suffix);
+		double totalMemAccesses = ctx.globalSumCounters.get("pc_TotalMemoryAccesses");
+		double totalRegionBoundaries = ctx.globalSumCounters.get("pc_RegionBoundaries");
 		double avgRegSize = totalMemAccesses / totalRegionBoundaries;
 		statsFd.write(prefix.toString() + "'AverageRegionSize': " + avgRegSize + suffix);
 
 		// Compute ratio of the number of memory write backs to the number of cycles
 		fmt = new DecimalFormat("0.000000");
-		denom = MaxCounter.globalCounters.get("pc_ExecutionDrivenCycleCount").get();
-		value = SumCounter.globalCounters.get("pc_ViserLLCToMemoryMetadataWriteback").get() / denom;
+		denom = ctx.globalMaxCounters.get("pc_ExecutionDrivenCycleCount");
+		value = ctx.globalSumCounters.get("pc_ViserLLCToMemoryMetadataWriteback") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserLLCToMemoryMetadataWritebackExecutionCycles': "
 						+ fmt.format(value) + suffix);
-		denom = MaxCounter.globalCounters.get("pc_BandwidthDrivenCycleCount").get();
+		denom = ctx.globalMaxCounters.get("pc_BandwidthDrivenCycleCount");
 		statsFd.write(
 				prefix.toString() + "'ratioViserLLCToMemoryMetadataWritebackBandwidthCycles': "
 						+ fmt.format(value) + suffix);
@@ -757,203 +722,203 @@ public class ViserSim {
 		// Compute proportion of network messages
 		fmt = new DecimalFormat("0.000");
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessages").get();
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessages");
 
-		value = SumCounter.globalCounters.get("pc_ViserRegExecOnChipNetworkMessages").get() / denom;
+		value = ctx.globalSumCounters.get("pc_ViserRegExecOnChipNetworkMessages") / denom;
 		statsFd.write(prefix.toString() + "'ratioViserRegExecOnChipNetworkMessages': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters.get("pc_ViserPreCommitOnChipNetworkMessages").get()
+		value = ctx.globalSumCounters.get("pc_ViserPreCommitOnChipNetworkMessages")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserPreCommitOnChipNetworkMessages': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters.get("pc_ViserReadValidationOnChipNetworkMessages").get()
+		value = ctx.globalSumCounters.get("pc_ViserReadValidationOnChipNetworkMessages")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserReadValidationOnChipNetworkMessages': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters.get("pc_ViserPostCommitOnChipNetworkMessages").get()
+		value = ctx.globalSumCounters.get("pc_ViserPostCommitOnChipNetworkMessages")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserPostCommitOnChipNetworkMessages': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSizeBytes").get();
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSizeBytes");
 
-		value = SumCounter.globalCounters.get("pc_ViserRegExecOnChipNetworkMessageSizeBytes").get()
+		value = ctx.globalSumCounters.get("pc_ViserRegExecOnChipNetworkMessageSizeBytes")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserRegExecOnChipNetworkMessageSizeBytes': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters.get("pc_ViserPreCommitOnChipNetworkMessageSizeBytes")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_ViserPreCommitOnChipNetworkMessageSizeBytes")
+				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserPreCommitOnChipNetworkMessageSizeBytes': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters.get("pc_ViserReadValidationOnChipNetworkMessageSizeBytes")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_ViserReadValidationOnChipNetworkMessageSizeBytes")
+				/ denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserReadValidationOnChipNetworkMessageSizeBytes': "
 						+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters.get("pc_ViserPostCommitOnChipNetworkMessageSizeBytes")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_ViserPostCommitOnChipNetworkMessageSizeBytes")
+				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserPostCommitOnChipNetworkMessageSizeBytes': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize4BytesFlits").get();
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize4BytesFlits");
 
-		value = SumCounter.globalCounters.get("pc_ViserRegExecOnChipNetworkMessageSize4BytesFlits")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_ViserRegExecOnChipNetworkMessageSize4BytesFlits")
+				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserRegExecOnChipNetworkMessageSize4BytesFlits': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_ViserPreCommitOnChipNetworkMessageSize4BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_ViserPreCommitOnChipNetworkMessageSize4BytesFlits") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserPreCommitOnChipNetworkMessageSize4BytesFlits': "
 						+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_ViserReadValidationOnChipNetworkMessageSize4BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_ViserReadValidationOnChipNetworkMessageSize4BytesFlits") / denom;
 		statsFd.write(prefix.toString()
 				+ "'ratioViserReadValidationOnChipNetworkMessageSize4BytesFlits': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_ViserPostCommitOnChipNetworkMessageSize4BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_ViserPostCommitOnChipNetworkMessageSize4BytesFlits") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserPostCommitOnChipNetworkMessageSize4BytesFlits': "
 						+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize8BytesFlits").get();
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize8BytesFlits");
 
-		value = SumCounter.globalCounters.get("pc_ViserRegExecOnChipNetworkMessageSize8BytesFlits")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_ViserRegExecOnChipNetworkMessageSize8BytesFlits")
+				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserRegExecOnChipNetworkMessageSize8BytesFlits': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_ViserPreCommitOnChipNetworkMessageSize8BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_ViserPreCommitOnChipNetworkMessageSize8BytesFlits") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserPreCommitOnChipNetworkMessageSize8BytesFlits': "
 						+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_ViserReadValidationOnChipNetworkMessageSize8BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_ViserReadValidationOnChipNetworkMessageSize8BytesFlits") / denom;
 		statsFd.write(prefix.toString()
 				+ "'ratioViserReadValidationOnChipNetworkMessageSize8BytesFlits': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_ViserPostCommitOnChipNetworkMessageSize8BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_ViserPostCommitOnChipNetworkMessageSize8BytesFlits") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserPostCommitOnChipNetworkMessageSize8BytesFlits': "
 						+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize16BytesFlits").get();
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize16BytesFlits");
 
-		value = SumCounter.globalCounters.get("pc_ViserRegExecOnChipNetworkMessageSize16BytesFlits")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_ViserRegExecOnChipNetworkMessageSize16BytesFlits")
+				/ denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserRegExecOnChipNetworkMessageSize16BytesFlits': "
 						+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_ViserPreCommitOnChipNetworkMessageSize16BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_ViserPreCommitOnChipNetworkMessageSize16BytesFlits") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserPreCommitOnChipNetworkMessageSize16BytesFlits': "
 						+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_ViserReadValidationOnChipNetworkMessageSize16BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_ViserReadValidationOnChipNetworkMessageSize16BytesFlits") / denom;
 		statsFd.write(prefix.toString()
 				+ "'ratioViserReadValidationOnChipNetworkMessageSize16BytesFlits': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_ViserPostCommitOnChipNetworkMessageSize16BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_ViserPostCommitOnChipNetworkMessageSize16BytesFlits") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserPostCommitOnChipNetworkMessageSize16BytesFlits': "
 						+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize32BytesFlits").get();
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize32BytesFlits");
 
-		value = SumCounter.globalCounters.get("pc_ViserRegExecOnChipNetworkMessageSize32BytesFlits")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_ViserRegExecOnChipNetworkMessageSize32BytesFlits")
+				/ denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserRegExecOnChipNetworkMessageSize32BytesFlits': "
 						+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_ViserPreCommitOnChipNetworkMessageSize32BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_ViserPreCommitOnChipNetworkMessageSize32BytesFlits") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserPreCommitOnChipNetworkMessageSize32BytesFlits': "
 						+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_ViserReadValidationOnChipNetworkMessageSize32BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_ViserReadValidationOnChipNetworkMessageSize32BytesFlits") / denom;
 		statsFd.write(prefix.toString()
 				+ "'ratioViserReadValidationOnChipNetworkMessageSize32BytesFlits': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_ViserPostCommitOnChipNetworkMessageSize32BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_ViserPostCommitOnChipNetworkMessageSize32BytesFlits") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserPostCommitOnChipNetworkMessageSize32BytesFlits': "
 						+ fmt.format(value) + suffix);
 
 		// Viser WAR upgrades
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessages").get();
-		value = SumCounter.globalCounters.get("pc_ViserUpgradeMessages").get() / denom;
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessages");
+		value = ctx.globalSumCounters.get("pc_ViserUpgradeMessages") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioViserUpgradeMessages': " + fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSizeBytes").get();
-		value = SumCounter.globalCounters.get("pc_ViserUpgradeMessageSizeBytes").get() / denom;
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSizeBytes");
+		value = ctx.globalSumCounters.get("pc_ViserUpgradeMessageSizeBytes") / denom;
 		statsFd.write(prefix.toString() + "'ratioViserUpgradeMessageSizeBytes': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize4BytesFlits").get();
-		value = SumCounter.globalCounters.get("pc_ViserUpgradeMessageSize4BytesFlits").get()
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize4BytesFlits");
+		value = ctx.globalSumCounters.get("pc_ViserUpgradeMessageSize4BytesFlits")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserUpgradeMessageSize4BytesFlits': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize8BytesFlits").get();
-		value = SumCounter.globalCounters.get("pc_ViserUpgradeMessageSize8BytesFlits").get()
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize8BytesFlits");
+		value = ctx.globalSumCounters.get("pc_ViserUpgradeMessageSize8BytesFlits")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserUpgradeMessageSize8BytesFlits': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize16BytesFlits").get();
-		value = SumCounter.globalCounters.get("pc_ViserUpgradeMessageSize16BytesFlits").get()
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize16BytesFlits");
+		value = ctx.globalSumCounters.get("pc_ViserUpgradeMessageSize16BytesFlits")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserUpgradeMessageSize16BytesFlits': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize32BytesFlits").get();
-		value = SumCounter.globalCounters.get("pc_ViserUpgradeMessageSize32BytesFlits").get()
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize32BytesFlits");
+		value = ctx.globalSumCounters.get("pc_ViserUpgradeMessageSize32BytesFlits")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserUpgradeMessageSize32BytesFlits': "
 				+ fmt.format(value) + suffix);
 
 		// Viser RV deferred lines
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessages").get();
-		value = SumCounter.globalCounters.get("pc_ViserRVDeferredLineMessages").get() / denom;
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessages");
+		value = ctx.globalSumCounters.get("pc_ViserRVDeferredLineMessages") / denom;
 		statsFd.write(prefix.toString() + "'ratioViserRVDeferredLineMessages': " + fmt.format(value)
 				+ suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSizeBytes").get();
-		value = SumCounter.globalCounters.get("pc_ViserRVDeferredLineMessageSizeBytes").get()
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSizeBytes");
+		value = ctx.globalSumCounters.get("pc_ViserRVDeferredLineMessageSizeBytes")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserRVDeferredLineMessageSizeBytes': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize4BytesFlits").get();
-		value = SumCounter.globalCounters.get("pc_ViserRVDeferredLineMessageSize4ByteFlits").get()
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize4BytesFlits");
+		value = ctx.globalSumCounters.get("pc_ViserRVDeferredLineMessageSize4ByteFlits")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserRVDeferredLineMessageSize4ByteFlits': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize8BytesFlits").get();
-		value = SumCounter.globalCounters.get("pc_ViserRVDeferredLineMessageSize8ByteFlits").get()
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize8BytesFlits");
+		value = ctx.globalSumCounters.get("pc_ViserRVDeferredLineMessageSize8ByteFlits")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserRVDeferredLineMessageSize8ByteFlits': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize16BytesFlits").get();
-		value = SumCounter.globalCounters.get("pc_ViserRVDeferredLineMessageSize16ByteFlits").get()
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize16BytesFlits");
+		value = ctx.globalSumCounters.get("pc_ViserRVDeferredLineMessageSize16ByteFlits")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserRVDeferredLineMessageSize16ByteFlits': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize32BytesFlits").get();
-		value = SumCounter.globalCounters.get("pc_ViserRVDeferredLineMessageSize32ByteFlits").get()
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize32BytesFlits");
+		value = ctx.globalSumCounters.get("pc_ViserRVDeferredLineMessageSize32ByteFlits")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioViserRVDeferredLineMessageSize32ByteFlits': "
 				+ fmt.format(value) + suffix);
@@ -1027,132 +992,132 @@ public class ViserSim {
 
 		// TCC modeling
 
-		denom = SumCounter.globalCounters.get("pc_RegionBoundaries").get();
-		value = SumCounter.globalCounters.get("pc_TCCRegionsWBOverflows8K").get() / denom;
+		denom = ctx.globalSumCounters.get("pc_RegionBoundaries");
+		value = ctx.globalSumCounters.get("pc_TCCRegionsWBOverflows8K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsWBOverflows8K': " + fmt.format(value)
 				+ suffix);
 
-		denom = SumCounter.globalCounters.get("pc_RegionBoundaries").get();
-		value = SumCounter.globalCounters.get("pc_TCCRegionsWBOverflows16K").get() / denom;
+		denom = ctx.globalSumCounters.get("pc_RegionBoundaries");
+		value = ctx.globalSumCounters.get("pc_TCCRegionsWBOverflows16K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsWBOverflows16K': " + fmt.format(value)
 				+ suffix);
 
-		denom = SumCounter.globalCounters.get("pc_RegionBoundaries").get();
-		value = SumCounter.globalCounters.get("pc_TCCRegionsWBOverflows32K").get() / denom;
+		denom = ctx.globalSumCounters.get("pc_RegionBoundaries");
+		value = ctx.globalSumCounters.get("pc_TCCRegionsWBOverflows32K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsWBOverflows32K': " + fmt.format(value)
 				+ suffix);
 
-		denom = SumCounter.globalCounters.get("pc_RegionBoundaries").get();
-		value = SumCounter.globalCounters.get("pc_TCCRegionsWBOverflows64K").get() / denom;
+		denom = ctx.globalSumCounters.get("pc_RegionBoundaries");
+		value = ctx.globalSumCounters.get("pc_TCCRegionsWBOverflows64K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsWBOverflows64K': " + fmt.format(value)
 				+ suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsCacheOverflows").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsCacheOverflows") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsCacheOverflows': " + fmt.format(value)
 				+ suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsOverflows8K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsOverflows8K") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioTCCRegionsOverflows8K': " + fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsOverflows16K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsOverflows16K") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioTCCRegionsOverflows16K': " + fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsOverflows32K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsOverflows32K") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioTCCRegionsOverflows32K': " + fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsOverflows64K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsOverflows64K") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioTCCRegionsOverflows64K': " + fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsFirstCacheOverflows8K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsFirstCacheOverflows8K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsFirstCacheOverflows8K': "
 				+ fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsFirstCacheOverflows16K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsFirstCacheOverflows16K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsFirstCacheOverflows16K': "
 				+ fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsFirstCacheOverflows32K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsFirstCacheOverflows32K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsFirstCacheOverflows32K': "
 				+ fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsFirstCacheOverflows64K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsFirstCacheOverflows64K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsFirstCacheOverflows64K': "
 				+ fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsFirstWBOverflows8K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsFirstWBOverflows8K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsFirstWBOverflows8K': "
 				+ fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsFirstWBOverflows16K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsFirstWBOverflows16K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsFirstWBOverflows16K': "
 				+ fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsFirstWBOverflows32K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsFirstWBOverflows32K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsFirstWBOverflows32K': "
 				+ fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCRegionsFirstWBOverflows64K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCRegionsFirstWBOverflows64K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCRegionsFirstWBOverflows64K': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_TotalMemoryAccesses").get();
+		denom = ctx.globalSumCounters.get("pc_TotalMemoryAccesses");
 
-		value = SumCounter.globalCounters.get("pc_TCCNumSerializedMemoryAccesses8K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCNumSerializedMemoryAccesses8K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCNumSerializedMemoryAccesses8K': "
 				+ fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCNumSerializedMemoryAccesses16K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCNumSerializedMemoryAccesses16K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCNumSerializedMemoryAccesses16K': "
 				+ fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCNumSerializedMemoryAccesses32K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCNumSerializedMemoryAccesses32K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCNumSerializedMemoryAccesses32K': "
 				+ fmt.format(value) + suffix);
 
-		value = SumCounter.globalCounters.get("pc_TCCNumSerializedMemoryAccesses64K").get() / denom;
+		value = ctx.globalSumCounters.get("pc_TCCNumSerializedMemoryAccesses64K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCNumSerializedMemoryAccesses64K': "
 				+ fmt.format(value) + suffix);
 
-		denom = MaxCounter.globalCounters.get("pc_BandwidthDrivenCycleCount").get();
+		denom = ctx.globalMaxCounters.get("pc_BandwidthDrivenCycleCount");
 
-		value = MaxCounter.globalCounters.get("pc_TCCCycleCount8K").get() / denom;
+		value = ctx.globalMaxCounters.get("pc_TCCCycleCount8K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCCycleCount8K': " + fmt.format(value) + suffix);
 
-		value = MaxCounter.globalCounters.get("pc_TCCCycleCount16K").get() / denom;
+		value = ctx.globalMaxCounters.get("pc_TCCCycleCount16K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCCycleCount16K': " + fmt.format(value) + suffix);
 
-		value = MaxCounter.globalCounters.get("pc_TCCCycleCount32K").get() / denom;
+		value = ctx.globalMaxCounters.get("pc_TCCCycleCount32K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCCycleCount32K': " + fmt.format(value) + suffix);
 
-		value = MaxCounter.globalCounters.get("pc_TCCCycleCount64K").get() / denom;
+		value = ctx.globalMaxCounters.get("pc_TCCCycleCount64K") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCCycleCount64K': " + fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSizeBytes").get();
-		value = SumCounter.globalCounters.get("pc_TCCBroadCastMessagesBytes").get() / denom;
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSizeBytes");
+		value = ctx.globalSumCounters.get("pc_TCCBroadCastMessagesBytes") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCBroadCastMessagesBytes': " + fmt.format(value)
 				+ suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize4BytesFlits").get();
-		value = SumCounter.globalCounters.get("pc_TCCBroadCastMessages4BytesFlits").get() / denom;
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize4BytesFlits");
+		value = ctx.globalSumCounters.get("pc_TCCBroadCastMessages4BytesFlits") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCBroadCastMessages4BytesFlits': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize8BytesFlits").get();
-		value = SumCounter.globalCounters.get("pc_TCCBroadCastMessages8BytesFlits").get() / denom;
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize8BytesFlits");
+		value = ctx.globalSumCounters.get("pc_TCCBroadCastMessages8BytesFlits") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCBroadCastMessages8BytesFlits': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize16BytesFlits").get();
-		value = SumCounter.globalCounters.get("pc_TCCBroadCastMessages16BytesFlits").get() / denom;
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize16BytesFlits");
+		value = ctx.globalSumCounters.get("pc_TCCBroadCastMessages16BytesFlits") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCBroadCastMessages16BytesFlits': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize32BytesFlits").get();
-		value = SumCounter.globalCounters.get("pc_TCCBroadCastMessages32BytesFlits").get() / denom;
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize32BytesFlits");
+		value = ctx.globalSumCounters.get("pc_TCCBroadCastMessages32BytesFlits") / denom;
 		statsFd.write(prefix.toString() + "'ratioTCCBroadCastMessages32BytesFlits': "
 				+ fmt.format(value) + suffix);
 
@@ -0,0 +1,71 @@
+package simulator.viser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.hash.Hashing;
+
+public final class BloomFilterTests {
+
+	/** The filter should set the same bits as Guava's murmur3 hashes of the line address */
+	@Test
+	public void testMatchesGuavaHashes() {
+		Random r = new Random(3);
+		for (int hashes = 1; hashes <= 2; hashes++) {
+			BloomFilter bf = new BloomFilter(BloomFilter.DEFAULT_BITS, hashes);
+			for (int i = 0; i < 1000; i++) {
+				bf.clear();
+				BitSet ref = new BitSet(BloomFilter.DEFAULT_BITS);
+				for (int j = 0; j < 1 + r.nextInt(20); j++) {
+					long lineAddr = r.nextInt(1 << 20) * 64L;
+					bf.add(lineAddr);
+					int h1 = Hashing.murmur3_32().hashLong(lineAddr).asInt();
+					ref.set(Math.abs(h1 % BloomFilter.DEFAULT_BITS));
+					if (hashes == 2) {
+						long h2 = Hashing.murmur3_128().hashLong(lineAddr).asLong();
+						ref.set((int) Math.abs(h2 % BloomFilter.DEFAULT_BITS));
+					}
+				}
+				assertEquals(ref.toString(), bf.toString());
+				assertEquals(ref.cardinality(), bf.cardinality());
+			}
+		}
+	}
+
+	@Test
+	public void testNoFalseNegatives() {
+		Random r = new Random(5);
+		BloomFilter bf = new BloomFilter(BloomFilter.MAX_BITS, 4);
+		LongHashSet added = new LongHashSet();
+		for (int i = 0; i < 30; i++) {
+			long lineAddr = r.nextInt(1 << 20) * 64L;
+			bf.add(lineAddr);
+			added.add(lineAddr);
+		}
+		int positives = 0;
+		for (int i = 0; i < 1 << 16; i++) {
+			long lineAddr = i * 64L;
+			if (added.contains(lineAddr)) {
+				assertTrue(bf.contains(lineAddr));
+			}
+			if (bf.contains(lineAddr)) {
+				positives++;
+			}
+		}
+		assertTrue(positives < 1 << 16);
+		bf.clear();
+		assertEquals(0, bf.cardinality());
+		assertFalse(bf.contains(0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyBits() {
+		new BloomFilter(BloomFilter.MAX_BITS + 1, 2);
+	}
+}
@@ -0,0 +1,70 @@
+package simulator.viser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import simulator.viser.ViserSim.PARSEC_PHASE;
+
+public final class ConflictTableTests {
+
+	/**
+	 * Compare against a list scanned with Conflict.isTheSame(), with few distinct sites so that
+	 * conflicts repeat within and across lines. Some sites have no line number, and some site
+	 * numbers do not fit in a short.
+	 */
+	@Test
+	public void testAgainstLinearScan() {
+		SimContext ctx = new SimContext(Knobs.parser.parse());
+		ctx.setPARSECPhase(PARSEC_PHASE.IN_ROI);
+		ConflictTable table = new ConflictTable(ctx);
+		List<Conflict> ref = new ArrayList<Conflict>();
+		List<Double> refCounts = new ArrayList<Double>();
+		List<Boolean> counted = new ArrayList<Boolean>();
+		Random r = new Random(11);
+		for (int i = 0; i < 20000; i++) {
+			int[] s = new int[10];
+			for (int j = 0; j < s.length; j++) {
+				s[j] = r.nextInt(3);
+			}
+			if (r.nextInt(100) == 0) {
+				s[r.nextInt(s.length)] = 70000;
+			}
+			table.update(s[0], s[1], s[2], s[3], s[4], s[5], s[6], s[7], s[8], s[9]);
+
+			int match = -1;
+			for (int e = 0; e < ref.size() && match < 0; e++) {
+				if (ref.get(e).isTheSame(s[0], s[1], s[3], s[4], s[6], s[7], s[8], s[9])) {
+					match = e;
+				}
+			}
+			if (match < 0) {
+				match = ref.size();
+				ref.add(new Conflict(ctx, s[0], s[1], s[2], s[3], s[4], s[5], s[6], s[7], s[8],
+						s[9]));
+				refCounts.add(0.0);
+				counted.add(false);
+			}
+			if (!counted.get(match)) {
+				refCounts.set(match, refCounts.get(match) + 1);
+				counted.set(match, true);
+			}
+			if (r.nextInt(4) == 0) {
+				table.nextLine();
+				for (int e = 0; e < counted.size(); e++) {
+					counted.set(e, false);
+				}
+			}
+		}
+		assertEquals(ref.size(), table.size());
+		for (int e = 0; e < ref.size(); e++) {
+			assertEquals(ref.get(e).toString().replaceAll("\\(Dynamic.*", ""),
+					table.get(e).toString().replaceAll("\\(Dynamic.*", ""));
+			assertEquals(refCounts.get(e), table.get(e).getCounter(), 0);
+		}
+	}
+}
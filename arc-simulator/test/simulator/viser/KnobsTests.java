@@ -0,0 +1,57 @@
+package simulator.viser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import joptsimple.OptionSet;
+
+import org.junit.Test;
+
+public final class KnobsTests {
+
+	private static File writeConfig(String contents) throws IOException {
+		File f = File.createTempFile("knobs", ".conf");
+		f.deleteOnExit();
+		FileWriter w = new FileWriter(f);
+		try {
+			w.write(contents);
+		} finally {
+			w.close();
+		}
+		return f;
+	}
+
+	@Test
+	public void testConfigFile() throws IOException {
+		File f = writeConfig("# AIM config\n\n--cores=4\nuse-aim-cache true\n"
+				+ "l1-size = 16384\n  stats-file   aim.py  \n");
+		OptionSet o = Knobs.parse("--config-file", f.getPath());
+		assertEquals(4, (int) o.valueOf(Knobs.Cores));
+		assertTrue(o.valueOf(Knobs.UseAIMCache));
+		assertEquals(16384, (int) o.valueOf(Knobs.L1Size));
+		assertEquals("aim.py", o.valueOf(Knobs.StatsFile));
+		// untouched knobs keep their defaults
+		assertEquals(8, (int) o.valueOf(Knobs.L1Assoc));
+	}
+
+	@Test
+	public void testCommandLineOverridesConfigFile() throws IOException {
+		File f = writeConfig("cores 4\nuse-aim-cache=true\n");
+		OptionSet o = Knobs.parse("--cores", "8", "--config-file=" + f.getPath(),
+				"--use-aim-cache=false");
+		assertEquals(8, (int) o.valueOf(Knobs.Cores));
+		assertFalse(o.valueOf(Knobs.UseAIMCache));
+	}
+
+	@Test
+	public void testNoConfigFile() throws IOException {
+		OptionSet o = Knobs.parse("--cores=2");
+		assertEquals(2, (int) o.valueOf(Knobs.Cores));
+		assertFalse(o.has(Knobs.ConfigFile));
+	}
+}
@@ -42,8 +42,6 @@ public final class LargerL2Tests {
 	static final int L3_CACHE_SIZE = 64;
 
 	static {
-		// This will enable all the assertions like cache inclusivity checks
-		assert ViserSim.XASSERTS;
 		SystemConstants.unsafeSetLineSize(LINE_SIZE);
 	}
 
@@ -171,18 +169,7 @@ public final class LargerL2Tests {
 									l.getReadSiteInfo(cid), l.getReadLastSiteInfo(cid));
 							tmp.setEpoch(proc.id, proc.getCurrentEpoch());
 						} else {
-							for (int i = 0; i < proc.params.numProcessors(); i++) {
-								CpuId cpuId = new CpuId(i);
-								PerCoreLineMetadata tmpMd = l.getPerCoreMetadata(cpuId);
-								// We do not bother with epoch here, since it should be taken care
-								// of automatically
-								// later
-								PerCoreLineMetadata md = new PerCoreLineMetadata(tmpMd.epoch,
-										tmpMd.writeEncoding, tmpMd.readEncoding,
-										tmpMd.writeSiteInfo, tmpMd.readSiteInfo,
-										tmpMd.writeLastSiteInfo, tmpMd.readLastSiteInfo);
-								tmp.setPerCoreMetadata(cpuId, md);
-							}
+							tmp.copyPerCoreMetadata(l);
 						}
 						return tmp;
 					}
@@ -326,15 +313,15 @@ public final class LargerL2Tests {
 		};
 
 		// Not sure how we can override JOpt command line
-		ViserSim.Options = Knobs.parser.parse("--xassert=true --assert-period=1");
-		ViserSim.setPARSECPhase(PARSEC_PHASE.IN_ROI);
-		assertTrue(ViserSim.XASSERTS);
-		assertEquals(1, ViserSim.Options.valueOf(Knobs.AssertPeriod).intValue());
+		SimContext ctx = new SimContext(Knobs.parser.parse("--xasserts=true", "--assert-period=1"));
+		ctx.setPARSECPhase(PARSEC_PHASE.IN_ROI);
+		assertTrue(ctx.xasserts);
+		assertEquals(1, ctx.options.valueOf(Knobs.AssertPeriod).intValue());
 
-		machine = new Machine<ViserLine>(params);
+		machine = new Machine<ViserLine>(ctx, params);
 		machine.initializeEpochs();
-		machine.siteInfo.add(new SiteInfoEntry((short) 7, (short) 77, (short) 777));
-		machine.siteInfo.add(new SiteInfoEntry((short) 9, (short) 99, (short) 999));
+		machine.siteInfo.intern((short) 7, (short) 77, (short) 777);
+		machine.siteInfo.intern((short) 9, (short) 99, (short) 999);
 	}
 
 	/**
@@ -364,10 +351,10 @@ public final class LargerL2Tests {
 
 		machine.testCacheMemoryRead(P0, 80L, 2, 2, T0);
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 		assertEquals(null, proc0.L1cache.getLine(new DataLineAddress(80L)));
 		assertEquals(null, proc0.L2cache.getLine(new DataLineAddress(80L)));
 	}
@@ -0,0 +1,56 @@
+package simulator.viser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+public final class LongHashSetTests {
+
+	@Test
+	public void testZeroKey() {
+		LongHashSet s = new LongHashSet();
+		assertFalse(s.contains(0));
+		assertTrue(s.add(0));
+		assertFalse(s.add(0));
+		assertTrue(s.contains(0));
+		assertEquals(1, s.size());
+		assertTrue(s.remove(0));
+		assertFalse(s.remove(0));
+		assertTrue(s.isEmpty());
+	}
+
+	/** Compare against a HashSet, with few distinct keys so that probe runs collide a lot */
+	@Test
+	public void testAgainstHashSet() {
+		Random r = new Random(42);
+		LongHashSet s = new LongHashSet();
+		HashSet<Long> ref = new HashSet<Long>();
+		for (int i = 0; i < 200000; i++) {
+			long key = r.nextInt(2048) * 64L;
+			switch (r.nextInt(4)) {
+				case 0:
+				case 1:
+					assertEquals(ref.add(key), s.add(key));
+					break;
+				case 2:
+					assertEquals(ref.remove(key), s.remove(key));
+					break;
+				default:
+					assertEquals(ref.contains(key), s.contains(key));
+			}
+			assertEquals(ref.size(), s.size());
+			if (i % 50000 == 0) {
+				s.clear();
+				ref.clear();
+			}
+		}
+		for (long key = 0; key < 2048 * 64L; key += 64) {
+			assertEquals(ref.contains(key), s.contains(key));
+		}
+	}
+}
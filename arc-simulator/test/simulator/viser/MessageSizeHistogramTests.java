@@ -0,0 +1,54 @@
+package simulator.viser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import simulator.viser.ViserSim.PARSEC_PHASE;
+
+public final class MessageSizeHistogramTests {
+
+	private static final double[] FLITS = { SystemConstants.BYTES_IN_FLIT_4,
+			SystemConstants.BYTES_IN_FLIT_8, SystemConstants.BYTES_IN_FLIT_16,
+			SystemConstants.BYTES_IN_FLIT_32 };
+
+	/**
+	 * Compare against counting the flits of each message as it is sent, with some fractional and
+	 * some very large sizes, and with messages sent outside the ROI.
+	 */
+	@Test
+	public void testAgainstPerMessageFlits() {
+		SimContext ctx = new SimContext(Knobs.parser.parse());
+		MessageSizeHistogram h = new MessageSizeHistogram(ctx);
+		long[] ref = new long[FLITS.length];
+		Random r = new Random(5);
+		for (int i = 0; i < 50000; i++) {
+			if (r.nextInt(1000) == 0) {
+				boolean inROI = ctx.getPARSECPhase() == PARSEC_PHASE.IN_ROI;
+				ctx.setPARSECPhase(inROI ? PARSEC_PHASE.POST_ROI : PARSEC_PHASE.IN_ROI);
+			}
+			double numBytes;
+			switch (r.nextInt(20)) {
+				case 0:
+					numBytes = r.nextInt(100) + 0.5;
+					break;
+				case 1:
+					numBytes = 65536 + r.nextInt(1000);
+					break;
+				default:
+					numBytes = r.nextInt(600);
+			}
+			h.add(numBytes);
+			if (ctx.countStats()) {
+				for (int f = 0; f < FLITS.length; f++) {
+					ref[f] += (long) Math.ceil(numBytes / FLITS[f]);
+				}
+			}
+		}
+		for (int f = 0; f < FLITS.length; f++) {
+			assertEquals(ref[f], h.flits(FLITS[f]));
+		}
+	}
+}
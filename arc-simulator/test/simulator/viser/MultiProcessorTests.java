@@ -40,8 +40,6 @@ public final class MultiProcessorTests {
 	static final int L3_CACHE_SIZE = 64;
 
 	static {
-		// This will enable all the assertions like cache inclusivity checks
-		assert ViserSim.XASSERTS;
 		SystemConstants.unsafeSetLineSize(LINE_SIZE);
 	}
 
@@ -169,18 +167,7 @@ public final class MultiProcessorTests {
 									l.getReadSiteInfo(cid), l.getReadLastSiteInfo(cid));
 							tmp.setEpoch(proc.id, proc.getCurrentEpoch());
 						} else {
-							for (int i = 0; i < proc.params.numProcessors(); i++) {
-								CpuId cpuId = new CpuId(i);
-								PerCoreLineMetadata tmpMd = l.getPerCoreMetadata(cpuId);
-								// We do not bother with epoch here, since it should be taken care
-								// of automatically
-								// later
-								PerCoreLineMetadata md = new PerCoreLineMetadata(tmpMd.epoch,
-										tmpMd.writeEncoding, tmpMd.readEncoding,
-										tmpMd.writeSiteInfo, tmpMd.readSiteInfo,
-										tmpMd.writeLastSiteInfo, tmpMd.readLastSiteInfo);
-								tmp.setPerCoreMetadata(cpuId, md);
-							}
+							tmp.copyPerCoreMetadata(l);
 						}
 						return tmp;
 					}
@@ -324,15 +311,15 @@ public final class MultiProcessorTests {
 		};
 
 		// Not sure how we can override JOpt command line
-		ViserSim.Options = Knobs.parser.parse("--xassert=true --assert-period=1");
-		ViserSim.setPARSECPhase(PARSEC_PHASE.IN_ROI);
-		assertTrue(ViserSim.XASSERTS);
-		assertEquals(1, ViserSim.Options.valueOf(Knobs.AssertPeriod).intValue());
+		SimContext ctx = new SimContext(Knobs.parser.parse("--xasserts=true", "--assert-period=1"));
+		ctx.setPARSECPhase(PARSEC_PHASE.IN_ROI);
+		assertTrue(ctx.xasserts);
+		assertEquals(1, ctx.options.valueOf(Knobs.AssertPeriod).intValue());
 
-		machine = new Machine<ViserLine>(params);
+		machine = new Machine<ViserLine>(ctx, params);
 		machine.initializeEpochs();
-		machine.siteInfo.add(new SiteInfoEntry((short) 7, (short) 77, (short) 777));
-		machine.siteInfo.add(new SiteInfoEntry((short) 9, (short) 99, (short) 999));
+		machine.siteInfo.intern((short) 7, (short) 77, (short) 777);
+		machine.siteInfo.intern((short) 9, (short) 99, (short) 999);
 	}
 
 	/**
@@ -349,18 +336,18 @@ public final class MultiProcessorTests {
 
 		machine.testCacheMemoryRead(P0, 80L, 2, 0, T0);
 		machine.testCacheMemoryRead(P0, 82L, 2, 0, T0); // same line
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P1, 64L, 2, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 
 		// machine.cacheRead(P1, 72L, 2, 0, T1);
 		// assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get());
@@ -393,22 +380,22 @@ public final class MultiProcessorTests {
 
 		machine.testCacheMemoryWrite(P0, 80L, 2, 80, T0);
 		machine.testCacheMemoryWrite(P0, 82L, 2, 82, T0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
 		machine.testCacheMemoryWrite(P0, 64L, 2, 64, T0);
 		machine.testCacheMemoryWrite(P0, 96L, 2, 96, T0);
 		// 80L is evicted to the LLC
 		System.out.println(proc0.L1cache);
 		System.out.println(proc0.L3cache.getLine((new DataByteAddress(80L).lineAddress()))
-				.getPerCoreMetadata(P0));
+				.perCoreMetadataToString(P0));
 
 		machine.testCacheMemoryWrite(P1, 80L, 2, 3, T1);
-		assertEquals(1, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc1.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
 		// The LLC need not eagerly check for conflicts on a fetch
-		assertEquals(0, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 		System.out.println(proc1.L1cache);
 	}
 
@@ -419,19 +406,19 @@ public final class MultiProcessorTests {
 
 		machine.testCacheMemoryWrite(P0, 80L, 2, 80, T0);
 		machine.testCacheMemoryWrite(P0, 82L, 2, 82, T0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
 		machine.testCacheMemoryWrite(P0, 64L, 2, 64, T0);
 		machine.testCacheMemoryWrite(P0, 96L, 2, 96, T0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc0.L3cache.getLine((new DataByteAddress(80L).lineAddress()))
-				.getPerCoreMetadata(P0));
+				.perCoreMetadataToString(P0));
 
 		machine.testCacheMemoryRead(P1, 80L, 2, 3, T1);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc1.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		// The LLC need not eagerly check for conflicts on a fetch
 		// assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
 		System.out.println(proc1.L1cache);
@@ -444,19 +431,19 @@ public final class MultiProcessorTests {
 
 		machine.testCacheMemoryWrite(P0, 80L, 2, 80, T0);
 		machine.testCacheMemoryRead(P0, 82L, 2, 82, T0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
 		machine.testCacheMemoryWrite(P0, 64L, 2, 64, T0);
 		machine.testCacheMemoryWrite(P0, 96L, 2, 96, T0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc0.L3cache.getLine((new DataByteAddress(80L).lineAddress()))
-				.getPerCoreMetadata(P0));
+				.perCoreMetadataToString(P0));
 
 		machine.testCacheMemoryRead(P1, 82L, 2, 3, T1);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc1.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		System.out.println(proc1.L1cache);
 	}
 
@@ -473,7 +460,7 @@ public final class MultiProcessorTests {
 		// System.out.println(proc1.L1cache);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -516,7 +503,7 @@ public final class MultiProcessorTests {
 
 		// Read validation of the read from 64L should fail since the value written by P0 is
 		// different
-		assertEquals(1, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_FailedValidations), 0);
 
 		// Due to read validation from Core 1, Core 0's deferred write should now be visible
 		ViserLine sharedLine = proc0.L3cache.getLine((new DataByteAddress(64L).lineAddress()));
@@ -533,7 +520,7 @@ public final class MultiProcessorTests {
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -545,7 +532,7 @@ public final class MultiProcessorTests {
 		machine.testCacheMemoryWrite(P0, 82L, 2, 64, T0);
 		machine.testCacheMemoryWrite(P0, 98L, 2, 64, T0);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -559,7 +546,7 @@ public final class MultiProcessorTests {
 		machine.testCacheMemoryWrite(P0, 82L, 2, 64, T0);
 		machine.testCacheMemoryWrite(P0, 98L, 2, 64, T0);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	// A read-only line should still be invalidated if it has untouched offsets and might have been
@@ -569,7 +556,7 @@ public final class MultiProcessorTests {
 		Processor<ViserLine> proc1 = machine.getProc(P1);
 		machine.testCacheMemoryRead(P1, 64L, 2, 990, T1);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 
 		machine.testCacheMemoryWrite(P0, 66L, 2, 0, T0);
 		machine.testCacheMemoryWrite(P0, 64L, 2, 0, T0);
@@ -577,12 +564,12 @@ public final class MultiProcessorTests {
 
 		machine.testCacheMemoryRead(P1, 66L, 2, 0, T1);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 
 		machine.testCacheMemoryRead(P1, 64L, 2, 0, T1);
 
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -590,7 +577,7 @@ public final class MultiProcessorTests {
 		Processor<ViserLine> proc1 = machine.getProc(P1);
 		machine.testCacheMemoryRead(P1, 64L, 2, 990, T1);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 
 		machine.testCacheMemoryWrite(P0, 66L, 2, 0, T0);
 		machine.testCacheMemoryWrite(P0, 64L, 2, 0, T0);
@@ -599,12 +586,12 @@ public final class MultiProcessorTests {
 		machine.testCacheMemoryWrite(P1, 66L, 2, 0, T1);
 		// not the last writer, so the line would be invalidated.
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 
 		machine.testCacheMemoryRead(P1, 64L, 2, 0, T1);
 
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	/*
@@ -692,34 +679,34 @@ public final class MultiProcessorTests {
 
 		// bring 0d into the cache
 		machine.testCacheMemoryRead(P0, 0, 1, 0, T0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
 
 		// fetch 16d and 32d which map to set 0; this evicts 0d to the L3
 		for (int i = 1; i <= L1_ASSOC; i++) {
 			machine.testCacheMemoryRead(P0, L1_CACHE_SIZE * i, 1, 0, T0);
-			assertEquals(1 + i, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
+			assertEquals(1 + i, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
 		}
 		System.out.println(proc0.L1cache);
-		assertEquals(1, proc0.stats.pc_l2d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L2LineEvictions), 0);
 
 		// fetch 0d again, from the L3. This is a miss since the LLC line was invalidated when
 		// evicting the
 		// private L1 line.
 		machine.testCacheMemoryRead(P1, 0, 1, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryRead(P2, 0, 1, 0, T2);
-		assertEquals(0, proc2.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc2.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc2.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc2.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc2.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc2.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 	}
 
 	@Test
@@ -729,39 +716,39 @@ public final class MultiProcessorTests {
 
 		// this crosses a line boundary
 		machine.testCacheMemoryRead(P0, 0, 8, 0, T0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P0, 8, 4, 0, T0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P1, 2, 2, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryRead(P1, 6, 4, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(3, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(3, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc1.L1cache);
 	}
 
@@ -772,39 +759,39 @@ public final class MultiProcessorTests {
 
 		// this crosses a line boundary
 		machine.testCacheMemoryWrite(P0, 0, 8, 0, T0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 8, 4, 0, T0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryWrite(P1, 2, 2, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryWrite(P1, 6, 4, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(3, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(3, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc1.L1cache);
 	}
 
@@ -815,42 +802,42 @@ public final class MultiProcessorTests {
 		Processor<ViserLine> proc2 = machine.getProc(P2);
 
 		machine.testCacheMemoryRead(P0, 4, 2, 0, T0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 
 		// This is a hit in the shared cache
 		machine.testCacheMemoryWrite(P1, 4, 2, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryWrite(P2, 4, 2, 0, T2);
-		assertEquals(0, proc2.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc2.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc2.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc2.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc2.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc2.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc1.L1cache);
 		System.out.println(proc2.L1cache);
 
 		machine.testCacheMemoryRead(P0, 4, 2, 0, T0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 		System.out.println(proc2.L1cache);
@@ -864,42 +851,42 @@ public final class MultiProcessorTests {
 		Processor<ViserLine> proc3 = machine.getProc(P3);
 
 		machine.testCacheMemoryWrite(P0, 4, 2, 0, T0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P1, 4, 2, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryRead(P2, 4, 2, 0, T2);
-		assertEquals(0, proc2.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc2.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc2.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc2.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc2.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc2.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 		System.out.println(proc2.L1cache);
 		System.out.println(proc3.L1cache);
 
 		machine.testCacheMemoryWrite(P3, 4, 2, 0, T3);
-		assertEquals(0, proc3.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc3.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc3.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc3.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc3.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc3.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc3.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc3.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc3.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc3.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(0, proc3.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc3.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 		System.out.println(proc2.L1cache);
@@ -912,62 +899,62 @@ public final class MultiProcessorTests {
 		Processor<ViserLine> proc1 = machine.getProc(P1);
 
 		machine.testCacheMemoryRead(P0, 44, 2, 0, T0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P0, 12, 2, 0, T0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P1, 44, 2, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryRead(P1, 12, 2, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(2, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryRead(P0, 76, 2, 0, T0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		// An L1 line 44 is evicted, but the line is marked as invalid in the LLC.
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryRead(P1, 76, 2, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(3, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(3, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		// An L1 line 44 is evicted, but the line is marked as invalid in the LLC.
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 	}
@@ -991,7 +978,7 @@ public final class MultiProcessorTests {
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
 		machine.testCacheMemoryWrite(P0, 82L, 2, 100, T0);
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	// A shared line's epoch should be updated only after its obsolete encodings are cleared.
@@ -1015,7 +1002,7 @@ public final class MultiProcessorTests {
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
 		machine.testCacheMemoryWrite(P0, 82L, 2, 100, T0);
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	/** Test eviction of an LLC line and invalidation. */
@@ -1026,48 +1013,48 @@ public final class MultiProcessorTests {
 		Processor<ViserLine> proc2 = machine.getProc(P2);
 
 		machine.testCacheMemoryWrite(P0, 40, 2, 0, T0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		// System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryWrite(P1, 56, 2, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		// System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 72, 2, 0, T0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		// System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryWrite(P1, 88, 2, 0, T1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryWrite(P2, 104, 2, 0, T2);
-		assertEquals(0, proc2.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc2.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc2.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc2.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc2.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc2.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 		System.out.println(proc2.L1cache);
@@ -1083,7 +1070,7 @@ public final class MultiProcessorTests {
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_RELEASE);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_RELEASE);
 		// No read line, no validation
-		assertEquals(0, proc1.stats.pc_ValidationAttempts.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_ValidationAttempts), 0);
 	}
 
 	@Test
@@ -1097,7 +1084,7 @@ public final class MultiProcessorTests {
 		// System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P1, 64L, 2, 64, T1);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
 		machine.testCacheMemoryWrite(P1, 112L, 2, 112, T1);
 		// System.out.println(proc1.L1cache);
 
@@ -1166,7 +1153,7 @@ public final class MultiProcessorTests {
 
 		// We are interested in read validation
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc1.stats.pc_potentialWrRdValConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_potentialWrRdValConflicts), 0);
 	}
 
 	@Test
@@ -1195,7 +1182,7 @@ public final class MultiProcessorTests {
 		machine.testCacheMemoryRead(P0, 80L, 2, 80, T0);
 		machine.testCacheMemoryRead(P0, 64L, 2, 64, T0);
 		machine.testCacheMemoryRead(P0, 128L, 2, 128, T0);
-		assertEquals(1, proc0.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -1209,7 +1196,7 @@ public final class MultiProcessorTests {
 
 		machine.testCacheMemoryRead(P0, 96L, 2, 96, T0);
 		machine.testCacheMemoryRead(P0, 64L, 2, 64, T0);
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -1231,7 +1218,7 @@ public final class MultiProcessorTests {
 
 		if (proc0.params.validateL1ReadsAlongWithL2()) {
 			// Implies the read of P0 from 82L will also get validated immediately
-			assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+			assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 		} else {
 			// Implies the read of P0 from 82L will not get validated immediately.
 			// The conflict (failed validation) is detected since the L2 line is to be evicted after
@@ -1240,8 +1227,8 @@ public final class MultiProcessorTests {
 			// No read-write conflict is reported since we only validate values for a line with
 			// mismatch version
 			// with the LLC line.
-			assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
-			assertEquals(0, proc0.stats.pc_PreciseConflicts.get(), 0);
+			assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
+			assertEquals(0, proc0.stats.get(Stat.pc_PreciseConflicts), 0);
 		}
 	}
 
@@ -1252,39 +1239,39 @@ public final class MultiProcessorTests {
 		Processor<ViserLine> proc1 = machine.getProc(P1);
 
 		machine.testCacheMemoryRead(P0, 80L, 2, 11, T0);
-		assertEquals(0, proc0.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 
 		machine.testCacheMemoryWrite(P1, 128L, 2, 11, T0);
 		// Line is cached in the LLC
-		assertEquals(0, proc1.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		// 80L and 128L are going to different sets in the AIM
 
 		machine.testCacheMemoryWrite(P0, 64L, 2, 11, T0);
 		// 80L is not evicted from the AIM
-		assertEquals(0, proc0.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.testCacheMemoryWrite(P1, 96L, 2, 11, T0);
 		// 96L evicts 64L from the AIM
-		assertEquals(0, proc1.stats.pc_aim.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// System.out.println(proc1.L1cache);
-		assertEquals(0, proc1.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 
 		// Now evict 80L from private cache of P0
 		machine.testCacheMemoryWrite(P0, 112L, 2, 99, T0);
 		// This causes 80L to be evicted from the LLC and AIM. 112L is brought into the AIM. After
 		// that, 80L from private cache is written back to the LLC and AIM evicts 96L.
-		assertEquals(0, proc0.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(80L)).hasAIMMD());
-		assertEquals(0, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 
 		machine.cacheRead(P1, 64L, 2, 1, T1, 0, 0, MemoryAccessType.MEMORY_READ);
 		// System.out.println(proc1.L1cache);
 
 		// Line should be in LLC, evict 128L from P1. This should cause 64L to be evicted from
 		// the LLC after an LLC hit. There should not be any AIM line to evict.
-		assertEquals(0, proc1.stats.pc_aim.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
 	}
 
 	// IMP: AIM associativity is 2 and # lines is 16, and set useAIMCache() to true
@@ -1295,15 +1282,15 @@ public final class MultiProcessorTests {
 
 		// AIM line size is 13 bytes
 		machine.cacheRead(P0, 80L, 2, 11, T0, 0, 0, MemoryAccessType.MEMORY_READ);
-		assertEquals(0, proc0.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 
 		machine.cacheWrite(P1, 80L, 2, 11, T0, 0, 0, MemoryAccessType.MEMORY_WRITE);
 		// Line is cached in the LLC
-		assertEquals(0, proc1.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.cacheWrite(P0, 96L, 2, 11, T0, 0, 0, MemoryAccessType.MEMORY_WRITE);
 		machine.cacheWrite(P0, 64L, 2, 11, T0, 0, 0, MemoryAccessType.MEMORY_WRITE);
-		assertEquals(0, proc0.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		// Line 80L is now in the AIM
 
 		machine.cacheRead(P1, 48L, 2, 20, T1, 0, 0, MemoryAccessType.MEMORY_READ);
@@ -1321,30 +1308,30 @@ public final class MultiProcessorTests {
 		machine.testCacheMemoryRead(P0, 80L, 2, 0, T0);
 		// A LLC miss means we should fetch the line into the AIM. But an LLC miss is not an AIM
 		// miss if there is no metadata.
-		assertEquals(0, proc0.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 		assertFalse(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(80L)).hasAIMMD());
 
 		machine.testCacheMemoryWrite(P1, 80L, 2, 0, T1); // LLC hit, this invalidates the line in P0
-		assertEquals(0, proc1.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		assertFalse(proc1.aimcache.junitGetLine(proc1, new DataLineAddress(80L)).hasAIMMD());
 
 		machine.testCacheMemoryWrite(P1, 96L, 2, 0, T1);
-		assertEquals(0, proc1.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.testCacheMemoryRead(P0, 112L, 2, 0, T0);
-		assertEquals(0, proc0.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 		// 80L is evicted from AIM but has no metadata.
-		assertEquals(0, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// Private caches do not evict any lines
-		assertEquals(0, proc0.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		assertFalse(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(80L)).hasAIMMD());
 		assertFalse(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(112L)).hasAIMMD());
 
 		// This is a private cache hit. So 80L is not brought into the AIM.
 		machine.testCacheMemoryRead(P1, 80L, 2, 0, T1);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_aim.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 
 		// System.out.println(proc0.L1cache);
 		// System.out.println(proc1.L1cache);
@@ -1353,16 +1340,16 @@ public final class MultiProcessorTests {
 		// System.out.println(proc0.L1cache);
 		// 80L is not evicted from AIM as 128L is going to a different set. 80L will be evicted
 		// from private caches.
-		assertEquals(0, proc0.stats.pc_aim.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// +1 for fetching, +2 for data + metadata, +1 for return metadata of 112L.
-		assertEquals(0, proc0.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.testCacheMemoryWrite(P0, 64L, 2, 0, T0);
 		// 80L will be evicted from LLC, 80L from the AIM (has metadata). Then 112L will be evicted
 		// from private caches and will hit in the AIM.
-		assertEquals(0, proc0.stats.pc_aim.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// +1 for fetch, +2 for data + metadata, +2 for evicting data and metadata of 80L, +1 for
 		// requesting metadata of 112L and +1 for metadata of 112L
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(112L)).hasAIMMD());
@@ -1382,7 +1369,7 @@ public final class MultiProcessorTests {
 
 		// Evict 80L from L3 and AIM
 		machine.testCacheMemoryRead(P0, 112L, 2, 0, T0);
-		assertEquals(1, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(96L)).hasAIMMD());
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(64L)).hasAIMMD());
 		assertFalse(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(48L)).hasAIMMD());
@@ -1405,7 +1392,7 @@ public final class MultiProcessorTests {
 
 		// Evict 80L from L3 and AIM
 		machine.testCacheMemoryRead(P0, 112L, 2, 0, T0);
-		assertEquals(1, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(96L)).hasAIMMD());
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(64L)).hasAIMMD());
 		assertFalse(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(48L)).hasAIMMD());
@@ -1430,7 +1417,7 @@ public final class MultiProcessorTests {
 
 		// Evict 80L from L3 and AIM
 		machine.testCacheMemoryRead(P0, 112L, 2, 0, T0);
-		assertEquals(1, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(96L)).hasAIMMD());
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(64L)).hasAIMMD());
 		assertFalse(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(48L)).hasAIMMD());
@@ -42,8 +42,6 @@ public final class PLRUTests {
 	static final int L3_CACHE_SIZE = 64;
 
 	static {
-		// This will enable all the assertions like cache inclusivity checks
-		assert ViserSim.XASSERTS;
 		SystemConstants.unsafeSetLineSize(LINE_SIZE);
 	}
 
@@ -148,16 +146,7 @@ public final class PLRUTests {
 									l.getReadLastSiteInfo(cid));
 							tmp.setEpoch(proc.id, proc.getCurrentEpoch());
 						} else {
-							for (int i = 0; i < proc.params.numProcessors(); i++) {
-								CpuId cpuId = new CpuId(i);
-								PerCoreLineMetadata tmpMd = l.getPerCoreMetadata(cpuId);
-								// We do not bother with epoch here, since it should be taken care of automatically
-								// later
-								PerCoreLineMetadata md = new PerCoreLineMetadata(tmpMd.epoch, tmpMd.writeEncoding,
-										tmpMd.readEncoding, tmpMd.writeSiteInfo, tmpMd.readSiteInfo,
-										tmpMd.writeLastSiteInfo, tmpMd.readLastSiteInfo);
-								tmp.setPerCoreMetadata(cpuId, md);
-							}
+							tmp.copyPerCoreMetadata(l);
 						}
 						return tmp;
 					}
@@ -302,15 +291,15 @@ public final class PLRUTests {
 		};
 
 		// Not sure how we can override JOpt command line
-		ViserSim.Options = Knobs.parser.parse("--xassert=true --assert-period=1");
-		ViserSim.setPARSECPhase(PARSEC_PHASE.IN_ROI);
-		assertTrue(ViserSim.XASSERTS);
-		assertEquals(1, ViserSim.Options.valueOf(Knobs.AssertPeriod).intValue());
+		SimContext ctx = new SimContext(Knobs.parser.parse("--xasserts=true", "--assert-period=1"));
+		ctx.setPARSECPhase(PARSEC_PHASE.IN_ROI);
+		assertTrue(ctx.xasserts);
+		assertEquals(1, ctx.options.valueOf(Knobs.AssertPeriod).intValue());
 
-		machine = new Machine<ViserLine>(params);
+		machine = new Machine<ViserLine>(ctx, params);
 		machine.initializeEpochs();
-		machine.siteInfo.add(new SiteInfoEntry((short) 7, (short) 77, (short) 777));
-		machine.siteInfo.add(new SiteInfoEntry((short) 9, (short) 99, (short) 999));
+		machine.siteInfo.intern((short) 7, (short) 77, (short) 777);
+		machine.siteInfo.intern((short) 9, (short) 99, (short) 999);
 	}
 
 	/**
@@ -350,7 +339,7 @@ public final class PLRUTests {
 		machine.testCacheMemoryWrite(P0, 82L, 2, 100, T0);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
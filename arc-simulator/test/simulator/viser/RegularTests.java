@@ -42,8 +42,6 @@ public final class RegularTests {
 	static final int L3_CACHE_SIZE = 64;
 
 	static {
-		// This will enable all the assertions like cache inclusivity checks
-		assert ViserSim.XASSERTS;
 		SystemConstants.unsafeSetLineSize(LINE_SIZE);
 	}
 
@@ -169,16 +167,7 @@ public final class RegularTests {
 									l.getReadLastSiteInfo(cid));
 							tmp.setEpoch(proc.id, proc.getCurrentEpoch());
 						} else {
-							for (int i = 0; i < proc.params.numProcessors(); i++) {
-								CpuId cpuId = new CpuId(i);
-								PerCoreLineMetadata tmpMd = l.getPerCoreMetadata(cpuId);
-								// We do not bother with epoch here, since it should be taken care of automatically
-								// later
-								PerCoreLineMetadata md = new PerCoreLineMetadata(tmpMd.epoch, tmpMd.writeEncoding,
-										tmpMd.readEncoding, tmpMd.writeSiteInfo, tmpMd.readSiteInfo,
-										tmpMd.writeLastSiteInfo, tmpMd.readLastSiteInfo);
-								tmp.setPerCoreMetadata(cpuId, md);
-							}
+							tmp.copyPerCoreMetadata(l);
 						}
 						return tmp;
 					}
@@ -323,15 +312,15 @@ public final class RegularTests {
 		};
 
 		// Not sure how we can override JOpt command line
-		ViserSim.Options = Knobs.parser.parse("--xassert=true --assert-period=1");
-		ViserSim.setPARSECPhase(PARSEC_PHASE.IN_ROI);
-		assertTrue(ViserSim.XASSERTS);
-		assertEquals(1, ViserSim.Options.valueOf(Knobs.AssertPeriod).intValue());
+		SimContext ctx = new SimContext(Knobs.parser.parse("--xasserts=true", "--assert-period=1"));
+		ctx.setPARSECPhase(PARSEC_PHASE.IN_ROI);
+		assertTrue(ctx.xasserts);
+		assertEquals(1, ctx.options.valueOf(Knobs.AssertPeriod).intValue());
 
-		machine = new Machine<ViserLine>(params);
+		machine = new Machine<ViserLine>(ctx, params);
 		machine.initializeEpochs();
-		machine.siteInfo.add(new SiteInfoEntry((short) 7, (short) 77, (short) 777));
-		machine.siteInfo.add(new SiteInfoEntry((short) 9, (short) 99, (short) 999));
+		machine.siteInfo.intern((short) 7, (short) 77, (short) 777);
+		machine.siteInfo.intern((short) 9, (short) 99, (short) 999);
 	}
 
 	/**
@@ -350,9 +339,9 @@ public final class RegularTests {
 		// System.out.println(proc0.L1cache);
 		machine.testCacheMemoryWrite(P0, 82L, 2, 82, T0);
 		// System.out.println(proc0.L1cache);
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
 		machine.testCacheMemoryWrite(P0, 64L, 2, 64, T0);
 		machine.testCacheMemoryWrite(P0, 96L, 2, 96, T0);
 		// 80L is evicted to the LLC
@@ -362,13 +351,13 @@ public final class RegularTests {
 
 		machine.testCacheMemoryWrite(P1, 80L, 2, 3, T1);
 		/*		assertEquals(1, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-				assertEquals(1, proc1.stats.pc_l2d.pc_WriteMisses.get(), 0);
-				assertEquals(0, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);*/
+				assertEquals(1, proc1.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+				assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);*/
 		// The LLC need not eagerly check for conflicts on a fetch
-		assertEquals(0, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 		// System.out.println(proc1.L1cache);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -379,9 +368,9 @@ public final class RegularTests {
 		machine.testCacheMemoryWrite(P0, 80L, 2, 80, T0);
 		machine.testCacheMemoryWrite(P0, 82L, 2, 82, T0);
 
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
 
 		machine.testCacheMemoryWrite(P0, 64L, 2, 64, T0);
 		machine.testCacheMemoryWrite(P0, 96L, 2, 96, T0);
@@ -390,14 +379,14 @@ public final class RegularTests {
 		// System.out.println(proc0.L3cache.getLine((new DataByteAddress(80L).lineAddress())).getPerCoreMetadata(P0));
 
 		machine.testCacheMemoryRead(P1, 80L, 2, 3, T1);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc1.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 
 		machine.testCacheMemoryWrite(P1, 64L, 2, 64, T1);
 		machine.testCacheMemoryWrite(P1, 96L, 2, 96, T1);
 		// evict 80L to the llc
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -407,19 +396,19 @@ public final class RegularTests {
 
 		machine.testCacheMemoryWrite(P0, 80L, 2, 80, T0);
 		machine.testCacheMemoryRead(P0, 82L, 2, 82, T0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
 		machine.testCacheMemoryWrite(P0, 64L, 2, 64, T0);
 		machine.testCacheMemoryWrite(P0, 96L, 2, 96, T0);
 		// System.out.println(proc0.L1cache);
 		// System.out.println(proc0.L3cache.getLine((new DataByteAddress(80L).lineAddress())).getPerCoreMetadata(P0));
 
 		machine.testCacheMemoryRead(P1, 82L, 2, 3, T1);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc1.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_RegionsWithFRVs.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_RegionsWithFRVs), 0);
 		// System.out.println(proc1.L1cache);
 	}
 
@@ -438,7 +427,7 @@ public final class RegularTests {
 		// System.out.println(proc1.L1cache);
 
 		// machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -454,7 +443,7 @@ public final class RegularTests {
 		// System.out.println(proc1.L1cache);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -474,10 +463,10 @@ public final class RegularTests {
 
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 		// Read validation of both the reads at 64L and 66L should fail, but the counter increase by 1 at most per line.
-		assertEquals(1, proc1.stats.pc_FailedValidations.get(), 0);
-		assertEquals(1, proc1.stats.pc_RegionsWithFRVs.get(), 0);
-		assertEquals(1, proc1.stats.pc_RegionsWithExceptions.get(), 0);
-		assertEquals(0, proc1.stats.pc_RegionHasDirtyEvictionBeforeFRV.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_FailedValidations), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_RegionsWithFRVs), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_RegionsWithExceptions), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_RegionHasDirtyEvictionBeforeFRV), 0);
 
 		// Due to read validation from Core 1, Core 0's deferred write should
 		// now be visible
@@ -494,7 +483,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -507,7 +496,7 @@ public final class RegularTests {
 		machine.testCacheMemoryWrite(P0, 82L, 2, 64, T0);
 		machine.testCacheMemoryWrite(P0, 98L, 2, 64, T0);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -522,7 +511,7 @@ public final class RegularTests {
 		machine.testCacheMemoryWrite(P0, 82L, 2, 64, T0);
 		machine.testCacheMemoryWrite(P0, 98L, 2, 64, T0);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	// A read-only line should still be invalidated if it has untouched offsets and might have been written by the llc.
@@ -531,7 +520,7 @@ public final class RegularTests {
 		Processor<ViserLine> proc1 = machine.getProc(P1);
 		machine.testCacheMemoryRead(P1, 64L, 2, 990, T1);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 
 		machine.testCacheMemoryWrite(P0, 66L, 2, 0, T0);
 		machine.testCacheMemoryWrite(P0, 64L, 2, 0, T0);
@@ -539,12 +528,12 @@ public final class RegularTests {
 
 		machine.testCacheMemoryRead(P1, 66L, 2, 0, T1);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 
 		machine.testCacheMemoryRead(P1, 64L, 2, 0, T1);
 
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -552,7 +541,7 @@ public final class RegularTests {
 		Processor<ViserLine> proc1 = machine.getProc(P1);
 		machine.testCacheMemoryRead(P1, 64L, 2, 990, T1);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 
 		machine.testCacheMemoryWrite(P0, 66L, 2, 0, T0);
 		machine.testCacheMemoryWrite(P0, 64L, 2, 0, T0);
@@ -561,12 +550,12 @@ public final class RegularTests {
 		machine.testCacheMemoryWrite(P1, 66L, 2, 0, T1);
 		// not the last writer, so the line would be invalidated.
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 
 		machine.testCacheMemoryRead(P1, 64L, 2, 0, T1);
 
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	/*
@@ -609,7 +598,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 		machine.testCacheMemoryRead(P1, 64, 2, 990, T1);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_RELEASE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -625,7 +614,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 		machine.testCacheMemoryRead(P1, 64, 2, 990, T1);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_RELEASE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	/*	// Should not exist in real executions considering memory alignment
@@ -638,7 +627,7 @@ public final class RegularTests {
 			machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
 			machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
-			assertEquals(1, proc1.stats.pc_FailedValidations.get(), 0);
+			assertEquals(1, proc1.stats.get(Stat.pc_FailedValidations), 0);
 		}
 		// Should not exist in real executions considering memory alignment
 		@Test
@@ -656,7 +645,7 @@ public final class RegularTests {
 			machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
 			machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
-			assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+			assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 		}*/
 
 	@Test
@@ -674,7 +663,7 @@ public final class RegularTests {
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
 		// 2 failed validations on the same line
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 		assertEquals(100, proc0.L3cache.getLine(new DataLineAddress(80L)).getValue(0));
 		assertEquals(82, proc0.L3cache.getLine(new DataLineAddress(80L)).getValue(2));
 	}
@@ -691,7 +680,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -707,7 +696,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -718,7 +707,7 @@ public final class RegularTests {
 		machine.testCacheMemoryWrite(P0, 80L, 2, 100, T0);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -735,7 +724,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P2, T2, EventType.LOCK_ACQUIRE);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -750,7 +739,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -774,7 +763,7 @@ public final class RegularTests {
 
 		machine.testProcessRegionBoundary(P2, T2, EventType.LOCK_ACQUIRE);
 		// machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc2.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -788,7 +777,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	// A shared line's epoch should be updated only after its obsolete encodings are cleared.
@@ -819,7 +808,7 @@ public final class RegularTests {
 		machine.testCacheMemoryWrite(P0, 82L, 2, 100, T0);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	// A shared line's epoch should be updated only after its obsolete encodings are cleared.
@@ -853,7 +842,7 @@ public final class RegularTests {
 		machine.testCacheMemoryWrite(P0, 82L, 2, 100, T0);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -879,17 +868,17 @@ public final class RegularTests {
 		// evict 82L, dirty eviction
 		machine.testCacheMemoryRead(P1, 66L, 2, 92, T1);
 		machine.testCacheMemoryRead(P1, 98L, 2, 92, T1);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 
 		machine.testCacheMemoryWrite(P0, 78L, 2, 100, T0);
 		machine.testCacheMemoryWrite(P0, 70L, 2, 100, T0);
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
 
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_PreciseConflicts.get(), 0);
-		assertEquals(2, proc1.stats.pc_FailedValidations.get(), 0);
-		assertEquals(1, proc1.stats.pc_RegionsWithFRVs.get(), 0);
-		assertEquals(1, proc1.stats.pc_RegionHasDirtyEvictionBeforeFRV.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_FailedValidations), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_RegionsWithFRVs), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_RegionHasDirtyEvictionBeforeFRV), 0);
 	}
 
 	// Untouched lines might have values deferred from previous regions.
@@ -955,7 +944,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 		machine.testCacheMemoryWrite(P1, 82L, 2, 0, T0);
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	/*
@@ -990,7 +979,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -1022,7 +1011,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -1052,7 +1041,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	/*
@@ -1087,7 +1076,7 @@ public final class RegularTests {
 
 		machine.testCacheMemoryRead(P1, 82L, 2, 2, T0);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -1103,7 +1092,7 @@ public final class RegularTests {
 		// machine.testCacheMemoryRead(P1, 80L, 2, 2, T0);
 		machine.testCacheMemoryWrite(P0, 80L, 2, 880, T0);
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 		machine.testCacheMemoryRead(P0, 80L, 2, 0, T0);
 		// System.out.println(proc0.L3cache.getLine(new DataLineAddress(80)).getValue(0));
 		// System.out.println(proc0.L1cache.getLine(new DataLineAddress(80)).getValue(0));
@@ -1113,7 +1102,7 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
 
 		// machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -1129,14 +1118,14 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 
 		machine.testCacheMemoryWrite(P1, 82L, 2, 82, T0);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
 		machine.testCacheMemoryRead(P0, 80L, 2, 0, T0);
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	/*
@@ -1163,8 +1152,8 @@ public final class RegularTests {
 
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
 
-		assertEquals(0, proc0.stats.pc_FailedValidations.get(), 0);
-		assertEquals(0, proc1.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_FailedValidations), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	/*
@@ -1194,9 +1183,9 @@ public final class RegularTests {
 		// 80L is fetched from the owner P1. Values and metadata should be written back.
 		machine.testCacheMemoryWrite(P1, 80L, 2, 3, T0);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	/*
@@ -1223,9 +1212,9 @@ public final class RegularTests {
 		// 80L is fetched from the owner P1. Values and metadata should be written back.
 		machine.testCacheMemoryWrite(P1, 80L, 2, 3, T0);
 		machine.testProcessRegionBoundary(P1, T1, EventType.LOCK_ACQUIRE);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 
 	@Test
@@ -1263,6 +1252,6 @@ public final class RegularTests {
 		machine.testProcessRegionBoundary(P2, T2, EventType.LOCK_ACQUIRE);
 
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc0.stats.pc_FailedValidations.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_FailedValidations), 0);
 	}
 }
@@ -0,0 +1,55 @@
+package simulator.viser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public final class SpillFileTests {
+
+	private static final File TMP = new File(System.getProperty("java.io.tmpdir"));
+
+	/** Compare against a HashMap, with small segments so that records span many of them */
+	@Test
+	public void testAgainstHashMap() {
+		SpillFile f = new SpillFile(TMP, "spilltest", 24, 24 * 5);
+		HashMap<Long, Long> ref = new HashMap<Long, Long>();
+		List<Long> keys = new ArrayList<Long>();
+		Random r = new Random(7);
+		for (int i = 0; i < 20000; i++) {
+			long key = r.nextInt(512) * 64L;
+			int rec = f.find(key);
+			assertEquals(ref.containsKey(key), rec != LongIntHashMap.NONE);
+			if (rec == LongIntHashMap.NONE) {
+				rec = f.add(key);
+				long value = r.nextLong();
+				f.putLong(rec, 8, value);
+				f.putInt(rec, 16, (int) value);
+				ref.put(key, value);
+				keys.add(key);
+			} else if (r.nextBoolean()) {
+				f.remove(rec);
+				ref.remove(key);
+				keys.remove(key);
+			} else {
+				assertEquals(key, f.keyOf(rec));
+				assertEquals((long) ref.get(key), f.getLong(rec, 8));
+				assertEquals((int) (long) ref.get(key), f.getInt(rec, 16));
+			}
+			assertEquals(ref.size(), f.size());
+		}
+		for (long key : keys) {
+			assertEquals((long) ref.get(key), f.getLong(f.find(key), 8));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnalignedRecord() {
+		new SpillFile(TMP, "spilltest", 20);
+	}
+}
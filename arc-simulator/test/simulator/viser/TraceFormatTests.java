@@ -0,0 +1,133 @@
+package simulator.viser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class TraceFormatTests {
+
+	static final int RECORDS = 3 * CompactTrace.BLOCK_RECORDS / 2;
+
+	File raw;
+	File compact;
+
+	/** Deterministic contents of record i */
+	static long addr(int i) {
+		return (i % 7 == 0) ? 0 : 0x7f0000000000L + ((i * 40503L) % 4096) * 8;
+	}
+
+	static byte tid(int i) {
+		return (byte) (i % 5);
+	}
+
+	static byte type(int i) {
+		return (i == RECORDS - 1) ? EventType.THREAD_FINISH.asByte() : (byte) (7 + i % 6);
+	}
+
+	@Before
+	public void setup() throws IOException {
+		raw = File.createTempFile("trace", ".raw");
+		compact = File.createTempFile("trace", ".ctrc");
+		DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(raw)));
+		for (int i = 0; i < RECORDS; i++) {
+			out.writeByte(type(i));
+			out.writeByte(i % 3 == 0 ? EventType.REG_END.asByte() : 0);
+			out.writeShort(tid(i));
+			out.writeLong(addr(i));
+			out.writeInt(1 << (i % 4));
+			out.writeByte(i & 1);
+			out.writeLong(-i * 1000003L);
+			out.writeInt(i % 11 == 0 ? i : 0);
+			out.writeShort(i % 300);
+			out.writeShort(i % 4);
+			out.writeShort(i % 9);
+			out.writeInt(i); // eventID
+			out.writeShort(-(i % 17));
+			out.writeShort(i % 2);
+		}
+		out.close();
+		TraceConverter.main(new String[] { raw.getPath(), compact.getPath() });
+	}
+
+	@After
+	public void tearDown() {
+		raw.delete();
+		compact.delete();
+	}
+
+	void checkAllRecords(TraceDecoder in) throws IOException {
+		checkRecordsFrom(in, 0);
+	}
+
+	void checkRecordsFrom(TraceDecoder in, int first) throws IOException {
+		for (int i = first; i < RECORDS; i++) {
+			int s = in.advance();
+			TraceDecoder.Batch b = in.batch();
+			assertEquals(type(i), b.type[s]);
+			assertEquals(i % 3 == 0 ? EventType.REG_END.asByte() : 0, b.semantics[s]);
+			assertEquals(tid(i), b.tid[s]);
+			assertEquals(addr(i), b.addr[s]);
+			assertEquals((byte) (1 << (i % 4)), b.memOpSize[s]);
+			assertEquals(i & 1, b.bits[s]);
+			assertEquals(-i * 1000003L, b.value[s]);
+			assertEquals(i % 11 == 0 ? i : 0, b.insnCount[s]);
+			assertEquals(i % 300, b.lineno[s]);
+			assertEquals(i % 4, b.fno[s]);
+			assertEquals(i % 9, b.rno[s]);
+			assertEquals(-(i % 17), b.lastLineno[s]);
+			assertEquals(i % 2, b.lastFno[s]);
+		}
+		boolean eof = false;
+		try {
+			in.advance();
+		} catch (EOFException e) {
+			eof = true;
+		}
+		assertTrue(eof);
+		in.close();
+	}
+
+	@Test
+	public void testRawTrace() throws IOException {
+		checkAllRecords(new TraceDecoder(TraceReader.open(raw.getPath()), false));
+		checkAllRecords(new TraceDecoder(TraceReader.open(raw.getPath()), true));
+	}
+
+	@Test
+	public void testCompactTrace() throws IOException {
+		assertTrue(compact.length() < raw.length());
+		checkAllRecords(new TraceDecoder(TraceReader.open(compact.getPath()), false));
+		checkAllRecords(new TraceDecoder(TraceReader.open(compact.getPath()), true));
+	}
+
+	@Test
+	public void testMappedChunks() throws IOException {
+		// A tiny mapping window forces values to straddle chunk boundaries
+		TraceReader in = new TraceReader.MappedTraceReader(raw.getPath(), 4099);
+		checkAllRecords(new TraceDecoder(in, false));
+	}
+
+	@Test
+	public void testIndexSeek() throws IOException {
+		for (File f : new File[] { raw, compact }) {
+			TraceIndex index = TraceIndex.build(f.getPath());
+			assertEquals(-1, index.roiStart());
+			for (int first : new int[] { 0, 5, CompactTrace.BLOCK_RECORDS + 3, RECORDS - 1 }) {
+				TraceDecoder in = new TraceDecoder(TraceReader.open(f.getPath()), true);
+				index.seek(in, first);
+				checkRecordsFrom(in, first);
+			}
+		}
+	}
+}
@@ -35,8 +35,6 @@ public final class UniProcessorTests {
 	static final int L3_CACHE_SIZE = 64;
 
 	static {
-		// This will enable all the assertions like cache inclusivity checks
-		assert ViserSim.XASSERTS;
 		SystemConstants.unsafeSetLineSize(LINE_SIZE);
 	}
 
@@ -163,18 +161,7 @@ public final class UniProcessorTests {
 									l.getReadSiteInfo(cid), l.getReadLastSiteInfo(cid));
 							tmp.setEpoch(proc.id, proc.getCurrentEpoch());
 						} else {
-							for (int i = 0; i < proc.params.numProcessors(); i++) {
-								CpuId cpuId = new CpuId(i);
-								PerCoreLineMetadata tmpMd = l.getPerCoreMetadata(cpuId);
-								// We do not bother with epoch here, since it should be taken care
-								// of automatically
-								// later
-								PerCoreLineMetadata md = new PerCoreLineMetadata(tmpMd.epoch,
-										tmpMd.writeEncoding, tmpMd.readEncoding,
-										tmpMd.writeSiteInfo, tmpMd.readSiteInfo,
-										tmpMd.writeLastSiteInfo, tmpMd.readLastSiteInfo);
-								tmp.setPerCoreMetadata(cpuId, md);
-							}
+							tmp.copyPerCoreMetadata(l);
 						}
 						return tmp;
 					}
@@ -319,12 +306,12 @@ public final class UniProcessorTests {
 		};
 
 		// Not sure how we can override JOpt command line
-		ViserSim.Options = Knobs.parser.parse("--xassert=true --assert-period=1");
-		ViserSim.setPARSECPhase(PARSEC_PHASE.IN_ROI);
-		assertTrue(ViserSim.XASSERTS);
-		assertEquals(1, ViserSim.Options.valueOf(Knobs.AssertPeriod).intValue());
+		SimContext ctx = new SimContext(Knobs.parser.parse("--xasserts=true", "--assert-period=1"));
+		ctx.setPARSECPhase(PARSEC_PHASE.IN_ROI);
+		assertTrue(ctx.xasserts);
+		assertEquals(1, ctx.options.valueOf(Knobs.AssertPeriod).intValue());
 
-		machine = new Machine<ViserLine>(params);
+		machine = new Machine<ViserLine>(ctx, params);
 		machine.initializeEpochs();
 	}
 
@@ -342,40 +329,40 @@ public final class UniProcessorTests {
 		// Miss in L1/L2 cache, miss in LLC
 		machine.testCacheMemoryRead(P0, 80L, 2, 10, T0);
 		machine.testCacheMemoryRead(P0, 64L, 2, 20, T0);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l2d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L2ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		// System.out.println(proc.L1cache);
 
 		// Hit in L1 cache, will change MRU status in L1
 		machine.testCacheMemoryRead(P0, 82L, 2, 30, T0);
 		assert proc.L1cache.getLine(new DataByteAddress(80L).lineAddress())
 				.getState() == ViserState.VISER_VALID;
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l2d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L2ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		// System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 96L, 2, 0, T0);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(3, proc.stats.pc_l2d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L2ReadMisses), 0);
 		// System.out.println(proc.L1cache);
 
 		// Miss in L1/L2 cache, miss in LLC, evicts line 64L to LLC
 		machine.testCacheMemoryRead(P0, 72L, 2, 99, T0);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(4, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(4, proc.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(4, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		System.out.println(proc.L1cache);
 	}
 
@@ -393,7 +380,7 @@ public final class UniProcessorTests {
 		machine.testCacheMemoryWrite(P0, 82L, 2, 10, T0);
 		System.out.println(proc.L1cache);
 		System.out.println(proc.L1cache.getLine((new DataByteAddress(80L)).lineAddress())
-				.getPerCoreMetadata(P0));
+				.perCoreMetadataToString(P0));
 	}
 
 	@Test
@@ -403,7 +390,7 @@ public final class UniProcessorTests {
 		machine.testCacheMemoryRead(P0, 80L, 2, 0, T0);
 		machine.testCacheMemoryWrite(P0, 80L, 2, 100, T0);
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_ACQUIRE);
-		assertEquals(0, proc.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -427,30 +414,30 @@ public final class UniProcessorTests {
 
 		machine.testCacheMemoryWrite(P0, 80L, 2, 6, T0);
 		machine.testCacheMemoryWrite(P0, 66L, 2, 23, T0);
-		assertEquals(2, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(2, proc.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 96L, 2, 29, T0);
-		assertEquals(3, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(3, proc.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc.stats.pc_l2d.pc_LineEvictions.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L2LineEvictions), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L3cache.getLine((new DataByteAddress(80L)).lineAddress())
-				.getPerCoreMetadata(P0));
+				.perCoreMetadataToString(P0));
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 112L, 2, 99, T0);
-		assertEquals(4, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(4, proc.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(2, proc.stats.pc_l2d.pc_LineEvictions.get(), 0);
-		assertEquals(4, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L2LineEvictions), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L3cache.getLine((new DataByteAddress(64L)).lineAddress())
-				.getPerCoreMetadata(P0));
+				.perCoreMetadataToString(P0));
 		System.out.println(proc.L1cache);
 	}
 
@@ -495,21 +482,21 @@ public final class UniProcessorTests {
 
 		// bring 0d into the cache
 		machine.testCacheMemoryRead(P0, 0, 1, 20, T0);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
 		// System.out.println(proc.L1cache);
 
 		// fetch 16d and 32d which map to set 0; this evicts 0d to the L3
 		for (int i = 1; i <= L1_ASSOC; i++) {
 			machine.testCacheMemoryRead(P0, L1_CACHE_SIZE * i, 1, i, T0);
-			assertEquals(1 + i, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
+			assertEquals(1 + i, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
 		}
 		System.out.println(proc.L1cache);
 		System.out.println(proc.L3cache.getLine((new DataByteAddress(0L)).lineAddress())
-				.getPerCoreMetadata(P0));
+				.perCoreMetadataToString(P0));
 
 		// fetch 0d again, from the L3. This is a hit.
 		machine.testCacheMemoryRead(P0, 2, 1, 10, T0);
-		assertEquals(1, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
 		System.out.println(proc.L1cache);
 	}
 
@@ -519,39 +506,39 @@ public final class UniProcessorTests {
 
 		// this crosses a line boundary
 		machine.testCacheMemoryRead(P0, 0, 8, 0, T0);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 8, 4, 0, T0);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 2, 2, 0, T0);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 6, 4, 0, T0);
-		assertEquals(3, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 	}
 
@@ -561,39 +548,39 @@ public final class UniProcessorTests {
 
 		// this crosses a data line boundary, so it definitely crosses a md line boundary
 		machine.testCacheMemoryWrite(P0, 0, 8, 0, T0);
-		assertEquals(0, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 8, 4, 0, T0);
-		assertEquals(0, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 2, 2, 0, T0);
-		assertEquals(1, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 6, 4, 0, T0);
-		assertEquals(3, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 	}
 
@@ -602,22 +589,22 @@ public final class UniProcessorTests {
 		Processor<ViserLine> proc = machine.getProc(P0);
 
 		machine.testCacheMemoryRead(P0, 4, 2, 0, T0);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		// This is a hit in the private cache
 		machine.testCacheMemoryWrite(P0, 4, 2, 0, T0);
-		assertEquals(1, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 	}
 
@@ -627,31 +614,31 @@ public final class UniProcessorTests {
 
 		machine.testCacheMemoryRead(P0, 48, 1, 1, T0);
 		machine.testCacheMemoryRead(P0, 12, 2, 2, T0);
-		assertEquals(2, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		// System.out.println(proc.L1cache);
 		// 48L and 12L are in different L3 sets, but they are in the same L1, L2, and AIM sets
 
 		machine.testCacheMemoryRead(P0, 28, 2, 3, T0);
-		assertEquals(3, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(3, proc.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l2d.pc_LineEvictions.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L2LineEvictions), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		// System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 60, 2, 4, T0);
-		assertEquals(4, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(4, proc.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc.stats.pc_l2d.pc_LineEvictions.get(), 0);
-		assertEquals(4, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L2LineEvictions), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		// System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 76, 2, 0, T0);
-		assertEquals(5, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(5, proc.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(2, proc.stats.pc_l2d.pc_LineEvictions.get(), 0);
-		assertEquals(5, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(5, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(5, proc.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L2LineEvictions), 0);
+		assertEquals(5, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		// machine.dumpMachineMemory();
@@ -662,60 +649,60 @@ public final class UniProcessorTests {
 		Processor<ViserLine> proc = machine.getProc(P0);
 
 		machine.testCacheMemoryRead(P0, 64, 2, 0, T0);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryRead(P0, 80, 2, 0, T0);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryWrite(P0, 64, 2, 0, T0);
-		assertEquals(1, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryRead(P0, 96, 2, 0, T0);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryRead(P0, 112, 2, 0, T0);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(4, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(4, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryWrite(P0, 128, 2, 0, T0);
-		assertEquals(1, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryWrite(P0, 80, 2, 0, T0); // Should be a LLC miss
-		assertEquals(1, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 	}
 
 	@Test
@@ -796,7 +783,7 @@ public final class UniProcessorTests {
 		machine.testProcessRegionBoundary(P0, T0, EventType.LOCK_RELEASE);
 		System.out.println(proc.L1cache);
 		machine.testCacheMemoryRead(P0, 64L, 2, 64, T0);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
 	}
 
 	@Test
@@ -819,10 +806,10 @@ public final class UniProcessorTests {
 				ExecutionPhase.REGION_BODY);
 		// proc.updateFlitsCountForOneNetworkMessage(MemorySystemConstants.BLOOM_FILTER_LLC_MESSAGE);
 
-		assertEquals(4, proc.stats.pc_OnChipNetworkMessageSize4BytesFlits.get(), 0);
-		assertEquals(2, proc.stats.pc_OnChipNetworkMessageSize8BytesFlits.get(), 0);
-		assertEquals(1, proc.stats.pc_OnChipNetworkMessageSize16BytesFlits.get(), 0);
-		assertEquals(1, proc.stats.pc_OnChipNetworkMessageSize32BytesFlits.get(), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_OnChipNetworkMessageSize4BytesFlits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_OnChipNetworkMessageSize8BytesFlits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_OnChipNetworkMessageSize16BytesFlits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_OnChipNetworkMessageSize32BytesFlits), 0);
 	}
 
 	@Test
@@ -856,7 +843,7 @@ public final class UniProcessorTests {
 		machine.testCacheMemoryRead(P0, 80L, 2, 80, T0);
 		machine.testCacheMemoryRead(P0, 96L, 2, 96, T0);
 		// There is no eviction from L1, since L2 actually recalls the L1 line
-		assertEquals(1, proc.stats.pc_l2d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L2LineEvictions), 0);
 		System.out.println(proc.L1cache);
 	}
 
@@ -868,11 +855,11 @@ public final class UniProcessorTests {
 
 		machine.cacheWrite(P0, 80L, 2, 11, T0, 0, 0, MemoryAccessType.LOCK_ACQ_WRITE);
 		System.out.println(proc.L1cache);
-		assertEquals(3, proc.stats.pc_OnChipNetworkMessages.get(), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_OnChipNetworkMessages), 0);
 
 		machine.cacheWrite(P0, 80L, 2, 11, T0, 0, 0, MemoryAccessType.LOCK_REL_WRITE);
 		System.out.println(proc.L1cache);
-		assertEquals(3, proc.stats.pc_OnChipNetworkMessages.get(), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_OnChipNetworkMessages), 0);
 	}
 
 	@Test
@@ -880,17 +867,17 @@ public final class UniProcessorTests {
 		Processor<ViserLine> proc = machine.getProc(P0);
 		machine.cacheRead(P0, 80L, 2, 11, T0, 0, 0, MemoryAccessType.LOCK_ACQ_READ);
 		machine.cacheWrite(P0, 80L, 2, 11, T0, 0, 0, MemoryAccessType.LOCK_ACQ_WRITE);
-		assertEquals(3, proc.stats.pc_OnChipNetworkMessages.get(), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_OnChipNetworkMessages), 0);
 
 		// Evict the lock line
 		machine.testCacheMemoryWrite(P0, 64L, 2, 640, T0);
-		assertEquals(6, proc.stats.pc_OnChipNetworkMessages.get(), 0);
+		assertEquals(6, proc.stats.get(Stat.pc_OnChipNetworkMessages), 0);
 		machine.testCacheMemoryRead(P0, 96L, 2, 96, T0);
-		assertEquals(10, proc.stats.pc_OnChipNetworkMessages.get(), 0);
+		assertEquals(10, proc.stats.get(Stat.pc_OnChipNetworkMessages), 0);
 
 		machine.cacheWrite(P0, 80L, 2, 11, T0, 0, 0, MemoryAccessType.LOCK_REL_WRITE);
 		// There is actually no need to evict 64L
-		assertEquals(11, proc.stats.pc_OnChipNetworkMessages.get(), 0);
+		assertEquals(11, proc.stats.get(Stat.pc_OnChipNetworkMessages), 0);
 	}
 
 	// IMP: AIM associativity is 2 and # lines is 16, and set useAIMCache() to true
@@ -899,13 +886,13 @@ public final class UniProcessorTests {
 		Processor<ViserLine> proc = machine.getProc(P0);
 
 		machine.testCacheMemoryRead(P0, 80L, 2, 11, T0);
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 
 		machine.testCacheMemoryWrite(P0, 80L, 2, 11, T0);
-		assertEquals(0, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.testCacheMemoryWrite(P0, 64L, 2, 11, T0);
-		assertEquals(0, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.testCacheMemoryWrite(P0, 96L, 2, 11, T0);
 		// System.out.println(proc.L1cache);
@@ -913,28 +900,28 @@ public final class UniProcessorTests {
 		// is then evicted from private cache, not evicted from the L3 yet since L3's associativity
 		// is four. That causes 64L to be evicted from AIM but that also has no metadata. So the AIM
 		// now contains 96L and 80L.
-		assertEquals(0, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.testCacheMemoryWrite(P0, 112L, 2, 0, T0);
 		// System.out.println(proc.L1cache);
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 		// 112L fits in an L3 set, so a NULL line is evicted from LLC. Private caches
 		// evict 64L which causes 96L to evict from the AIM, but 96L has no metadata yet.
-		assertEquals(1, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 
 		// Now both the AIM lines 64L and 80L have valid metadata.
 
 		// Read another line to cause AIM eviction of 64L
 		machine.testCacheMemoryRead(P0, 48L, 2, 55, T0);
-		assertEquals(1, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// +3 for fetching new line and +2 for eviction
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 96L, 2, 3, T0);
 		System.out.println(proc.L1cache);
-		assertEquals(2, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 	}
 
 	// IMP: AIM associativity is 2 and # lines is 16, and set useAIMCache() to true
@@ -944,17 +931,17 @@ public final class UniProcessorTests {
 
 		machine.cacheRead(P0, 80L, 2, 11, T0, 0, 0, MemoryAccessType.MEMORY_READ);
 		// A LLC miss means we should fetch the line into the AIM.
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 
 		machine.cacheWrite(P0, 96L, 2, 11, T0, 0, 0, MemoryAccessType.MEMORY_WRITE);
-		assertEquals(0, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.cacheWrite(P0, 64L, 2, 1, T0, 0, 0, MemoryAccessType.MEMORY_WRITE);
 		// 96L is evicted from AIM, but it does not have metadata
-		assertEquals(0, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		machine.cacheRead(P0, 112L, 2, 9, T0, 0, 0, MemoryAccessType.MEMORY_READ);
 		// 64L is evicted from private cache and is in the AIM.
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 	}
 
 	/**
@@ -1003,28 +990,28 @@ public final class UniProcessorTests {
 		// A LLC miss means we should fetch the line into the AIM. But an LLC miss is not an AIM
 		// miss if it does not have metadata.
 		assertFalse(proc.aimcache.junitGetLine(proc, new DataLineAddress(80L)).hasAIMMD());
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 
 		machine.testCacheMemoryWrite(P0, 80L, 2, 0, T0); // LLC hit
-		assertEquals(0, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.testCacheMemoryWrite(P0, 96L, 2, 0, T0);
-		assertEquals(0, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.testCacheMemoryRead(P0, 112L, 2, 0, T0);
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 		// Evicts 96L from AIM, then private caches evict 80L, which is written back to the AIM
 		// evicting 96L. Both do not have metadata.
-		assertEquals(0, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// +1 for fetch request, +2 for incoming data + metadata, +1 for first AIM eviction, +1 for
 		// second AIM eviction
-		assertEquals(0, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(80L)).hasAIMMD());
 		assertFalse(proc.aimcache.junitGetLine(proc, new DataLineAddress(112L)).hasAIMMD());
 
 		machine.testCacheMemoryRead(P0, 80L, 2, 0, T0); // This should be a LLC hit and an AIM hit
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// 96L is evicted from the private caches to the AIM, so the AIM line should now have valid
 		// metadata
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(96L)).hasAIMMD());
@@ -1033,12 +1020,12 @@ public final class UniProcessorTests {
 		// System.out.println(proc.L1cache);
 		// 96L is not evicted from AIM as 128L is going to a different set. 112L will be evicted
 		// from private caches and will cause 80L to evict from AIM.
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// +1 for fetching, +2 for data + metadata, +1 to request metadata for 112L and +1 for
 		// return metadata of 112L. We are ignoring the cost of 96L. Check with ARC.
 		// 112L misses in the AIM
-		assertEquals(2, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(96L)).hasAIMMD());
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(112L)).hasAIMMD());
 		assertFalse(proc.aimcache.junitGetLine(proc, new DataLineAddress(128L)).hasAIMMD());
@@ -1048,8 +1035,8 @@ public final class UniProcessorTests {
 		// 96L is evicted from AIM while fetching 64L in the LLC. Then 80L is evicted from private
 		// caches. It evicts 64L from the AIM since it has no metadata.
 		// System.out.println(proc.L1cache);
-		assertEquals(3, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
-		assertEquals(2, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// +1 for fetch, +2 for data + metadata, +2 for evicting data and metadata of 80L, +1 for
 		// metadata of 64L
 	}
@@ -1070,14 +1057,14 @@ public final class UniProcessorTests {
 
 		// Evict 80L from LLC
 		machine.testCacheMemoryRead(P0, 128L, 2, 0, T0);
-		assertEquals(1, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 
 		// Now bring in 80L from memory. The AIM md bit in the LLC line should be set. Since
 		// the md bit is set, so therefore this is an AIM miss.
 		machine.testCacheMemoryRead(P0, 80L, 2, 0, T0);
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(80L)).hasAIMMD());
-		assertEquals(1, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 	}
 
 	// IMP: AIM associativity is 2 and # lines is 16, and set useAIMCache() to true
@@ -1092,7 +1079,7 @@ public final class UniProcessorTests {
 
 		// Evict 80L from L3 and AIM
 		machine.testCacheMemoryRead(P0, 112L, 2, 0, T0);
-		assertEquals(1, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(96L)).hasAIMMD());
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(64L)).hasAIMMD());
 		assertFalse(proc.aimcache.junitGetLine(proc, new DataLineAddress(48L)).hasAIMMD());
@@ -1114,7 +1101,7 @@ public final class UniProcessorTests {
 
 		// Evict 80L from L3 and AIM
 		machine.testCacheMemoryRead(P0, 112L, 2, 0, T0);
-		assertEquals(1, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(96L)).hasAIMMD());
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(64L)).hasAIMMD());
 		assertFalse(proc.aimcache.junitGetLine(proc, new DataLineAddress(48L)).hasAIMMD());
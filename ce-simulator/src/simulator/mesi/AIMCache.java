@@ -1,10 +1,6 @@
 package simulator.mesi;
 
-import java.util.ArrayList;
-import java.util.Deque;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
 
 class AIMResponse<Line extends MESILine> {
 	/** The level of the cache hierarchy where the hit occurred */
@@ -19,6 +15,16 @@ class AIMResponse<Line extends MESILine> {
 // This class just simulates an AIM cache structure, without actually storing the values. It would
 // require 132 bytes to actually store all the metadata for 8 cores + 4 bytes version. Instead we
 // just want to model the hit/miss ratio, so we store tags.
+//
+// The tags are kept in primitive arrays, one slot per line, with the slots of each set ordered from
+// MRU to LRU and the empty slots at the LRU end. With --clear-aim-region-boundaries, a region
+// boundary only bumps a clear counter. Each set is stamped with the counter value at which it was
+// last cleared, and a set with an older stamp drops its lines whose global table entries have no
+// bits of a core's current region the next time it is looked up. So the stale lines are reclaimed
+// on demand instead of by walking the whole AIM at every region end. The pending clear is applied
+// to a line's set before any global table entry of the line is updated, and the entries only go
+// stale when a core's region ends, which bumps the counter again. So the lines dropped are exactly
+// those that had no current bits at the clear.
 public final class AIMCache<Line extends MESILine> {
 	private final int assoc = 4; // XXX: Might need to change this for JUnit test cases
 	// this corresponds to the data line size, and not the actual capacity that
@@ -32,7 +38,18 @@ public final class AIMCache<Line extends MESILine> {
 	/** mask used to clear out the tag bits */
 	private long indexMask;
 
-	List<Deque<Line>> sets;
+	/** Tag of an empty slot */
+	private static final long EMPTY = -1L;
+
+	/** Line address of each slot, at [set * assoc + position], position 0 being the MRU one */
+	private final long[] tags;
+	/** AIM metadata bit of each slot */
+	private final boolean[] aimMD;
+	/** Value of clears when each set was last cleared of stale lines */
+	private final int[] clearedAt;
+	/** Number of region boundaries at which the AIM was cleared */
+	private int clears = 0;
+
 	private LineFactory<Line> lineFactory;
 
 	private CacheLevel levelInHierarchy = CacheLevel.L3;
@@ -49,30 +66,24 @@ public final class AIMCache<Line extends MESILine> {
 			Processor<Line> processor) {
 		assert BitTwiddle.isPowerOf2(assoc);
 		assert BitTwiddle.isPowerOf2(lineSize);
+		// the processor is always P0.
+		assert processor.id.get() == 0;
 
 		this.l3cache = llc;
 		this.lineFactory = factory;
 		this.processor = processor;
 
-		this.numLines = MESISim.Options.valueOf(Knobs.NumAIMLines);
+		this.numLines = processor.ctx.options.valueOf(Knobs.NumAIMLines);
 		this.numSets = numLines / assoc;
 		assert BitTwiddle.isPowerOf2(numSets);
 
 		indexMask = numSets - 1;
 		lineOffsetBits = (short) BitTwiddle.floorLog2(lineSize);
 
-		sets = new ArrayList<Deque<Line>>(numSets);
-
-		for (int i = 0; i < numSets; i++) {
-			Deque<Line> set = new LinkedList<Line>();
-			for (int j = 0; j < assoc; j++) {
-				// the processor is always P0.
-				assert this.processor.id.get() == 0;
-				Line line = lineFactory.create(this.processor.id, this.levelInHierarchy);
-				set.add(line);
-			}
-			sets.add(set);
-		}
+		tags = new long[numSets * assoc];
+		Arrays.fill(tags, EMPTY);
+		aimMD = new boolean[numSets * assoc];
+		clearedAt = new int[numSets];
 	}
 
 	// /** Just get the corresponding line */
@@ -120,21 +131,91 @@ public final class AIMCache<Line extends MESILine> {
 		proc.updateTrafficForOneNetworkMessage(1, lineSize, false, false);
 	}
 
-	/** Just get the corresponding line */
-	Line junitGetLine(Processor<Line> proc, LineAddress addr) {
-		Deque<Line> set = sets.get(index(addr.get()));
-		// search this cache
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
-			if (line.lineAddress() != null) {
-				if (line.lineAddress().equals(addr)) {
-					assert line.id().equals(processor.id);
-					assert !line.isPrivateCacheLine();
-					return line;
-				}
+	/** Position of the line in the set, or -1 */
+	private int find(int set, long lineAddr) {
+		int base = set * assoc;
+		for (int pos = 0; pos < assoc; pos++) {
+			if (tags[base + pos] == lineAddr) {
+				return pos;
+			}
+		}
+		return -1;
+	}
+
+	/** Drop the line at the given position, leaving an empty slot at the LRU end */
+	private void removeAt(int set, int pos) {
+		int base = set * assoc;
+		System.arraycopy(tags, base + pos + 1, tags, base + pos, assoc - pos - 1);
+		System.arraycopy(aimMD, base + pos + 1, aimMD, base + pos, assoc - pos - 1);
+		tags[base + assoc - 1] = EMPTY;
+		aimMD[base + assoc - 1] = false;
+	}
+
+	/** Replace the line at the victim position with the given one, at the MRU position */
+	private void addFirst(int set, int victim, long lineAddr, boolean hasMD) {
+		int base = set * assoc;
+		System.arraycopy(tags, base, tags, base + 1, victim);
+		System.arraycopy(aimMD, base, aimMD, base + 1, victim);
+		tags[base] = lineAddr;
+		aimMD[base] = hasMD;
+	}
+
+	/** Whether the global table holds access bits of some core's current region for the line */
+	private boolean hasCurrentMetadata(Processor<Line> proc, long lineAddr) {
+		CEPerLineMetadata<Line> md = proc.machine.globalTable.get(lineAddr);
+		if (md == null) {
+			return false;
+		}
+		for (int i = 0; i < proc.params.numProcessors(); i++) {
+			CEGlobalTableValue val = md.values[i];
+			long regionID = proc.machine.getEpoch(proc.allProcessors[i].id).getRegionId();
+			assert val.regionID <= regionID;
+			if (val.regionID == regionID && (val.localReads != 0 || val.localWrites != 0)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Drop the lines of the set that have no current metadata, if the AIM was cleared since the
+	 * set was last looked up. The other lines keep their relative order.
+	 */
+	private void clearStaleLines(Processor<Line> proc, int set) {
+		if (clearedAt[set] == clears) {
+			return;
+		}
+		clearedAt[set] = clears;
+		int base = set * assoc;
+		int pos = 0;
+		while (pos < assoc && tags[base + pos] != EMPTY) {
+			if (hasCurrentMetadata(proc, tags[base + pos])) {
+				pos++;
+			} else {
+				removeAt(set, pos);
 			}
 		}
-		return null;
+	}
+
+	/**
+	 * Apply any pending clear to the set of the given line. Called before some core's global table
+	 * entry for the line is updated, so that the lines of the set are judged as of the clear.
+	 */
+	void applyPendingClear(Processor<Line> proc, long lineAddr) {
+		clearStaleLines(proc, index(lineAddr));
+	}
+
+	/** Just get a copy of the corresponding line */
+	Line junitGetLine(Processor<Line> proc, LineAddress addr) {
+		int set = index(addr.get());
+		clearStaleLines(proc, set);
+		int pos = find(set, addr.get());
+		if (pos < 0) {
+			return null;
+		}
+		Line line = lineFactory.create(processor.id, levelInHierarchy, addr);
+		line.setAIMMD(aimMD[set * assoc + pos]);
+		return line;
 	}
 
 	// /** Just get the corresponding line */
@@ -197,36 +278,28 @@ public final class AIMCache<Line extends MESILine> {
 	public AIMResponse<Line> request(Processor<Line> proc, final Line incomingLine, boolean read) {
 		assert proc.params.useAIMCache() && proc.params.conflictExceptions();
 
-		Deque<Line> set = sets.get(index(incomingLine.lineAddress().get()));
-		assert set.size() == assoc;
+		long lineAddr = incomingLine.lineAddress().get();
+		int set = index(lineAddr);
+		clearStaleLines(proc, set);
 		AIMResponse<Line> ret = new AIMResponse<Line>();
 
 		// search this cache
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
-
-			if (line.lineAddress() != null
-					&& line.lineAddress().equals(incomingLine.lineAddress())) {
-				ret.whereHit = this.levelInHierarchy;
-				assert line.id().equals(processor.id);
-				assert !line.isPrivateCacheLine();
-				line.setAIMMD(incomingLine.hasAIMMD());
-
-				if (read) {
-					proc.stats.pc_aim.pc_ReadHits.incr();
-				} else {
-					proc.stats.pc_aim.pc_WriteHits.incr();
-				}
-				return ret;
+		int pos = find(set, lineAddr);
+		if (pos >= 0) {
+			ret.whereHit = this.levelInHierarchy;
+			aimMD[set * assoc + pos] = incomingLine.hasAIMMD();
+
+			if (read) {
+				proc.stats.incr(Stat.pc_AIMCacheReadHits);
+			} else {
+				proc.stats.incr(Stat.pc_AIMCacheWriteHits);
 			}
+			return ret;
 		}
 
 		// Check if the line has non-zero metadata for at least one core. It is an AIM miss only if
 		// so. A line should be in the AIM only if it is in the LLC.
 		boolean miss = incomingLine.hasAIMMD();
-		Line aimLine = lineFactory.create(this.processor.id, this.levelInHierarchy,
-				incomingLine.lineAddress());
-		aimLine.setAIMMD(incomingLine.hasAIMMD());
 
 		// boolean miss = false;
 		// CEPerLineMetadata<Line> md = proc.machine.globalTable.get(address.get());
@@ -247,30 +320,29 @@ public final class AIMCache<Line extends MESILine> {
 			// if we made it here, we missed in the AIM
 			ret.whereHit = CacheLevel.MEMORY;
 			if (read) {
-				proc.stats.pc_aim.pc_ReadMisses.incr();
+				proc.stats.incr(Stat.pc_AIMCacheReadMisses);
 			} else {
-				proc.stats.pc_aim.pc_WriteMisses.incr();
+				proc.stats.incr(Stat.pc_AIMCacheWriteMisses);
 			}
 
 			// Choose a line for eviction, ideally prefer lines that have no metadata set
-			Line toEvict = getVictimLineNoRegionBoundaryClearance(proc, incomingLine);
-			assert toEvict.id() == proc.id;
-			if (toEvict.valid() /* && proc.needToCheckAIMCache(toEvict) */) {
-				Line llcLine = proc.L3cache.getLine(toEvict);
+			int victim = getVictimLineNoRegionBoundaryClearance(proc, set);
+			long victimAddr = tags[set * assoc + victim];
+			if (victimAddr != EMPTY /* && proc.needToCheckAIMCache(toEvict) */) {
+				Line llcLine = proc.L3cache.getLine(victimAddr);
 				assert llcLine != null; // FIXME: When can this assertion fail?
 				if (llcLine != null && llcLine.hasAIMMD()) {
-					proc.stats.pc_aim.pc_LineEvictions.incr();
-					proc.stats.pc_aim.pc_DirtyLineEvictions.incr();
+					proc.stats.incr(Stat.pc_AIMCacheLineEvictions);
+					proc.stats.incr(Stat.pc_AIMCacheDirtyLineEvictions);
 					updateOnChipNetworkMessageAIM(proc);
 				}
 			}
-			set.remove(toEvict);
-			set.addFirst(aimLine);
+			addFirst(set, victim, lineAddr, incomingLine.hasAIMMD());
 		} else { // Otherwise it is a LLC hit
 			if (read) {
-				proc.stats.pc_aim.pc_ReadHits.incr();
+				proc.stats.incr(Stat.pc_AIMCacheReadHits);
 			} else {
-				proc.stats.pc_aim.pc_WriteHits.incr();
+				proc.stats.incr(Stat.pc_AIMCacheWriteHits);
 			}
 			ret.whereHit = CacheLevel.L3;
 		}
@@ -278,29 +350,39 @@ public final class AIMCache<Line extends MESILine> {
 		return ret;
 	}
 
-	public interface LineVisitor<Line> {
-		public void visit(Line l);
+	public interface TagVisitor {
+		public void visit(long lineAddr);
 	}
 
 	/**
-	 * Calls the given visitor function once on each line in this cache. Lines are traversed in no
-	 * particular order.
+	 * Calls the given visitor function once on the line address of each line in this cache. Lines
+	 * are traversed in no particular order.
 	 */
-	public void visitAllLines(LineVisitor<Line> lv) {
-		for (Deque<Line> set : sets) {
-			for (Line l : set) {
-				lv.visit(l);
+	public void visitAllTags(TagVisitor tv) {
+		for (int set = 0; set < numSets; set++) {
+			for (int pos = 0; pos < assoc; pos++) {
+				long lineAddr = tags[set * assoc + pos];
+				if (lineAddr != EMPTY) {
+					tv.visit(lineAddr);
+				}
 			}
 		}
 	}
 
-	/** Verify that each line is indexed into the proper set. */
+	/**
+	 * Verify that each line is indexed into the proper set, and that the empty slots of each set
+	 * are at its LRU end.
+	 */
 	public void verifyIndices() {
-		for (int i = 0; i < sets.size(); i++) {
-			Deque<Line> set = sets.get(i);
-			for (Line l : set) {
-				if (l.lineAddress() != null) {
-					assert index(l.lineAddress().get()) == i;
+		for (int set = 0; set < numSets; set++) {
+			boolean empty = false;
+			for (int pos = 0; pos < assoc; pos++) {
+				long lineAddr = tags[set * assoc + pos];
+				if (lineAddr == EMPTY) {
+					empty = true;
+				} else {
+					assert !empty : "Empty AIM slot before a line";
+					assert index(lineAddr) == set;
 				}
 			}
 		}
@@ -313,9 +395,14 @@ public final class AIMCache<Line extends MESILine> {
 			s.append(this.processor + "\n");
 		}
 		s.append("aimcache=" + this.levelInHierarchy + System.getProperty("line.separator"));
-		for (Deque<Line> set : sets) {
-			for (Line l : set) {
-				s.append(l.toString() + "\n");
+		for (int set = 0; set < numSets; set++) {
+			for (int pos = 0; pos < assoc; pos++) {
+				int slot = set * assoc + pos;
+				if (tags[slot] == EMPTY) {
+					s.append("[empty]\n");
+				} else {
+					s.append("[addr=" + tags[slot] + " AIM MD:" + aimMD[slot] + "]\n");
+				}
 			}
 			s.append(System.getProperty("line.separator"));
 		}
@@ -325,106 +412,89 @@ public final class AIMCache<Line extends MESILine> {
 
 	/**
 	 * Intelligently select a victim line for eviction, based on metadata staleness. Otherwise, just
-	 * fallback to LRU.
+	 * fallback to LRU. Returns the position of the victim in the set.
 	 */
-	private Line getVictimLineNoRegionBoundaryClearance(Processor<Line> proc, Line incoming) {
+	private int getVictimLineNoRegionBoundaryClearance(Processor<Line> proc, int set) {
 		assert !proc.params.clearAIMCacheAtRegionBoundaries();
-		Deque<Line> set = sets.get(index(incoming.lineAddress().get()));
-		Line remove = set.getLast(); // LRU
-		if (remove.lineAddress() == null) {
-			return remove;
+		int base = set * assoc;
+		if (tags[base + assoc - 1] == EMPTY) { // LRU
+			return assoc - 1;
 		}
 
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line l = it.next();
-			if (l.lineAddress() != null) {
-				assert l.id().equals(processor.id);
-				assert !l.isPrivateCacheLine();
-
-				Line llcLine = proc.L3cache.getLine(l);
-				// We may not evict AIM lines when evicting LLC lines that have no valid metadata.
-				if (llcLine != null) {
-					if (!llcLine.hasAIMMD()) {
-						remove = l;
-						break;
-					}
-				} else {
-					remove = l;
-					break;
-				}
-			} else {
-				remove = l;
-				break;
+		for (int pos = 0; pos < assoc; pos++) {
+			long lineAddr = tags[base + pos];
+			if (lineAddr == EMPTY) {
+				return pos;
+			}
+			Line llcLine = proc.L3cache.getLine(lineAddr);
+			// We may not evict AIM lines when evicting LLC lines that have no valid metadata.
+			if (llcLine == null || !llcLine.hasAIMMD()) {
+				return pos;
 			}
 		}
-
-		return remove;
+		return assoc - 1;
 	}
 
 	// toEvict should be an LLC line
 	public void evictLine(Processor<Line> proc, Line toEvict) {
 		assert proc.params.useAIMCache() && proc.params.conflictExceptions();
 
-		Deque<Line> set = sets.get(index(toEvict.lineAddress().get()));
-		boolean removed = false;
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line l = it.next();
-			if (l.lineAddress() != null && l.lineAddress().equals(toEvict.lineAddress())) {
-				assert l.id().equals(processor.id);
-				assert !l.isPrivateCacheLine();
-
-				it.remove();
-				if (l.valid() && /* proc.needToCheckAIMCache(toEvict) */
-						toEvict.hasAIMMD()) {
-					proc.stats.pc_aim.pc_LineEvictions.incr();
-					proc.stats.pc_aim.pc_DirtyLineEvictions.incr();
-					updateOnChipNetworkMessageAIM(proc);
-				}
-				removed = true;
-			}
+		long lineAddr = toEvict.lineAddress().get();
+		int set = index(lineAddr);
+		int pos = find(set, lineAddr);
+		if (pos < 0) {
+			return;
 		}
-		if (removed) {
-			set.addLast(lineFactory.create(processor.id, levelInHierarchy));
+		// A line that a pending clear would drop is already gone
+		boolean stale = clearedAt[set] != clears && !hasCurrentMetadata(proc, lineAddr);
+		while (pos >= 0) {
+			removeAt(set, pos);
+			if (!stale && /* proc.needToCheckAIMCache(toEvict) */ toEvict.hasAIMMD()) {
+				proc.stats.incr(Stat.pc_AIMCacheLineEvictions);
+				proc.stats.incr(Stat.pc_AIMCacheDirtyLineEvictions);
+				updateOnChipNetworkMessageAIM(proc);
+			}
+			pos = find(set, lineAddr);
 		}
-		assert set.size() == assoc;
 	}
 
 	// This method is called from a LLC miss. If there is a LLC miss, then we do not consider that
 	// to be an AIM miss unless the LLC line has the AIM MD bit set.
 	public void addLineFromLLCMiss(Processor<Line> proc, Line memLine, boolean read) {
-		LineAddress la = memLine.lineAddress();
-		Deque<Line> set = sets.get(index(la.get()));
-		Line toEvict = null;
+		long lineAddr = memLine.lineAddress().get();
+		int set = index(lineAddr);
+		clearStaleLines(proc, set);
+		int victim;
 		if (!proc.params.clearAIMCacheAtRegionBoundaries()) {
-			toEvict = getVictimLineNoRegionBoundaryClearance(proc, memLine);
+			victim = getVictimLineNoRegionBoundaryClearance(proc, set);
 		} else {
-			toEvict = set.getLast(); // LRU
+			victim = assoc - 1; // LRU
 		}
-		boolean found = set.remove(toEvict);
-		assert found;
-		if (toEvict.lineAddress() != null && /* proc.needToCheckAIMCache(toEvict) */
+		if (tags[set * assoc + victim] != EMPTY && /* proc.needToCheckAIMCache(toEvict) */
 				memLine.hasAIMMD()) {
-			proc.stats.pc_aim.pc_LineEvictions.incr();
-			proc.stats.pc_aim.pc_DirtyLineEvictions.incr();
+			proc.stats.incr(Stat.pc_AIMCacheLineEvictions);
+			proc.stats.incr(Stat.pc_AIMCacheDirtyLineEvictions);
 			updateOnChipNetworkMessageAIM(proc);
 		}
 
 		// NB: add the incoming line *after* the eviction handler runs
-		Line copy = lineFactory.create(processor.id, levelInHierarchy, memLine.lineAddress());
-		copy.setAIMMD(memLine.hasAIMMD());
-		set.addFirst(copy);
+		addFirst(set, victim, lineAddr, memLine.hasAIMMD());
 
 		if (memLine.hasAIMMD()) {
 			if (read) {
-				proc.stats.pc_aim.pc_ReadMisses.incr();
+				proc.stats.incr(Stat.pc_AIMCacheReadMisses);
 			} else {
-				proc.stats.pc_aim.pc_WriteMisses.incr();
+				proc.stats.incr(Stat.pc_AIMCacheWriteMisses);
 			}
 		}
 	}
 
+	/**
+	 * Drop the lines that no core accessed in its current region. The sets are cleared lazily, the
+	 * next time each of them is looked up.
+	 */
 	void clearAIMCache2(Processor<Line> proc) {
-		assert false;
+		clears++;
 	}
 
 }
@@ -19,8 +19,9 @@ public class Conflict {
 	// We don't want to count a conflict more than once within a line. use the
 	// following flag to control this. Not count when the flag is true.
 	private boolean allowCounting = true;
+	private final SimContext ctx;
 
-	public Conflict(int f0, int l0, int r0, int f1, int l1, int r1) {
+	public Conflict(SimContext ctx, int f0, int l0, int r0, int f1, int l1, int r1) {
 		// put the site with smaller line number first;
 		if (l0 <= l1) {
 			fileNumber0 = (short) f0;
@@ -38,11 +39,11 @@ public class Conflict {
 			routineNumber1 = (short) r0;
 		}
 		counter = 0;
+		this.ctx = ctx;
 	}
 
 	public void inc() {
-		if (!MESISim.modelOnlyROI()
-				|| MESISim.getPARSECPhase() == PARSEC_PHASE.IN_ROI && allowCounting) {
+		if (!ctx.modelOnlyROI() || ctx.getPARSECPhase() == PARSEC_PHASE.IN_ROI && allowCounting) {
 			counter++;
 			allowCounting = false;
 		}
@@ -1,9 +1,17 @@
 package simulator.mesi;
 
+/**
+ * A decoded trace record. The simulators reuse one instance for the whole trace and overwrite it
+ * in place for every record, so nothing should hold on to an Event across calls to
+ * getNextEvent().
+ */
 public class Event {
-	final EventType type;
-	final EventType semantics;
-	final ThreadId tid;
+	EventType type;
+	EventType semantics;
+	/** Raw thread id from the trace */
+	byte tid;
+	/** Canonical ThreadId object for {@code tid} */
+	ThreadId threadId;
 	long addr;
 	byte memOpSize;
 	boolean stackRef;
@@ -11,10 +19,14 @@ public class Event {
 	int insnCount;
 	int siteIndex;
 
-	Event(EventType typ, EventType semantics, byte tid) {
+	Event() {
+	}
+
+	void set(EventType typ, EventType semantics, byte tid) {
 		this.type = typ;
 		this.semantics = semantics;
-		this.tid = new ThreadId(tid);
+		this.tid = tid;
+		this.threadId = ThreadId.of(tid);
 	}
 
 	@Override
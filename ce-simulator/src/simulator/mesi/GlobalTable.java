@@ -0,0 +1,148 @@
+package simulator.mesi;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CE's global table in memory: the per-core access and supplied bits of lines that private caches
+ * evicted, indexed by line address. With a hot line limit, the table is tiered. The most recently
+ * used entries stay on the heap, and the others are spilled to a memory-mapped file, from where a
+ * get promotes them back. Callers update the entry a get returns in place, which is safe as long as
+ * they are done with it before the next get or put, since the entry is the most recently used one
+ * until then.
+ */
+final class GlobalTable<Line extends MESILine> {
+	private static final int LONG_BYTES = Long.SIZE / Byte.SIZE;
+
+	// Layout of a cold record: the line address, then the region id and the local read and write
+	// bits of each core, then the supplied flag of each core
+	private static final int C_ADDR = 0;
+	private static final int C_VALUES = 8;
+	private static final int C_VALUE_BYTES = 24;
+
+	private final int numCores;
+	private final int hotLimit;
+	private final Map<Long, CEPerLineMetadata<Line>> hot;
+	private final SpillFile cold;
+	private final int cSupplied;
+
+	long hotHits;
+	long coldHits;
+	long misses;
+	long bytesSpilled;
+
+	GlobalTable(int numCores, int hotLimit, File spillDir) {
+		if (hotLimit < 0) {
+			throw new IllegalArgumentException("Negative hot global table line limit " + hotLimit);
+		}
+		this.numCores = numCores;
+		this.hotLimit = hotLimit;
+		this.cSupplied = C_VALUES + numCores * C_VALUE_BYTES;
+		if (hotLimit > 0) {
+			// Access order, so that the eldest entry is the least recently used one
+			hot = new LinkedHashMap<Long, CEPerLineMetadata<Line>>(16, 0.75f, true);
+			int bytes = cSupplied + numCores;
+			cold = new SpillFile(spillDir, "cesim-global-table",
+					(bytes + LONG_BYTES - 1) / LONG_BYTES * LONG_BYTES);
+		} else {
+			hot = new HashMap<Long, CEPerLineMetadata<Line>>();
+			cold = null;
+		}
+	}
+
+	boolean isTiered() {
+		return cold != null;
+	}
+
+	int hotSize() {
+		return hot.size();
+	}
+
+	int coldSize() {
+		return (cold == null) ? 0 : cold.size();
+	}
+
+	long coldBytes() {
+		return (cold == null) ? 0 : cold.mappedBytes();
+	}
+
+	/** The entry of the line, or null */
+	CEPerLineMetadata<Line> get(long lineAddr) {
+		CEPerLineMetadata<Line> md = hot.get(lineAddr);
+		if (md != null) {
+			hotHits++;
+			return md;
+		}
+		int rec = (cold == null) ? LongIntHashMap.NONE : cold.find(lineAddr);
+		if (rec == LongIntHashMap.NONE) {
+			misses++;
+			return null;
+		}
+		coldHits++;
+		md = load(rec);
+		cold.remove(rec);
+		hot.put(lineAddr, md);
+		demote();
+		return md;
+	}
+
+	void put(long lineAddr, CEPerLineMetadata<Line> md) {
+		hot.put(lineAddr, md);
+		if (cold != null) {
+			int rec = cold.find(lineAddr);
+			if (rec != LongIntHashMap.NONE) {
+				cold.remove(rec);
+			}
+			demote();
+		}
+	}
+
+	/** Addresses of all lines in the table, hot ones first */
+	List<Long> lineAddresses() {
+		List<Long> addrs = new ArrayList<Long>(hot.keySet());
+		for (int rec = 0; rec < coldSize(); rec++) {
+			addrs.add(cold.keyOf(rec));
+		}
+		return addrs;
+	}
+
+	/** Spill least recently used entries until the hot tier is within its limit */
+	private void demote() {
+		Iterator<Map.Entry<Long, CEPerLineMetadata<Line>>> it = hot.entrySet().iterator();
+		while (hot.size() > hotLimit) {
+			Map.Entry<Long, CEPerLineMetadata<Line>> eldest = it.next();
+			it.remove();
+			store(eldest.getKey(), eldest.getValue());
+		}
+	}
+
+	private void store(long lineAddr, CEPerLineMetadata<Line> md) {
+		int rec = cold.add(lineAddr);
+		assert cold.getLong(rec, C_ADDR) == lineAddr;
+		for (int i = 0; i < numCores; i++) {
+			CEGlobalTableValue val = md.values[i];
+			int offset = C_VALUES + i * C_VALUE_BYTES;
+			cold.putLong(rec, offset, val.regionID);
+			cold.putLong(rec, offset + 8, val.localReads);
+			cold.putLong(rec, offset + 16, val.localWrites);
+			cold.putByte(rec, cSupplied + i, (byte) (val.supplied ? 1 : 0));
+		}
+		bytesSpilled += cold.recordBytes;
+	}
+
+	private CEPerLineMetadata<Line> load(int rec) {
+		CEPerLineMetadata<Line> md = new CEPerLineMetadata<Line>(numCores);
+		for (int i = 0; i < numCores; i++) {
+			int offset = C_VALUES + i * C_VALUE_BYTES;
+			md.values[i] = new CEGlobalTableValue(cold.getLong(rec, offset + 8),
+					cold.getLong(rec, offset + 16), cold.getByte(rec, cSupplied + i) != 0,
+					cold.getLong(rec, offset));
+		}
+		return md;
+	}
+}
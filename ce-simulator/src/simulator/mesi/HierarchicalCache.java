@@ -1,23 +1,19 @@
 package simulator.mesi;
 
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 
 interface CacheCallbacks<Line extends MESILine> {
 	/**
 	 * Called whenever a line needs to be evicted.
 	 *
 	 * @param set
-	 *                  the set from which we need to evict something; the list is ordered from MRU
-	 *                  (front) to LRU (back).
+	 *                  the set from which we need to evict something; its positions are ordered
+	 *                  from MRU (first) to LRU (last).
 	 * @param level
 	 *                  the level of the cache where the eviction is happening
 	 * @return the line to evict
 	 */
-	Line eviction(final Line incoming, final LinkedList<Line> set, CacheLevel level, short bits);
+	Line eviction(final Line incoming, final CacheSet<Line> set, CacheLevel level);
 }
 
 class CacheConfiguration<Line extends MESILine> {
@@ -43,6 +39,15 @@ class MemoryResponse<Line extends MESILine> {
 	public CacheLevel aimHit;
 	public boolean hasAIMMd;
 
+	MemoryResponse<Line> reset() {
+		whereHit = null;
+		lineHit = null;
+		ceNumReturnDataBytes = 0;
+		aimHit = null;
+		hasAIMMd = false;
+		return this;
+	}
+
 	@Override
 	public String toString() {
 		return whereHit.toString() + " " + String.valueOf(lineHit);
@@ -61,12 +66,13 @@ public class HierarchicalCache<Line extends MESILine> {
 	protected short indexBits;
 	/** mask used to clear out the tag bits */
 	protected long indexMask;
-	protected short assocMask;
+	protected long assocMask;
 
-	protected List<LinkedList<Line>> sets;
-	protected short[] MRUBits;
+	protected CacheSet<Line>[] sets;
 	protected CacheCallbacks<Line> callbacks;
 	protected LineFactory<Line> lineFactory;
+	/** Returned by request(), valid until the next access */
+	private final MemoryResponse<Line> accessResponse = new MemoryResponse<Line>();
 
 	/**
 	 * The next higher-level cache in the hierarchy. Can be shared by multiple lower-level caches.
@@ -74,6 +80,8 @@ public class HierarchicalCache<Line extends MESILine> {
 	public HierarchicalCache<Line> nextCache;
 	/** Keep a reference to the parent processor. */
 	public Processor<Line> processor;
+	/** Sharer vectors of the lines in private caches, kept by the shared LLC only */
+	final SharerDirectory directory;
 
 	// Conflict Exceptions, only used for private caches
 	/** Local thread is currently in an active region */
@@ -142,7 +150,7 @@ public class HierarchicalCache<Line extends MESILine> {
 					// Implies at least one sharer, continue with shared
 				} else {
 					mesiLine.changeStateTo(MESIState.MESI_INVALID);
-					if (MESISim.enableXasserts()) {
+					if (proc.ctx.enableXasserts()) {
 						proc.Verify.verifyInvalidLinesInLLC();
 					}
 				}
@@ -182,7 +190,7 @@ public class HierarchicalCache<Line extends MESILine> {
 			HierarchicalCache<Line> nextCache, LineFactory<Line> factory,
 			Processor<Line> processor) {
 		this.assoc = thisConfig.assoc;
-		this.assocMask = (short) (Math.pow(2, assoc) - 1);
+		this.assocMask = -1L >>> (Long.SIZE - assoc);
 		this.callbacks = handler;
 		this.nextCache = nextCache;
 		this.lineFactory = factory;
@@ -209,19 +217,21 @@ public class HierarchicalCache<Line extends MESILine> {
 		// System.out.println("Line offset bits: " + lineOffsetBits);
 		// }
 
-		sets = new ArrayList<LinkedList<Line>>(numSets);
-		MRUBits = new short[numSets];
+		@SuppressWarnings("unchecked")
+		CacheSet<Line>[] newSets = (CacheSet<Line>[]) new CacheSet<?>[numSets];
+		sets = newSets;
 
 		for (int i = 0; i < numSets; i++) {
-			LinkedList<Line> set = new LinkedList<Line>();
+			CacheSet<Line> set = new CacheSet<Line>(thisConfig.assoc);
 			for (int j = 0; j < thisConfig.assoc; j++) {
 				Line line = lineFactory.create(processor.id, levelInHierarchy);
-				set.add(line);
+				set.put(j, line);
 			}
-			sets.add(set);
-			MRUBits[i] = 0;
+			sets[i] = set;
 		}
-
+		directory = (levelInHierarchy == CacheLevel.L3)
+				? new SharerDirectory(processor.params.numProcessors())
+				: null;
 	} // end ctor
 
 	/**
@@ -238,120 +248,102 @@ public class HierarchicalCache<Line extends MESILine> {
 	 */
 	public MemoryResponse<Line> request(Processor<Line> proc, final ByteAddress address,
 			boolean read) {
-		int setIndex = index(address.get());
-		LinkedList<Line> set = sets.get(setIndex);
+		CacheSet<Line> set = sets[index(address.get())];
 		assert set.size() == assoc;
 
-		MemoryResponse<Line> ret = new MemoryResponse<Line>();
+		// Only the processor's current access uses the response, so it need not be allocated
+		MemoryResponse<Line> ret = accessResponse.reset();
 
 		// search this cache
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
-
-			if (line.valid() && line.contains(address)) {
-				// hit! move this line to the mru spot
-				if (levelInHierarchy == CacheLevel.L1) {
-					assert line.getState() != MESIState.MESI_INVALID;
-					// hit!
-					if (proc.params.usePLRU()) {
-						setMRUBit(line);
-					} else if (line != set.getFirst()) {
-						// move this line to the mru spot
-						it.remove();
-						set.addFirst(line);
-						assert line == set.getFirst();
-					}
-					ret.lineHit = line;
-				} else if (levelInHierarchy == CacheLevel.L2) { // L2 cache
-					assert line.lineAddress().get() == address.lineAddress()
-							.get() : "Line addresses do not match.";
-					assert line.getState() != MESIState.MESI_INVALID;
-					// Create a new object instead of a mere reference
-					ret.lineHit = lineFactory.create(proc.id, levelInHierarchy, line);
-				} else {
-					// It is possible for an LLC line to be both valid and MESI_INVALID.
-					assert levelInHierarchy == CacheLevel.L3;
-					// Create a new object instead of a mere reference
-					ret.lineHit = lineFactory.create(proc.id, levelInHierarchy, line);
-
-					if (proc.params.conflictExceptions()) {
-						// One return data message
-						int sizeIncomingMemBytes = 0;
-
-						if (proc.params.useAIMCache()) {
-							if (/* proc.needToCheckAIMCache(line) */ line.hasAIMMD()) {
-								// Check if AIM hit/miss
-								AIMResponse<Line> aimResp = proc.aimcache.request(proc, line, read);
-								ret.aimHit = aimResp.whereHit;
-							} else {
-								ret.aimHit = CacheLevel.L3;
-							}
-						} else if (line.hasAIMMD()) {
-							ret.hasAIMMd = true;
-						}
+		int way = set.find(address.get() & ~SystemConstants.LINE_OFFSET_MASK());
+		if (way >= 0) {
+			Line line = set.getWay(way);
+			// hit! move this line to the mru spot
+			if (levelInHierarchy == CacheLevel.L1) {
+				assert line.getState() != MESIState.MESI_INVALID;
+				// hit!
+				touchLine(set, way);
+				assert proc.params.usePLRU() || line == set.first();
+				ret.lineHit = line;
+			} else if (levelInHierarchy == CacheLevel.L2) { // L2 cache
+				assert line.lineAddress().get() == address.lineAddress()
+						.get() : "Line addresses do not match.";
+				assert line.getState() != MESIState.MESI_INVALID;
+				// Create a new object instead of a mere reference
+				ret.lineHit = lineFactory.create(proc.id, levelInHierarchy, line);
+			} else {
+				// It is possible for an LLC line to be both valid and MESI_INVALID.
+				assert levelInHierarchy == CacheLevel.L3;
+				// Create a new object instead of a mere reference
+				ret.lineHit = lineFactory.create(proc.id, levelInHierarchy, line);
 
-						// When is the inMemory bit cleared? Possibly on an LLC eviction. It
-						// probably does not matter any more since we now check for ongoing regions.
-						if (line.inMemory()) {
-							CEPerLineMetadata<Line> md = proc.machine.globalTable
-									.get(line.lineAddress().get());
-							assert md != null : "In-memory bit should have been unset.";
-							for (int i = 0; i < proc.params.numProcessors(); i++) {
-								// Other threads' local bits are retrieved from memory by accessing
-								// the global table and the corresponding supplied bit is set
-								if (i != proc.id.get()) {
-									CpuId cpuID = new CpuId(i);
-									Processor<Line> p = proc.machine.getProc(cpuID);
-									CEGlobalTableValue val = md.getPerCoreMetadata(p);
-									assert val.regionID <= p.getCurrentEpoch().getRegionId();
-									if (val.regionID == p.getCurrentEpoch().getRegionId()) {
-										ret.lineHit.orRemoteReads(val.localReads);
-										ret.lineHit.orRemoteWrites(val.localWrites);
-										val.supplied = true;
-										sizeIncomingMemBytes += (SystemConstants.CE_READ_METADATA_BYTES
-												+ SystemConstants.CE_WRITE_METADATA_BYTES);
-									}
-								}
-							}
+				if (proc.params.conflictExceptions()) {
+					// One return data message
+					int sizeIncomingMemBytes = 0;
+
+					if (proc.params.useAIMCache()) {
+						if (/* proc.needToCheckAIMCache(line) */ line.hasAIMMD()) {
+							// Check if AIM hit/miss
+							AIMResponse<Line> aimResp = proc.aimcache.request(proc, line, read);
+							ret.aimHit = aimResp.whereHit;
+						} else {
+							ret.aimHit = CacheLevel.L3;
 						}
+					} else if (line.hasAIMMD()) {
+						ret.hasAIMMd = true;
+					}
 
-						// Some request from Core 1 hits in the LLC does not necessarily imply that
-						// the outOfCache bit for Core 1 will be set.
-						if (proc.L2cache.outOfCache) {
-							CEPerLineMetadata<Line> md = proc.machine.globalTable
-									.get(line.lineAddress().get());
-							if (md != null) {
-								CEGlobalTableValue val = md.getPerCoreMetadata(proc);
-								assert val.regionID <= proc.getCurrentEpoch().getRegionId();
-								if (val.regionID == proc.getCurrentEpoch().getRegionId()) {
-									ret.lineHit.orLocalReads(val.localReads);
-									ret.lineHit.orLocalWrites(val.localWrites);
-									if (val.supplied) {
-										ret.lineHit.setSupplied();
-									}
+					// When is the inMemory bit cleared? Possibly on an LLC eviction. It
+					// probably does not matter any more since we now check for ongoing regions.
+					if (line.inMemory()) {
+						CEPerLineMetadata<Line> md = proc.machine.globalTable
+								.get(line.lineAddress().get());
+						assert md != null : "In-memory bit should have been unset.";
+						for (int i = 0; i < proc.params.numProcessors(); i++) {
+							// Other threads' local bits are retrieved from memory by accessing
+							// the global table and the corresponding supplied bit is set
+							if (i != proc.id.get()) {
+								Processor<Line> p = proc.allProcessors[i];
+								CEGlobalTableValue val = md.getPerCoreMetadata(p);
+								assert val.regionID <= p.getCurrentEpoch().getRegionId();
+								if (val.regionID == p.getCurrentEpoch().getRegionId()) {
+									ret.lineHit.orRemoteReads(val.localReads);
+									ret.lineHit.orRemoteWrites(val.localWrites);
+									val.supplied = true;
 									sizeIncomingMemBytes += (SystemConstants.CE_READ_METADATA_BYTES
 											+ SystemConstants.CE_WRITE_METADATA_BYTES);
 								}
 							}
 						}
+					}
 
-						int sizeOutgoingMemBytes = SystemConstants.CONTROL_MESSAGE_SIZE_BYTES;
-						int sizeMemAccessBytes = SystemConstants.DATA_MESSAGE_CONTROL_BYTES
-								+ +SystemConstants.DATA_MESSAGE_SIZE_BYTES
-								+ proc.getCEMetadataLineSize();
-						if (proc.params.useAIMCache()) {
-							if (ret.aimHit == CacheLevel.L3) {
-								// AIM hit so no messages to memory to access global table
-							} else {
-								if (line.inMemory() || proc.L2cache.outOfCache) {
-									// One control to get the metadata in memory
-									proc.updateTrafficForOneNetworkMessage(1, sizeOutgoingMemBytes,
-											false, false);
-
-									proc.updateTrafficForOneNetworkMessage(1, sizeIncomingMemBytes,
-											false, false);
+					// Some request from Core 1 hits in the LLC does not necessarily imply that
+					// the outOfCache bit for Core 1 will be set.
+					if (proc.L2cache.outOfCache) {
+						CEPerLineMetadata<Line> md = proc.machine.globalTable
+								.get(line.lineAddress().get());
+						if (md != null) {
+							CEGlobalTableValue val = md.getPerCoreMetadata(proc);
+							assert val.regionID <= proc.getCurrentEpoch().getRegionId();
+							if (val.regionID == proc.getCurrentEpoch().getRegionId()) {
+								ret.lineHit.orLocalReads(val.localReads);
+								ret.lineHit.orLocalWrites(val.localWrites);
+								if (val.supplied) {
+									ret.lineHit.setSupplied();
 								}
+								sizeIncomingMemBytes += (SystemConstants.CE_READ_METADATA_BYTES
+										+ SystemConstants.CE_WRITE_METADATA_BYTES);
 							}
+						}
+					}
+
+					int sizeOutgoingMemBytes = SystemConstants.CONTROL_MESSAGE_SIZE_BYTES;
+					int sizeMemAccessBytes = SystemConstants.DATA_MESSAGE_CONTROL_BYTES
+							+ +SystemConstants.DATA_MESSAGE_SIZE_BYTES
+							+ proc.getCEMetadataLineSize();
+					if (proc.params.useAIMCache()) {
+						if (ret.aimHit == CacheLevel.L3) {
+							// AIM hit so no messages to memory to access global table
 						} else {
 							if (line.inMemory() || proc.L2cache.outOfCache) {
 								// One control to get the metadata in memory
@@ -362,12 +354,21 @@ public class HierarchicalCache<Line extends MESILine> {
 										false, false);
 							}
 						}
+					} else {
+						if (line.inMemory() || proc.L2cache.outOfCache) {
+							// One control to get the metadata in memory
+							proc.updateTrafficForOneNetworkMessage(1, sizeOutgoingMemBytes,
+									false, false);
+
+							proc.updateTrafficForOneNetworkMessage(1, sizeIncomingMemBytes,
+									false, false);
+						}
 					}
 				}
-				ret.whereHit = this.levelInHierarchy;
-				assert ((MESILine) ret.lineHit).id() == proc.id;
-				return ret;
 			}
+			ret.whereHit = this.levelInHierarchy;
+			assert ((MESILine) ret.lineHit).id() == proc.id;
+			return ret;
 		}
 
 		// if we made it here, we missed in this cache
@@ -393,12 +394,11 @@ public class HierarchicalCache<Line extends MESILine> {
 				if (md != null) {
 					boolean hasMD = false;
 					for (int i = 0; i < proc.params.numProcessors(); i++) {
-						CpuId id = new CpuId(i);
-						Processor<Line> p = proc.machine.getProc(id);
+						Processor<Line> p = proc.allProcessors[i];
 						// There is no need to account for extra traffic if the outOfCache bit is
 						// not set. Seems unfair.
 						if (p.L2cache.outOfCache) {
-							if (id.equals(proc.id)) {
+							if (p == proc) {
 								CEGlobalTableValue val = md.getPerCoreMetadata(p);
 								assert val.regionID <= p.getCurrentEpoch().getRegionId();
 								if (val.regionID == p.getCurrentEpoch().getRegionId()) {
@@ -437,8 +437,7 @@ public class HierarchicalCache<Line extends MESILine> {
 
 		// evict a line (possibly to next-level cache)
 		if (levelInHierarchy == CacheLevel.L1) {
-			Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy,
-					MRUBits[setIndex]);
+			Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy);
 			assert ((MESILine) toEvict).id() == proc.id
 					&& proc.id == processor.id : "The owner of a private line should always be the current core";
 
@@ -446,16 +445,8 @@ public class HierarchicalCache<Line extends MESILine> {
 			assert ret.lineHit.valid();
 			Line insert = lineFactory.create(proc.id, levelInHierarchy, ret.lineHit);
 			assert ((MESILine) insert).id() == processor.id && proc.id == processor.id;
-			if (proc.params.usePLRU()) {
-				int lineIndex = set.indexOf(toEvict);
-				set.set(lineIndex, insert);
-				setMRUBit(insert);
-			} else {
-				boolean found = set.remove(toEvict);
-				assert found;
-				// NB: only push in the incoming line *after* we've evicted something
-				set.addFirst(insert);
-			}
+			// NB: only push in the incoming line *after* we've evicted something
+			replaceLine(set, toEvict, insert);
 			ret.lineHit = insert;
 
 			if (nextCache != null) {
@@ -463,8 +454,7 @@ public class HierarchicalCache<Line extends MESILine> {
 			}
 		} else if (levelInHierarchy == CacheLevel.L2) {
 			// evict a line (possibly to next-level cache)
-			Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy,
-					MRUBits[setIndex]);
+			Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy);
 			assert ((MESILine) toEvict).id() == proc.id
 					&& proc.id == processor.id : "The owner of a private line should always be the current core";
 
@@ -480,6 +470,9 @@ public class HierarchicalCache<Line extends MESILine> {
 				// global table.
 				if (toEvict.isSupplied() || toEvict.isRead() || toEvict.isWritten()) {
 					proc.perRegionLocalTable.add(toEvict.lineAddress().get());
+					if (proc.params.useAIMCache()) {
+						proc.aimcache.applyPendingClear(proc, toEvict.lineAddress().get());
+					}
 					CEGlobalTableValue val = new CEGlobalTableValue(toEvict.getLocalReads(),
 							toEvict.getLocalWrites(), toEvict.isSupplied(),
 							proc.getCurrentEpoch().getRegionId());
@@ -552,16 +545,8 @@ public class HierarchicalCache<Line extends MESILine> {
 			// insert.setRemoteWrites(insert.getLocalWrites() | insert.getRemoteWrites());
 
 			assert ((MESILine) insert).id() == processor.id && proc.id == processor.id;
-			if (proc.params.usePLRU()) {
-				int lineIndex = set.indexOf(toEvict);
-				set.set(lineIndex, insert);
-				setMRUBit(insert);
-			} else {
-				boolean found = set.remove(toEvict);
-				assert found;
-				// NB: only push in the incoming line *after* we've evicted something
-				set.addFirst(insert);
-			}
+			// NB: only push in the incoming line *after* we've evicted something
+			replaceLine(set, toEvict, insert);
 
 			if (nextCache != null) {
 				nextCache.evictedFromHigherCache(proc, toEvict);
@@ -575,9 +560,8 @@ public class HierarchicalCache<Line extends MESILine> {
 
 			LineAddress la = address.lineAddress();
 
-			set = sets.get(index(la.get()));
-			Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy,
-					MRUBits[setIndex]);
+			set = sets[index(la.get())];
+			Line toEvict = callbacks.eviction(ret.lineHit, set, levelInHierarchy);
 
 			// Check if the same line is in higher-level caches. If yes, then the line should
 			// also be evicted from all higher-level caches. Possibly called "Recall".
@@ -614,16 +598,8 @@ public class HierarchicalCache<Line extends MESILine> {
 				int sizeBytes = SystemConstants.TAG_BYTES + SystemConstants.DATA_MESSAGE_SIZE_BYTES;
 				proc.updateTrafficForOneNetworkMessage(1, sizeBytes, false, false);
 			}
-			if (proc.params.usePLRU()) {
-				int lineIndex = set.indexOf(toEvict);
-				set.set(lineIndex, ret.lineHit);
-				setMRUBit(ret.lineHit);
-			} else {
-				boolean found = set.remove(toEvict);
-				assert found;
-				// NB: add the incoming line *after* the eviction handler runs
-				set.addFirst(ret.lineHit);
-			}
+			// NB: add the incoming line *after* the eviction handler runs
+			replaceLine(set, toEvict, ret.lineHit);
 
 			// It does not matter whether memLine or ret.lineHit has AIM md. We
 			// need to evict a line.
@@ -658,26 +634,97 @@ public class HierarchicalCache<Line extends MESILine> {
 
 		for (Processor<Line> p : processor.allProcessors) {
 			HashSet<Long> evictedL1Lines = new HashSet<>();
-			LinkedList<Line> set = p.L1cache.sets.get(p.L1cache.index(toEvict.lineAddress().get()));
+			long lineAddress = toEvict.lineAddress().get();
+			CacheSet<Line> set = p.L1cache.sets[p.L1cache.index(lineAddress)];
 
 			// search this cache
 			boolean foundL1 = false, foundL2 = false;
 			boolean touchedMem = false;
 
-			for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-				MESILine line = it.next();
-				if (line.valid() && line.lineAddress().get() == toEvict.lineAddress().get()) {
-					if (line.getState() == MESIState.MESI_MODIFIED) {
-						modified = true;
+			int way = set.find(lineAddress);
+			if (way >= 0) {
+				MESILine line = set.getWay(way);
+				if (line.getState() == MESIState.MESI_MODIFIED) {
+					modified = true;
+				}
+
+				if (p.params.conflictExceptions()) {
+					// If a cache line being evicted has a supplied or local bit set, the line
+					// address is saved in the local table and local access/supplied bits are
+					// saved in the global table.
+					if (line.isSupplied() || line.isRead() || line.isWritten()) {
+						long lineAddr = line.lineAddress().get();
+						p.perRegionLocalTable.add(lineAddr);
+						if (p.params.useAIMCache()) {
+							processor.aimcache.applyPendingClear(p, lineAddr);
+						}
+						CEPerLineMetadata<Line> md = p.machine.globalTable.get(lineAddr);
+						if (md == null) {
+							md = new CEPerLineMetadata<Line>(p.params.numProcessors());
+						}
+						CEGlobalTableValue val = md.getPerCoreMetadata(p);
+						val.localReads += line.getLocalReads();
+						val.localWrites += line.getLocalWrites();
+						if (line.isSupplied()) {
+							val.supplied = true;
+						}
+						val.regionID = p.getCurrentEpoch().getRegionId();
+						md.setPerCoreMetadata(p.id, val);
+						p.machine.globalTable.put(lineAddr, md);
+						// if (line.isRead()) {
+						// numBytes += MemorySystemConstants.CE_READ_METADATA_BYTES;
+						// }
+						// if (line.isWritten()) {
+						// numBytes += MemorySystemConstants.CE_WRITE_METADATA_BYTES;
+						// }
+
+						if (processor.params.useAIMCache()) {
+							// Check if the line is in the AIM, in that case, CE can avoid a
+							// memory message
+							AIMResponse<Line> aimResp = processor.aimcache.request(processor,
+									toEvict, false);
+							if (aimResp.whereHit != CacheLevel.L3) {
+								touchedMem = true;
+								numBytes += (SystemConstants.CE_READ_METADATA_BYTES
+										+ SystemConstants.CE_WRITE_METADATA_BYTES);
+							}
+						} else {
+							touchedMem = true;
+							numBytes += (SystemConstants.CE_READ_METADATA_BYTES
+									+ SystemConstants.CE_WRITE_METADATA_BYTES);
+						}
+						p.L2cache.outOfCache = true;
+						// If an L1 line is backed up, then we can skip backing up the L2 line
+						evictedL1Lines.add(lineAddr);
 					}
+				}
+
+				line.invalidate((Machine<MESILine>) processor.machine);
+				foundL1 = true;
+			}
+
+			// For this processor p, line toEvict was present in the L1, so it should be present in
+			// L2 as well. Even otherwise, we need to check the L2.
+			set = p.L2cache.sets[p.L2cache.index(lineAddress)];
+
+			way = set.find(lineAddress);
+			if (way >= 0) {
+				MESILine line = set.getWay(way);
+				if (line.getState() == MESIState.MESI_MODIFIED) {
+					modified = true;
+				}
 
-					if (p.params.conflictExceptions()) {
-						// If a cache line being evicted has a supplied or local bit set, the line
-						// address is saved in the local table and local access/supplied bits are
-						// saved in the global table.
-						if (line.isSupplied() || line.isRead() || line.isWritten()) {
-							long lineAddr = line.lineAddress().get();
+				if (p.params.conflictExceptions()) {
+					if (line.isSupplied() || line.isRead() || line.isWritten()) {
+						long lineAddr = line.lineAddress().get();
+						// If an L1 line is backed up, then we can skip backing up the L2 line
+						if (foundL1) {
+							assert evictedL1Lines.contains(lineAddr);
+						} else {
 							p.perRegionLocalTable.add(lineAddr);
+							if (p.params.useAIMCache()) {
+								processor.aimcache.applyPendingClear(p, lineAddr);
+							}
 							CEPerLineMetadata<Line> md = p.machine.globalTable.get(lineAddr);
 							if (md == null) {
 								md = new CEPerLineMetadata<Line>(p.params.numProcessors());
@@ -701,8 +748,8 @@ public class HierarchicalCache<Line extends MESILine> {
 							if (processor.params.useAIMCache()) {
 								// Check if the line is in the AIM, in that case, CE can avoid a
 								// memory message
-								AIMResponse<Line> aimResp = processor.aimcache.request(processor,
-										toEvict, false);
+								AIMResponse<Line> aimResp = processor.aimcache
+										.request(processor, toEvict, false);
 								if (aimResp.whereHit != CacheLevel.L3) {
 									touchedMem = true;
 									numBytes += (SystemConstants.CE_READ_METADATA_BYTES
@@ -714,81 +761,13 @@ public class HierarchicalCache<Line extends MESILine> {
 										+ SystemConstants.CE_WRITE_METADATA_BYTES);
 							}
 							p.L2cache.outOfCache = true;
-							// If an L1 line is backed up, then we can skip backing up the L2 line
-							evictedL1Lines.add(lineAddr);
 						}
 					}
-
-					line.invalidate((Machine<MESILine>) processor.machine);
-					foundL1 = true;
-					break;
 				}
-			}
-
-			// For this processor p, line toEvict was present in the L1, so it should be present in
-			// L2 as well. Even otherwise, we need to check the L2.
-			set = p.L2cache.sets.get(p.L2cache.index(toEvict.lineAddress().get()));
-
-			for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-				MESILine line = it.next();
-				if (line.valid() && line.lineAddress().get() == toEvict.lineAddress().get()) {
-					if (line.getState() == MESIState.MESI_MODIFIED) {
-						modified = true;
-					}
 
-					if (p.params.conflictExceptions()) {
-						if (line.isSupplied() || line.isRead() || line.isWritten()) {
-							long lineAddr = line.lineAddress().get();
-							// If an L1 line is backed up, then we can skip backing up the L2 line
-							if (foundL1) {
-								assert evictedL1Lines.contains(lineAddr);
-							} else {
-								p.perRegionLocalTable.add(lineAddr);
-								CEPerLineMetadata<Line> md = p.machine.globalTable.get(lineAddr);
-								if (md == null) {
-									md = new CEPerLineMetadata<Line>(p.params.numProcessors());
-								}
-								CEGlobalTableValue val = md.getPerCoreMetadata(p);
-								val.localReads += line.getLocalReads();
-								val.localWrites += line.getLocalWrites();
-								if (line.isSupplied()) {
-									val.supplied = true;
-								}
-								val.regionID = p.getCurrentEpoch().getRegionId();
-								md.setPerCoreMetadata(p.id, val);
-								p.machine.globalTable.put(lineAddr, md);
-								// if (line.isRead()) {
-								// numBytes += MemorySystemConstants.CE_READ_METADATA_BYTES;
-								// }
-								// if (line.isWritten()) {
-								// numBytes += MemorySystemConstants.CE_WRITE_METADATA_BYTES;
-								// }
-
-								if (processor.params.useAIMCache()) {
-									// Check if the line is in the AIM, in that case, CE can avoid a
-									// memory message
-									AIMResponse<Line> aimResp = processor.aimcache
-											.request(processor, toEvict, false);
-									if (aimResp.whereHit != CacheLevel.L3) {
-										touchedMem = true;
-										numBytes += (SystemConstants.CE_READ_METADATA_BYTES
-												+ SystemConstants.CE_WRITE_METADATA_BYTES);
-									}
-								} else {
-									touchedMem = true;
-									numBytes += (SystemConstants.CE_READ_METADATA_BYTES
-											+ SystemConstants.CE_WRITE_METADATA_BYTES);
-								}
-								p.L2cache.outOfCache = true;
-							}
-						}
-					}
-
-					line.invalidate((Machine<MESILine>) processor.machine);
-					foundL2 = true;
-					numInvalidations++;
-					break;
-				}
+				line.invalidate((Machine<MESILine>) processor.machine);
+				foundL2 = true;
+				numInvalidations++;
 			}
 
 			if (foundL1) {
@@ -840,26 +819,24 @@ public class HierarchicalCache<Line extends MESILine> {
 	private void recallFromL1Cache(Processor<Line> proc, Line toEvict) {
 		assert levelInHierarchy == CacheLevel.L2 && toEvict.valid();
 
-		LinkedList<Line> set = processor.L1cache.sets
-				.get(processor.L1cache.index(toEvict.lineAddress().get()));
+		CacheSet<Line> set = processor.L1cache.sets[processor.L1cache
+				.index(toEvict.lineAddress().get())];
 		assert set.size() == processor.L1cache.assoc;
 		// search this cache
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			MESILine line = it.next();
-			if (line.valid() && line.lineAddress().get() == toEvict.lineAddress().get()) {
-				assert ((MESILine) toEvict).getState() == line.getState();
-				assert ((MESILine) toEvict).dirty() == line.dirty();
-				if (proc.params.conflictExceptions()) {
-					// Sync local reads and writes
-					toEvict.orLocalReads(line.getLocalReads());
-					toEvict.orLocalWrites(line.getLocalWrites());
-					if (line.isSupplied()) {
-						toEvict.setSupplied();
-					}
+		int way = set.find(toEvict.lineAddress().get());
+		if (way >= 0) {
+			MESILine line = set.getWay(way);
+			assert ((MESILine) toEvict).getState() == line.getState();
+			assert ((MESILine) toEvict).dirty() == line.dirty();
+			if (proc.params.conflictExceptions()) {
+				// Sync local reads and writes
+				toEvict.orLocalReads(line.getLocalReads());
+				toEvict.orLocalWrites(line.getLocalWrites());
+				if (line.isSupplied()) {
+					toEvict.setSupplied();
 				}
-				line.invalidate((Machine<MESILine>) proc.machine);
-				break;
 			}
+			line.invalidate((Machine<MESILine>) proc.machine);
 		}
 	}
 
@@ -876,16 +853,14 @@ public class HierarchicalCache<Line extends MESILine> {
 
 	/** Just get the corresponding line, from any cache. */
 	public Line getLine(LineAddress addr) {
-		LinkedList<Line> set = sets.get(index(addr.get()));
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
-			if (line.valid()) {
-				if (line.lineAddress().get() == addr.get()) {
-					return line;
-				}
-			}
-		}
-		return null;
+		return getLine(addr.get());
+	}
+
+	/** Just get the line with the given line address, from any cache. */
+	public Line getLine(long lineAddr) {
+		CacheSet<Line> set = sets[index(lineAddr)];
+		int way = set.find(lineAddr);
+		return (way < 0) ? null : set.getWay(way);
 	}
 
 	/**
@@ -906,25 +881,19 @@ public class HierarchicalCache<Line extends MESILine> {
 
 	private MemoryResponse<Line> __search(final ByteAddress address, final boolean reorderSet) {
 		MemoryResponse<Line> ret = new MemoryResponse<Line>();
-		final LinkedList<Line> set = sets.get(index(address.get()));
+		final CacheSet<Line> set = sets[index(address.get())];
 
 		// search this cache
-		for (Line l : set) {
-			if (l.valid() && l.contains(address)) {
-				// hit!
-				ret.lineHit = l;
-				ret.whereHit = levelInHierarchy;
-
-				if (reorderSet) {
-					if (processor.params.usePLRU()) {
-						setMRUBit(l);
-					} else {
-						set.remove(l);
-						set.addFirst(l);
-					}
-				}
-				return ret;
+		int way = set.find(address.lineAddress().get());
+		if (way >= 0) {
+			// hit!
+			ret.lineHit = set.getWay(way);
+			ret.whereHit = levelInHierarchy;
+
+			if (reorderSet) {
+				touchLine(set, way);
 			}
+			return ret;
 		}
 
 		// at this point, we missed in this cache
@@ -949,9 +918,9 @@ public class HierarchicalCache<Line extends MESILine> {
 	private MemoryResponse<Line> __ceSearchPrivateCaches(final ByteAddress address,
 			final boolean reorderSet) {
 		MemoryResponse<Line> ret = new MemoryResponse<Line>();
-		final LinkedList<Line> set = sets.get(index(address.get()));
+		final CacheSet<Line> set = sets[index(address.get())];
 
-		// search this cache
+		// search this cache, in recency order since several invalid lines may match
 		for (Line l : set) {
 			// CE: IMP: It does not matter if the line is invalid
 			if (l.lineAddress() != null && l.contains(address)) {
@@ -960,12 +929,7 @@ public class HierarchicalCache<Line extends MESILine> {
 				ret.whereHit = levelInHierarchy;
 
 				if (reorderSet) {
-					if (processor.params.usePLRU()) {
-						setMRUBit(l);
-					} else {
-						set.remove(l);
-						set.addFirst(l);
-					}
+					touchLine(set, set.wayOf(l));
 				}
 				return ret;
 			}
@@ -993,17 +957,17 @@ public class HierarchicalCache<Line extends MESILine> {
 	 * particular order.
 	 */
 	public void visitAllLines(LineVisitor<Line> lv) {
-		for (LinkedList<Line> set : sets) {
-			for (Line l : set) {
-				lv.visit(l);
+		for (CacheSet<Line> set : sets) {
+			for (int way = 0; way < set.size(); way++) {
+				lv.visit(set.getWay(way));
 			}
 		}
 	}
 
 	/** Verify that each line is indexed into the proper set. */
 	public void verifyIndices() {
-		for (int i = 0; i < sets.size(); i++) {
-			LinkedList<Line> set = sets.get(i);
+		for (int i = 0; i < sets.length; i++) {
+			CacheSet<Line> set = sets[i];
 			for (Line l : set) {
 				if (l.lineAddress() != null) {
 					assert index(l.lineAddress().get()) == i;
@@ -1019,7 +983,7 @@ public class HierarchicalCache<Line extends MESILine> {
 			s.append(this.processor + "\n");
 		}
 		s.append("cache=" + this.levelInHierarchy + System.getProperty("line.separator"));
-		for (LinkedList<Line> set : sets) {
+		for (CacheSet<Line> set : sets) {
 			for (Line l : set) {
 				s.append(l.toString() + "\n");
 			}
@@ -1036,21 +1000,37 @@ public class HierarchicalCache<Line extends MESILine> {
 		return s.toString();
 	}
 
+	/** Put the incoming line in the way of the evicted line, and make it the MRU line. */
+	private void replaceLine(CacheSet<Line> set, Line toEvict, Line incoming) {
+		int way = set.wayOf(toEvict);
+		assert way >= 0;
+		set.put(way, incoming);
+		if (levelInHierarchy != CacheLevel.L3) {
+			SharerDirectory dir = processor.L3cache.directory;
+			if (toEvict.lineAddress() != null) {
+				dir.remove(processor.id.get(), toEvict.lineAddress().get());
+			}
+			dir.add(processor.id.get(), incoming.lineAddress().get());
+		}
+		touchLine(set, way);
+	}
+
+	private void touchLine(CacheSet<Line> set, int way) {
+		if (processor.params.usePLRU()) {
+			setMRUBit(set, way);
+		} else {
+			set.touch(way);
+		}
+	}
+
 	public void setMRUBit(Line cacheLine) {
-		int setIndex = index(cacheLine.lineAddress().get());
-		LinkedList<Line> set = sets.get(setIndex);
-		short bits = MRUBits[setIndex];
-		int lineIndex = set.indexOf(cacheLine);
+		CacheSet<Line> set = sets[index(cacheLine.lineAddress().get())];
+		int lineIndex = set.wayOf(cacheLine);
 		if (lineIndex < 0) {
 			System.out.println("Error: can't find a line in the corresponding set.");
 			System.exit(-777);
 		}
-
-		bits = (short) (bits | (1 << lineIndex));
-		if ((bits & assocMask) == assocMask) { // all bits are set
-			bits = (short) (1 << lineIndex); // keep the last set MRU bit.
-		}
-		MRUBits[setIndex] = bits;
+		setMRUBit(set, lineIndex);
 
 		/*
 		 * if (levelInHierarchy == CacheLevel.L1) { // The corresponding L2 MRU bits should also be
@@ -1058,25 +1038,23 @@ public class HierarchicalCache<Line extends MESILine> {
 		 */
 	}
 
+	private void setMRUBit(CacheSet<Line> set, int lineIndex) {
+		long bits = set.mruBits | (1L << lineIndex);
+		if ((bits & assocMask) == assocMask) { // all bits are set
+			bits = 1L << lineIndex; // keep the last set MRU bit.
+		}
+		set.mruBits = bits;
+	}
+
 	// the line should still be valid when this function is called
 	public void resetMRUBit(Line toInvalidate) {
-		int setIndex = index(toInvalidate.lineAddress().get());
-		List<Line> set = sets.get(setIndex);
-		int lineIndex = -1;
-		for (Iterator<Line> it = set.iterator(); it.hasNext();) {
-			Line line = it.next();
-			if (line.valid() && line.lineAddress().get() == toInvalidate.lineAddress().get()) {
-				lineIndex = set.indexOf(line);
-				break;
-			}
-		}
+		CacheSet<Line> set = sets[index(toInvalidate.lineAddress().get())];
+		int lineIndex = set.find(toInvalidate.lineAddress().get());
 		if (lineIndex == -1) {
 			System.out.println("Can't find the line to reset MRU bit");
 			System.exit(-1);
 		}
-		short bits = MRUBits[setIndex];
-		bits = (short) (bits & ~(1 << lineIndex));
-		MRUBits[setIndex] = bits;
+		set.mruBits &= ~(1L << lineIndex);
 	}
 
 } // end class HierarchicalCache
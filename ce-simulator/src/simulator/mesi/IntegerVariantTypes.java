@@ -42,10 +42,23 @@ class CpuId {
 class ThreadId {
 	private final short tid;
 
+	/** Canonical instances for trace thread ids, indexed by the unsigned value of the id */
+	private static final ThreadId[] cache = new ThreadId[256];
+
 	public ThreadId(int id) {
 		tid = (short) id;
 	}
 
+	/** Returns a shared instance for the given id. ThreadId is immutable, so this is safe. */
+	static ThreadId of(byte id) {
+		ThreadId t = cache[id & 0xff];
+		if (t == null) {
+			t = new ThreadId(id);
+			cache[id & 0xff] = t;
+		}
+		return t;
+	}
+
 	public short get() {
 		return tid;
 	}
@@ -86,6 +99,10 @@ abstract class ByteAddress {
 		return this.addr;
 	}
 
+	public void set(long a) {
+		this.addr = a;
+	}
+
 	public void incr() {
 		this.addr++;
 	}
@@ -0,0 +1,126 @@
+package simulator.mesi;
+
+import java.util.Arrays;
+
+/**
+ * A map from longs to non-negative ints with open addressing and linear probing, so that it
+ * neither boxes keys nor allocates entries.
+ */
+final class LongIntHashMap {
+	/** Returned for a missing key */
+	static final int NONE = -1;
+	/** Marks a free slot. The key 0 itself is kept in {@link #zeroValue}. */
+	private static final long FREE = 0L;
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private int[] values;
+	private int mask;
+	/** Number of slots in use, not counting the key 0 */
+	private int used;
+	private int zeroValue = NONE;
+
+	LongIntHashMap() {
+		keys = new long[MIN_CAPACITY];
+		values = new int[MIN_CAPACITY];
+		mask = MIN_CAPACITY - 1;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	int size() {
+		return used + (zeroValue != NONE ? 1 : 0);
+	}
+
+	private int slotOf(long key) {
+		int i = hash(key) & mask;
+		while (keys[i] != FREE && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	/** The value of the key, or NONE */
+	int get(long key) {
+		if (key == FREE) {
+			return zeroValue;
+		}
+		int i = slotOf(key);
+		return (keys[i] == key) ? values[i] : NONE;
+	}
+
+	void put(long key, int value) {
+		assert value >= 0;
+		if (key == FREE) {
+			zeroValue = value;
+			return;
+		}
+		int i = slotOf(key);
+		values[i] = value;
+		if (keys[i] != key) {
+			keys[i] = key;
+			if (++used * 2 > keys.length) {
+				rehash(keys.length * 2);
+			}
+		}
+	}
+
+	/** Returns the value the key had, or NONE. */
+	int remove(long key) {
+		if (key == FREE) {
+			int old = zeroValue;
+			zeroValue = NONE;
+			return old;
+		}
+		int i = slotOf(key);
+		if (keys[i] != key) {
+			return NONE;
+		}
+		int old = values[i];
+		// Shift back the entries of the probe run that follows, so that no tombstones are needed
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			if (keys[j] == FREE) {
+				break;
+			}
+			int home = hash(keys[j]) & mask;
+			// Move keys[j] into the hole at i unless its home lies cyclically in (i, j]
+			if (i <= j ? (i < home && home <= j) : (i < home || home <= j)) {
+				continue;
+			}
+			keys[i] = keys[j];
+			values[i] = values[j];
+			i = j;
+		}
+		keys[i] = FREE;
+		used--;
+		return old;
+	}
+
+	void clear() {
+		if (used > 0) {
+			Arrays.fill(keys, FREE);
+			used = 0;
+		}
+		zeroValue = NONE;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new long[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != FREE) {
+				int slot = slotOf(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+}
@@ -1,11 +1,8 @@
 package simulator.mesi;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedWriter;
-import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -17,39 +14,17 @@ import simulator.mesi.Machine.SimulationMode;
 
 public class MESISim {
 
-	/** enable checking of computationally expensive asserts */
-	public static boolean XASSERTS = true;
-
 	public static final ThreadId INVALID_THREADID = new ThreadId(-1);
 
 	public enum PARSEC_PHASE {
 		PRE_ROI, IN_ROI, POST_ROI
 	}
 
-	private static PARSEC_PHASE phase = PARSEC_PHASE.PRE_ROI;
-
-	static OptionSet Options;
-
-	private static int maxLiveThreads;
-	private static int numSpawnedThreads;
-	private static int currentLiveThreads;
-	private static long insnsExecuted;
-	private static long stackAccesses;
-
-	static long totalEvents = 1;
-	private static long basicBlockEvents;
-
-	public static double totalScavengeTime = 0;
-
 	public static final long debugStart = 626000000;
 	public static final long debugCurrent = 626057257;
 	public static final long debugByteAddress = 22582336L;
 	public static final long debugLineAddress = 140637238945664L;
 
-	public static boolean debugPrint() {
-		return totalEvents == debugCurrent;
-	}
-
 	// http://docs.oracle.com/javase/7/docs/technotes/guides/language/assert.html
 	static boolean assertsEnabled = false;
 
@@ -57,64 +32,76 @@ public class MESISim {
 		assert assertsEnabled = true; // Intentional side effect!!!
 	}
 
-	// These checks are expensive
-	public static boolean enableXasserts() {
-		if (XASSERTS) {
-			if ((totalEvents % Options.valueOf(Knobs.AssertPeriod) == 0)
-			// && totalEvents > debugStart
-			) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-	public static boolean modelOnlyROI() {
-		return Options.valueOf(Knobs.modelOnlyROI);
-	}
-
-	public static void setPhase(PARSEC_PHASE p) {
-		phase = p;
-	}
-
-	public static PARSEC_PHASE getPARSECPhase() {
-		return phase;
-	}
-
-	public static int numProcessors() {
-		return Options.valueOf(Knobs.Cores);
-	}
-
 	public static void main(String[] args) throws IOException {
-		Options = Knobs.parser.parse(args);
-		if (Options.has(Knobs.Help)) {
+		OptionSet options = Knobs.parse(args);
+		if (options.has(Knobs.Help)) {
 			Knobs.parser.printHelpOn(System.out);
 			return;
 		}
-		XASSERTS = Options.valueOf(Knobs.Xasserts);
+		SimContext ctx = new SimContext(options);
 
-		final SimulationMode simMode;
-		if (Options.valueOf(Knobs.SimulationMode).equals("baseline")) {
-			simMode = SimulationMode.BASELINE;
-		} else if (Options.valueOf(Knobs.SimulationMode).equals("viser")) {
-			throw new UnsupportedOperationException("Viser mode not implemented.");
-		} else {
-			throw new IllegalStateException(
-					"Invalid simulation mode: " + Options.valueOf(Knobs.SimulationMode));
-		}
+		final SimulationMode simMode = simulationMode(ctx);
 
-		DataInputStream in;
+		TraceReader in;
 		try {
-			FileInputStream fis = new FileInputStream(Options.valueOf(Knobs.ToSimulatorFifo));
-			in = new DataInputStream(new BufferedInputStream(fis));
+			in = TraceReader.open(options.valueOf(Knobs.ToSimulatorFifo));
 		} catch (FileNotFoundException fnf) {
 			fnf.printStackTrace();
 			return;
 		}
 
 		final long startTime = System.currentTimeMillis();
-		SystemConstants.setLineSize(Options.valueOf(Knobs.LineSize));
-		SystemConstants.setLLCAccessTimes(numProcessors());
+		Machine<MESILine> sim = createMachine(ctx, simMode);
+
+		System.out.println("[mesisim] starting simulation...");
+
+		// The front-end waits on the simulator in lockstep mode, so decode inline there
+		TraceDecoder decoder = new TraceDecoder(in,
+				options.valueOf(Knobs.PipelinedDecode) && !options.valueOf(Knobs.Lockstep));
+		if (options.valueOf(Knobs.SeekToROI)) {
+			long skipped = TraceIndex.seekToROI(options.valueOf(Knobs.ToSimulatorFifo), decoder,
+					options.valueOf(Knobs.ROIWarmupEvents));
+			System.out.println("[mesisim] " + "skipped " + skipped + " pre-ROI events");
+		}
+		Event e = new Event();
+		while (true) {
+			try {
+				getNextEvent(decoder, sim, e);
+				boolean simulationFinished = handleEvent(e, sim);
+				if (simulationFinished) {
+					break;
+				}
+			} catch (EOFException eof) {
+				break;
+			}
+		}
+
+		decoder.close();
+
+		double mins = (System.currentTimeMillis() - startTime) / (double) (1000 * 60);
+
+		checkPacifistDepth(sim);
+		generateStats(mins, sim);
+
+	} // end main()
+
+	static SimulationMode simulationMode(SimContext ctx) {
+		OptionSet options = ctx.options;
+		if (options.valueOf(Knobs.SimulationMode).equals("baseline")) {
+			return SimulationMode.BASELINE;
+		} else if (options.valueOf(Knobs.SimulationMode).equals("viser")) {
+			throw new UnsupportedOperationException("Viser mode not implemented.");
+		} else {
+			throw new IllegalStateException(
+					"Invalid simulation mode: " + options.valueOf(Knobs.SimulationMode));
+		}
+	}
+
+	/** Build a machine configured by the options of the given context. */
+	static Machine<MESILine> createMachine(final SimContext ctx, final SimulationMode simMode) {
+		final OptionSet options = ctx.options;
+		SystemConstants.setLineSize(options.valueOf(Knobs.LineSize));
+		SystemConstants.setLLCAccessTimes(ctx.numProcessors());
 
 		Machine.MachineParams<MESILine> p = new Machine.MachineParams<MESILine>() {
 			SimulationMode simulationMode() {
@@ -123,17 +110,17 @@ public class MESISim {
 
 			@Override
 			int numProcessors() {
-				return Options.valueOf(Knobs.Cores);
+				return options.valueOf(Knobs.Cores);
 			}
 
 			@Override
 			int numPinThreads() {
-				return Options.valueOf(Knobs.PinThreads);
+				return options.valueOf(Knobs.PinThreads);
 			}
 
 			@Override
 			boolean pintool() {
-				return Options.valueOf(Knobs.Pintool);
+				return options.valueOf(Knobs.Pintool);
 			}
 
 			CacheConfiguration<MESILine> l1config() {
@@ -142,24 +129,24 @@ public class MESISim {
 				// values are always the same
 				return new CacheConfiguration<MESILine>() {
 					{
-						cacheSize = Options.valueOf(Knobs.L1Size);
+						cacheSize = options.valueOf(Knobs.L1Size);
 						lineSize = SystemConstants.LINE_SIZE();
-						assoc = Options.valueOf(Knobs.L1Assoc);
+						assoc = options.valueOf(Knobs.L1Assoc);
 						level = CacheLevel.L1;
 					}
 				};
 			}
 
 			boolean useL2() {
-				return Options.valueOf(Knobs.UseL2);
+				return options.valueOf(Knobs.UseL2);
 			}
 
 			CacheConfiguration<MESILine> l2config() {
 				return new CacheConfiguration<MESILine>() {
 					{
-						cacheSize = Options.valueOf(Knobs.L2Size);
+						cacheSize = options.valueOf(Knobs.L2Size);
 						lineSize = SystemConstants.LINE_SIZE();
-						assoc = Options.valueOf(Knobs.L2Assoc);
+						assoc = options.valueOf(Knobs.L2Assoc);
 						level = CacheLevel.L2;
 					}
 				};
@@ -168,9 +155,9 @@ public class MESISim {
 			CacheConfiguration<MESILine> l3config() {
 				return new CacheConfiguration<MESILine>() {
 					{
-						cacheSize = Options.valueOf(Knobs.L3Size);
+						cacheSize = options.valueOf(Knobs.L3Size);
 						lineSize = SystemConstants.LINE_SIZE();
-						assoc = Options.valueOf(Knobs.L3Assoc);
+						assoc = options.valueOf(Knobs.L3Assoc);
 						level = CacheLevel.L3;
 					}
 				};
@@ -210,17 +197,17 @@ public class MESISim {
 
 			@Override
 			boolean ignoreStackReferences() {
-				return Options.valueOf(Knobs.IgnoreStackRefs);
+				return options.valueOf(Knobs.IgnoreStackRefs);
 			}
 
 			@Override
 			boolean remoteAccessesAffectLRU() {
-				return Options.valueOf(Knobs.RemoteAccessesAffectLRU);
+				return options.valueOf(Knobs.RemoteAccessesAffectLRU);
 			}
 
 			@Override
 			boolean conflictExceptions() {
-				return Options.valueOf(Knobs.ConflictExceptions);
+				return options.valueOf(Knobs.ConflictExceptions);
 			}
 
 			@Override
@@ -230,103 +217,83 @@ public class MESISim {
 
 			@Override
 			boolean reportSites() {
-				return Options.valueOf(Knobs.ReportSites);
+				return options.valueOf(Knobs.ReportSites);
 			}
 
 			@Override
 			boolean treatAtomicUpdatesAsRegularAccesses() {
-				return Options.valueOf(Knobs.TreatAtomicUpdatesAsRegularAccesses);
+				return options.valueOf(Knobs.TreatAtomicUpdatesAsRegularAccesses);
 			}
 
 			@Override
 			boolean usePLRU() {
-				return Options.valueOf(Knobs.UsePLRU);
+				return options.valueOf(Knobs.UsePLRU);
 			}
 
 			@Override
 			boolean withPacifistBackends() {
-				return Options.valueOf(Knobs.WithPacifistBackends);
+				return options.valueOf(Knobs.WithPacifistBackends);
 			}
 
 			@Override
 			boolean useAIMCache() {
-				return Options.valueOf(Knobs.UseAIMCache);
+				return options.valueOf(Knobs.UseAIMCache);
 			}
 
 			@Override
 			boolean clearAIMCacheAtRegionBoundaries() {
-				return Options.valueOf(Knobs.ClearAIMAtRegionBoundaries);
+				return options.valueOf(Knobs.ClearAIMAtRegionBoundaries);
 			}
 		};
 
-		Machine<MESILine> sim = new Machine<MESILine>(p);
+		Machine<MESILine> sim = new Machine<MESILine>(ctx, p);
 		if (p.conflictExceptions()) {
 			sim.initializeEpochs();
 		}
+		return sim;
+	}
 
-		System.out.println("[mesisim] starting simulation...");
-
-		while (true) {
-			try {
-				Event e = getNextEvent(in, sim);
-				boolean simulationFinished = handleEvent(e, sim);
-				if (simulationFinished) {
-					break;
-				}
-			} catch (EOFException eof) {
-				break;
-			}
-		}
-
-		in.close();
-
-		double mins = (System.currentTimeMillis() - startTime) / (double) (1000 * 60);
-
+	/** Report processors that ended the simulation inside a pacifist region. */
+	static void checkPacifistDepth(Machine<MESILine> sim) {
 		if (sim.params.withPacifistBackends()) {
 			Processor<MESILine>[] processors = sim.getProcs();
-			for (int i = 0; i < numProcessors(); i++) {
+			for (int i = 0; i < sim.ctx.numProcessors(); i++) {
 				if (processors[i].ignoreEvents()) {
 					System.out.println("[mesisim] Non-zero depth counter with P" + i);
 				}
 			}
 		}
+	}
 
-		generateStats(mins, sim);
-
-	} // end main()
-
-	private static Event getNextEvent(DataInputStream in, Machine<MESILine> sim)
+	/** Decode the next trace record into {@code e}, overwriting its previous contents. */
+	private static void getNextEvent(TraceDecoder in, Machine<MESILine> sim, Event e)
 			throws IOException {
-		byte type = in.readByte();
-		byte semantics = in.readByte();
-		byte tid = (byte) in.readShort();
-		Event e = new Event(EventType.fromByte(type), EventType.fromByte(semantics), tid);
-		e.addr = in.readLong();
-		e.memOpSize = (byte) in.readInt();
-		byte bits = in.readByte();
-		e.stackRef = (bits & 0x1) == 1;
-		e.value = in.readLong();
-		e.insnCount = in.readInt();
+		int i = in.advance();
+		fillEvent(in.batch(), i, sim, e);
+	}
+
+	/** Copy slot i of a decoded batch into {@code e}. */
+	static void fillEvent(TraceDecoder.Batch b, int i, Machine<MESILine> sim, Event e) {
+		byte type = b.type[i];
+		byte semantics = b.semantics[i];
+		byte tid = b.tid[i];
+		e.set(EventType.fromByte(type), EventType.fromByte(semantics), tid);
+		e.addr = b.addr[i];
+		e.memOpSize = b.memOpSize[i];
+		e.stackRef = (b.bits[i] & 0x1) == 1;
+		e.value = b.value[i];
+		e.insnCount = b.insnCount[i];
 
 		// site info
-		short lineno = in.readShort();
-		short fno = in.readShort();
-		short rno = in.readShort();
-		in.readInt(); // eventID
-		in.readShort(); // lastLineno
-		in.readShort(); // lastFno
-
-		SiteInfoEntry siEntry = new SiteInfoEntry(fno, lineno, rno);
-		int index = sim.siteInfo.indexOf(siEntry);
-		if (index == -1) {
-			sim.siteInfo.add(siEntry);
-			index = sim.siteInfo.size() - 1;
-		}
-		e.siteIndex = index;
+		short lineno = b.lineno[i];
+		short fno = b.fno[i];
+		short rno = b.rno[i];
+
+		e.siteIndex = sim.siteInfo.intern(fno, lineno, rno);
 
 		boolean debug = false;
-		if (debug && totalEvents >= MESISim.debugStart) {
-			System.out.println(totalEvents);
+		if (debug && sim.ctx.totalEvents >= MESISim.debugStart) {
+			System.out.println(sim.ctx.totalEvents);
 			System.out.println("Event type:" + EventType.fromByte(type) /* + " Byte:" + by */);
 			System.out.println("Semantics:" + EventType.fromByte(semantics));
 			System.out.println("Tid:" + tid);
@@ -337,7 +304,6 @@ public class MESISim {
 			System.out.println("Insn count:" + e.insnCount);
 			System.out.println();
 		}
-		return e;
 	}
 
 	/**
@@ -347,19 +313,20 @@ public class MESISim {
 	 *              the next event from the front-end
 	 * @return true when the simulation is finished, false otherwise
 	 */
-	private static boolean handleEvent(final Event e, Machine<MESILine> machine) {
-		CpuId cpuid = machine.cpuOfTid(e.tid);
+	static boolean handleEvent(final Event e, Machine<MESILine> machine) {
+		SimContext ctx = machine.ctx;
+		CpuId cpuid = machine.cpuOfTid(e.threadId);
 
 		switch (e.type) {
 			case ROI_START: {
-				assert phase == PARSEC_PHASE.PRE_ROI;
-				phase = PARSEC_PHASE.IN_ROI;
+				assert ctx.getPARSECPhase() == PARSEC_PHASE.PRE_ROI;
+				ctx.setPhase(PARSEC_PHASE.IN_ROI);
 				break;
 			}
 
 			case ROI_END: {
-				assert phase == PARSEC_PHASE.IN_ROI;
-				phase = PARSEC_PHASE.POST_ROI;
+				assert ctx.getPARSECPhase() == PARSEC_PHASE.IN_ROI;
+				ctx.setPhase(PARSEC_PHASE.POST_ROI);
 				break;
 			}
 
@@ -372,23 +339,23 @@ public class MESISim {
 
 			case THREAD_JOIN:
 			case THREAD_SPAWN: { // Called from the parent thread
-				machine.processSyncOp(cpuid, e.tid, e.type, e.semantics);
+				machine.processSyncOp(cpuid, e.threadId, e.type, e.semantics);
 				break;
 			}
 
 			case THREAD_START: { // Called from the child thread
-				currentLiveThreads++;
-				numSpawnedThreads++;
-				maxLiveThreads = Math.max(maxLiveThreads, currentLiveThreads);
-				machine.processSyncOp(cpuid, e.tid, e.type, e.semantics);
+				ctx.currentLiveThreads++;
+				ctx.numSpawnedThreads++;
+				ctx.maxLiveThreads = Math.max(ctx.maxLiveThreads, ctx.currentLiveThreads);
+				machine.processSyncOp(cpuid, e.threadId, e.type, e.semantics);
 				break;
 			}
 
 			case THREAD_FINISH: { // Called from the child thread
-				currentLiveThreads--;
-				machine.processSyncOp(cpuid, e.tid, e.type, e.semantics);
+				ctx.currentLiveThreads--;
+				machine.processSyncOp(cpuid, e.threadId, e.type, e.semantics);
 				// when main thread exits, tear down simulation
-				if (e.tid.get() == 0) {
+				if (e.tid == 0) {
 					return true;
 				}
 				break;
@@ -407,15 +374,15 @@ public class MESISim {
 			}
 
 			case BASIC_BLOCK: {
-				insnsExecuted += e.insnCount;
+				ctx.insnsExecuted += e.insnCount;
 				machine.insnsExecuted(cpuid, e.insnCount);
-				basicBlockEvents++;
+				ctx.basicBlockEvents++;
 				break;
 			}
 
 			case LOCK_ACQUIRE:
 			case LOCK_RELEASE: {
-				machine.processSyncOp(cpuid, e.tid, e.type, e.semantics);
+				machine.processSyncOp(cpuid, e.threadId, e.type, e.semantics);
 				break;
 			}
 
@@ -479,28 +446,29 @@ public class MESISim {
 				throw new RuntimeException("Impossible event type:\n" + e);
 			}
 		}
-		totalEvents++;
+		ctx.totalEvents++;
 		if (e.stackRef) {
-			stackAccesses++;
+			ctx.stackAccesses++;
 		}
 		return false; // not done processing events yet
 
 	} // end handleEvent()
 
-	private static void generateStats(double simRuntimeMins, Machine<MESILine> machine)
+	static void generateStats(double simRuntimeMins, Machine<MESILine> machine)
 			throws IOException {
+		SimContext ctx = machine.ctx;
 		System.out.println("[mesisim] exiting...");
 
 		// each stat is dumped as a Python dictionary object
 
 		StringWriter prefix = new StringWriter();
 		prefix.write("{'MESIStat':True, ");
-		Knobs.dumpRegisteredParams(prefix);
+		Knobs.dumpRegisteredParams(ctx.options, prefix);
 
 		String suffix = "}" + System.getProperty("line.separator");
 
 		// Viser: Overwrite files
-		String statsFilename = Options.valueOf(Knobs.StatsFile);
+		String statsFilename = ctx.options.valueOf(Knobs.StatsFile);
 		File f = new File(statsFilename);
 		// // check for filename collisions and rename around them
 		// while (f.exists()) {
@@ -514,109 +482,131 @@ public class MESISim {
 
 		DecimalFormat fmt = new DecimalFormat("0.000");
 
-		double denom = MaxCounter.globalCounters.get("pc_ExecutionDrivenCycleCount").get();
+		double denom = ctx.globalMaxCounters.get("pc_ExecutionDrivenCycleCount");
 
-		double value = DependentCounter.globalCounters.get("pc_MESIMemSystemExecDrivenCycleCount")
-				.get() / denom;
+		double value = ctx.globalDependentCounters.get("pc_MESIMemSystemExecDrivenCycleCount")
+				/ denom;
 		statsFd.write(prefix.toString() + "'ratioMESIMemSystemExecDrivenCycleCount': "
 				+ fmt.format(value) + suffix);
-		value = DependentCounter.globalCounters.get("pc_MESICoherenceExecDrivenCycleCount").get()
+		value = ctx.globalDependentCounters.get("pc_MESICoherenceExecDrivenCycleCount")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioMESICoherenceExecDrivenCycleCount': "
 				+ fmt.format(value) + suffix);
 
-		denom = MaxCounter.globalCounters.get("pc_BandwidthDrivenCycleCount").get();
+		denom = ctx.globalMaxCounters.get("pc_BandwidthDrivenCycleCount");
 
 		// dump "global" stats
 
 		statsFd.write(prefix.toString() + "'SimulationRunningTimeMins': "
 				+ String.format("%.2f", simRuntimeMins) + suffix);
 		statsFd.write(prefix.toString() + "'ScavengeRunningTimeMins': "
-				+ String.format("%.2f", totalScavengeTime) + suffix);
+				+ String.format("%.2f", ctx.totalScavengeTime) + suffix);
+		if (machine.globalTable.isTiered()) {
+			GlobalTable<MESILine> table = machine.globalTable;
+			long lookups = table.hotHits + table.coldHits + table.misses;
+			statsFd.write(prefix.toString() + "'GlobalTableHotTierHits': " + table.hotHits + suffix);
+			statsFd.write(
+					prefix.toString() + "'GlobalTableColdTierHits': " + table.coldHits + suffix);
+			statsFd.write(prefix.toString() + "'GlobalTableTierMisses': " + table.misses + suffix);
+			statsFd.write(prefix.toString() + "'GlobalTableHotTierHitRate': "
+					+ String.format("%.4f", (lookups == 0) ? 0 : table.hotHits / (double) lookups)
+					+ suffix);
+			statsFd.write(prefix.toString() + "'GlobalTableColdTierHitRate': "
+					+ String.format("%.4f", (lookups == 0) ? 0 : table.coldHits / (double) lookups)
+					+ suffix);
+			statsFd.write(prefix.toString() + "'GlobalTableSpilledBytes': " + table.bytesSpilled
+					+ suffix);
+			statsFd.write(
+					prefix.toString() + "'GlobalTableHotTierLines': " + table.hotSize() + suffix);
+			statsFd.write(
+					prefix.toString() + "'GlobalTableColdTierLines': " + table.coldSize() + suffix);
+			statsFd.write(prefix.toString() + "'GlobalTableColdTierFileBytes': "
+					+ table.coldBytes() + suffix);
+		}
 
 		double gigs = Runtime.getRuntime().totalMemory() / (double) (1 << 30);
 		String memUsage = "'MemUsageGB': " + String.format("%.2f", gigs);
 		statsFd.write(prefix.toString() + memUsage + suffix);
 
-		statsFd.write(prefix.toString() + "'MaxLiveThreads': " + maxLiveThreads + suffix);
-		statsFd.write(prefix.toString() + "'NumSpawnedThreads': " + numSpawnedThreads + suffix);
-		statsFd.write(prefix.toString() + "'StackAccesses': " + stackAccesses + suffix);
-		statsFd.write(prefix.toString() + "'Instructions': " + insnsExecuted + suffix);
-		statsFd.write(prefix.toString() + "'TotalEvents': " + totalEvents + suffix);
-		statsFd.write(prefix.toString() + "'BasicBlocks': " + basicBlockEvents + suffix);
-		double totalMemAccesses = SumCounter.globalCounters.get("pc_TotalMemoryAccesses").get();
-		double totalRegionBoundaries = SumCounter.globalCounters.get("pc_RegionBoundaries").get();
+		statsFd.write(prefix.toString() + "'MaxLiveThreads': " + ctx.maxLiveThreads + suffix);
+		statsFd.write(prefix.toString() + "'NumSpawnedThreads': " + ctx.numSpawnedThreads + suffix);
+		statsFd.write(prefix.toString() + "'StackAccesses': " + ctx.stackAccesses + suffix);
+		statsFd.write(prefix.toString() + "'Instructions': " + ctx.insnsExecuted + suffix);
+		statsFd.write(prefix.toString() + "'TotalEvents': " + ctx.totalEvents + suffix);
+		statsFd.write(prefix.toString() + "'BasicBlocks': " + ctx.basicBlockEvents + suffix);
+		double totalMemAccesses = ctx.globalSumCounters.get("pc_TotalMemoryAccesses");
+		double totalRegionBoundaries = ctx.globalSumCounters.get("pc_RegionBoundaries");
 		double avgRegSize = totalMemAccesses / totalRegionBoundaries;
 		statsFd.write(prefix.toString() + "'AverageRegionSize': " + avgRegSize + suffix);
 
 		// Compute proportion of network messages
 		fmt = new DecimalFormat("0.000");
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessages").get();
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessages");
 
-		value = SumCounter.globalCounters.get("pc_MESIMemoryOnChipNetworkMessages").get() / denom;
+		value = ctx.globalSumCounters.get("pc_MESIMemoryOnChipNetworkMessages") / denom;
 		statsFd.write(prefix.toString() + "'ratioMESIMemoryOnChipNetworkMessages': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters.get("pc_MESICoherenceOnChipNetworkMessages").get()
+		value = ctx.globalSumCounters.get("pc_MESICoherenceOnChipNetworkMessages")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioMESICoherenceOnChipNetworkMessages': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSizeBytes").get();
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSizeBytes");
 
-		value = SumCounter.globalCounters.get("pc_MESIMemoryOnChipNetworkMessageSizeBytes").get()
+		value = ctx.globalSumCounters.get("pc_MESIMemoryOnChipNetworkMessageSizeBytes")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioMESIMemoryOnChipNetworkMessageSizeBytes': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters.get("pc_MESICoherenceOnChipNetworkMessageSizeBytes").get()
+		value = ctx.globalSumCounters.get("pc_MESICoherenceOnChipNetworkMessageSizeBytes")
 				/ denom;
 		statsFd.write(prefix.toString() + "'ratioMESICoherenceOnChipNetworkMessageSizeBytes': "
 				+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize4BytesFlits").get();
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize4BytesFlits");
 
-		value = SumCounter.globalCounters.get("pc_MESIMemoryOnChipNetworkMessageSize4BytesFlits")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_MESIMemoryOnChipNetworkMessageSize4BytesFlits")
+				/ denom;
 		statsFd.write(prefix.toString() + "'ratioMESIMemoryOnChipNetworkMessageSize4BytesFlits': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters.get("pc_MESICoherenceOnChipNetworkMessageSize4BytesFlits")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_MESICoherenceOnChipNetworkMessageSize4BytesFlits")
+				/ denom;
 		statsFd.write(
 				prefix.toString() + "'ratioMESICoherenceOnChipNetworkMessageSize4BytesFlits': "
 						+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize8BytesFlits").get();
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize8BytesFlits");
 
-		value = SumCounter.globalCounters.get("pc_MESIMemoryOnChipNetworkMessageSize8BytesFlits")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_MESIMemoryOnChipNetworkMessageSize8BytesFlits")
+				/ denom;
 		statsFd.write(prefix.toString() + "'ratioMESIMemoryOnChipNetworkMessageSize8BytesFlits': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters.get("pc_MESICoherenceOnChipNetworkMessageSize8BytesFlits")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_MESICoherenceOnChipNetworkMessageSize8BytesFlits")
+				/ denom;
 		statsFd.write(
 				prefix.toString() + "'ratioMESICoherenceOnChipNetworkMessageSize8BytesFlits': "
 						+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize16BytesFlits").get();
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize16BytesFlits");
 
-		value = SumCounter.globalCounters.get("pc_MESIMemoryOnChipNetworkMessageSize16BytesFlits")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_MESIMemoryOnChipNetworkMessageSize16BytesFlits")
+				/ denom;
 		statsFd.write(prefix.toString() + "'ratioMESIMemoryOnChipNetworkMessageSize16BytesFlits': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_MESICoherenceOnChipNetworkMessageSize16BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_MESICoherenceOnChipNetworkMessageSize16BytesFlits") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioMESICoherenceOnChipNetworkMessageSize16BytesFlits': "
 						+ fmt.format(value) + suffix);
 
-		denom = SumCounter.globalCounters.get("pc_OnChipNetworkMessageSize32BytesFlits").get();
+		denom = ctx.globalSumCounters.get("pc_OnChipNetworkMessageSize32BytesFlits");
 
-		value = SumCounter.globalCounters.get("pc_MESIMemoryOnChipNetworkMessageSize32BytesFlits")
-				.get() / denom;
+		value = ctx.globalSumCounters.get("pc_MESIMemoryOnChipNetworkMessageSize32BytesFlits")
+				/ denom;
 		statsFd.write(prefix.toString() + "'ratioMESIMemoryOnChipNetworkMessageSize32BytesFlits': "
 				+ fmt.format(value) + suffix);
-		value = SumCounter.globalCounters
-				.get("pc_MESICoherenceOnChipNetworkMessageSize32BytesFlits").get() / denom;
+		value = ctx.globalSumCounters
+				.get("pc_MESICoherenceOnChipNetworkMessageSize32BytesFlits") / denom;
 		statsFd.write(
 				prefix.toString() + "'ratioMESICoherenceOnChipNetworkMessageSize32BytesFlits': "
 						+ fmt.format(value) + suffix);
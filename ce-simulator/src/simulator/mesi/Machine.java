@@ -1,5 +1,6 @@
 package simulator.mesi;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
@@ -11,17 +12,18 @@ import java.util.Map;
 public class Machine<Line extends MESILine> {
 
 	private final Processor<Line>[] processors;
-	final MachineParams<Line> params;
+	final SimContext ctx;
+	final CompiledParams<Line> params;
 
 	public enum SimulationMode {
 		BASELINE, VISER
 	}
 
 	List<Conflict> conflicts = new ArrayList<>();
-	List<SiteInfoEntry> siteInfo = new ArrayList<SiteInfoEntry>();
+	SiteInfoTable siteInfo = new SiteInfoTable();
 
 	/** Simulates CE's global table in main memory. */
-	HashMap<Long, CEPerLineMetadata<Line>> globalTable = new HashMap<>();
+	final GlobalTable<Line> globalTable;
 
 	/**
 	 * Machine-wide epoch. This is per-core and not per-thread. We can just maintain an array of
@@ -81,24 +83,169 @@ public class Machine<Line extends MESILine> {
 		abstract boolean clearAIMCacheAtRegionBoundaries();
 	}
 
+	/**
+	 * The values of a {@link MachineParams}, each read once into a final field. The params built
+	 * from the knobs look their values up in the OptionSet on every call, and the simulator calls
+	 * many of these accessors on every memory access.
+	 */
+	static final class CompiledParams<Line extends MESILine> extends MachineParams<Line> {
+		private final SimulationMode simulationMode;
+		private final int numProcessors;
+		private final int numPinThreads;
+		private final boolean pintool;
+		private final CacheConfiguration<Line> l1config;
+		private final boolean useL2;
+		private final CacheConfiguration<Line> l2config;
+		private final CacheConfiguration<Line> l3config;
+		private final LineFactory<Line> lineFactory;
+		private final boolean ignoreStackReferences;
+		private final boolean remoteAccessesAffectLRU;
+		private final boolean conflictExceptions;
+		private final boolean reportSites;
+		private final boolean printConflictingSites;
+		private final boolean treatAtomicUpdatesAsRegularAccesses;
+		private final boolean usePLRU;
+		private final boolean withPacifistBackends;
+		private final boolean useAIMCache;
+		private final boolean clearAIMCacheAtRegionBoundaries;
+
+		CompiledParams(MachineParams<Line> p) {
+			this.simulationMode = p.simulationMode();
+			this.numProcessors = p.numProcessors();
+			this.numPinThreads = p.numPinThreads();
+			this.pintool = p.pintool();
+			this.l1config = p.l1config();
+			this.useL2 = p.useL2();
+			this.l2config = p.l2config();
+			this.l3config = p.l3config();
+			this.lineFactory = p.lineFactory();
+			this.ignoreStackReferences = p.ignoreStackReferences();
+			this.remoteAccessesAffectLRU = p.remoteAccessesAffectLRU();
+			this.conflictExceptions = p.conflictExceptions();
+			this.reportSites = p.reportSites();
+			this.printConflictingSites = p.printConflictingSites();
+			this.treatAtomicUpdatesAsRegularAccesses = p.treatAtomicUpdatesAsRegularAccesses();
+			this.usePLRU = p.usePLRU();
+			this.withPacifistBackends = p.withPacifistBackends();
+			this.useAIMCache = p.useAIMCache();
+			this.clearAIMCacheAtRegionBoundaries = p.clearAIMCacheAtRegionBoundaries();
+		}
+
+		@Override
+		SimulationMode simulationMode() {
+			return simulationMode;
+		}
+
+		@Override
+		int numProcessors() {
+			return numProcessors;
+		}
+
+		@Override
+		int numPinThreads() {
+			return numPinThreads;
+		}
+
+		@Override
+		boolean pintool() {
+			return pintool;
+		}
+
+		@Override
+		CacheConfiguration<Line> l1config() {
+			return l1config;
+		}
+
+		@Override
+		boolean useL2() {
+			return useL2;
+		}
+
+		@Override
+		CacheConfiguration<Line> l2config() {
+			return l2config;
+		}
+
+		@Override
+		CacheConfiguration<Line> l3config() {
+			return l3config;
+		}
+
+		@Override
+		LineFactory<Line> lineFactory() {
+			return lineFactory;
+		}
+
+		@Override
+		boolean ignoreStackReferences() {
+			return ignoreStackReferences;
+		}
+
+		@Override
+		boolean remoteAccessesAffectLRU() {
+			return remoteAccessesAffectLRU;
+		}
+
+		@Override
+		boolean conflictExceptions() {
+			return conflictExceptions;
+		}
+
+		@Override
+		boolean reportSites() {
+			return reportSites;
+		}
+
+		@Override
+		boolean printConflictingSites() {
+			return printConflictingSites;
+		}
+
+		@Override
+		boolean treatAtomicUpdatesAsRegularAccesses() {
+			return treatAtomicUpdatesAsRegularAccesses;
+		}
+
+		@Override
+		boolean usePLRU() {
+			return usePLRU;
+		}
+
+		@Override
+		boolean withPacifistBackends() {
+			return withPacifistBackends;
+		}
+
+		@Override
+		boolean useAIMCache() {
+			return useAIMCache;
+		}
+
+		@Override
+		boolean clearAIMCacheAtRegionBoundaries() {
+			return clearAIMCacheAtRegionBoundaries;
+		}
+	}
+
 	@SuppressWarnings("unchecked")
-	public Machine(MachineParams<Line> args) {
-		this.params = args;
+	public Machine(SimContext ctx, MachineParams<Line> args) {
+		this.ctx = ctx;
+		this.params = new CompiledParams<Line>(args);
 		Map<LineAddress, Integer> varmap = new HashMap<LineAddress, Integer>();
+		globalTable = new GlobalTable<Line>(params.numProcessors(),
+				ctx.options.valueOf(Knobs.GlobalTableHotLines),
+				new File(ctx.options.valueOf(Knobs.GlobalTableSpillDir)));
 
 		if (params.conflictExceptions()) {
 			createEpochs(params.numProcessors());
 		}
 
 		// construct processors
-		processors = new Processor[args.numProcessors()];
+		processors = new Processor[params.numProcessors()];
 		for (int i = 0; i < processors.length; i++) {
 			CpuId cpuid = new CpuId(i);
-			/* HACK: see Counter.currentCpu for details */
-			Counter.currentCpu = cpuid;
-			processors[i] = new Processor<Line>(args, this, cpuid, processors, varmap);
+			processors[i] = new Processor<Line>(ctx, params, this, cpuid, processors, varmap);
 		}
-		Counter.currentCpu = null;
 	}
 
 	/** map from thread id to cpu id */
@@ -123,12 +270,62 @@ public class Machine<Line extends MESILine> {
 			p.preFinalizeCounters();
 		}
 
-		// the Counter class keeps track of all its instances, so we only need to dump once
-		SumCounter.dumpCounters(wr, prefix, suffix);
-		MaxCounter.dumpCounters(wr, prefix, suffix);
-		DependentCounter.dumpCounters(wr, prefix, suffix);
+		// each kind of stat is dumped for every core, followed by the global values
+		dumpStats(wr, prefix, suffix, Stat.Kind.SUM, ctx.globalSumCounters, "g_");
+		dumpStats(wr, prefix, suffix, Stat.Kind.MAX, ctx.globalMaxCounters, "max_");
+		dumpStats(wr, prefix, suffix, Stat.Kind.DEPENDENT, ctx.globalDependentCounters, "dep_");
+	}
+
+	private void dumpStats(Writer wr, String prefix, String suffix, Stat.Kind kind,
+			Map<String, Double> globals, String globalPrefix) throws IOException {
+		for (Processor<Line> p : processors) {
+			for (Stat s : Stat.ALL) {
+				if (s.kind == kind) {
+					wr.write(prefix + "'cpuid': " + p.id.get() + ", '" + s + "': " + p.stats.get(s)
+							+ suffix);
+				}
+			}
+		}
+		for (Stat s : Stat.ALL) {
+			if (s.kind == kind) {
+				globals.put(s.name(), globalValue(s));
+			}
+		}
+		for (Map.Entry<String, Double> g : globals.entrySet()) {
+			wr.write(prefix + "'cpuid': -1, '" + g.getKey().replace("pc_", globalPrefix) + "': "
+					+ g.getValue() + suffix);
+		}
+	}
+
+	/**
+	 * The sum or the max of a stat over all cores. A dependent stat is taken from the core with the
+	 * max of its base stat.
+	 */
+	private double globalValue(Stat s) {
+		switch (s.kind) {
+			case SUM:
+				double sum = processors[0].stats.get(s);
+				for (int i = 1; i < processors.length; i++) {
+					sum += processors[i].stats.get(s);
+				}
+				return sum;
+			case MAX:
+				return processors[maxCore(s)].stats.get(s);
+			default:
+				return processors[maxCore(s.base)].stats.get(s);
+		}
 	}
 
+	/** The first core with the max value of a stat */
+	private int maxCore(Stat s) {
+		int max = 0;
+		for (int i = 1; i < processors.length; i++) {
+			if (processors[i].stats.get(s) > processors[max].stats.get(s)) {
+				max = i;
+			}
+		}
+		return max;
+	}
 	public Processor<Line>[] getProcs() {
 		return processors;
 	}
@@ -179,8 +376,6 @@ public class Machine<Line extends MESILine> {
 				assert false;
 		}
 
-		Processor.DataMemoryAccessResult mopResult = new Processor.DataMemoryAccessResult();
-		mopResult.remoteCommunicatedHappened = false;
 		int remainingSize = size;
 
 		if (type == MemoryAccessType.LOCK_ACQ_READ || type == MemoryAccessType.LOCK_ACQ_WRITE
@@ -189,21 +384,21 @@ public class Machine<Line extends MESILine> {
 			remainingSize = 2;
 		}
 
+		// The access object is reused and nobody keeps the results, so the accesses of an event do
+		// not allocate anything
 		for (long a = addr; remainingSize > 0;) {
-			DataByteAddress dba = new DataByteAddress(a);
-			int data_bytesFromStartOfLine = dba.lineOffset();
+			int data_bytesFromStartOfLine = (int) (a & SystemConstants.LINE_OFFSET_MASK());
 			int data_maxSizeAccessWithinThisLine = SystemConstants.LINE_SIZE()
 					- data_bytesFromStartOfLine;
 
 			// data access
 			int accessSize = Math.min(remainingSize, data_maxSizeAccessWithinThisLine);
-			Processor.DataMemoryAccessResult tempMor;
+			DataAccess access = proc.scratchAccess.reset(type, a, accessSize, siteIndex);
 			if (write) {
-				tempMor = proc.write(new DataAccess(type, dba, accessSize, siteIndex));
+				proc.write(access);
 			} else {
-				tempMor = proc.read(new DataAccess(type, dba, accessSize, siteIndex));
+				proc.read(access);
 			}
-			mopResult.aggregate(tempMor);
 
 			a += accessSize;
 			remainingSize -= accessSize;
@@ -221,7 +416,7 @@ public class Machine<Line extends MESILine> {
 				|| (type == EventType.THREAD_START) || (type == EventType.THREAD_FINISH)
 				|| (type == EventType.THREAD_SPAWN && semantics == EventType.REG_END)
 				|| (type == EventType.THREAD_JOIN && semantics == EventType.REG_END)) {
-			performingProc.stats.pc_RegionBoundaries.incr();
+			performingProc.stats.incr(Stat.pc_RegionBoundaries);
 		}
 
 		// We ignore events in the Pacifist simulators, so to be fair, we also do so in the MESI
@@ -236,7 +431,7 @@ public class Machine<Line extends MESILine> {
 	}
 
 	public void printGlobalTable() {
-		for (Long l : globalTable.keySet()) {
+		for (Long l : globalTable.lineAddresses()) {
 			System.out.println("Line address: " + l);
 		}
 	}
@@ -1,11 +1,14 @@
 package simulator.mesi;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Random;
 
+import simulator.mesi.Stat.Traffic;
+
 public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 
 	static final Random rng = new Random();
@@ -13,6 +16,8 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 	public final CpuId id;
 	/** Machine reference is shared by all processors */
 	final Machine<Line> machine;
+	/** The simulation this processor belongs to */
+	final SimContext ctx;
 
 	/** L1 caches are always present, and are private to each processor */
 	public final HierarchicalCache<Line> L1cache;
@@ -32,155 +37,81 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 	 * List of all the processors in the system. All processors share the same array object.
 	 */
 	final Processor<Line>[] allProcessors;
-	final Machine.MachineParams<Line> params;
-	final ProcessorStats stats = new ProcessorStats();
+	final Machine.CompiledParams<Line> params;
+	final ProcessorStats stats;
 
 	/** Set this to true the first time a region performs a write. */
 	boolean regionContainsWrite = false;
 
 	final HashSet<Long> perRegionLocalTable = new HashSet<Long>();
 
+	/** Reused for every data access of this core, see {@link Machine#cacheAccess} */
+	final DataAccess scratchAccess = new DataAccess();
+	/** Returned by read() and write(), valid until the next access of this core */
+	private final DataMemoryAccessResult accessResult = new DataMemoryAccessResult();
+
 	// Depth counter to ignore events within a lock acquire if there's any sent from the frontend
 	// due to multiplexing. Only used when running with Pacifist backends.
 	private short ignoreEvents = 0;
 
 	class ProcessorStats {
-		class CacheEventCounter {
-			// counters for cache events
-			Counter pc_ReadHits;
-			Counter pc_ReadMisses;
-			Counter pc_WriteHits;
-			Counter pc_WriteMisses;
-			Counter pc_LineEvictions;
-			Counter pc_DirtyLineEvictions;
-
-			// for atomic writes
-			SumCounter pc_AtomicReadHits;
-			SumCounter pc_AtomicReadMisses;
-			SumCounter pc_AtomicWriteHits;
-			SumCounter pc_AtomicWriteMisses;
-
-			// for lock accesses
-			SumCounter pc_LockReadHits;
-			SumCounter pc_LockReadMisses;
-			SumCounter pc_LockWriteHits;
-			SumCounter pc_LockWriteMisses;
-
-			CacheEventCounter(String prefix) {
-				pc_ReadHits = new SumCounter("pc_" + prefix + "ReadHits");
-				pc_ReadMisses = new SumCounter("pc_" + prefix + "ReadMisses");
-				pc_WriteHits = new SumCounter("pc_" + prefix + "WriteHits");
-				pc_WriteMisses = new SumCounter("pc_" + prefix + "WriteMisses");
-				pc_LineEvictions = new SumCounter("pc_" + prefix + "LineEvictions");
-				pc_DirtyLineEvictions = new SumCounter("pc_" + prefix + "DirtyLineEvictions");
-				pc_AtomicWriteHits = new SumCounter("pc_" + prefix + "AtomicWriteHits");
-				pc_AtomicWriteMisses = new SumCounter("pc_" + prefix + "AtomicWriteMisses");
-				pc_AtomicReadHits = new SumCounter("pc_" + prefix + "AtomicReadHits");
-				pc_AtomicReadMisses = new SumCounter("pc_" + prefix + "AtomicReadMisses");
-				pc_LockReadHits = new SumCounter("pc_" + prefix + "LockReadHits");
-				pc_LockReadMisses = new SumCounter("pc_" + prefix + "LockReadMisses");
-				pc_LockWriteHits = new SumCounter("pc_" + prefix + "LockWriteHits");
-				pc_LockWriteMisses = new SumCounter("pc_" + prefix + "LockWriteMisses");
+		/** Values of the stats, indexed by {@link Stat#ordinal()} */
+		private final double[] bank = new double[Stat.ALL.length];
+		/** Sizes of the messages of each traffic category, which the flit stats are read from */
+		private final MessageSizeHistogram[] messageSizes =
+				new MessageSizeHistogram[Traffic.values().length];
+
+		ProcessorStats() {
+			for (int i = 0; i < messageSizes.length; i++) {
+				messageSizes[i] = new MessageSizeHistogram(ctx);
+			}
+		}
+
+		double get(Stat s) {
+			if (s.traffic != null) {
+				return messageSizes[s.traffic.ordinal()].flits(s.bytesInFlit);
+			}
+			return bank[s.ordinal()];
+		}
+
+		void set(Stat s, double v) {
+			assert s.traffic == null : s;
+			bank[s.ordinal()] = v;
+		}
+
+		void incr(Stat s) {
+			if (ctx.countStats()) {
+				bank[s.ordinal()]++;
+			}
+		}
+
+		void incr(Stat s, double a) {
+			incr(s, a, false);
+		}
+
+		void incr(Stat s, double a, boolean forceInc) {
+			if (forceInc || ctx.countStats()) {
+				bank[s.ordinal()] += a;
+				if (a < 0) {
+					System.out.println(s + " incr " + a);
+					System.exit(-177);
+				}
 			}
 		}
 
-		SumCounter pc_MESIReadRemoteHits = new SumCounter("pc_MESIReadRemoteHits");
-		SumCounter pc_MESIWriteRemoteHits = new SumCounter("pc_MESIWriteRemoteHits");
-		SumCounter pc_MESIUpgradeMisses = new SumCounter("pc_MESIUpgradeMisses");
-
-		// On-chip traffic that includes core-to-core communication
-		SumCounter pc_OnChipNetworkMessages = new SumCounter("pc_OnChipNetworkMessages");
-		SumCounter pc_OnChipNetworkMessageSizeBytes = new SumCounter(
-				"pc_OnChipNetworkMessageSizeBytes");
-		SumCounter pc_OnChipNetworkMessageSize4BytesFlits = new SumCounter(
-				"pc_OnChipNetworkMessageSize4BytesFlits");
-		SumCounter pc_OnChipNetworkMessageSize8BytesFlits = new SumCounter(
-				"pc_OnChipNetworkMessageSize8BytesFlits");
-		SumCounter pc_OnChipNetworkMessageSize16BytesFlits = new SumCounter(
-				"pc_OnChipNetworkMessageSize16BytesFlits");
-		SumCounter pc_OnChipNetworkMessageSize32BytesFlits = new SumCounter(
-				"pc_OnChipNetworkMessageSize32BytesFlits");
-
-		// Breakdown of on-chip network traffic
-
-		SumCounter pc_MESIMemoryOnChipNetworkMessages = new SumCounter(
-				"pc_MESIMemoryOnChipNetworkMessages");
-		SumCounter pc_MESIMemoryOnChipNetworkMessageSizeBytes = new SumCounter(
-				"pc_MESIMemoryOnChipNetworkMessageSizeBytes");
-		SumCounter pc_MESIMemoryOnChipNetworkMessageSize4BytesFlits = new SumCounter(
-				"pc_MESIMemoryOnChipNetworkMessageSize4BytesFlits");
-		SumCounter pc_MESIMemoryOnChipNetworkMessageSize8BytesFlits = new SumCounter(
-				"pc_MESIMemoryOnChipNetworkMessageSize8BytesFlits");
-		SumCounter pc_MESIMemoryOnChipNetworkMessageSize16BytesFlits = new SumCounter(
-				"pc_MESIMemoryOnChipNetworkMessageSize16BytesFlits");
-		SumCounter pc_MESIMemoryOnChipNetworkMessageSize32BytesFlits = new SumCounter(
-				"pc_MESIMemoryOnChipNetworkMessageSize32BytesFlits");
-
-		SumCounter pc_MESICoherenceOnChipNetworkMessages = new SumCounter(
-				"pc_MESICoherenceOnChipNetworkMessages");
-		SumCounter pc_MESICoherenceOnChipNetworkMessageSizeBytes = new SumCounter(
-				"pc_MESICoherenceOnChipNetworkMessageSizeBytes");
-		SumCounter pc_MESICoherenceOnChipNetworkMessageSize4BytesFlits = new SumCounter(
-				"pc_MESICoherenceOnChipNetworkMessageSize4BytesFlits");
-		SumCounter pc_MESICoherenceOnChipNetworkMessageSize8BytesFlits = new SumCounter(
-				"pc_MESICoherenceOnChipNetworkMessageSize8BytesFlits");
-		SumCounter pc_MESICoherenceOnChipNetworkMessageSize16BytesFlits = new SumCounter(
-				"pc_MESICoherenceOnChipNetworkMessageSize16BytesFlits");
-		SumCounter pc_MESICoherenceOnChipNetworkMessageSize32BytesFlits = new SumCounter(
-				"pc_MESICoherenceOnChipNetworkMessageSize32BytesFlits");
-
-		SumCounter pc_RegionBoundaries = new SumCounter("pc_RegionBoundaries");
-		SumCounter pc_RegionsWithWrites = new SumCounter("pc_RegionsWithWrites");
-
-		SumCounter pc_potentialWrRdValConflicts = new SumCounter("pc_potentialWrRdValConflicts");
-
-		SumCounter pc_PreciseConflicts = new SumCounter("pc_PreciseConflicts");
-		SumCounter pc_ConflictingRegions = new SumCounter("pc_ConflictingRegions");
-
-		SumCounter pc_NumScavenges = new SumCounter("pc_NumScavenges");
-
-		CacheEventCounter pc_l1d = new CacheEventCounter("Data_L1");
-		CacheEventCounter pc_l2d = new CacheEventCounter("Data_L2");
-		CacheEventCounter pc_l3d = new CacheEventCounter("Data_L3");
-		CacheEventCounter pc_aim = new CacheEventCounter("AIMCache");
-
-		SumCounter pc_TotalDataReads = new SumCounter("pc_TotalDataReads");
-		SumCounter pc_TotalDataWrites = new SumCounter("pc_TotalDataWrites");
-		SumCounter pc_TotalMemoryAccesses = new SumCounter("pc_TotalMemoryAccesses");
-
-		SumCounter pc_TotalAtomicReads = new SumCounter("pc_TotalAtomicReads");
-		SumCounter pc_TotalAtomicWrites = new SumCounter("pc_TotalAtomicWrites");
-		SumCounter pc_TotalAtomicAccesses = new SumCounter("pc_TotalAtomicAccesses");
-
-		SumCounter pc_TotalLockReads = new SumCounter("pc_TotalLockReads");
-		SumCounter pc_TotalLockWrites = new SumCounter("pc_TotalLockWrites");
-		SumCounter pc_TotalLockAccesses = new SumCounter("pc_TotalLockAccesses");
-
-		MaxCounter pc_ExecDrivenCycleCount = new MaxCounter("pc_ExecutionDrivenCycleCount");
-
-		// For MESI, exec driven and bandwidth driven mean the same thing.
-		DependentCounter pc_MESIMemSystemExecDrivenCycleCount = new DependentCounter(
-				"pc_MESIMemSystemExecDrivenCycleCount", pc_ExecDrivenCycleCount);
-		DependentCounter pc_MESICoherenceExecDrivenCycleCount = new DependentCounter(
-				"pc_MESICoherenceExecDrivenCycleCount", pc_ExecDrivenCycleCount);
-
-		MaxCounter pc_BandwidthDrivenCycleCount = new MaxCounter("pc_BandwidthDrivenCycleCount");
-
-		MaxCounter pc_reqdBWInGBWith4BytesFlits = new MaxCounter("pc_reqdBWInGBWith4BytesFlits");
-		MaxCounter pc_reqdBWInGBWith8BytesFlits = new MaxCounter("pc_reqdBWInGBWith8BytesFlits");
-		MaxCounter pc_reqdBWInGBWith16BytesFlits = new MaxCounter("pc_reqdBWInGBWith16BytesFlits");
-		MaxCounter pc_reqdBWInGBWith32BytesFlits = new MaxCounter("pc_reqdBWInGBWith32BytesFlits");
-
-		SumCounter pc_DirtyL2Evictions = new SumCounter("pc_DirtyL2Evictions");
-		SumCounter pc_ModifiedLineFetches = new SumCounter("pc_ModifiedLineFetches");
+		MessageSizeHistogram messageSizes(Traffic t) {
+			return messageSizes[t.ordinal()];
+		}
 	}
 
-	public Processor(Machine.MachineParams<Line> args, Machine<Line> machine, CpuId cpuid,
-			Processor<Line>[] processors, Map<LineAddress, Integer> varmap) {
+	public Processor(SimContext ctx, Machine.CompiledParams<Line> args, Machine<Line> machine,
+			CpuId cpuid, Processor<Line>[] processors, Map<LineAddress, Integer> varmap) {
+		this.ctx = ctx;
 		this.params = args;
 		this.id = cpuid;
 		this.machine = machine;
 		this.allProcessors = processors;
+		this.stats = new ProcessorStats();
 
 		/*
 		 * NB: hack to get a shared L3. Necessary because we want to have a Processor object handle
@@ -234,51 +165,51 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		// For required bandwidth, we iterate over each core, and find out the required for that.
 		// Then we find the max, and set that as the value. We zero out the others so that the sum
 		// at the end is reasonable.
-		double bwCycles = stats.pc_BandwidthDrivenCycleCount.get();
+		double bwCycles = stats.get(Stat.pc_BandwidthDrivenCycleCount);
 		// numSecs can actually be zero for smaller input sizes
 		double numSecs = bwCycles / (SystemConstants.CLOCK_RATE * Math.pow(10, 9));
 
-		double num4ByteFlits = stats.pc_OnChipNetworkMessageSize4BytesFlits.get();
+		double num4ByteFlits = stats.get(Stat.pc_OnChipNetworkMessageSize4BytesFlits);
 		double bwRateInGBPerSec = (numSecs > 0)
 				? ((num4ByteFlits * SystemConstants.BYTES_IN_FLIT_4) / numSecs) / Math.pow(2, 30)
 				: 0;
-		stats.pc_reqdBWInGBWith4BytesFlits.set(bwRateInGBPerSec);
+		stats.set(Stat.pc_reqdBWInGBWith4BytesFlits, bwRateInGBPerSec);
 
-		double num8ByteFlits = stats.pc_OnChipNetworkMessageSize8BytesFlits.get();
+		double num8ByteFlits = stats.get(Stat.pc_OnChipNetworkMessageSize8BytesFlits);
 		bwRateInGBPerSec = (numSecs > 0)
 				? ((num8ByteFlits * SystemConstants.BYTES_IN_FLIT_8) / numSecs) / Math.pow(2, 30)
 				: 0;
-		stats.pc_reqdBWInGBWith8BytesFlits.set(bwRateInGBPerSec);
+		stats.set(Stat.pc_reqdBWInGBWith8BytesFlits, bwRateInGBPerSec);
 
-		double num16ByteFlits = stats.pc_OnChipNetworkMessageSize16BytesFlits.get();
+		double num16ByteFlits = stats.get(Stat.pc_OnChipNetworkMessageSize16BytesFlits);
 		bwRateInGBPerSec = (numSecs > 0)
 				? ((num16ByteFlits * SystemConstants.BYTES_IN_FLIT_16) / numSecs) / Math.pow(2, 30)
 				: 0;
-		stats.pc_reqdBWInGBWith16BytesFlits.set(bwRateInGBPerSec);
+		stats.set(Stat.pc_reqdBWInGBWith16BytesFlits, bwRateInGBPerSec);
 
-		double num32ByteFlits = stats.pc_OnChipNetworkMessageSize32BytesFlits.get();
+		double num32ByteFlits = stats.get(Stat.pc_OnChipNetworkMessageSize32BytesFlits);
 		bwRateInGBPerSec = (numSecs > 0)
 				? ((num32ByteFlits * SystemConstants.BYTES_IN_FLIT_32) / numSecs) / Math.pow(2, 30)
 				: 0;
-		stats.pc_reqdBWInGBWith32BytesFlits.set(bwRateInGBPerSec);
+		stats.set(Stat.pc_reqdBWInGBWith32BytesFlits, bwRateInGBPerSec);
 	}
 
 	public void insnsExecuted(int n) {
-		stats.pc_ExecDrivenCycleCount.incr(n);
-		stats.pc_MESIMemSystemExecDrivenCycleCount.incr(n);
-		stats.pc_BandwidthDrivenCycleCount.incr(n);
+		stats.incr(Stat.pc_ExecutionDrivenCycleCount, n);
+		stats.incr(Stat.pc_MESIMemSystemExecDrivenCycleCount, n);
+		stats.incr(Stat.pc_BandwidthDrivenCycleCount, n);
 	}
 
 	private void memoryCyclesElapsed(int n, DataMemoryAccessResult mor, boolean coherenceMessage) {
-		stats.pc_ExecDrivenCycleCount.incr(n);
+		stats.incr(Stat.pc_ExecutionDrivenCycleCount, n);
 		if (mor != null) {
 			mor.latency += n;
 		}
-		stats.pc_BandwidthDrivenCycleCount.incr(n);
+		stats.incr(Stat.pc_BandwidthDrivenCycleCount, n);
 		if (coherenceMessage) {
-			stats.pc_MESICoherenceExecDrivenCycleCount.incr(n);
+			stats.incr(Stat.pc_MESICoherenceExecDrivenCycleCount, n);
 		} else {
-			stats.pc_MESIMemSystemExecDrivenCycleCount.incr(n);
+			stats.incr(Stat.pc_MESIMemSystemExecDrivenCycleCount, n);
 		}
 	}
 
@@ -294,27 +225,12 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 
 	public void updateTrafficForOneNetworkMessage(int numMsgs, double numBytes, boolean coreToLLC,
 			boolean isCoherence) {
-		stats.pc_OnChipNetworkMessages.incr();
-		stats.pc_OnChipNetworkMessageSizeBytes.incr(numBytes);
-		updateFlitsCountForOneNetworkMessage(numBytes);
+		stats.incr(Stat.pc_OnChipNetworkMessages);
+		stats.incr(Stat.pc_OnChipNetworkMessageSizeBytes, numBytes);
+		stats.messageSizes(Traffic.ON_CHIP_NETWORK).add(numBytes);
 		updatePhaseOnChipNetworkTraffic(numMsgs, numBytes, isCoherence);
 	}
 
-	// Should not be called directly from anywhere
-	private void updateFlitsCountForOneNetworkMessage(double numBytes) {
-		long num4ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_4);
-		stats.pc_OnChipNetworkMessageSize4BytesFlits.incr(num4ByteFlits);
-
-		long num8ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_8);
-		stats.pc_OnChipNetworkMessageSize8BytesFlits.incr(num8ByteFlits);
-
-		long num16ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_16);
-		stats.pc_OnChipNetworkMessageSize16BytesFlits.incr(num16ByteFlits);
-
-		long num32ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_32);
-		stats.pc_OnChipNetworkMessageSize32BytesFlits.incr(num32ByteFlits);
-	}
-
 	int getCEMetadataLineSize() {
 		int numCores = params.numProcessors();
 		int size = numCores * SystemConstants.CE_READ_METADATA_BYTES;
@@ -324,34 +240,23 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 
 	private void updatePhaseOnChipNetworkTraffic(int numMsgs, double numBytes,
 			boolean isCoherence) {
-		long num4ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_4);
-		long num8ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_8);
-		long num16ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_16);
-		long num32ByteFlits = (long) Math.ceil(numBytes / SystemConstants.BYTES_IN_FLIT_32);
 		if (isCoherence) {
-			stats.pc_MESICoherenceOnChipNetworkMessages.incr(numMsgs);
-			stats.pc_MESICoherenceOnChipNetworkMessageSizeBytes.incr((int) numBytes);
-			stats.pc_MESICoherenceOnChipNetworkMessageSize4BytesFlits.incr(num4ByteFlits);
-			stats.pc_MESICoherenceOnChipNetworkMessageSize8BytesFlits.incr(num8ByteFlits);
-			stats.pc_MESICoherenceOnChipNetworkMessageSize16BytesFlits.incr(num16ByteFlits);
-			stats.pc_MESICoherenceOnChipNetworkMessageSize32BytesFlits.incr(num32ByteFlits);
+			stats.incr(Stat.pc_MESICoherenceOnChipNetworkMessages, numMsgs);
+			stats.incr(Stat.pc_MESICoherenceOnChipNetworkMessageSizeBytes, (int) numBytes);
+			stats.messageSizes(Traffic.COHERENCE).add(numBytes);
 		} else {
-			stats.pc_MESIMemoryOnChipNetworkMessages.incr(numMsgs);
-			stats.pc_MESIMemoryOnChipNetworkMessageSizeBytes.incr((int) numBytes);
-			stats.pc_MESIMemoryOnChipNetworkMessageSize4BytesFlits.incr(num4ByteFlits);
-			stats.pc_MESIMemoryOnChipNetworkMessageSize8BytesFlits.incr(num8ByteFlits);
-			stats.pc_MESIMemoryOnChipNetworkMessageSize16BytesFlits.incr(num16ByteFlits);
-			stats.pc_MESIMemoryOnChipNetworkMessageSize32BytesFlits.incr(num32ByteFlits);
+			stats.incr(Stat.pc_MESIMemoryOnChipNetworkMessages, numMsgs);
+			stats.incr(Stat.pc_MESIMemoryOnChipNetworkMessageSizeBytes, (int) numBytes);
+			stats.messageSizes(Traffic.MEMORY).add(numBytes);
 		}
 	}
 
 	@Override
-	public Line eviction(final Line incoming, final LinkedList<Line> set, final CacheLevel level,
-			short bits) {
+	public Line eviction(final Line incoming, final CacheSet<Line> set, final CacheLevel level) {
 		Line toEvict = null;
 		if (params.usePLRU()) {
 			for (int i = 0; i < set.size(); i++) {
-				Line line = set.get(i);
+				Line line = set.getWay(i);
 				if (!line.valid()) {
 					toEvict = line;
 					break;
@@ -359,14 +264,14 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 			}
 			if (toEvict == null) { // need to evict a valid line
 				for (int i = 0; i < set.size(); i++) {
-					if ((bits & (1 << i)) == 0) {
-						toEvict = set.get(i);
+					if ((set.mruBits & (1L << i)) == 0) {
+						toEvict = set.getWay(i);
 						break;
 					}
 				}
 			}
 		} else {
-			toEvict = set.getLast(); // straight LRU
+			toEvict = set.last(); // straight LRU
 		}
 
 		if (toEvict.isPrivateCacheLine()) {
@@ -382,16 +287,16 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		if (toEvict.valid()) {
 			switch (level) {
 				case L1: {
-					stats.pc_l1d.pc_LineEvictions.incr();
+					stats.incr(Stat.pc_Data_L1LineEvictions);
 					if (toEvict.dirty()) {
-						stats.pc_l1d.pc_DirtyLineEvictions.incr();
+						stats.incr(Stat.pc_Data_L1DirtyLineEvictions);
 					}
 					break;
 				}
 				case L2: {
-					stats.pc_l2d.pc_LineEvictions.incr();
+					stats.incr(Stat.pc_Data_L2LineEvictions);
 					if (toEvict.dirty()) {
-						stats.pc_l2d.pc_DirtyLineEvictions.incr();
+						stats.incr(Stat.pc_Data_L2DirtyLineEvictions);
 					}
 					// Rui: As discussed (Nov 22, 2019), evictions are not on the critical path, so
 					// no run time costs should be charged.
@@ -407,7 +312,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 					// Round-trip between L2 cache and Directory (i.e., LLC)
 					switch (toEvict.getState()) {
 						case MESI_MODIFIED: { // Line is dirty
-							stats.pc_DirtyL2Evictions.incr();
+							stats.incr(Stat.pc_DirtyL2Evictions);
 
 							int sizeBytesOutgoing = SystemConstants.CONTROL_MESSAGE_SIZE_BYTES
 									+ SystemConstants.DATA_MESSAGE_SIZE_BYTES;
@@ -449,9 +354,9 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 					break;
 				}
 				case L3: {
-					stats.pc_l3d.pc_LineEvictions.incr();
+					stats.incr(Stat.pc_Data_L3LineEvictions);
 					if (toEvict.dirty()) {
-						stats.pc_l3d.pc_DirtyLineEvictions.incr();
+						stats.incr(Stat.pc_Data_L3DirtyLineEvictions);
 					}
 					// Dirty line will have to be written back to memory, but we count it from
 					// request() since an LLC eviction includes recall. The LLC line may not be
@@ -468,6 +373,9 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 					&& toEvict.getLevel() == CacheLevel.L2) {
 				// The access and the supplied bits need to be backed up in the global table
 				if (toEvict.isSupplied() || toEvict.isRead() || toEvict.isWritten()) {
+					if (params.useAIMCache()) {
+						aimcache.applyPendingClear(this, toEvict.lineAddress().get());
+					}
 					CEPerLineMetadata<Line> md = machine.globalTable
 							.get(toEvict.lineAddress().get());
 					if (md == null) {
@@ -547,6 +455,12 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		 */
 		boolean remoteCommunicatedHappened = false;
 
+		DataMemoryAccessResult reset() {
+			latency = 0;
+			remoteCommunicatedHappened = false;
+			return this;
+		}
+
 		/**
 		 * Aggregate the result of another memory op into the current result.
 		 */
@@ -586,20 +500,19 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 	/** Perform a data read specified by the given access. */
 	public DataMemoryAccessResult read(final DataAccess access) {
 		if (access.isAtomic()) {
-			stats.pc_TotalAtomicReads.incr();
-			stats.pc_TotalAtomicAccesses.incr();
+			stats.incr(Stat.pc_TotalAtomicReads);
+			stats.incr(Stat.pc_TotalAtomicAccesses);
 			// unlike ARC/Peacenik, treat atomic accesses as regular mem accesses
-			stats.pc_TotalMemoryAccesses.incr();
+			stats.incr(Stat.pc_TotalMemoryAccesses);
 		} else if (access.isLockAccess()) {
-			stats.pc_TotalLockReads.incr();
-			stats.pc_TotalLockAccesses.incr();
+			stats.incr(Stat.pc_TotalLockReads);
+			stats.incr(Stat.pc_TotalLockAccesses);
 		} else {
-			stats.pc_TotalDataReads.incr();
-			stats.pc_TotalMemoryAccesses.incr();
+			stats.incr(Stat.pc_TotalDataReads);
+			stats.incr(Stat.pc_TotalMemoryAccesses);
 		}
 
-		DataMemoryAccessResult dmaResult = new DataMemoryAccessResult();
-		dmaResult.remoteCommunicatedHappened = false;
+		DataMemoryAccessResult dmaResult = accessResult.reset();
 
 		MemoryResponse<Line> resp = L1cache.request(this, access.addr(), true);
 		Line line = resp.lineHit;
@@ -610,11 +523,11 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		switch (resp.whereHit) {
 			case L1: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicReadHits.incr();
+					stats.incr(Stat.pc_Data_L1AtomicReadHits);
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockReadHits.incr();
+					stats.incr(Stat.pc_Data_L1LockReadHits);
 				} else {
-					stats.pc_l1d.pc_ReadHits.incr();
+					stats.incr(Stat.pc_Data_L1ReadHits);
 				}
 
 				memoryCyclesElapsed(SystemConstants.L1_HIT_LATENCY, dmaResult, false);
@@ -625,7 +538,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 					assert l2Line.getState() == line.getState() : "L1 and L2 state should match";
 				}
 
-				if (MESISim.enableXasserts()) {
+				if (ctx.enableXasserts()) {
 					Verify.verifyCacheInclusivity(this);
 					Verify.verifyStateOfLLCOnlyLines();
 					Verify.verifyModifiedLines(this);
@@ -641,19 +554,19 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 			case L2: {
 				assert params.useL2();
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicReadHits.incr();
+						stats.incr(Stat.pc_Data_L2AtomicReadHits);
 					}
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockReadHits.incr();
+						stats.incr(Stat.pc_Data_L2LockReadHits);
 					}
 				} else {
-					stats.pc_l1d.pc_ReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1ReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_ReadHits.incr();
+						stats.incr(Stat.pc_Data_L2ReadHits);
 					}
 				}
 				memoryCyclesElapsed(SystemConstants.L2_HIT_LATENCY, dmaResult, false);
@@ -664,7 +577,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 					assert l2Line.getState() == line.getState() : "L1 and L2 state should match";
 				}
 
-				if (MESISim.enableXasserts()) {
+				if (ctx.enableXasserts()) {
 					Verify.verifyCacheInclusivity(this);
 					Verify.verifyStateOfLLCOnlyLines();
 					Verify.verifyModifiedLines(this);
@@ -679,23 +592,23 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 
 			case L3: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicReadMisses.incr();
+						stats.incr(Stat.pc_Data_L2AtomicReadMisses);
 					}
-					stats.pc_l3d.pc_AtomicReadHits.incr();
+					stats.incr(Stat.pc_Data_L3AtomicReadHits);
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockReadMisses.incr();
+						stats.incr(Stat.pc_Data_L2LockReadMisses);
 					}
-					stats.pc_l3d.pc_LockReadHits.incr();
+					stats.incr(Stat.pc_Data_L3LockReadHits);
 				} else {
-					stats.pc_l1d.pc_ReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1ReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_ReadMisses.incr();
+						stats.incr(Stat.pc_Data_L2ReadMisses);
 					}
-					stats.pc_l3d.pc_ReadHits.incr();
+					stats.incr(Stat.pc_Data_L3ReadHits);
 				}
 
 				if (params.useAIMCache()) {
@@ -720,23 +633,23 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 
 			case MEMORY: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicReadMisses.incr();
+						stats.incr(Stat.pc_Data_L2AtomicReadMisses);
 					}
-					stats.pc_l3d.pc_AtomicReadMisses.incr();
+					stats.incr(Stat.pc_Data_L3AtomicReadMisses);
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockReadMisses.incr();
+						stats.incr(Stat.pc_Data_L2LockReadMisses);
 					}
-					stats.pc_l3d.pc_LockReadMisses.incr();
+					stats.incr(Stat.pc_Data_L3LockReadMisses);
 				} else {
-					stats.pc_l1d.pc_ReadMisses.incr();
+					stats.incr(Stat.pc_Data_L1ReadMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_ReadMisses.incr();
+						stats.incr(Stat.pc_Data_L2ReadMisses);
 					}
-					stats.pc_l3d.pc_ReadMisses.incr();
+					stats.incr(Stat.pc_Data_L3ReadMisses);
 				}
 				memoryCyclesElapsed(SystemConstants.MEMORY_LATENCY, dmaResult, false);
 
@@ -783,8 +696,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 				CEPerLineMetadata<Line> md = machine.globalTable.get(line.lineAddress().get());
 				if (md != null) {
 					for (int i = 0; i < params.numProcessors(); i++) {
-						CpuId cpudID = new CpuId(i);
-						CEGlobalTableValue val = md.getPerCoreMetadata(machine.getProc(cpudID));
+						CEGlobalTableValue val = md.getPerCoreMetadata(allProcessors[i]);
 						if (val.localReads != 0) {
 							newMesiState = MESIState.MESI_SHARED;
 							break;
@@ -826,7 +738,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 
 				dmaResult.remoteCommunicatedHappened = true;
 				// Valid Read-Reply From Modified/Exclusive
-				stats.pc_MESIReadRemoteHits.incr();
+				stats.incr(Stat.pc_MESIReadRemoteHits);
 
 				// Remote core replies with the data to both the current core and to the
 				// directory -- data message.
@@ -892,14 +804,14 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 			// Check for conflicts
 			long remoteWrites = line.getRemoteWrites();
 			if (checkPreciseWriteReadConflict(remoteWrites, enc)) {
-				stats.pc_PreciseConflicts.incr();
+				stats.incr(Stat.pc_PreciseConflicts);
 			}
 
 			line.orLocalReads(enc);
 			l2Line.orLocalReads(enc);
 		}
 
-		if (MESISim.enableXasserts()) {
+		if (ctx.enableXasserts()) {
 			Verify.verifyCacheInclusivity(this);
 			Verify.verifyStateOfLLCOnlyLines();
 			Verify.verifyModifiedLines(this);
@@ -922,15 +834,38 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		long orCombinedWriteEnc = 0L;
 	}
 
+	/**
+	 * Look up the cores other than this one that hold the accessed line in their private caches,
+	 * valid or not, in the LLC's directory. Probing any other core would miss in its private caches
+	 * and just reach the LLC, which only matters for the LLC's replacement state.
+	 */
+	private long remoteSharers(final DataAccess access) {
+		stats.incr(Stat.pc_MESIDirectoryLookups);
+		long lineAddr = access.addr().get() & ~SystemConstants.LINE_OFFSET_MASK();
+		long others = ((allProcessors.length == Long.SIZE) ? -1L
+				: (1L << allProcessors.length) - 1) & ~(1L << id.get());
+		long sharers = L3cache.directory.sharers(lineAddr) & others;
+		if (params.remoteAccessesAffectLRU() && sharers != others) {
+			// The probes of the other cores would touch the LLC line, and touching is idempotent
+			L3cache.search(access.addr(), true);
+		}
+		return sharers;
+	}
+
 	private RemoteReadResponse performRemoteRead(final DataAccess access) {
 		RemoteReadResponse rrr = new RemoteReadResponse();
 		rrr.isShared = false;
 		rrr.providedData = false;
 
+		long sharers = remoteSharers(access);
 		for (Processor<Line> otherProc : allProcessors) {
 			if (otherProc == this) {
 				continue; // skip ourselves
 			}
+			if ((sharers & (1L << otherProc.id.get())) == 0) {
+				continue; // not in the remote private caches
+			}
+			stats.incr(Stat.pc_MESIRemoteProbes);
 
 			MemoryResponse<Line> resp = otherProc.L1cache.search(access.addr(),
 					params.remoteAccessesAffectLRU());
@@ -1011,18 +946,18 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 	/** Make a write request. */
 	public DataMemoryAccessResult write(final DataAccess access) {
 		if (access.isAtomic()) {
-			stats.pc_TotalAtomicWrites.incr();
-			stats.pc_TotalAtomicAccesses.incr();
-			stats.pc_TotalMemoryAccesses.incr();
+			stats.incr(Stat.pc_TotalAtomicWrites);
+			stats.incr(Stat.pc_TotalAtomicAccesses);
+			stats.incr(Stat.pc_TotalMemoryAccesses);
 		} else if (access.isLockAccess()) {
-			stats.pc_TotalLockWrites.incr();
-			stats.pc_TotalLockAccesses.incr();
+			stats.incr(Stat.pc_TotalLockWrites);
+			stats.incr(Stat.pc_TotalLockAccesses);
 		} else {
-			stats.pc_TotalDataWrites.incr();
-			stats.pc_TotalMemoryAccesses.incr();
+			stats.incr(Stat.pc_TotalDataWrites);
+			stats.incr(Stat.pc_TotalMemoryAccesses);
 		}
 
-		DataMemoryAccessResult dmaResult = new DataMemoryAccessResult();
+		DataMemoryAccessResult dmaResult = accessResult.reset();
 
 		MemoryResponse<Line> resp = L1cache.request(this, access.addr(), false);
 		Line line = resp.lineHit;
@@ -1033,11 +968,11 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		switch (resp.whereHit) {
 			case L1: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicWriteHits.incr();
+					stats.incr(Stat.pc_Data_L1AtomicWriteHits);
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockWriteHits.incr();
+					stats.incr(Stat.pc_Data_L1LockWriteHits);
 				} else {
-					stats.pc_l1d.pc_WriteHits.incr();
+					stats.incr(Stat.pc_Data_L1WriteHits);
 				}
 				memoryCyclesElapsed(SystemConstants.L1_HIT_LATENCY, dmaResult, false);
 				break;
@@ -1045,19 +980,19 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 
 			case L2: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicWriteHits.incr();
+						stats.incr(Stat.pc_Data_L2AtomicWriteHits);
 					}
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockWriteHits.incr();
+						stats.incr(Stat.pc_Data_L2LockWriteHits);
 					}
 				} else {
-					stats.pc_l1d.pc_WriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1WriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_WriteHits.incr();
+						stats.incr(Stat.pc_Data_L2WriteHits);
 					}
 				}
 				memoryCyclesElapsed(SystemConstants.L2_HIT_LATENCY, dmaResult, false);
@@ -1066,23 +1001,23 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 
 			case L3: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicWriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2AtomicWriteMisses);
 					}
-					stats.pc_l3d.pc_AtomicWriteHits.incr();
+					stats.incr(Stat.pc_Data_L3AtomicWriteHits);
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockWriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2LockWriteMisses);
 					}
-					stats.pc_l3d.pc_LockWriteHits.incr();
+					stats.incr(Stat.pc_Data_L3LockWriteHits);
 				} else {
-					stats.pc_l1d.pc_WriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1WriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_WriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2WriteMisses);
 					}
-					stats.pc_l3d.pc_WriteHits.incr();
+					stats.incr(Stat.pc_Data_L3WriteHits);
 				}
 
 				if (params.useAIMCache()) {
@@ -1108,23 +1043,23 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 
 			case MEMORY: {
 				if (access.isAtomic()) {
-					stats.pc_l1d.pc_AtomicWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1AtomicWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_AtomicWriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2AtomicWriteMisses);
 					}
-					stats.pc_l3d.pc_AtomicWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L3AtomicWriteMisses);
 				} else if (access.isLockAccess()) {
-					stats.pc_l1d.pc_LockWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1LockWriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_LockWriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2LockWriteMisses);
 					}
-					stats.pc_l3d.pc_LockWriteMisses.incr();
+					stats.incr(Stat.pc_Data_L3LockWriteMisses);
 				} else {
-					stats.pc_l1d.pc_WriteMisses.incr();
+					stats.incr(Stat.pc_Data_L1WriteMisses);
 					if (params.useL2()) {
-						stats.pc_l2d.pc_WriteMisses.incr();
+						stats.incr(Stat.pc_Data_L2WriteMisses);
 					}
-					stats.pc_l3d.pc_WriteMisses.incr();
+					stats.incr(Stat.pc_Data_L3WriteMisses);
 				}
 				memoryCyclesElapsed(SystemConstants.MEMORY_LATENCY, dmaResult, false);
 
@@ -1146,7 +1081,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 				// This also implies llc-to-memory traffic
 				updateTrafficForOneNetworkMessage(1, sizeBytesReturn, false, false);
 
-				if (MESISim.enableXasserts()) {
+				if (ctx.enableXasserts()) {
 					Verify.cacheExclusivity(this, line);
 				}
 				break;
@@ -1165,7 +1100,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 				assert resp.whereHit != CacheLevel.MEMORY;
 
 				// I/S->M, S->M, S->I
-				stats.pc_MESIUpgradeMisses.incr();
+				stats.incr(Stat.pc_MESIUpgradeMisses);
 
 				// Data message back from the directory
 				int sizeBytes = SystemConstants.DATA_MESSAGE_CONTROL_BYTES
@@ -1334,11 +1269,11 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 			long remoteReads = line.getRemoteReads();
 			if (checkPreciseWriteWriteConflict(remoteWrites, localWrites)
 					|| checkPreciseReadWriteConflict(remoteReads, localWrites)) {
-				stats.pc_PreciseConflicts.incr();
+				stats.incr(Stat.pc_PreciseConflicts);
 			}
 		}
 
-		if (MESISim.enableXasserts()) {
+		if (ctx.enableXasserts()) {
 			Verify.verifyCacheInclusivity(this);
 			Verify.verifyStateOfLLCOnlyLines();
 			Verify.verifyModifiedLines(this);
@@ -1368,11 +1303,16 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		int numInvalidations = 0;
 		RemoteWriteResponse rwr = new RemoteWriteResponse();
 
+		long sharers = remoteSharers(access);
 		for (Processor<Line> otherProc : allProcessors) {
 			int ceNumBytes = 0;
 			if (otherProc == this) {
 				continue; // skip ourselves
 			}
+			if ((sharers & (1L << otherProc.id.get())) == 0) {
+				continue; // not in the remote private caches
+			}
+			stats.incr(Stat.pc_MESIRemoteProbes);
 
 			// CE: Servicing a remote write or invalidate miss request
 			if (params.conflictExceptions()) {
@@ -1440,7 +1380,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 			switch (otherLine.getState()) {
 				case MESI_MODIFIED:
 				case MESI_EXCLUSIVE: {
-					stats.pc_ModifiedLineFetches.incr();
+					stats.incr(Stat.pc_ModifiedLineFetches);
 
 					otherLine.invalidate((Machine<MESILine>) this.machine);
 					otherLine.changeStateTo(MESIState.MESI_INVALID);
@@ -1495,7 +1435,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 
 		} // done with other caches
 
-		stats.pc_MESIWriteRemoteHits.incr(numInvalidations);
+		stats.incr(Stat.pc_MESIWriteRemoteHits, numInvalidations);
 
 		rwr.numInvalidations = numInvalidations;
 		return rwr;
@@ -1505,7 +1445,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		HierarchicalCache<Line> cache = (level == CacheLevel.L1) ? L1cache : L2cache;
 		int size = 0;
 
-		for (LinkedList<Line> set : cache.sets) {
+		for (CacheSet<Line> set : cache.sets) {
 			for (Line l : set) {
 				// if (level == CacheLevel.L2) {
 				// if (l.lineAddress() != null &&
@@ -1697,9 +1637,9 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 			// Similar to RCC, we assume concurrency and add the cost of a
 			// core-2-core latency for sending the endR message
 			int cycles = SystemConstants.REMOTE_HIT_LATENCY;
-			stats.pc_ExecDrivenCycleCount.incr(cycles);
-			stats.pc_MESICoherenceExecDrivenCycleCount.incr(cycles);
-			stats.pc_BandwidthDrivenCycleCount.incr(cycles);
+			stats.incr(Stat.pc_ExecutionDrivenCycleCount, cycles);
+			stats.incr(Stat.pc_MESICoherenceExecDrivenCycleCount, cycles);
+			stats.incr(Stat.pc_BandwidthDrivenCycleCount, cycles);
 
 			// The in-region bit is cleared together with each of the line-level
 			// supplied bits and local access bits
@@ -1739,14 +1679,14 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		}
 
 		if (regionContainsWrite) {
-			stats.pc_RegionsWithWrites.incr();
+			stats.incr(Stat.pc_RegionsWithWrites);
 			regionContainsWrite = false;
 		}
 	}
 
 	private void clearPrivateCacheMetadata(CacheLevel level) {
 		HierarchicalCache<Line> cache = (level == CacheLevel.L1) ? L1cache : L2cache;
-		for (LinkedList<Line> set : cache.sets) {
+		for (CacheSet<Line> set : cache.sets) {
 			for (Line l : set) {
 				l.clearSupplied();
 				l.clearLocalReads();
@@ -1795,7 +1735,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		 * Check whether line {@code myLine} is exclusive to processor {@code proc}.
 		 */
 		public void cacheExclusivity(Processor<Line> proc, final Line myLine) {
-			assert MESISim.XASSERTS && MESISim.enableXasserts();
+			assert ctx.xasserts && ctx.enableXasserts();
 			assert myLine.valid() && myLine.id() == proc.id
 					&& (myLine.getState() == MESIState.MESI_EXCLUSIVE
 							|| myLine.getState() == MESIState.MESI_MODIFIED);
@@ -1829,7 +1769,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		}
 
 		private void verifyLineState(Processor<Line> proc, final MESIState state) {
-			assert MESISim.XASSERTS && MESISim.enableXasserts();
+			assert ctx.xasserts && ctx.enableXasserts();
 
 			final HashSet<Line> localSet = new HashSet<Line>();
 			HierarchicalCache.LineVisitor<Line> lv = new HierarchicalCache.LineVisitor<Line>() {
@@ -1879,7 +1819,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		}
 
 		public void verifyModifiedLLCLines(Processor<Line> proc) {
-			assert MESISim.XASSERTS && MESISim.enableXasserts();
+			assert ctx.xasserts && ctx.enableXasserts();
 
 			// Iterate over invalid LLC lines
 			final HashSet<Line> modifiedLLCLines = new HashSet<Line>();
@@ -1926,7 +1866,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		 * caches, and should also be marked modified in the LLC.
 		 */
 		public void verifyModifiedLines(Processor<Line> proc) {
-			assert MESISim.XASSERTS && MESISim.enableXasserts();
+			assert ctx.xasserts && ctx.enableXasserts();
 
 			final HashSet<Line> localModifiedSet = new HashSet<Line>();
 			HierarchicalCache.LineVisitor<Line> lv = new HierarchicalCache.LineVisitor<Line>() {
@@ -1992,7 +1932,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 					if (privateLine.lineAddress().get() == llcLine.lineAddress().get()) {
 						if (llcLine.getState() != MESIState.MESI_MODIFIED
 								&& llcLine.getState() != MESIState.MESI_EXCLUSIVE) {
-							System.out.println(MESISim.totalEvents);
+							System.out.println(ctx.totalEvents);
 							System.out.println(llcLine.getState());
 							System.out.println(llcLine.lineAddress().get());
 							throw new RuntimeException(
@@ -2020,7 +1960,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		 * correspond to invalid lines and are present only once.
 		 */
 		public void verifyInvalidLinesInLLC() {
-			assert MESISim.XASSERTS && MESISim.enableXasserts();
+			assert ctx.xasserts && ctx.enableXasserts();
 
 			// Iterate over invalid LLC lines
 			final HashSet<Line> invalidLLCLines = new HashSet<Line>();
@@ -2094,7 +2034,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		 * Invalid state.
 		 */
 		public void verifyStateOfLLCOnlyLines() {
-			assert MESISim.XASSERTS && MESISim.enableXasserts();
+			assert ctx.xasserts && ctx.enableXasserts();
 
 			// First iterate over all cache lines in all processors
 			final HashSet<Line> privateLines = new HashSet<Line>();
@@ -2145,7 +2085,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		}
 
 		public void verifyL1AndL2Lines(Processor<Line> proc) {
-			assert MESISim.XASSERTS && MESISim.enableXasserts();
+			assert ctx.xasserts && ctx.enableXasserts();
 
 			final HashSet<Line> l1Set = new HashSet<Line>();
 			HierarchicalCache.LineVisitor<Line> l1Lv = new HierarchicalCache.LineVisitor<Line>() {
@@ -2194,19 +2134,19 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 								// Check consistency of L1 and L2 read/write
 								// bits
 								assert l1Line.getRemoteReads() == l2Line
-										.getRemoteReads() : MESISim.totalEvents + " L1:"
+										.getRemoteReads() : ctx.totalEvents + " L1:"
 												+ l1Line.getRemoteReads() + " L2: "
 												+ l2Line.getRemoteReads();
 								assert l1Line.getRemoteWrites() == l2Line
-										.getRemoteWrites() : MESISim.totalEvents + " L1:"
+										.getRemoteWrites() : ctx.totalEvents + " L1:"
 												+ l1Line.getRemoteWrites() + " L2: "
 												+ l2Line.getRemoteWrites();
 								assert l1Line.getLocalReads() == l2Line
-										.getLocalReads() : MESISim.totalEvents + " L1: "
+										.getLocalReads() : ctx.totalEvents + " L1: "
 												+ l1Line.getLocalReads() + " L2: "
 												+ l2Line.getLocalReads();
 								assert l2Line.getLocalWrites() == l2Line
-										.getLocalWrites() : MESISim.totalEvents + " L1: "
+										.getLocalWrites() : ctx.totalEvents + " L1: "
 												+ l1Line.getLocalWrites() + " L2: "
 												+ l2Line.getLocalWrites();
 							}
@@ -2227,7 +2167,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		 * only checking for valid lines.
 		 */
 		public void verifyCacheInclusivity(Processor<Line> proc) {
-			assert MESISim.XASSERTS && MESISim.enableXasserts();
+			assert ctx.xasserts && ctx.enableXasserts();
 
 			final HashSet<Line> l1Set = new HashSet<Line>();
 			HierarchicalCache.LineVisitor<Line> l1Lv = new HierarchicalCache.LineVisitor<Line>() {
@@ -2263,7 +2203,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 							// lines should be in the same state
 							// for consistency
 							if (l1Line.getState() != l2Line.getState()) {
-								System.out.println(MESISim.totalEvents);
+								System.out.println(ctx.totalEvents);
 								System.out.println(l1Line.lineAddress().get());
 								System.out.println(l1Line.getState());
 								System.out.println(l2Line.getState());
@@ -2303,7 +2243,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 						}
 					}
 					if (!found) {
-						System.out.println(MESISim.totalEvents);
+						System.out.println(ctx.totalEvents);
 						System.out.println(l2Line.lineAddress());
 						throw new RuntimeException("L2 and L3 violate inclusivity.");
 					}
@@ -2327,6 +2267,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		}
 
 		private void verifyCacheIndexing() {
+			verifySharerDirectory();
 			for (Processor<Line> p : allProcessors) {
 				p.L1cache.verifyIndices();
 
@@ -2339,25 +2280,49 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 				L3cache.verifyIndices();
 		}
 
+		/** The sharer vectors should count the tagged slots of the private caches. */
+		private void verifySharerDirectory() {
+			for (Processor<Line> p : allProcessors) {
+				final Map<Long, Integer> slots = new HashMap<Long, Integer>();
+				HierarchicalCache.LineVisitor<Line> lv = new HierarchicalCache.LineVisitor<Line>() {
+					@Override
+					public void visit(Line line) {
+						if (line.lineAddress() != null) {
+							Integer n = slots.get(line.lineAddress().get());
+							slots.put(line.lineAddress().get(), (n == null) ? 1 : n + 1);
+						}
+					}
+				};
+				p.L1cache.visitAllLines(lv);
+				if (p.L2cache != null) {
+					p.L2cache.visitAllLines(lv);
+				}
+				for (Map.Entry<Long, Integer> e : slots.entrySet()) {
+					assert L3cache.directory.slots(p.id.get(), e.getKey()) == e
+							.getValue() : "Sharer directory is out of sync";
+				}
+			}
+		}
+
 		private void verifyExecutionCostBreakdown(final Processor<Line> proc) {
-			assert MESISim.XASSERTS && MESISim.enableXasserts();
+			assert ctx.xasserts && ctx.enableXasserts();
 
-			assert proc.stats.pc_ExecDrivenCycleCount
-					.get() == proc.stats.pc_BandwidthDrivenCycleCount.get();
+			assert proc.stats.get(Stat.pc_ExecutionDrivenCycleCount) == proc.stats
+					.get(Stat.pc_BandwidthDrivenCycleCount);
 
-			double target = proc.stats.pc_ExecDrivenCycleCount.get();
-			double actual = proc.stats.pc_MESIMemSystemExecDrivenCycleCount.get()
-					+ proc.stats.pc_MESICoherenceExecDrivenCycleCount.get();
+			double target = proc.stats.get(Stat.pc_ExecutionDrivenCycleCount);
+			double actual = proc.stats.get(Stat.pc_MESIMemSystemExecDrivenCycleCount)
+					+ proc.stats.get(Stat.pc_MESICoherenceExecDrivenCycleCount);
 			assert target == actual : "Values differ";
 
-			target = proc.stats.pc_OnChipNetworkMessages.get();
-			actual = proc.stats.pc_MESIMemoryOnChipNetworkMessages.get()
-					+ proc.stats.pc_MESICoherenceOnChipNetworkMessages.get();
+			target = proc.stats.get(Stat.pc_OnChipNetworkMessages);
+			actual = proc.stats.get(Stat.pc_MESIMemoryOnChipNetworkMessages)
+					+ proc.stats.get(Stat.pc_MESICoherenceOnChipNetworkMessages);
 			assert target == actual : "Values differ: Target:" + target + " Actual:" + actual;
 
-			target = proc.stats.pc_OnChipNetworkMessageSize16BytesFlits.get();
-			actual = proc.stats.pc_MESIMemoryOnChipNetworkMessageSize16BytesFlits.get()
-					+ proc.stats.pc_MESICoherenceOnChipNetworkMessageSize16BytesFlits.get();
+			target = proc.stats.get(Stat.pc_OnChipNetworkMessageSize16BytesFlits);
+			actual = proc.stats.get(Stat.pc_MESIMemoryOnChipNetworkMessageSize16BytesFlits)
+					+ proc.stats.get(Stat.pc_MESICoherenceOnChipNetworkMessageSize16BytesFlits);
 			assert target == actual : "Values differ: Target:" + target + " Actual:" + actual;
 		}
 
@@ -2365,7 +2330,7 @@ public class Processor<Line extends MESILine> implements CacheCallbacks<Line> {
 		 * Verify that a cache line object is not resident in multiple caches simultaneously.
 		 */
 		void cacheExclusivity() {
-			assert MESISim.XASSERTS && MESISim.enableXasserts();
+			assert ctx.xasserts && ctx.enableXasserts();
 
 			LinkedList<HashSet<Line>> cacheContents = new LinkedList<HashSet<Line>>();
 			final HashSet<Line> set = new HashSet<Line>();
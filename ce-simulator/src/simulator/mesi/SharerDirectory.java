@@ -0,0 +1,97 @@
+package simulator.mesi;
+
+import java.util.Arrays;
+
+/**
+ * The sharer vectors of the directory in the shared LLC: which cores' private caches hold a line,
+ * so that remote reads and writes only probe those cores. A core holds a line while a slot of its
+ * L1 or L2 is tagged with the line's address, whether or not the line there is valid, since CE
+ * also collects the access bits of invalid copies. A set can have several slots with the same
+ * tag, so the slots of each core are counted. Lines that no core holds have no entry.
+ */
+final class SharerDirectory {
+	private static final int MIN_CAPACITY = 16;
+
+	private final int numCores;
+	/** Entry of each line that some core holds */
+	private final LongIntHashMap index = new LongIntHashMap();
+	private long[] lineAddrs;
+	/** Bit c is set if core c holds the line */
+	private long[] sharers;
+	/** Slots tagged with the line, at [entry * numCores + core] */
+	private short[] slots;
+	private int size;
+
+	SharerDirectory(int numCores) {
+		if (numCores > Long.SIZE) {
+			throw new IllegalArgumentException(
+					"The sharer directory supports up to " + Long.SIZE + " cores");
+		}
+		this.numCores = numCores;
+		lineAddrs = new long[MIN_CAPACITY];
+		sharers = new long[MIN_CAPACITY];
+		slots = new short[MIN_CAPACITY * numCores];
+	}
+
+	/** Number of lines that some core holds */
+	int size() {
+		return size;
+	}
+
+	/** The cores that hold the line, one bit per core */
+	long sharers(long lineAddr) {
+		int e = index.get(lineAddr);
+		return (e == LongIntHashMap.NONE) ? 0 : sharers[e];
+	}
+
+	/** Number of private cache slots of the core that are tagged with the line */
+	int slots(int core, long lineAddr) {
+		int e = index.get(lineAddr);
+		return (e == LongIntHashMap.NONE) ? 0 : slots[e * numCores + core];
+	}
+
+	/** A slot of the core's private caches was filled with the line. */
+	void add(int core, long lineAddr) {
+		int e = index.get(lineAddr);
+		if (e == LongIntHashMap.NONE) {
+			if (size == lineAddrs.length) {
+				lineAddrs = Arrays.copyOf(lineAddrs, size * 2);
+				sharers = Arrays.copyOf(sharers, size * 2);
+				slots = Arrays.copyOf(slots, size * 2 * numCores);
+			}
+			e = size++;
+			index.put(lineAddr, e);
+			lineAddrs[e] = lineAddr;
+			sharers[e] = 0;
+			Arrays.fill(slots, e * numCores, (e + 1) * numCores, (short) 0);
+		}
+		int i = e * numCores + core;
+		assert slots[i] < Short.MAX_VALUE;
+		slots[i]++;
+		sharers[e] |= 1L << core;
+	}
+
+	/** The line was evicted from a slot of the core's private caches. */
+	void remove(int core, long lineAddr) {
+		int e = index.get(lineAddr);
+		assert e != LongIntHashMap.NONE : "Line is not in the directory";
+		int i = e * numCores + core;
+		assert slots[i] > 0;
+		if (--slots[i] > 0) {
+			return;
+		}
+		sharers[e] &= ~(1L << core);
+		if (sharers[e] != 0) {
+			return;
+		}
+		// Move the last entry into the hole
+		index.remove(lineAddr);
+		int last = --size;
+		if (e != last) {
+			lineAddrs[e] = lineAddrs[last];
+			sharers[e] = sharers[last];
+			System.arraycopy(slots, last * numCores, slots, e * numCores, numCores);
+			index.put(lineAddrs[e], e);
+		}
+	}
+}
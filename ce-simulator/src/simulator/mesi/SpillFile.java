@@ -0,0 +1,130 @@
+package simulator.mesi;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size records in a memory-mapped file, so that they live outside the Java heap. The first
+ * long of each record is its key, by which the records are indexed. Records are dense and numbered
+ * from 0, and removing one moves the last record into its place. The file is mapped in segments
+ * as it grows, and is deleted on exit.
+ */
+final class SpillFile {
+	private static final int DEFAULT_SEGMENT_BYTES = 1 << 26;
+	private static final int LONG_BYTES = Long.SIZE / Byte.SIZE;
+
+	final int recordBytes;
+	private final int recordsPerSegment;
+	private final int segmentBytes;
+	private final RandomAccessFile file;
+	private final List<MappedByteBuffer> segments = new ArrayList<MappedByteBuffer>();
+	private final LongIntHashMap index = new LongIntHashMap();
+	private int size;
+
+	SpillFile(File dir, String prefix, int recordBytes) {
+		this(dir, prefix, recordBytes, DEFAULT_SEGMENT_BYTES);
+	}
+
+	SpillFile(File dir, String prefix, int recordBytes, int segmentBytes) {
+		if (recordBytes % LONG_BYTES != 0 || recordBytes > segmentBytes) {
+			throw new IllegalArgumentException("Bad record size " + recordBytes);
+		}
+		this.recordBytes = recordBytes;
+		this.recordsPerSegment = segmentBytes / recordBytes;
+		this.segmentBytes = recordsPerSegment * recordBytes;
+		try {
+			File f = File.createTempFile(prefix, ".spill", dir);
+			f.deleteOnExit();
+			file = new RandomAccessFile(f, "rw");
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	/** Bytes of the file mapped so far */
+	long mappedBytes() {
+		return (long) segments.size() * segmentBytes;
+	}
+
+	/** The record with the given key, or LongIntHashMap.NONE */
+	int find(long key) {
+		return index.get(key);
+	}
+
+	/** Append a record for a key that has none, and return it. */
+	int add(long key) {
+		assert find(key) == LongIntHashMap.NONE;
+		int rec = size++;
+		if (rec / recordsPerSegment == segments.size()) {
+			try {
+				// Mapping past the end of the file grows it
+				segments.add(file.getChannel().map(FileChannel.MapMode.READ_WRITE,
+						mappedBytes(), segmentBytes));
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		putLong(rec, 0, key);
+		index.put(key, rec);
+		return rec;
+	}
+
+	void remove(int rec) {
+		assert rec < size;
+		index.remove(getLong(rec, 0));
+		int last = --size;
+		if (rec != last) {
+			for (int offset = 0; offset < recordBytes; offset += LONG_BYTES) {
+				putLong(rec, offset, getLong(last, offset));
+			}
+			index.put(getLong(rec, 0), rec);
+		}
+	}
+
+	long keyOf(int rec) {
+		assert rec < size;
+		return getLong(rec, 0);
+	}
+
+	private MappedByteBuffer segment(int rec) {
+		return segments.get(rec / recordsPerSegment);
+	}
+
+	private int position(int rec, int offset) {
+		assert offset < recordBytes;
+		return (rec % recordsPerSegment) * recordBytes + offset;
+	}
+
+	long getLong(int rec, int offset) {
+		return segment(rec).getLong(position(rec, offset));
+	}
+
+	int getInt(int rec, int offset) {
+		return segment(rec).getInt(position(rec, offset));
+	}
+
+	byte getByte(int rec, int offset) {
+		return segment(rec).get(position(rec, offset));
+	}
+
+	void putLong(int rec, int offset, long value) {
+		segment(rec).putLong(position(rec, offset), value);
+	}
+
+	void putInt(int rec, int offset, int value) {
+		segment(rec).putInt(position(rec, offset), value);
+	}
+
+	void putByte(int rec, int offset, byte value) {
+		segment(rec).put(position(rec, offset), value);
+	}
+}
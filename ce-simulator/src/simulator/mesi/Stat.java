@@ -0,0 +1,194 @@
+package simulator.mesi;
+
+/**
+ * The stats that each processor counts. A processor keeps their values in a bank indexed by
+ * ordinal, and the stats are dumped under their names in the order they are declared here. Flit
+ * stats are not counted, they are worked out from the message sizes of their traffic category
+ * whenever they are read.
+ */
+enum Stat {
+	pc_MESIReadRemoteHits,
+	pc_MESIWriteRemoteHits,
+	pc_MESIUpgradeMisses,
+	// Directory lookups by the LLC, and the remote private caches probed after them
+	pc_MESIDirectoryLookups,
+	pc_MESIRemoteProbes,
+
+	// On-chip traffic that includes core-to-core communication
+	pc_OnChipNetworkMessages,
+	pc_OnChipNetworkMessageSizeBytes,
+	pc_OnChipNetworkMessageSize4BytesFlits(Traffic.ON_CHIP_NETWORK,
+			SystemConstants.BYTES_IN_FLIT_4),
+	pc_OnChipNetworkMessageSize8BytesFlits(Traffic.ON_CHIP_NETWORK,
+			SystemConstants.BYTES_IN_FLIT_8),
+	pc_OnChipNetworkMessageSize16BytesFlits(Traffic.ON_CHIP_NETWORK,
+			SystemConstants.BYTES_IN_FLIT_16),
+	pc_OnChipNetworkMessageSize32BytesFlits(Traffic.ON_CHIP_NETWORK,
+			SystemConstants.BYTES_IN_FLIT_32),
+
+	// Breakdown of on-chip network traffic
+
+	pc_MESIMemoryOnChipNetworkMessages,
+	pc_MESIMemoryOnChipNetworkMessageSizeBytes,
+	pc_MESIMemoryOnChipNetworkMessageSize4BytesFlits(Traffic.MEMORY,
+			SystemConstants.BYTES_IN_FLIT_4),
+	pc_MESIMemoryOnChipNetworkMessageSize8BytesFlits(Traffic.MEMORY,
+			SystemConstants.BYTES_IN_FLIT_8),
+	pc_MESIMemoryOnChipNetworkMessageSize16BytesFlits(Traffic.MEMORY,
+			SystemConstants.BYTES_IN_FLIT_16),
+	pc_MESIMemoryOnChipNetworkMessageSize32BytesFlits(Traffic.MEMORY,
+			SystemConstants.BYTES_IN_FLIT_32),
+
+	pc_MESICoherenceOnChipNetworkMessages,
+	pc_MESICoherenceOnChipNetworkMessageSizeBytes,
+	pc_MESICoherenceOnChipNetworkMessageSize4BytesFlits(Traffic.COHERENCE,
+			SystemConstants.BYTES_IN_FLIT_4),
+	pc_MESICoherenceOnChipNetworkMessageSize8BytesFlits(Traffic.COHERENCE,
+			SystemConstants.BYTES_IN_FLIT_8),
+	pc_MESICoherenceOnChipNetworkMessageSize16BytesFlits(Traffic.COHERENCE,
+			SystemConstants.BYTES_IN_FLIT_16),
+	pc_MESICoherenceOnChipNetworkMessageSize32BytesFlits(Traffic.COHERENCE,
+			SystemConstants.BYTES_IN_FLIT_32),
+
+	pc_RegionBoundaries,
+	pc_RegionsWithWrites,
+
+	pc_potentialWrRdValConflicts,
+
+	pc_PreciseConflicts,
+	pc_ConflictingRegions,
+
+	pc_NumScavenges,
+
+	pc_Data_L1ReadHits,
+	pc_Data_L1ReadMisses,
+	pc_Data_L1WriteHits,
+	pc_Data_L1WriteMisses,
+	pc_Data_L1LineEvictions,
+	pc_Data_L1DirtyLineEvictions,
+	pc_Data_L1AtomicWriteHits,
+	pc_Data_L1AtomicWriteMisses,
+	pc_Data_L1AtomicReadHits,
+	pc_Data_L1AtomicReadMisses,
+	pc_Data_L1LockReadHits,
+	pc_Data_L1LockReadMisses,
+	pc_Data_L1LockWriteHits,
+	pc_Data_L1LockWriteMisses,
+	pc_Data_L2ReadHits,
+	pc_Data_L2ReadMisses,
+	pc_Data_L2WriteHits,
+	pc_Data_L2WriteMisses,
+	pc_Data_L2LineEvictions,
+	pc_Data_L2DirtyLineEvictions,
+	pc_Data_L2AtomicWriteHits,
+	pc_Data_L2AtomicWriteMisses,
+	pc_Data_L2AtomicReadHits,
+	pc_Data_L2AtomicReadMisses,
+	pc_Data_L2LockReadHits,
+	pc_Data_L2LockReadMisses,
+	pc_Data_L2LockWriteHits,
+	pc_Data_L2LockWriteMisses,
+	pc_Data_L3ReadHits,
+	pc_Data_L3ReadMisses,
+	pc_Data_L3WriteHits,
+	pc_Data_L3WriteMisses,
+	pc_Data_L3LineEvictions,
+	pc_Data_L3DirtyLineEvictions,
+	pc_Data_L3AtomicWriteHits,
+	pc_Data_L3AtomicWriteMisses,
+	pc_Data_L3AtomicReadHits,
+	pc_Data_L3AtomicReadMisses,
+	pc_Data_L3LockReadHits,
+	pc_Data_L3LockReadMisses,
+	pc_Data_L3LockWriteHits,
+	pc_Data_L3LockWriteMisses,
+	pc_AIMCacheReadHits,
+	pc_AIMCacheReadMisses,
+	pc_AIMCacheWriteHits,
+	pc_AIMCacheWriteMisses,
+	pc_AIMCacheLineEvictions,
+	pc_AIMCacheDirtyLineEvictions,
+	pc_AIMCacheAtomicWriteHits,
+	pc_AIMCacheAtomicWriteMisses,
+	pc_AIMCacheAtomicReadHits,
+	pc_AIMCacheAtomicReadMisses,
+	pc_AIMCacheLockReadHits,
+	pc_AIMCacheLockReadMisses,
+	pc_AIMCacheLockWriteHits,
+	pc_AIMCacheLockWriteMisses,
+
+	pc_TotalDataReads,
+	pc_TotalDataWrites,
+	pc_TotalMemoryAccesses,
+
+	pc_TotalAtomicReads,
+	pc_TotalAtomicWrites,
+	pc_TotalAtomicAccesses,
+
+	pc_TotalLockReads,
+	pc_TotalLockWrites,
+	pc_TotalLockAccesses,
+
+	pc_ExecutionDrivenCycleCount(Kind.MAX),
+
+	// For MESI, exec driven and bandwidth driven mean the same thing.
+	pc_MESIMemSystemExecDrivenCycleCount(pc_ExecutionDrivenCycleCount),
+	pc_MESICoherenceExecDrivenCycleCount(pc_ExecutionDrivenCycleCount),
+
+	pc_BandwidthDrivenCycleCount(Kind.MAX),
+
+	pc_reqdBWInGBWith4BytesFlits(Kind.MAX),
+	pc_reqdBWInGBWith8BytesFlits(Kind.MAX),
+	pc_reqdBWInGBWith16BytesFlits(Kind.MAX),
+	pc_reqdBWInGBWith32BytesFlits(Kind.MAX),
+
+	pc_DirtyL2Evictions,
+	pc_ModifiedLineFetches;
+
+	/** How the values of the cores are combined into a global value */
+	enum Kind {
+		/** The sum over all cores, dumped as g_ */
+		SUM,
+		/** The maximum over all cores, dumped as max_ */
+		MAX,
+		/** The value of the core with the maximum of the base stat, dumped as dep_ */
+		DEPENDENT
+	}
+
+	/** The categories of network traffic whose message sizes are kept */
+	enum Traffic {
+		ON_CHIP_NETWORK, MEMORY, COHERENCE
+	}
+
+	static final Stat[] ALL = values();
+
+	final Kind kind;
+	/** The max stat that a dependent stat is reported along with */
+	final Stat base;
+	/** The traffic that a flit stat is worked out from, null for a counted stat */
+	final Traffic traffic;
+	final double bytesInFlit;
+
+	private Stat() {
+		this(Kind.SUM, null, null, 0);
+	}
+
+	private Stat(Kind kind) {
+		this(kind, null, null, 0);
+	}
+
+	private Stat(Stat base) {
+		this(Kind.DEPENDENT, base, null, 0);
+	}
+
+	private Stat(Traffic traffic, double bytesInFlit) {
+		this(Kind.SUM, null, traffic, bytesInFlit);
+	}
+
+	private Stat(Kind kind, Stat base, Traffic traffic, double bytesInFlit) {
+		this.kind = kind;
+		this.base = base;
+		this.traffic = traffic;
+		this.bytesInFlit = bytesInFlit;
+	}
+}
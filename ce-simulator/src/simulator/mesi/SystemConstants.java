@@ -161,6 +161,11 @@ abstract class GenericAccess {
 		return addr.lineAddress();
 	}
 
+	/** Like {@link #lineAddress()}, without allocating a LineAddress */
+	long lineAddr() {
+		return addr.get() & ~SystemConstants.LINE_OFFSET_MASK();
+	}
+
 	short lineOffset() {
 		return addr.lineOffset();
 	}
@@ -173,20 +178,29 @@ abstract class GenericAccess {
 }
 
 class DataAccess extends GenericAccess {
-	private int[] siteInfo;
+	private int siteIndex;
+
+	/** An access to be filled in by {@link #reset}, so that one object serves many accesses */
+	DataAccess() {
+		this.baseAddr = new DataByteAddress(0);
+		this.addr = new DataByteAddress(0);
+	}
 
 	DataAccess(MemoryAccessType mtype, ByteAddress addr, final int size, int siteIndex) {
+		this();
+		reset(mtype, addr.get(), size, siteIndex);
+	}
+
+	DataAccess reset(MemoryAccessType mtype, long addr, final int size, int siteIndex) {
 		this.type = mtype;
-		// make defensive copies
-		this.baseAddr = new DataByteAddress(addr.get());
-		this.addr = new DataByteAddress(addr.get());
+		// the address objects are our own, callers never see them change
+		this.baseAddr.set(addr);
+		this.addr.set(addr);
 		this.size = size;
-		this.siteInfo = new int[SystemConstants.LINE_SIZE()];
+		this.siteIndex = siteIndex;
 		// ensure access fits within a cache line
 		assert (lineOffset() + size <= SystemConstants.LINE_SIZE());
-		for (int i = addr.lineOffset(); i < addr.lineOffset() + size; i++) {
-			this.siteInfo[i] = siteIndex;
-		}
+		return this;
 	}
 
 	@Override
@@ -205,7 +219,12 @@ class DataAccess extends GenericAccess {
 		return addr.get() < (baseAddr.get() + size);
 	}
 
+	/** The site of each accessed byte of the line, built on request */
 	public int[] siteInfo() {
+		int[] siteInfo = new int[SystemConstants.LINE_SIZE()];
+		for (int i = lineOffset(); i < lineOffset() + size; i++) {
+			siteInfo[i] = siteIndex;
+		}
 		return siteInfo;
 	}
 
@@ -0,0 +1,39 @@
+package simulator.mesi;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Standalone converter from the raw 43-byte front-end trace to the {@link CompactTrace} format.
+ *
+ * Usage: java simulator.mesi.TraceConverter raw-trace compact-trace
+ */
+public class TraceConverter {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("usage: TraceConverter <raw-trace> <compact-trace>");
+			System.exit(1);
+		}
+
+		long records = 0;
+		TraceDecoder in = new TraceDecoder(TraceReader.open(args[0]), false);
+		CompactTrace.Writer out = new CompactTrace.Writer(args[1]);
+		try {
+			while (true) {
+				int i;
+				try {
+					i = in.advance();
+				} catch (EOFException eof) {
+					break;
+				}
+				out.write(in.batch(), i);
+				records++;
+			}
+		} finally {
+			out.close();
+			in.close();
+		}
+		System.out.println("[converter] wrote " + records + " records to " + args[1]);
+	}
+}
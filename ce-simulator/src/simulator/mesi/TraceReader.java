@@ -0,0 +1,215 @@
+package simulator.mesi;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Source of the big-endian event records written by the Pintool. Every read throws an
+ * EOFException once the trace is exhausted, just like DataInputStream, so the main simulation
+ * loop does not need to know where the events come from.
+ */
+abstract class TraceReader implements Closeable {
+
+	abstract byte readByte() throws IOException;
+
+	abstract short readShort() throws IOException;
+
+	abstract int readInt() throws IOException;
+
+	abstract long readLong() throws IOException;
+
+	/** Return the next byte (0-255) without consuming it, or -1 at the end of the trace. */
+	abstract int peek() throws IOException;
+
+	/** Byte offset of the next unread byte. Only supported for trace files. */
+	abstract long position();
+
+	/** Continue reading at the given byte offset. Only supported for trace files. */
+	abstract void seek(long offset) throws IOException;
+
+	/**
+	 * Regular trace files are memory mapped. Anything else (in practice the named pipe the
+	 * Pintool writes into) is read through a buffered stream.
+	 */
+	static TraceReader open(String fileName) throws IOException {
+		Path path = Paths.get(fileName);
+		if (Files.isRegularFile(path)) {
+			return new MappedTraceReader(fileName);
+		}
+		return new StreamTraceReader(fileName);
+	}
+
+	/** Sequential reader for FIFOs, which cannot be mapped. */
+	static final class StreamTraceReader extends TraceReader {
+		private final DataInputStream in;
+
+		StreamTraceReader(String fileName) throws IOException {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)));
+		}
+
+		@Override
+		byte readByte() throws IOException {
+			return in.readByte();
+		}
+
+		@Override
+		short readShort() throws IOException {
+			return in.readShort();
+		}
+
+		@Override
+		int readInt() throws IOException {
+			return in.readInt();
+		}
+
+		@Override
+		long readLong() throws IOException {
+			return in.readLong();
+		}
+
+		@Override
+		int peek() throws IOException {
+			in.mark(1);
+			int b = in.read();
+			in.reset();
+			return b;
+		}
+
+		@Override
+		long position() {
+			throw new UnsupportedOperationException("Cannot seek in a FIFO");
+		}
+
+		@Override
+		void seek(long offset) {
+			throw new UnsupportedOperationException("Cannot seek in a FIFO");
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+
+	/**
+	 * Reads a trace file through a window mapped with FileChannel.map. A single mapping is
+	 * limited to 2 GB, so larger traces are mapped one chunk at a time; the next chunk starts at
+	 * the first unread byte, so a value never straddles two mappings.
+	 */
+	static final class MappedTraceReader extends TraceReader {
+		static final int CHUNK_SIZE = 1 << 30;
+
+		private final RandomAccessFile file;
+		private final FileChannel channel;
+		private final long fileSize;
+		private final int chunkSize;
+		private MappedByteBuffer buf;
+		/** File offset of the start of the current mapping */
+		private long chunkStart = 0;
+		/** Offset of the next unread byte within the current mapping */
+		private int pos = 0;
+		private int limit = 0;
+
+		MappedTraceReader(String fileName) throws IOException {
+			this(fileName, CHUNK_SIZE);
+		}
+
+		MappedTraceReader(String fileName, int chunkSize) throws IOException {
+			file = new RandomAccessFile(fileName, "r");
+			channel = file.getChannel();
+			fileSize = channel.size();
+			this.chunkSize = chunkSize;
+		}
+
+		/** Make sure the current mapping holds at least {@code n} unread bytes. */
+		private void ensure(int n) throws IOException {
+			if (pos + n <= limit) {
+				return;
+			}
+			long start = chunkStart + pos;
+			if (fileSize - start < n) {
+				throw new EOFException();
+			}
+			int len = (int) Math.min(chunkSize, fileSize - start);
+			buf = channel.map(FileChannel.MapMode.READ_ONLY, start, len);
+			buf.order(ByteOrder.BIG_ENDIAN);
+			chunkStart = start;
+			pos = 0;
+			limit = len;
+		}
+
+		@Override
+		byte readByte() throws IOException {
+			ensure(1);
+			byte b = buf.get(pos);
+			pos += 1;
+			return b;
+		}
+
+		@Override
+		short readShort() throws IOException {
+			ensure(2);
+			short s = buf.getShort(pos);
+			pos += 2;
+			return s;
+		}
+
+		@Override
+		int readInt() throws IOException {
+			ensure(4);
+			int i = buf.getInt(pos);
+			pos += 4;
+			return i;
+		}
+
+		@Override
+		long readLong() throws IOException {
+			ensure(8);
+			long l = buf.getLong(pos);
+			pos += 8;
+			return l;
+		}
+
+		@Override
+		int peek() throws IOException {
+			try {
+				ensure(1);
+			} catch (EOFException eof) {
+				return -1;
+			}
+			return buf.get(pos) & 0xff;
+		}
+
+		@Override
+		long position() {
+			return chunkStart + pos;
+		}
+
+		@Override
+		void seek(long offset) {
+			assert offset >= 0 && offset <= fileSize;
+			// Force a new mapping starting at the offset on the next read
+			chunkStart = offset;
+			pos = 0;
+			limit = 0;
+		}
+
+		@Override
+		public void close() throws IOException {
+			buf = null;
+			channel.close();
+			file.close();
+		}
+	}
+}
@@ -41,8 +41,6 @@ public final class CEMultiAIMTests {
 	static final int L3_CACHE_SIZE = 64;
 
 	static {
-		// This will enable all the assertions like cache inclusivity checks
-		assert MESISim.XASSERTS;
 		SystemConstants.unsafeSetLineSize(LINE_SIZE);
 	}
 
@@ -216,12 +214,12 @@ public final class CEMultiAIMTests {
 		};
 
 		// Not sure how we can override JOpt command line
-		MESISim.Options = Knobs.parser.parse("--xassert=true --assert-period=1");
-		MESISim.setPhase(PARSEC_PHASE.IN_ROI);
-		assertTrue(MESISim.XASSERTS);
-		assertEquals(1, MESISim.Options.valueOf(Knobs.AssertPeriod).intValue());
+		SimContext ctx = new SimContext(Knobs.parser.parse("--xasserts=true", "--assert-period=1"));
+		ctx.setPhase(PARSEC_PHASE.IN_ROI);
+		assertTrue(ctx.xasserts);
+		assertEquals(1, ctx.options.valueOf(Knobs.AssertPeriod).intValue());
 
-		machine = new Machine<MESILine>(params);
+		machine = new Machine<MESILine>(ctx, params);
 		machine.initializeEpochs();
 	}
 
@@ -241,30 +239,30 @@ public final class CEMultiAIMTests {
 		machine.testCacheMemoryRead(P0, 80L, 2);
 		// A LLC miss means we should fetch the line into the AIM. But an LLC miss is not an AIM
 		// miss if there is no metadata.
-		assertEquals(0, proc0.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 		assertFalse(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(80L)).hasAIMMD());
 
 		machine.testCacheMemoryWrite(P1, 80L, 2); // LLC hit, this invalidates the line in P0
-		assertEquals(0, proc1.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		assertFalse(proc1.aimcache.junitGetLine(proc1, new DataLineAddress(80L)).hasAIMMD());
 
 		machine.testCacheMemoryWrite(P1, 96L, 2);
-		assertEquals(0, proc1.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.testCacheMemoryRead(P0, 112L, 2);
-		assertEquals(0, proc0.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 		// 80L is evicted from AIM but has no metadata.
-		assertEquals(0, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// Private caches do not evict any lines
-		assertEquals(0, proc0.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		assertFalse(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(80L)).hasAIMMD());
 		assertFalse(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(112L)).hasAIMMD());
 
 		// This is a private cache hit. So 80L is not brought into the AIM.
 		machine.testCacheMemoryRead(P1, 80L, 2);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_aim.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 
 		// System.out.println(proc0.L1cache);
 		// System.out.println(proc1.L1cache);
@@ -273,16 +271,16 @@ public final class CEMultiAIMTests {
 		// System.out.println(proc0.L1cache);
 		// 80L is not evicted from AIM as 128L is going to a different set. 80L will be evicted
 		// from private caches.
-		assertEquals(0, proc0.stats.pc_aim.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// +1 for fetching, +2 for data + metadata, +1 for return metadata of 112L.
-		assertEquals(0, proc0.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.testCacheMemoryWrite(P0, 64L, 2);
 		// 80L will be evicted from LLC, 80L from the AIM (has metadata). Then 112L will be evicted
 		// from private caches and will hit in the AIM.
-		assertEquals(0, proc0.stats.pc_aim.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// +1 for fetch, +2 for data + metadata, +2 for evicting data and metadata of 80L, +1 for
 		// requesting metadata of 112L and +1 for metadata of 112L
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(112L)).hasAIMMD());
@@ -303,7 +301,7 @@ public final class CEMultiAIMTests {
 
 		// Evict 80L from L3 and AIM
 		machine.testCacheMemoryRead(P0, 112L, 2);
-		assertEquals(1, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(96L)).hasAIMMD());
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(64L)).hasAIMMD());
 		assertFalse(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(48L)).hasAIMMD());
@@ -326,7 +324,7 @@ public final class CEMultiAIMTests {
 
 		// Evict 80L from L3 and AIM
 		machine.testCacheMemoryRead(P0, 112L, 2);
-		assertEquals(1, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(96L)).hasAIMMD());
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(64L)).hasAIMMD());
 		assertFalse(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(48L)).hasAIMMD());
@@ -351,7 +349,7 @@ public final class CEMultiAIMTests {
 
 		// Evict 80L from L3 and AIM
 		machine.testCacheMemoryRead(P0, 112L, 2);
-		assertEquals(1, proc0.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(96L)).hasAIMMD());
 		assertTrue(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(64L)).hasAIMMD());
 		assertFalse(proc0.aimcache.junitGetLine(proc0, new DataLineAddress(48L)).hasAIMMD());
@@ -40,8 +40,6 @@ public final class CEMultiProcessorTests {
 	static final int L3_CACHE_SIZE = 64;
 
 	static {
-		// This will enable all the assertions like cache inclusivity checks
-		assert MESISim.XASSERTS;
 		SystemConstants.unsafeSetLineSize(LINE_SIZE);
 	}
 
@@ -213,13 +211,13 @@ public final class CEMultiProcessorTests {
 				return false;
 			}
 		};
-		machine = new Machine<MESILine>(params);
-
 		// Not sure how we can override JOpt command line
-		MESISim.Options = Knobs.parser.parse("--xassert=true --assert-period=1");
-		MESISim.setPhase(PARSEC_PHASE.IN_ROI);
-		assertTrue(MESISim.XASSERTS);
-		assertEquals(1, MESISim.Options.valueOf(Knobs.AssertPeriod).intValue());
+		SimContext ctx = new SimContext(Knobs.parser.parse("--xasserts=true", "--assert-period=1"));
+		ctx.setPhase(PARSEC_PHASE.IN_ROI);
+		assertTrue(ctx.xasserts);
+		assertEquals(1, ctx.options.valueOf(Knobs.AssertPeriod).intValue());
+
+		machine = new Machine<MESILine>(ctx, params);
 		machine.initializeEpochs();
 	}
 
@@ -236,7 +234,7 @@ public final class CEMultiProcessorTests {
 
 		machine.testCacheMemoryWrite(P0, 64L, 2);
 		machine.testCacheMemoryRead(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -251,7 +249,7 @@ public final class CEMultiProcessorTests {
 		// Line 64L gets evicted from the private caches
 
 		machine.testCacheMemoryRead(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -260,9 +258,9 @@ public final class CEMultiProcessorTests {
 
 		machine.testCacheMemoryWrite(P0, 64L, 2);
 		machine.testCacheMemoryRead(P1, 66L, 2);
-		assertEquals(0, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 		machine.testCacheMemoryRead(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -271,7 +269,7 @@ public final class CEMultiProcessorTests {
 
 		machine.testCacheMemoryWrite(P0, 64L, 2);
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -286,7 +284,7 @@ public final class CEMultiProcessorTests {
 		// Line 64L gets evicted from the private caches
 
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -295,7 +293,7 @@ public final class CEMultiProcessorTests {
 
 		machine.testCacheMemoryRead(P2, 64L, 2);
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -305,7 +303,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryRead(P2, 64L, 2);
 		machine.testCacheMemoryRead(P0, 64L, 2);
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -320,7 +318,7 @@ public final class CEMultiProcessorTests {
 		// Line 64L gets evicted from the private caches
 
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -330,7 +328,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryRead(P2, 64L, 2);
 		machine.processSyncOp(P2, T2, EventType.LOCK_RELEASE, EventType.REG_END);
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(0, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -341,7 +339,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryWrite(P1, 66L, 2);
 		machine.processSyncOp(P2, T2, EventType.LOCK_RELEASE, EventType.REG_END);
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(0, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -352,7 +350,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryRead(P1, 66L, 2);
 		machine.processSyncOp(P2, T2, EventType.LOCK_RELEASE, EventType.REG_END);
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(0, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -364,7 +362,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryWrite(P1, 66L, 2);
 		machine.processSyncOp(P2, T2, EventType.LOCK_RELEASE, EventType.REG_END);
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -377,7 +375,7 @@ public final class CEMultiProcessorTests {
 		machine.processSyncOp(P2, T2, EventType.LOCK_RELEASE, EventType.REG_END);
 		machine.processSyncOp(P3, T3, EventType.LOCK_RELEASE, EventType.REG_END);
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(0, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -388,7 +386,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryRead(P1, 66L, 2);
 		machine.processSyncOp(P2, T2, EventType.LOCK_RELEASE, EventType.REG_END);
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(0, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -403,7 +401,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryRead(P1, 128L, 2);
 
 		machine.testCacheMemoryRead(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -413,7 +411,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryWrite(P0, 64L, 2);
 		machine.testCacheMemoryRead(P2, 66L, 2);
 		machine.testCacheMemoryRead(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -424,7 +422,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryRead(P0, 80L, 2);
 		machine.testCacheMemoryRead(P0, 96L, 2);
 		machine.testCacheMemoryRead(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -439,7 +437,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryRead(P1, 128L, 2);
 
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -454,7 +452,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryRead(P1, 128L, 2);
 
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -471,7 +469,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryRead(P1, 64L, 2);
 
 		machine.testCacheMemoryWrite(P2, 64L, 2);
-		assertEquals(1, proc2.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -489,7 +487,7 @@ public final class CEMultiProcessorTests {
 		machine.processSyncOp(P1, T1, EventType.LOCK_RELEASE, EventType.REG_END);
 
 		machine.testCacheMemoryWrite(P2, 64L, 2);
-		assertEquals(0, proc2.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -509,7 +507,7 @@ public final class CEMultiProcessorTests {
 		machine.processSyncOp(P1, T1, EventType.LOCK_RELEASE, EventType.REG_END);
 
 		machine.testCacheMemoryWrite(P2, 64L, 2);
-		assertEquals(1, proc2.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -526,7 +524,7 @@ public final class CEMultiProcessorTests {
 		machine.testCacheMemoryRead(P1, 64L, 2);
 
 		machine.testCacheMemoryWrite(P2, 64L, 2);
-		assertEquals(1, proc2.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_PreciseConflicts), 0);
 	}
 
 	@Test
@@ -539,11 +537,11 @@ public final class CEMultiProcessorTests {
 		proc0.processSyncOp(T0);
 		machine.testCacheMemoryWrite(P0, 64L, 2);
 		machine.testCacheMemoryWrite(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 		proc1.processSyncOp(T1);
 		machine.testCacheMemoryRead(P2, 64L, 2);
 		// P1 has already executed a region boundary, so its bits are cleared
-		assertEquals(0, proc2.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_PreciseConflicts), 0);
 		machine.printEpochMap();
 	}
 
@@ -557,11 +555,11 @@ public final class CEMultiProcessorTests {
 		proc0.processSyncOp(T0);
 		machine.testCacheMemoryWrite(P0, 64L, 2);
 		machine.testCacheMemoryRead(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_PreciseConflicts), 0);
 		proc1.processSyncOp(T1);
 		machine.testCacheMemoryRead(P2, 64L, 2);
 		// From a correctness perspective, it seems correct to only detect the first conflict
-		assertEquals(0, proc2.stats.pc_PreciseConflicts.get(), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_PreciseConflicts), 0);
 		machine.printEpochMap();
 	}
 
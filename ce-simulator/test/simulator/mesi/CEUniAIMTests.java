@@ -35,8 +35,6 @@ public final class CEUniAIMTests {
 	static final int L3_CACHE_SIZE = 64;
 
 	static {
-		// This will enable all the assertions like cache inclusivity checks
-		assert MESISim.XASSERTS;
 		SystemConstants.unsafeSetLineSize(LINE_SIZE);
 	}
 
@@ -210,12 +208,12 @@ public final class CEUniAIMTests {
 		};
 
 		// Not sure how we can override JOpt command line
-		MESISim.Options = Knobs.parser.parse("--xassert=true --assert-period=1");
-		MESISim.setPhase(PARSEC_PHASE.IN_ROI);
-		assertTrue(MESISim.XASSERTS);
-		assertEquals(1, MESISim.Options.valueOf(Knobs.AssertPeriod).intValue());
+		SimContext ctx = new SimContext(Knobs.parser.parse("--xasserts=true", "--assert-period=1"));
+		ctx.setPhase(PARSEC_PHASE.IN_ROI);
+		assertTrue(ctx.xasserts);
+		assertEquals(1, ctx.options.valueOf(Knobs.AssertPeriod).intValue());
 
-		machine = new Machine<MESILine>(params);
+		machine = new Machine<MESILine>(ctx, params);
 		machine.initializeEpochs();
 	}
 
@@ -235,29 +233,29 @@ public final class CEUniAIMTests {
 		// A LLC miss means we should fetch the line into the AIM. But an LLC miss is not an AIM
 		// miss if it does not have metadata.
 		assertFalse(proc.aimcache.junitGetLine(proc, new DataLineAddress(80L)).hasAIMMD());
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 
 		machine.testCacheMemoryWrite(P0, 80L, 2); // LLC hit
-		assertEquals(0, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 
 		machine.testCacheMemoryWrite(P0, 96L, 2);
-		assertEquals(0, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		// System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 112L, 2);
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 		// Evicts 96L from AIM, then private caches evict 80L, which is written back to the AIM
 		// evicting 96L. Both do not have metadata.
-		assertEquals(0, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// +1 for fetch request, +2 for incoming data + metadata, +1 for first AIM eviction, +1 for
 		// second AIM eviction
-		assertEquals(0, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(80L)).hasAIMMD());
 		assertFalse(proc.aimcache.junitGetLine(proc, new DataLineAddress(112L)).hasAIMMD());
 
 		machine.testCacheMemoryRead(P0, 80L, 2); // This should be a LLC hit and an AIM hit
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// 96L is evicted from the private caches to the AIM, so the AIM line should now have valid
 		// metadata
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(96L)).hasAIMMD());
@@ -266,12 +264,12 @@ public final class CEUniAIMTests {
 		// System.out.println(proc.L1cache);
 		// 96L is not evicted from AIM as 128L is going to a different set. 112L will be evicted
 		// from private caches and will cause 80L to evict from AIM.
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// +1 for fetching, +2 for data + metadata, +1 to request metadata for 112L and +1 for
 		// return metadata of 112L. We are ignoring the cost of 96L. Check with ARC.
 		// 112L misses in the AIM
-		assertEquals(2, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(96L)).hasAIMMD());
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(112L)).hasAIMMD());
 		assertFalse(proc.aimcache.junitGetLine(proc, new DataLineAddress(128L)).hasAIMMD());
@@ -282,8 +280,8 @@ public final class CEUniAIMTests {
 		// 80L will be evicted from LLC and is recalled, 80L is not present in the AIM in the AIM
 		// initially is written back with md. 96L will also be evicted from AIM. Then 64L will be
 		// evicted to accommodate 80L evicted from private caches.
-		assertEquals(3, proc.stats.pc_aim.pc_WriteMisses.get(), 0);
-		assertEquals(3, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_AIMCacheWriteMisses), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		// +1 for fetch, +2 for data + metadata, +2 for evicting data and metadata of 80L, +1 for
 		// metadata of 64L
 	}
@@ -304,14 +302,14 @@ public final class CEUniAIMTests {
 
 		// Evict 80L from LLC
 		machine.testCacheMemoryRead(P0, 128L, 2);
-		assertEquals(1, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 
 		// Now bring in 80L from memory. The AIM md bit in the LLC line should be set. Since
 		// the md bit is set, so therefore this is an AIM miss.
 		machine.testCacheMemoryRead(P0, 80L, 2);
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(80L)).hasAIMMD());
-		assertEquals(1, proc.stats.pc_aim.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_AIMCacheReadMisses), 0);
 	}
 
 	// IMP: AIM associativity is 2 and # lines is 16, and set useAIMCache() to true
@@ -326,7 +324,7 @@ public final class CEUniAIMTests {
 
 		// Evict 80L from L3 and AIM
 		machine.testCacheMemoryRead(P0, 112L, 2);
-		assertEquals(1, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(96L)).hasAIMMD());
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(64L)).hasAIMMD());
 		assertFalse(proc.aimcache.junitGetLine(proc, new DataLineAddress(48L)).hasAIMMD());
@@ -348,7 +346,7 @@ public final class CEUniAIMTests {
 
 		// Evict 80L from L3 and AIM
 		machine.testCacheMemoryRead(P0, 112L, 2);
-		assertEquals(1, proc.stats.pc_aim.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_AIMCacheLineEvictions), 0);
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(96L)).hasAIMMD());
 		assertTrue(proc.aimcache.junitGetLine(proc, new DataLineAddress(64L)).hasAIMMD());
 		assertFalse(proc.aimcache.junitGetLine(proc, new DataLineAddress(48L)).hasAIMMD());
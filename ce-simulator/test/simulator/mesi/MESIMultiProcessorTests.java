@@ -35,8 +35,6 @@ public class MESIMultiProcessorTests {
 	static final int L3_CACHE_SIZE = 64;
 
 	static {
-		// This will enable all the assertions like cache inclusivity checks
-		assert MESISim.XASSERTS;
 		SystemConstants.unsafeSetLineSize(LINE_SIZE);
 	}
 
@@ -201,13 +199,13 @@ public class MESIMultiProcessorTests {
 				return false;
 			}
 		};
-		machine = new Machine<MESILine>(params);
-
 		// Not sure how we can override JOpt command line
-		MESISim.Options = Knobs.parser.parse("--xassert=true --assert-period=1");
-		MESISim.setPhase(PARSEC_PHASE.IN_ROI);
-		assertTrue(MESISim.XASSERTS);
-		assertEquals(1, MESISim.Options.valueOf(Knobs.AssertPeriod).intValue());
+		SimContext ctx = new SimContext(Knobs.parser.parse("--xasserts=true", "--assert-period=1"));
+		ctx.setPhase(PARSEC_PHASE.IN_ROI);
+		assertTrue(ctx.xasserts);
+		assertEquals(1, ctx.options.valueOf(Knobs.AssertPeriod).intValue());
+
+		machine = new Machine<MESILine>(ctx, params);
 	}
 
 	/**
@@ -223,45 +221,45 @@ public class MESIMultiProcessorTests {
 		Processor<MESILine> proc1 = machine.getProc(P1);
 
 		machine.testCacheMemoryRead(P0, 80L, 2);
-		assertEquals(0, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		machine.testCacheMemoryRead(P0, 82L, 2); // same line
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P1, 64L, 2);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		machine.testCacheMemoryRead(P1, 72L, 2);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		machine.testCacheMemoryRead(P1, 80L, 2); // LLC hit, need to evict from private L1 cache
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryRead(P0, 80L, 2); // LLC hit, no need to evict from private L1 cache
-		assertEquals(2, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		System.out.println(proc0.L1cache);
 	}
 
@@ -271,70 +269,70 @@ public class MESIMultiProcessorTests {
 		Processor<MESILine> proc1 = machine.getProc(P1);
 
 		machine.testCacheMemoryWrite(P0, 80L, 2);
-		assertEquals(0, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		// System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 64L, 2);
-		assertEquals(0, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		// System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 82L, 2);
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		// System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryWrite(P1, 72L, 2);
-		assertEquals(0, proc1.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		// System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryWrite(P1, 88L, 2);
-		assertEquals(0, proc1.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		// System.out.println(proc0.L1cache);
 		// System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryWrite(P1, 80L, 2);
-		assertEquals(0, proc1.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 
 		// 72 is evicted from p1's private cache, but it is marked as valid in the LLC. So this
 		// access should be a hit in the LLC.
 		machine.testCacheMemoryWrite(P0, 72L, 2);
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 	}
 
@@ -346,34 +344,34 @@ public class MESIMultiProcessorTests {
 
 		// bring 0d into the cache
 		machine.testCacheMemoryRead(P0, 0, 1);
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
 		System.out.println(proc0.L1cache);
 
 		// fetch 16d and 32d which map to set 0; this evicts 0d to the L3
 		for (int i = 1; i <= L1_ASSOC; i++) {
 			machine.testCacheMemoryRead(P0, L1_CACHE_SIZE * i, 1);
-			assertEquals(1 + i, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
+			assertEquals(1 + i, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
 		}
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
 
 		// fetch 0d again, from the L3. This is a miss since the LLC line was invalidated when
 		// evicting the
 		// private L1 line.
 		machine.testCacheMemoryRead(P1, 0, 1);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryRead(P2, 0, 1);
-		assertEquals(0, proc2.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc2.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc2.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc2.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc2.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc2.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 	}
 
 	@Test
@@ -383,39 +381,39 @@ public class MESIMultiProcessorTests {
 
 		// this crosses a line boundary
 		machine.testCacheMemoryRead(P0, 0, 8);
-		assertEquals(0, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P0, 8, 4);
-		assertEquals(0, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P1, 2, 2);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryRead(P1, 6, 4);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(3, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(3, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc1.L1cache);
 	}
 
@@ -426,39 +424,39 @@ public class MESIMultiProcessorTests {
 
 		// this crosses a line boundary
 		machine.testCacheMemoryWrite(P0, 0, 8);
-		assertEquals(0, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 8, 4);
-		assertEquals(0, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryWrite(P1, 2, 2);
-		assertEquals(0, proc1.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryWrite(P1, 6, 4);
-		assertEquals(0, proc1.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(3, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(3, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc1.L1cache);
 	}
 
@@ -469,16 +467,16 @@ public class MESIMultiProcessorTests {
 		Processor<MESILine> proc2 = machine.getProc(P2);
 
 		machine.testCacheMemoryRead(P0, 4L, 2);
-		assertEquals(1, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		// System.out.println(proc0.L1cache);
 
 		// This is a hit in the shared cache
 		machine.testCacheMemoryWrite(P1, 4L, 2);
-		assertEquals(1, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc1.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
 		// System.out.println(proc0.L1cache);
 		// System.out.println(proc1.L1cache);
 		MESILine llcLine = proc1.L3cache.getLine(new DataLineAddress(4L));
@@ -496,12 +494,12 @@ public class MESIMultiProcessorTests {
 		//// System.out.println(proc2.L1cache);
 
 		machine.testCacheMemoryRead(P0, 4, 2);
-		assertEquals(0, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 		System.out.println(proc2.L1cache);
@@ -515,30 +513,30 @@ public class MESIMultiProcessorTests {
 		Processor<MESILine> proc3 = machine.getProc(P3);
 
 		machine.testCacheMemoryWrite(P0, 4, 2);
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
 		// System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P1, 4, 2);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc1.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
 		// System.out.println(proc0.L1cache);
 		// System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryRead(P2, 4, 2);
-		assertEquals(1, proc2.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc2.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc2.stats.pc_l3d.pc_ReadHits.get(), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L3ReadHits), 0);
 		// System.out.println(proc0.L1cache);
 		// System.out.println(proc1.L1cache);
 		// System.out.println(proc2.L1cache);
 
 		machine.testCacheMemoryWrite(P3, 4, 2);
-		assertEquals(1, proc3.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc3.stats.pc_l2d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc3.stats.pc_l3d.pc_WriteHits.get(), 0);
+		assertEquals(1, proc3.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc3.stats.get(Stat.pc_Data_L2WriteMisses), 0);
+		assertEquals(1, proc3.stats.get(Stat.pc_Data_L3WriteHits), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 		System.out.println(proc2.L1cache);
@@ -552,42 +550,42 @@ public class MESIMultiProcessorTests {
 
 		machine.testCacheMemoryRead(P0, 44, 2);
 		machine.testCacheMemoryRead(P0, 12, 2);
-		assertEquals(0, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		// System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P1, 44, 2);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		// System.out.println(proc0.L1cache);
 		// System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryRead(P1, 12, 2);
-		assertEquals(0, proc1.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc1.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(2, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		// System.out.println(proc0.L1cache);
 		// System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryRead(P0, 76, 2);
-		assertEquals(0, proc0.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc0.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(3, proc0.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 		// An L1 line 44 is evicted, but the line is marked as invalid in the LLC.
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 
@@ -611,46 +609,46 @@ public class MESIMultiProcessorTests {
 		Processor<MESILine> proc2 = machine.getProc(P2);
 
 		machine.testCacheMemoryWrite(P0, 40, 2);
-		assertEquals(0, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(1, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryWrite(P1, 56, 2);
-		assertEquals(0, proc1.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryWrite(P0, 72, 2);
-		assertEquals(0, proc0.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc0.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc0.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc0.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc0.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryWrite(P1, 88, 2);
-		assertEquals(0, proc1.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc1.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc1.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc1.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryWrite(P2, 104, 2);
-		assertEquals(0, proc2.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc2.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc2.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc2.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc2.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc2.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(1, proc2.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc2.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 		System.out.println(proc2.L1cache);
@@ -663,7 +661,7 @@ public class MESIMultiProcessorTests {
 
 		machine.testCacheMemoryRead(P0, 0, 2);
 		machine.testCacheMemoryWrite(P1, 2, 2);
-		assertEquals(1, proc1.stats.pc_MESIWriteRemoteHits.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_MESIWriteRemoteHits), 0);
 	}
 
 	@Test
@@ -673,7 +671,7 @@ public class MESIMultiProcessorTests {
 		machine.testCacheMemoryRead(P0, 0, 2);
 		machine.testCacheMemoryRead(P1, 1, 2);
 		machine.testCacheMemoryWrite(P2, 2, 2);
-		assertEquals(2, proc2.stats.pc_MESIWriteRemoteHits.get(), 0);
+		assertEquals(2, proc2.stats.get(Stat.pc_MESIWriteRemoteHits), 0);
 	}
 
 	@Test
@@ -683,10 +681,10 @@ public class MESIMultiProcessorTests {
 
 		machine.testCacheMemoryRead(P0, 0, 2);
 		machine.testCacheMemoryWrite(P1, 1, 2);
-		assertEquals(1, proc1.stats.pc_MESIWriteRemoteHits.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_MESIWriteRemoteHits), 0);
 		machine.testCacheMemoryRead(P0, 1, 2);
 		machine.testCacheMemoryWrite(P2, 2, 2);
-		assertEquals(2, proc2.stats.pc_MESIWriteRemoteHits.get(), 0);
+		assertEquals(2, proc2.stats.get(Stat.pc_MESIWriteRemoteHits), 0);
 	}
 
 	@Test
@@ -695,10 +693,10 @@ public class MESIMultiProcessorTests {
 
 		machine.testCacheMemoryRead(P0, 0, 2);
 		machine.testCacheMemoryWrite(P1, 1, 2);
-		assertEquals(1, proc1.stats.pc_MESIWriteRemoteHits.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_MESIWriteRemoteHits), 0);
 		machine.testCacheMemoryRead(P0, 1, 2);
 		machine.testCacheMemoryWrite(P1, 2, 2);
-		assertEquals(2, proc1.stats.pc_MESIWriteRemoteHits.get(), 0);
+		assertEquals(2, proc1.stats.get(Stat.pc_MESIWriteRemoteHits), 0);
 	}
 
 	@Test
@@ -709,8 +707,8 @@ public class MESIMultiProcessorTests {
 		machine.testCacheMemoryRead(P0, 8, 2);
 		machine.testCacheMemoryRead(P0, 16, 2);
 		machine.testCacheMemoryWrite(P1, 0, 2);
-		assertEquals(1, proc1.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_MESIWriteRemoteHits.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_MESIWriteRemoteHits), 0);
 	}
 
 	@Test
@@ -720,9 +718,9 @@ public class MESIMultiProcessorTests {
 		machine.testCacheMemoryRead(P0, 0, 2);
 		machine.testCacheMemoryRead(P1, 0, 2);
 		machine.testCacheMemoryRead(P1, 0, 2);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(0, proc1.stats.pc_MESIWriteRemoteHits.get(), 0);
-		assertEquals(1, proc1.stats.pc_MESIReadRemoteHits.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(0, proc1.stats.get(Stat.pc_MESIWriteRemoteHits), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_MESIReadRemoteHits), 0);
 	}
 
 	@Test
@@ -737,7 +735,7 @@ public class MESIMultiProcessorTests {
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P1, 64L, 2);
-		assertEquals(1, proc1.stats.pc_l3d.pc_ReadHits.get(), 0);
+		assertEquals(1, proc1.stats.get(Stat.pc_Data_L3ReadHits), 0);
 		machine.testCacheMemoryWrite(P1, 112L, 2);
 		System.out.println(proc1.L1cache);
 
@@ -752,19 +750,19 @@ public class MESIMultiProcessorTests {
 		Processor<MESILine> proc2 = machine.getProc(P2);
 
 		machine.testCacheMemoryRead(P0, 64L, 2);
-		assertEquals(4, proc0.stats.pc_OnChipNetworkMessages.get(), 0);
+		assertEquals(4, proc0.stats.get(Stat.pc_OnChipNetworkMessages), 0);
 		System.out.println(proc0.L1cache);
 
 		machine.testCacheMemoryRead(P1, 64L, 2);
-		assertEquals(4, proc0.stats.pc_OnChipNetworkMessages.get(), 0);
-		assertEquals(4, proc1.stats.pc_OnChipNetworkMessages.get(), 0);
+		assertEquals(4, proc0.stats.get(Stat.pc_OnChipNetworkMessages), 0);
+		assertEquals(4, proc1.stats.get(Stat.pc_OnChipNetworkMessages), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 
 		machine.testCacheMemoryRead(P2, 64L, 2);
-		assertEquals(4, proc0.stats.pc_OnChipNetworkMessages.get(), 0);
-		assertEquals(4, proc1.stats.pc_OnChipNetworkMessages.get(), 0);
-		assertEquals(2, proc2.stats.pc_OnChipNetworkMessages.get(), 0);
+		assertEquals(4, proc0.stats.get(Stat.pc_OnChipNetworkMessages), 0);
+		assertEquals(4, proc1.stats.get(Stat.pc_OnChipNetworkMessages), 0);
+		assertEquals(2, proc2.stats.get(Stat.pc_OnChipNetworkMessages), 0);
 		System.out.println(proc0.L1cache);
 		System.out.println(proc1.L1cache);
 		System.out.println(proc2.L1cache);
@@ -779,14 +777,14 @@ public class MESIMultiProcessorTests {
 		MESILine llcLine = proc1.L3cache.getLine(new DataLineAddress(64L));
 		assert llcLine.getState() == MESIState.MESI_MODIFIED;
 		// One flit for GetM, and five flits for return data + control message
-		assertEquals(12, proc1.stats.pc_OnChipNetworkMessageSize16BytesFlits.get(), 0);
+		assertEquals(12, proc1.stats.get(Stat.pc_OnChipNetworkMessageSize16BytesFlits), 0);
 
 		machine.testCacheMemoryRead(P0, 64L, 2);
 		llcLine = proc0.L3cache.getLine(new DataLineAddress(64L));
 		assert llcLine.getState() == MESIState.MESI_SHARED;
 		MESILine privLine = proc1.L1cache.getLine(llcLine);
 		assert privLine.getState() == MESIState.MESI_SHARED;
-		assertEquals(12, proc0.stats.pc_OnChipNetworkMessageSize16BytesFlits.get(), 0);
+		assertEquals(12, proc0.stats.get(Stat.pc_OnChipNetworkMessageSize16BytesFlits), 0);
 	}
 
 	@Test
@@ -902,7 +900,7 @@ public class MESIMultiProcessorTests {
 
 		machine.testCacheMemoryRead(P0, 64L, 2);
 		// One GetS flit + 5 flits for data
-		assertEquals(12, proc0.stats.pc_OnChipNetworkMessageSize16BytesFlits.get(), 0);
+		assertEquals(12, proc0.stats.get(Stat.pc_OnChipNetworkMessageSize16BytesFlits), 0);
 		machine.testCacheMemoryRead(P1, 64L, 2);
 		MESILine privLine = proc0.L1cache.getLine(new DataLineAddress(64L));
 		assert privLine.getState() == MESIState.MESI_SHARED;
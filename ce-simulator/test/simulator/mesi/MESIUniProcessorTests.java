@@ -33,8 +33,6 @@ public class MESIUniProcessorTests {
 	static final int L3_CACHE_SIZE = 64;
 
 	static {
-		// This will enable all the assertions like cache inclusivity checks
-		assert MESISim.XASSERTS;
 		SystemConstants.unsafeSetLineSize(LINE_SIZE);
 	}
 
@@ -199,13 +197,13 @@ public class MESIUniProcessorTests {
 				return false;
 			}
 		};
-		machine = new Machine<MESILine>(params);
-
 		// Not sure how we can override JOpt command line
-		MESISim.Options = Knobs.parser.parse("--xassert=true --assert-period=1");
-		MESISim.setPhase(PARSEC_PHASE.IN_ROI);
-		assertTrue(MESISim.XASSERTS);
-		assertEquals(1, MESISim.Options.valueOf(Knobs.AssertPeriod).intValue());
+		SimContext ctx = new SimContext(Knobs.parser.parse("--xasserts=true", "--assert-period=1"));
+		ctx.setPhase(PARSEC_PHASE.IN_ROI);
+		assertTrue(ctx.xasserts);
+		assertEquals(1, ctx.options.valueOf(Knobs.AssertPeriod).intValue());
+
+		machine = new Machine<MESILine>(ctx, params);
 	}
 
 	/**
@@ -222,35 +220,35 @@ public class MESIUniProcessorTests {
 		// Miss in L1 cache, miss in LLC
 		machine.testCacheMemoryRead(P0, 80L, 2);
 		machine.testCacheMemoryRead(P0, 64L, 2);
-		assertEquals(2, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(2, proc.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 
 		// Hit in L1 cache, no need to go to the LLC
 		machine.testCacheMemoryRead(P0, 82L, 2);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(2, proc.stats.pc_l2d.pc_ReadMisses.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L2ReadMisses), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
 
 		// Miss in L1 cache, miss in LLC
 		machine.testCacheMemoryRead(P0, 72L, 2);
 		machine.testCacheMemoryRead(P0, 84L, 2);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(4, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(4, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		// Miss in L1 cache, miss in LLC
 		machine.testCacheMemoryRead(P0, 88L, 2);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(5, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(5, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(5, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(5, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 	}
 
@@ -259,60 +257,60 @@ public class MESIUniProcessorTests {
 		Processor<MESILine> proc = machine.getProc(P0);
 
 		machine.testCacheMemoryWrite(P0, 80L, 2);
-		assertEquals(0, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(1, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryWrite(P0, 64L, 2);
-		assertEquals(0, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryWrite(P0, 82L, 2);
-		assertEquals(1, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryWrite(P0, 72L, 2);
-		assertEquals(1, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryWrite(P0, 84L, 2);
-		assertEquals(1, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(4, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(4, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryWrite(P0, 86L, 2);
-		assertEquals(2, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(4, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(4, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 
 		machine.testCacheMemoryWrite(P0, 88L, 2);
-		assertEquals(2, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(5, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(1, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(5, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(5, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(5, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 	}
 
 	@Test
@@ -321,13 +319,13 @@ public class MESIUniProcessorTests {
 
 		// bring 0d into the cache
 		machine.testCacheMemoryRead(P0, 0, 1);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
 		System.out.println(proc.L1cache);
 
 		// fetch 16d and 32d which map to set 0; this evicts 0d to the L3
 		for (int i = 1; i <= L1_ASSOC; i++) {
 			machine.testCacheMemoryRead(P0, L1_CACHE_SIZE * i, 1);
-			assertEquals(1 + i, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
+			assertEquals(1 + i, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
 		}
 		System.out.println(proc.L1cache);
 
@@ -335,7 +333,7 @@ public class MESIUniProcessorTests {
 		// evicting the
 		// private L1 line.
 		machine.testCacheMemoryRead(P0, 0, 1);
-		assertEquals(1, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
 		System.out.println(proc.L1cache);
 	}
 
@@ -345,39 +343,39 @@ public class MESIUniProcessorTests {
 
 		// this crosses a line boundary
 		machine.testCacheMemoryRead(P0, 0, 8);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 8, 4);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 2, 2);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 6, 4);
-		assertEquals(3, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 	}
 
@@ -387,39 +385,39 @@ public class MESIUniProcessorTests {
 
 		// this crosses a data line boundary, so it definitely crosses a md line boundary
 		machine.testCacheMemoryWrite(P0, 0, 8);
-		assertEquals(0, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 8, 4);
-		assertEquals(0, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 2, 2);
-		assertEquals(1, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryWrite(P0, 6, 4);
-		assertEquals(3, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 	}
 
@@ -428,22 +426,22 @@ public class MESIUniProcessorTests {
 		Processor<MESILine> proc = machine.getProc(P0);
 
 		machine.testCacheMemoryRead(P0, 4, 2);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		// This is a hit in the private cache
 		machine.testCacheMemoryWrite(P0, 4, 2);
-		assertEquals(1, proc.stats.pc_l1d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteHits.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_WriteMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1WriteHits), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteHits), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3WriteMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 	}
 
@@ -452,50 +450,50 @@ public class MESIUniProcessorTests {
 		Processor<MESILine> proc = machine.getProc(P0);
 
 		machine.testCacheMemoryRead(P0, 44, 2);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(1, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 12, 2);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(2, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 28, 2); // 44L is evicted from L1/L2, but is
 												// valid/MESI_INVALID in LLC
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(3, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(3, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 60, 2); // 44L and 12L are evicted from L1/L2, but are
 												// valid/MESI_INVALID in LLC
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(4, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(4, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(4, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 
 		machine.testCacheMemoryRead(P0, 76, 2);
-		assertEquals(0, proc.stats.pc_l1d.pc_ReadHits.get(), 0);
-		assertEquals(5, proc.stats.pc_l1d.pc_ReadMisses.get(), 0);
-		assertEquals(0, proc.stats.pc_l1d.pc_LineEvictions.get(), 0);
-		assertEquals(0, proc.stats.pc_l3d.pc_ReadHits.get(), 0);
-		assertEquals(5, proc.stats.pc_l3d.pc_ReadMisses.get(), 0);
-		assertEquals(1, proc.stats.pc_l3d.pc_LineEvictions.get(), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1ReadHits), 0);
+		assertEquals(5, proc.stats.get(Stat.pc_Data_L1ReadMisses), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L1LineEvictions), 0);
+		assertEquals(0, proc.stats.get(Stat.pc_Data_L3ReadHits), 0);
+		assertEquals(5, proc.stats.get(Stat.pc_Data_L3ReadMisses), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_Data_L3LineEvictions), 0);
 		System.out.println(proc.L1cache);
 	}
 
@@ -515,10 +513,10 @@ public class MESIUniProcessorTests {
 		Processor<MESILine> proc = machine.getProc(P0);
 		proc.updateTrafficForOneNetworkMessage(1, SystemConstants.CONTROL_MESSAGE_SIZE_BYTES, true,
 				false);
-		assertEquals(2, proc.stats.pc_OnChipNetworkMessageSize4BytesFlits.get(), 0);
-		assertEquals(1, proc.stats.pc_OnChipNetworkMessageSize8BytesFlits.get(), 0);
-		assertEquals(1, proc.stats.pc_OnChipNetworkMessageSize16BytesFlits.get(), 0);
-		assertEquals(1, proc.stats.pc_OnChipNetworkMessageSize32BytesFlits.get(), 0);
+		assertEquals(2, proc.stats.get(Stat.pc_OnChipNetworkMessageSize4BytesFlits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_OnChipNetworkMessageSize8BytesFlits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_OnChipNetworkMessageSize16BytesFlits), 0);
+		assertEquals(1, proc.stats.get(Stat.pc_OnChipNetworkMessageSize32BytesFlits), 0);
 	}
 
 	/** A dirty line is marked INVALID in the LLC and then evicted. */
@@ -540,7 +538,7 @@ public class MESIUniProcessorTests {
 		assert privLine.getState() == MESIState.MESI_EXCLUSIVE;
 		MESILine llcLine = proc.L3cache.getLine(new DataLineAddress(64L));
 		assert llcLine.getState() == MESIState.MESI_EXCLUSIVE;
-		assertEquals(12, proc.stats.pc_OnChipNetworkMessageSize16BytesFlits.get(), 0);
+		assertEquals(12, proc.stats.get(Stat.pc_OnChipNetworkMessageSize16BytesFlits), 0);
 	}
 
 	@Test
@@ -552,7 +550,7 @@ public class MESIUniProcessorTests {
 		assert privLine.getState() == MESIState.MESI_MODIFIED;
 		MESILine llcLine = proc.L3cache.getLine(new DataLineAddress(64L));
 		assert llcLine.getState() == MESIState.MESI_MODIFIED;
-		assertEquals(12, proc.stats.pc_OnChipNetworkMessageSize16BytesFlits.get(), 0);
+		assertEquals(12, proc.stats.get(Stat.pc_OnChipNetworkMessageSize16BytesFlits), 0);
 	}
 
 }